@@ -0,0 +1,146 @@
+#!/bin/bash
+
+# Startup Benchmark Script
+# Measures time-to-first-request and resident memory (RSS) of the backend in three modes:
+#   jvm    - plain executable JAR
+#   cds    - exploded JAR with an AppCDS archive created by a training run
+#   native - GraalVM native image built with: mvn -Pnative -DskipTests native:compile
+#
+# Time-to-first-request is measured from process launch until GET /api/health answers 200.
+# RSS is read right after that first response. The database configured through the usual
+# environment variables (DB_URL, DB_USERNAME, DB_PASSWORD, SPRING_PROFILES_ACTIVE) must be running.
+#
+# Usage: ./scripts/startup-benchmark.sh [runs] [modes...]
+# Example: ./scripts/startup-benchmark.sh 5 jvm cds
+
+set -e  # Exit on error
+
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+shift || true
+MODES=${*:-jvm cds native}
+
+PORT=${BENCH_PORT:-8089}
+TIMEOUT_SECONDS=${BENCH_TIMEOUT:-180}
+JAR=target/expense-management-system-1.0.0.jar
+NATIVE_IMAGE=target/expense-management-native
+CDS_DIR=target/cds
+MAIN_CLASS=com.expense.ExpenseManagementApplication
+
+# Color codes for output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+NC='\033[0m' # No Color
+
+print_success() {
+    echo -e "${GREEN}✓ $1${NC}"
+}
+
+print_error() {
+    echo -e "${RED}✗ $1${NC}"
+}
+
+now_ms() {
+    date +%s%3N
+}
+
+# Classpath of the exploded JAR; must be identical for the training run and the measured runs
+cds_classpath() {
+    echo "BOOT-INF/classes:$(ls BOOT-INF/lib/*.jar | tr '\n' ':' | sed 's/:$//')"
+}
+
+prepare_cds() {
+    if [ -f "$CDS_DIR/app.jsa" ] && [ "$CDS_DIR/app.jsa" -nt "$JAR" ]; then
+        return
+    fi
+    echo "Creating AppCDS archive (training run)..."
+    rm -rf "$CDS_DIR"
+    mkdir -p "$CDS_DIR"
+    (cd "$CDS_DIR" && unzip -q "../../$JAR" \
+        && java -XX:ArchiveClassesAtExit=app.jsa -Dspring.context.exit=onRefresh \
+            -cp "$(cds_classpath)" "$MAIN_CLASS" --server.port="$PORT" > training.log 2>&1)
+    print_success "AppCDS archive created: $CDS_DIR/app.jsa"
+}
+
+check_mode() {
+    case "$1" in
+        jvm|cds)
+            [ -f "$JAR" ] || { print_error "$JAR not found, run: mvn clean package -DskipTests"; return 1; } ;;
+        native)
+            [ -x "$NATIVE_IMAGE" ] || { print_error "$NATIVE_IMAGE not found, run: mvn -Pnative -DskipTests native:compile"; return 1; } ;;
+        *)
+            print_error "Unknown mode: $1 (expected jvm, cds or native)"; return 1 ;;
+    esac
+}
+
+# Start the application in the given mode in the background and echo its PID
+launch() {
+    case "$1" in
+        jvm)
+            java -jar "$JAR" --server.port="$PORT" > target/benchmark-jvm.log 2>&1 &
+            ;;
+        cds)
+            (cd "$CDS_DIR" && exec java -XX:SharedArchiveFile=app.jsa -Xshare:auto \
+                -cp "$(cds_classpath)" "$MAIN_CLASS" --server.port="$PORT") > target/benchmark-cds.log 2>&1 &
+            ;;
+        native)
+            "$NATIVE_IMAGE" --server.port="$PORT" > target/benchmark-native.log 2>&1 &
+            ;;
+    esac
+    echo $!
+}
+
+# Run one measurement; prints "<time-to-first-request ms> <rss MB>"
+measure() {
+    local mode=$1
+    local start pid deadline elapsed rss_kb
+    start=$(now_ms)
+    pid=$(launch "$mode")
+    deadline=$((start + TIMEOUT_SECONDS * 1000))
+
+    until curl -fs -o /dev/null "http://localhost:$PORT/api/health"; do
+        if ! kill -0 "$pid" 2>/dev/null || [ "$(now_ms)" -gt "$deadline" ]; then
+            kill "$pid" 2>/dev/null || true
+            print_error "$mode did not serve a request, see target/benchmark-$mode.log" >&2
+            return 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( $(now_ms) - start ))
+    rss_kb=$(ps -o rss= -p "$pid" | tr -d ' ')
+
+    # The process was started in a subshell, so poll instead of wait before reusing the port
+    kill "$pid"
+    while kill -0 "$pid" 2>/dev/null; do
+        sleep 0.05
+    done
+    echo "$elapsed $((rss_kb / 1024))"
+}
+
+echo "=========================================="
+echo "Startup Benchmark ($RUNS runs per mode)"
+echo "=========================================="
+echo ""
+
+RESULTS=""
+for mode in $MODES; do
+    check_mode "$mode" || continue
+    [ "$mode" = "cds" ] && prepare_cds
+
+    for run in $(seq 1 "$RUNS"); do
+        result=$(measure "$mode") || continue
+        echo "$mode run $run: time-to-first-request ${result% *} ms, RSS ${result#* } MB"
+        RESULTS="$RESULTS$mode $result"$'\n'
+    done
+done
+
+echo ""
+printf "%-8s %6s %12s %12s %10s\n" "mode" "runs" "ttfr avg ms" "ttfr min ms" "RSS avg MB"
+echo "$RESULTS" | awk 'NF == 3 {
+        n[$1]++; sum[$1] += $2; rss[$1] += $3
+        if (!($1 in min) || $2 < min[$1]) min[$1] = $2
+    }
+    END {
+        for (m in n) printf "%-8s %6d %12d %12d %10d\n", m, n[m], sum[m] / n[m], min[m], rss[m] / n[m]
+    }'
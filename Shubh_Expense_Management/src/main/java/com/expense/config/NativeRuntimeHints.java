@@ -0,0 +1,79 @@
+package com.expense.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Reflection hints for the GraalVM native image (see the {@code native} Maven profile).
+ * Spring AOT derives most hints itself; this covers what it cannot see:
+ * <ul>
+ *   <li>DTOs, events and entities: Jackson serializes Lombok-generated accessors of types that are
+ *       not controller signatures (nested report types, SSE payloads, map rows), and Hibernate
+ *       accesses entity fields and lifecycle callbacks reflectively.</li>
+ *   <li>jjwt: the API module instantiates its implementation classes by name.</li>
+ * </ul>
+ * Hints are only evaluated during the AOT build; they have no effect on a regular JVM run.
+ */
+@Configuration
+@ImportRuntimeHints(NativeRuntimeHints.class)
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String[] REFLECTIVE_PACKAGES = {
+            "com.expense.dto",
+            "com.expense.event",
+            "com.expense.model"
+    };
+
+    private static final String[] JJWT_TYPES = {
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        MemberCategory[] beanAccess = {
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_DECLARED_METHODS,
+                MemberCategory.DECLARED_FIELDS
+        };
+
+        // Every class in the DTO, event and entity packages, including nested and enum types
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                return beanDefinition.getMetadata().isIndependent();
+            }
+        };
+        scanner.addIncludeFilter((metadataReader, metadataReaderFactory) -> true);
+        for (String basePackage : REFLECTIVE_PACKAGES) {
+            for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+                hints.reflection().registerType(ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader),
+                        beanAccess);
+            }
+        }
+
+        for (String type : JJWT_TYPES) {
+            hints.reflection().registerTypeIfPresent(classLoader, type,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+
+        hints.resources().registerPattern("db/migration/*.sql");
+    }
+}
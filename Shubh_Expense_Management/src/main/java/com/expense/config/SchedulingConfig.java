@@ -0,0 +1,16 @@
+package com.expense.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled background jobs such as the outbox relay and the upload cleanup.
+ * One-shot tool profiles (datagen, query-audit) set {@code scheduling.enabled=false}, so no
+ * scheduler thread keeps the JVM alive after their runner finishes.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -1,9 +1,13 @@
 package com.expense.config;
 
+import com.expense.logging.RequestSummaryFilter;
+import com.expense.security.ConcurrencyLimitFilter;
 import com.expense.security.CustomUserDetailsService;
 import com.expense.security.JwtAuthenticationEntryPoint;
 import com.expense.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -38,6 +42,8 @@ public class SecurityConfig {
     private final CustomUserDetailsService customUserDetailsService;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
+    private final RequestSummaryFilter requestSummaryFilter;
     
     /**
      * Configure security filter chain.
@@ -56,21 +62,43 @@ public class SecurityConfig {
                 .sessionManagement(session -> 
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches complete streams (SSE) whose request was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/health").permitAll()
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                         .requestMatchers("/api/expenses/pending").hasRole("MANAGER")
+                        .requestMatchers("/api/expenses/pending/stream").hasRole("MANAGER")
                         .requestMatchers("/api/expenses/*/approve").hasRole("MANAGER")
                         .requestMatchers("/api/expenses/*/reject").hasRole("MANAGER")
+                        .requestMatchers("/api/reports/cube").hasRole("MANAGER")
+                        .requestMatchers("/api/reports/organization").hasAnyRole("MANAGER", "ADMIN")
+                        .requestMatchers("/api/events").hasAnyRole("MANAGER", "ADMIN")
                         .anyRequest().authenticated()
                 );
         
         http.authenticationProvider(authenticationProvider());
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(concurrencyLimitFilter, JwtAuthenticationFilter.class);
+        http.addFilterBefore(requestSummaryFilter, ConcurrencyLimitFilter.class);
         
         return http.build();
     }
     
+    /**
+     * Keep the request summary filter out of the servlet container's filter chain.
+     * It must run inside the security chain, where the authenticated user is still known.
+     *
+     * @param filter the request summary filter
+     * @return disabled registration of the filter
+     */
+    @Bean
+    public FilterRegistrationBean<RequestSummaryFilter> requestSummaryFilterRegistration(RequestSummaryFilter filter) {
+        FilterRegistrationBean<RequestSummaryFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+    
     /**
      * Configure CORS settings.
      *
@@ -81,8 +109,8 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(List.of("http://localhost:3000", "http://localhost:5173"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Accept"));
-        configuration.setExposedHeaders(List.of("Authorization"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Accept", "If-None-Match", "Last-Event-ID"));
+        configuration.setExposedHeaders(List.of("Authorization", "ETag", "Retry-After", "Upload-Offset"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
         
@@ -0,0 +1,24 @@
+package com.expense.config;
+
+import com.expense.logging.SqlStatementCounter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC configuration for async request processing.
+ * Streamed responses run on an async thread after the request filters return; the timeout
+ * is {@code spring.mvc.async.request-timeout}.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final SqlStatementCounter sqlStatementCounter;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(sqlStatementCounter);
+    }
+}
@@ -33,7 +33,7 @@ public class AuthController {
      */
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest registerRequest) {
-        log.info("Registration request received for email: {}", registerRequest.getEmail());
+        log.debug("Registration request received for email: {}", registerRequest.getEmail());
         
         AuthResponse response = authService.register(registerRequest);
         
@@ -49,7 +49,7 @@ public class AuthController {
      */
     @PostMapping("/login")
     public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
-        log.info("Login request received for email: {}", loginRequest.getEmail());
+        log.debug("Login request received for email: {}", loginRequest.getEmail());
         
         AuthResponse response = authService.login(loginRequest);
         
@@ -65,7 +65,7 @@ public class AuthController {
      */
     @PostMapping("/refresh")
     public ResponseEntity<String> refreshToken(Authentication authentication) {
-        log.info("Token refresh request received for user: {}", authentication.getName());
+        log.debug("Token refresh request received for user: {}", authentication.getName());
         
         String newToken = authService.refreshToken(authentication.getName());
         
@@ -0,0 +1,48 @@
+package com.expense.controller;
+
+import com.expense.dto.EventFeedResponse;
+import com.expense.service.ExpenseEventService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for the expense event feed.
+ * Downstream systems poll it with the cursor from the previous response.
+ */
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+@Slf4j
+public class EventController {
+    
+    private final ExpenseEventService expenseEventService;
+    
+    /**
+     * Get expense lifecycle events after a cursor.
+     * Endpoint: GET /api/events?after={cursor}&limit={limit}
+     * Only accessible by managers and admins.
+     *
+     * @param authentication the current authentication object
+     * @param after the nextCursor of the previous response (default: 0, from the beginning)
+     * @param limit the maximum number of events (default: 100, max: 1000)
+     * @return ResponseEntity with EventFeedResponse
+     */
+    @GetMapping
+    public ResponseEntity<EventFeedResponse> getEvents(
+            Authentication authentication,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        
+        String userEmail = authentication.getName();
+        log.debug("GET /api/events - User: {}, after: {}, limit: {}", userEmail, after, limit);
+        
+        EventFeedResponse feed = expenseEventService.getEventFeed(userEmail, after, limit);
+        return ResponseEntity.ok(feed);
+    }
+}
@@ -1,8 +1,12 @@
 package com.expense.controller;
 
 import com.expense.dto.ApprovalRequest;
+import com.expense.dto.ExpenseBatchResponse;
+import com.expense.dto.ExpenseField;
 import com.expense.dto.ExpenseRequest;
 import com.expense.dto.ExpenseResponse;
+import com.expense.service.ApprovalQueueHub;
+import com.expense.service.ExpenseChangeTracker;
 import com.expense.service.ExpenseService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -11,12 +15,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * REST controller for expense management endpoints.
@@ -29,43 +38,65 @@ import java.util.List;
 public class ExpenseController {
     
     private final ExpenseService expenseService;
+    private final ExpenseChangeTracker expenseChangeTracker;
+    private final ApprovalQueueHub approvalQueueHub;
     
     /**
      * Get all expenses for the authenticated user with pagination, sorting, and filtering.
      * Endpoint: GET /api/expenses
+     * Supports conditional requests: a matching If-None-Match is answered with 304
+     * before any expense query runs.
      *
      * @param authentication the current authentication object
+     * @param webRequest the current request, used for ETag validation
      * @param page the page number (default: 0)
      * @param size the page size (default: 10)
      * @param sortBy the field to sort by (default: expenseDate)
      * @param sortDir the sort direction (default: desc)
-     * @return ResponseEntity with Page of ExpenseResponse DTOs
+     * @param fields optional comma separated sparse fieldset, e.g. "amount,status,category"
+     * @return ResponseEntity with Page of ExpenseResponse DTOs, or of projected rows if fields is given
      */
     @GetMapping
-    public ResponseEntity<Page<ExpenseResponse>> getAllExpenses(
+    public ResponseEntity<Page<?>> getAllExpenses(
             Authentication authentication,
+            WebRequest webRequest,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "expenseDate") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String fields) {
         
         String userEmail = authentication.getName();
-        log.info("Retrieving expenses for user: {} (page: {}, size: {}, sortBy: {}, sortDir: {})",
-                userEmail, page, size, sortBy, sortDir);
+        log.debug("Retrieving expenses for user: {} (page: {}, size: {}, sortBy: {}, sortDir: {}, fields: {})",
+                userEmail, page, size, sortBy, sortDir, fields);
         
-        // Create sort object
+        Set<ExpenseField> fieldSet = ExpenseField.parse(fields);
+        
+        // Short-circuit with 304 when nothing changed since the client's copy
+        String etag = expenseChangeTracker.etagFor(userEmail, "expenses", page, size, sortBy, sortDir, fieldSet);
+        if (webRequest.checkNotModified(etag)) {
+            log.debug("Expenses not modified for user: {}", userEmail);
+            return null;
+        }
+        
+        // Create sort object; ID breaks ties so pages are stable and the user/date index serves the order
         Sort sort = sortDir.equalsIgnoreCase("asc") 
-                ? Sort.by(sortBy).ascending() 
-                : Sort.by(sortBy).descending();
+                ? Sort.by(sortBy, "id").ascending() 
+                : Sort.by(sortBy, "id").descending();
         
         // Create pageable object
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        // Fetch expenses
-        Page<ExpenseResponse> expenses = expenseService.getAllExpensesForUser(userEmail, pageable);
+        // Fetch expenses, selecting only the requested columns when a fieldset is given
+        Page<?> expenses = fieldSet.isEmpty()
+                ? expenseService.getAllExpensesForUser(userEmail, pageable)
+                : expenseService.getProjectedExpensesForUser(userEmail, fieldSet, pageable);
         
-        log.info("Retrieved {} expenses for user: {}", expenses.getTotalElements(), userEmail);
-        return ResponseEntity.ok(expenses);
+        log.debug("Retrieved {} expenses for user: {}", expenses.getTotalElements(), userEmail);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(expenses);
     }
     
     /**
@@ -82,13 +113,34 @@ public class ExpenseController {
             Authentication authentication) {
         
         String userEmail = authentication.getName();
-        log.info("Retrieving expense with ID: {} for user: {}", id, userEmail);
+        log.debug("Retrieving expense with ID: {} for user: {}", id, userEmail);
         
         ExpenseResponse expense = expenseService.getExpenseById(id, userEmail);
         
         return ResponseEntity.ok(expense);
     }
     
+    /**
+     * Get several expenses by ID in one request.
+     * Endpoint: GET /api/expenses/batch?ids=1,2,3
+     *
+     * @param ids comma separated expense IDs
+     * @param authentication the current authentication object
+     * @return ResponseEntity with one result per ID in request order, each marked OK, NOT_FOUND or FORBIDDEN
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<ExpenseBatchResponse> getExpensesByIds(
+            @RequestParam List<Long> ids,
+            Authentication authentication) {
+        
+        String userEmail = authentication.getName();
+        log.debug("Retrieving expenses with IDs: {} for user: {}", ids, userEmail);
+        
+        ExpenseBatchResponse expenses = expenseService.getExpensesByIds(ids, userEmail);
+        
+        return ResponseEntity.ok(expenses);
+    }
+    
     /**
      * Create a new expense.
      * Endpoint: POST /api/expenses
@@ -103,11 +155,11 @@ public class ExpenseController {
             Authentication authentication) {
         
         String userEmail = authentication.getName();
-        log.info("Creating expense for user: {}", userEmail);
+        log.debug("Creating expense for user: {}", userEmail);
         
         ExpenseResponse createdExpense = expenseService.createExpense(expenseRequest, userEmail);
         
-        log.info("Expense created successfully with ID: {}", createdExpense.getId());
+        log.debug("Expense created successfully with ID: {}", createdExpense.getId());
         return ResponseEntity.status(HttpStatus.CREATED).body(createdExpense);
     }
     
@@ -127,11 +179,11 @@ public class ExpenseController {
             Authentication authentication) {
         
         String userEmail = authentication.getName();
-        log.info("Updating expense with ID: {} for user: {}", id, userEmail);
+        log.debug("Updating expense with ID: {} for user: {}", id, userEmail);
         
         ExpenseResponse updatedExpense = expenseService.updateExpense(id, expenseRequest, userEmail);
         
-        log.info("Expense updated successfully: {}", id);
+        log.debug("Expense updated successfully: {}", id);
         return ResponseEntity.ok(updatedExpense);
     }
     
@@ -149,11 +201,11 @@ public class ExpenseController {
             Authentication authentication) {
         
         String userEmail = authentication.getName();
-        log.info("Deleting expense with ID: {} for user: {}", id, userEmail);
+        log.debug("Deleting expense with ID: {} for user: {}", id, userEmail);
         
         expenseService.deleteExpense(id, userEmail);
         
-        log.info("Expense deleted successfully: {}", id);
+        log.debug("Expense deleted successfully: {}", id);
         return ResponseEntity.noContent().build();
     }
     
@@ -171,32 +223,60 @@ public class ExpenseController {
             Authentication authentication) {
         
         String userEmail = authentication.getName();
-        log.info("Submitting expense with ID: {} for approval by user: {}", id, userEmail);
+        log.debug("Submitting expense with ID: {} for approval by user: {}", id, userEmail);
         
         ExpenseResponse submittedExpense = expenseService.submitExpenseForApproval(id, userEmail);
         
-        log.info("Expense submitted successfully: {}", id);
+        log.debug("Expense submitted successfully: {}", id);
         return ResponseEntity.ok(submittedExpense);
     }
     
+    /**
+     * Stream approval queue changes to a manager as Server-Sent Events.
+     * Endpoint: GET /api/expenses/pending/stream
+     * Emits "submitted", "approved" and "rejected" events once the change has committed and the
+     * outbox relay has published it, whichever instance handled the change. A reconnecting client
+     * sends Last-Event-ID to receive the events it missed, on any instance.
+     * Only accessible by managers and admins.
+     *
+     * @param authentication the current authentication object
+     * @param lastEventId optional id of the last event the client received
+     * @return SseEmitter streaming ApprovalQueueEvent payloads
+     */
+    @GetMapping(value = "/pending/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPendingExpenses(
+            Authentication authentication,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        
+        String userEmail = authentication.getName();
+        log.debug("Opening approval queue stream for manager: {} (Last-Event-ID: {})", userEmail, lastEventId);
+        
+        return approvalQueueHub.subscribe(userEmail, lastEventId);
+    }
+    
     /**
      * Get all pending expenses for manager approval.
      * Endpoint: GET /api/expenses/pending
      * Only accessible by managers and admins.
      *
      * @param authentication the current authentication object
-     * @return ResponseEntity with List of ExpenseResponse DTOs
+     * @param fields optional comma separated sparse fieldset, e.g. "amount,status,category"
+     * @return ResponseEntity with List of ExpenseResponse DTOs, or of projected rows if fields is given
      */
     @GetMapping("/pending")
-    public ResponseEntity<List<ExpenseResponse>> getPendingExpenses(
-            Authentication authentication) {
+    public ResponseEntity<List<?>> getPendingExpenses(
+            Authentication authentication,
+            @RequestParam(required = false) String fields) {
         
         String userEmail = authentication.getName();
-        log.info("Retrieving pending expenses for manager: {}", userEmail);
+        log.debug("Retrieving pending expenses for manager: {} (fields: {})", userEmail, fields);
         
-        List<ExpenseResponse> pendingExpenses = expenseService.getPendingExpenses(userEmail);
+        Set<ExpenseField> fieldSet = ExpenseField.parse(fields);
+        List<?> pendingExpenses = fieldSet.isEmpty()
+                ? expenseService.getPendingExpenses(userEmail)
+                : expenseService.getProjectedPendingExpenses(userEmail, fieldSet);
         
-        log.info("Retrieved {} pending expenses for manager: {}", pendingExpenses.size(), userEmail);
+        log.debug("Retrieved {} pending expenses for manager: {}", pendingExpenses.size(), userEmail);
         return ResponseEntity.ok(pendingExpenses);
     }
     
@@ -217,7 +297,7 @@ public class ExpenseController {
             Authentication authentication) {
         
         String userEmail = authentication.getName();
-        log.info("Approving expense with ID: {} by manager: {}", id, userEmail);
+        log.debug("Approving expense with ID: {} by manager: {}", id, userEmail);
         
         ExpenseResponse approvedExpense = expenseService.approveExpense(
                 id, 
@@ -225,7 +305,7 @@ public class ExpenseController {
                 userEmail
         );
         
-        log.info("Expense approved successfully: {}", id);
+        log.debug("Expense approved successfully: {}", id);
         return ResponseEntity.ok(approvedExpense);
     }
     
@@ -246,7 +326,7 @@ public class ExpenseController {
             Authentication authentication) {
         
         String userEmail = authentication.getName();
-        log.info("Rejecting expense with ID: {} by manager: {}", id, userEmail);
+        log.debug("Rejecting expense with ID: {} by manager: {}", id, userEmail);
         
         ExpenseResponse rejectedExpense = expenseService.rejectExpense(
                 id, 
@@ -254,7 +334,7 @@ public class ExpenseController {
                 userEmail
         );
         
-        log.info("Expense rejected successfully: {}", id);
+        log.debug("Expense rejected successfully: {}", id);
         return ResponseEntity.ok(rejectedExpense);
     }
 }
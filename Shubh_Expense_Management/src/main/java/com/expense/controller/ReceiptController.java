@@ -1,7 +1,10 @@
 package com.expense.controller;
 
 import com.expense.dto.ReceiptResponse;
+import com.expense.dto.UploadSessionRequest;
+import com.expense.dto.UploadSessionResponse;
 import com.expense.service.ReceiptService;
+import com.expense.service.ReceiptUploadService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,6 +13,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.Resource;
@@ -21,6 +26,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+
 /**
  * REST controller for receipt management endpoints.
  * Handles receipt upload, download, and deletion operations.
@@ -34,6 +41,9 @@ import org.springframework.web.multipart.MultipartFile;
 public class ReceiptController {
     
     private final ReceiptService receiptService;
+    private final ReceiptUploadService receiptUploadService;
+    
+    private static final String UPLOAD_OFFSET_HEADER = "Upload-Offset";
     
     /**
      * Upload a receipt file for an expense.
@@ -69,7 +79,7 @@ public class ReceiptController {
             Authentication authentication) {
         
         String userEmail = authentication.getName();
-        log.info("Upload receipt request for expense ID: {} by user: {}", expenseId, userEmail);
+        log.debug("Upload receipt request for expense ID: {} by user: {}", expenseId, userEmail);
         
         ReceiptResponse response = receiptService.uploadReceipt(expenseId, file, userEmail);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
@@ -100,7 +110,7 @@ public class ReceiptController {
             Authentication authentication) {
         
         String userEmail = authentication.getName();
-        log.info("Download receipt request for receipt ID: {} by user: {}", id, userEmail);
+        log.debug("Download receipt request for receipt ID: {} by user: {}", id, userEmail);
         
         Resource resource = receiptService.getReceiptFile(id, userEmail);
         ReceiptResponse metadata = receiptService.getReceiptMetadata(id, userEmail);
@@ -143,9 +153,191 @@ public class ReceiptController {
             Authentication authentication) {
         
         String userEmail = authentication.getName();
-        log.info("Delete receipt request for receipt ID: {} by user: {}", id, userEmail);
+        log.debug("Delete receipt request for receipt ID: {} by user: {}", id, userEmail);
         
         receiptService.deleteReceipt(id, userEmail);
         return ResponseEntity.noContent().build();
     }
+    
+    /**
+     * Start a resumable receipt upload.
+     *
+     * @param expenseId the ID of the expense
+     * @param request the file name, MIME type and total size
+     * @param authentication the authenticated user
+     * @return ResponseEntity with the upload session
+     */
+    @PostMapping("/uploads")
+    @Operation(
+            summary = "Start resumable upload",
+            description = "Create an upload session for a receipt that is sent in chunks. "
+                    + "Send the chunks with PUT /api/receipts/uploads/{uploadId}, then complete the upload."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "Upload session created",
+                    content = @Content(schema = @Schema(implementation = UploadSessionResponse.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid file type or size"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - User doesn't own the expense"),
+            @ApiResponse(responseCode = "404", description = "Expense not found")
+    })
+    public ResponseEntity<UploadSessionResponse> createUpload(
+            @Parameter(description = "ID of the expense", required = true)
+            @RequestParam Long expenseId,
+            
+            @Valid @RequestBody UploadSessionRequest request,
+            
+            Authentication authentication) {
+        
+        String userEmail = authentication.getName();
+        log.debug("Create upload request for expense ID: {} by user: {}", expenseId, userEmail);
+        
+        UploadSessionResponse response = receiptUploadService.createSession(expenseId, request, userEmail);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(UPLOAD_OFFSET_HEADER, String.valueOf(response.getOffset()))
+                .body(response);
+    }
+    
+    /**
+     * Get the state of a resumable upload, e.g. the offset to resume from.
+     *
+     * @param uploadId the upload session ID
+     * @param authentication the authenticated user
+     * @return ResponseEntity with the upload session
+     */
+    @GetMapping("/uploads/{uploadId}")
+    @Operation(
+            summary = "Get upload state",
+            description = "Get the offset a resumable upload continues from"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Upload state retrieved successfully"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Upload belongs to another user"),
+            @ApiResponse(responseCode = "404", description = "Upload not found or expired")
+    })
+    public ResponseEntity<UploadSessionResponse> getUpload(
+            @Parameter(description = "ID of the upload", required = true)
+            @PathVariable String uploadId,
+            
+            Authentication authentication) {
+        
+        UploadSessionResponse response = receiptUploadService.getSession(uploadId, authentication.getName());
+        return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET_HEADER, String.valueOf(response.getOffset()))
+                .body(response);
+    }
+    
+    /**
+     * Append a chunk to a resumable upload.
+     * The request body is the raw chunk; it is streamed to disk without buffering.
+     *
+     * @param uploadId the upload session ID
+     * @param offset the offset of the chunk, must equal the bytes received so far
+     * @param request the HTTP request carrying the chunk
+     * @param authentication the authenticated user
+     * @return ResponseEntity with the upload session and its new offset
+     * @throws IOException if the request body cannot be opened
+     */
+    @PutMapping(value = "/uploads/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(
+            summary = "Upload chunk",
+            description = "Append a chunk at the given offset. On 409 resume at the offset in the Upload-Offset header."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Chunk stored"),
+            @ApiResponse(responseCode = "400", description = "Chunk too large or transfer interrupted"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Upload belongs to another user"),
+            @ApiResponse(responseCode = "404", description = "Upload not found or expired"),
+            @ApiResponse(responseCode = "409", description = "Offset does not match the bytes received so far")
+    })
+    public ResponseEntity<UploadSessionResponse> uploadChunk(
+            @Parameter(description = "ID of the upload", required = true)
+            @PathVariable String uploadId,
+            
+            @Parameter(description = "Offset of the chunk in the file", required = true)
+            @RequestParam long offset,
+            
+            HttpServletRequest request,
+            
+            Authentication authentication) throws IOException {
+        
+        UploadSessionResponse response = receiptUploadService.appendChunk(
+                uploadId, offset, request.getInputStream(), authentication.getName());
+        return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET_HEADER, String.valueOf(response.getOffset()))
+                .body(response);
+    }
+    
+    /**
+     * Complete a resumable upload and attach the file as the expense's receipt.
+     *
+     * @param uploadId the upload session ID
+     * @param sha256 optional hex SHA-256 of the whole file
+     * @param authentication the authenticated user
+     * @return ResponseEntity with ReceiptResponse
+     */
+    @PostMapping("/uploads/{uploadId}/complete")
+    @Operation(
+            summary = "Complete resumable upload",
+            description = "Verify the received file and attach it as the receipt of the expense"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "Receipt uploaded successfully",
+                    content = @Content(schema = @Schema(implementation = ReceiptResponse.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Upload incomplete or checksum mismatch"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Upload belongs to another user"),
+            @ApiResponse(responseCode = "404", description = "Upload not found or expired")
+    })
+    public ResponseEntity<ReceiptResponse> completeUpload(
+            @Parameter(description = "ID of the upload", required = true)
+            @PathVariable String uploadId,
+            
+            @Parameter(description = "Hex SHA-256 of the whole file, verified if given")
+            @RequestParam(required = false) String sha256,
+            
+            Authentication authentication) {
+        
+        String userEmail = authentication.getName();
+        log.debug("Complete upload request for upload ID: {} by user: {}", uploadId, userEmail);
+        
+        ReceiptResponse response = receiptUploadService.completeUpload(uploadId, sha256, userEmail);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+    
+    /**
+     * Abort a resumable upload.
+     *
+     * @param uploadId the upload session ID
+     * @param authentication the authenticated user
+     * @return ResponseEntity with no content
+     */
+    @DeleteMapping("/uploads/{uploadId}")
+    @Operation(
+            summary = "Abort resumable upload",
+            description = "Delete an unfinished upload and its data"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Upload aborted"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Upload belongs to another user"),
+            @ApiResponse(responseCode = "404", description = "Upload not found or expired")
+    })
+    public ResponseEntity<Void> abortUpload(
+            @Parameter(description = "ID of the upload", required = true)
+            @PathVariable String uploadId,
+            
+            Authentication authentication) {
+        
+        receiptUploadService.abortUpload(uploadId, authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
 }
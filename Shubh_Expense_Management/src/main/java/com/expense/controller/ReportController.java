@@ -1,19 +1,31 @@
 package com.expense.controller;
 
-import com.expense.dto.ReportResponse;
+import com.expense.dto.CubeReportResponse;
+import com.expense.dto.ExpenseField;
+import com.expense.dto.ReportDimension;
+import com.expense.exception.ValidationException;
+import com.expense.report.ExpenseStream;
+import com.expense.report.ExpenseStreamWriter;
+import com.expense.report.OrganizationReport;
+import com.expense.report.OrganizationReportWriter;
+import com.expense.service.ExpenseChangeTracker;
 import com.expense.service.ReportService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.time.LocalDate;
+import java.util.Set;
 
 /**
  * REST controller for expense reporting endpoints.
@@ -26,36 +38,187 @@ import java.time.LocalDate;
 public class ReportController {
     
     private final ReportService reportService;
+    private final ExpenseChangeTracker expenseChangeTracker;
+    private final OrganizationReportWriter organizationReportWriter;
+    private final ExpenseStreamWriter expenseStreamWriter;
     
     /**
      * Generate expense report summary with optional filters.
      * Filters can include date range, category, and status.
+     * Supports conditional requests: a matching If-None-Match is answered with 304
+     * before the report is generated.
      *
      * @param authentication the authenticated user
+     * @param webRequest the current request, used for ETag validation
      * @param startDate optional start date for filtering (format: yyyy-MM-dd)
      * @param endDate optional end date for filtering (format: yyyy-MM-dd)
      * @param categoryId optional category ID for filtering
      * @param status optional status for filtering (DRAFT, SUBMITTED, APPROVED, REJECTED)
-     * @return ResponseEntity containing ReportResponse with filtered expenses and totals
+     * @param fields optional comma separated sparse fieldset for the listed expenses
+     * @return ResponseEntity containing ReportResponse (or ProjectedReportResponse if fields is given)
+     *         with filtered expenses and totals
      */
     @GetMapping("/summary")
-    public ResponseEntity<ReportResponse> getReportSummary(
+    public ResponseEntity<Object> getReportSummary(
             Authentication authentication,
+            WebRequest webRequest,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String fields) {
+        
+        String userEmail = authentication.getName();
+        log.debug("GET /api/reports/summary - User: {}, Filters: startDate={}, endDate={}, categoryId={}, status={}, fields={}",
+                userEmail, startDate, endDate, categoryId, status, fields);
+        
+        Set<ExpenseField> fieldSet = ExpenseField.parse(fields);
+        
+        // Short-circuit with 304 when nothing changed since the client's copy
+        String etag = expenseChangeTracker.etagFor(userEmail, "report-summary", startDate, endDate, categoryId, status,
+                fieldSet);
+        if (webRequest.checkNotModified(etag)) {
+            log.debug("Report summary not modified for user: {}", userEmail);
+            return null;
+        }
+        
+        Object report = fieldSet.isEmpty()
+                ? reportService.generateReport(userEmail, startDate, endDate, categoryId, status)
+                : reportService.generateProjectedReport(userEmail, startDate, endDate, categoryId, status, fieldSet);
+        
+        log.debug("Report summary generated successfully for user: {}", userEmail);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(report);
+    }
+    
+    /**
+     * Generate an organization-wide report grouped by any combination of dimensions.
+     * Only accessible by users with MANAGER or ADMIN role.
+     *
+     * @param authentication the authenticated user (must be manager)
+     * @param groupBy comma separated dimensions (user, category, month, status), empty for totals only
+     * @param userId optional owner filter
+     * @param startDate optional start date for filtering (format: yyyy-MM-dd)
+     * @param endDate optional end date for filtering (format: yyyy-MM-dd)
+     * @param categoryId optional category ID for filtering
+     * @param status optional status for filtering (DRAFT, SUBMITTED, APPROVED, REJECTED)
+     * @return ResponseEntity containing CubeReportResponse with grouped totals
+     */
+    @GetMapping("/cube")
+    public ResponseEntity<CubeReportResponse> getCubeReport(
+            Authentication authentication,
+            @RequestParam(required = false) String groupBy,
+            @RequestParam(required = false) Long userId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) String status) {
         
         String userEmail = authentication.getName();
-        log.info("GET /api/reports/summary - User: {}, Filters: startDate={}, endDate={}, categoryId={}, status={}",
-                userEmail, startDate, endDate, categoryId, status);
+        log.debug("GET /api/reports/cube - Manager: {}, groupBy={}, Filters: userId={}, startDate={}, endDate={}, "
+                + "categoryId={}, status={}", userEmail, groupBy, userId, startDate, endDate, categoryId, status);
         
-        ReportResponse report = reportService.generateReport(userEmail, startDate, endDate, categoryId, status);
+        Set<ReportDimension> dimensions = ReportDimension.parse(groupBy);
+        CubeReportResponse report = reportService.generateCubeReport(
+                userEmail, userId, startDate, endDate, categoryId, status, dimensions);
         
-        log.info("Report summary generated successfully for user: {}", userEmail);
+        log.debug("Cube report generated successfully for manager: {}", userEmail);
         return ResponseEntity.ok(report);
     }
     
+    /**
+     * Export per-user and per-category subtotals for every user or one department.
+     * Users are aggregated in parallel before the response starts; the output is streamed.
+     * Only accessible by users with MANAGER or ADMIN role.
+     *
+     * @param authentication the authenticated user (must be manager)
+     * @param format the output format (csv or json)
+     * @param department optional department, all users if omitted
+     * @param startDate optional start date for filtering (format: yyyy-MM-dd)
+     * @param endDate optional end date for filtering (format: yyyy-MM-dd)
+     * @param categoryId optional category ID for filtering
+     * @param status optional status for filtering (DRAFT, SUBMITTED, APPROVED, REJECTED)
+     * @return ResponseEntity streaming the report
+     */
+    @GetMapping("/organization")
+    public ResponseEntity<StreamingResponseBody> getOrganizationReport(
+            Authentication authentication,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String status) {
+        
+        String userEmail = authentication.getName();
+        log.debug("GET /api/reports/organization - Manager: {}, Format: {}, Filters: department={}, startDate={}, "
+                + "endDate={}, categoryId={}, status={}", userEmail, format, department, startDate, endDate,
+                categoryId, status);
+        
+        boolean json = "json".equalsIgnoreCase(format);
+        if (!json && !"csv".equalsIgnoreCase(format)) {
+            throw new ValidationException("Unsupported format: " + format + ". Supported formats: csv, json");
+        }
+        
+        OrganizationReport report = reportService.generateOrganizationReport(
+                userEmail, department, startDate, endDate, categoryId, status);
+        
+        StreamingResponseBody body = json
+                ? out -> organizationReportWriter.writeJson(report, out)
+                : out -> organizationReportWriter.writeCsv(report, out);
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(json ? MediaType.APPLICATION_JSON : MediaType.parseMediaType("text/csv"));
+        headers.setContentDispositionFormData("attachment",
+                "organization_report_" + LocalDate.now() + (json ? ".json" : ".csv"));
+        
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+    
+    /**
+     * Stream the filtered expenses of the authenticated user without materializing the report.
+     * Rows are read from a database cursor and written as they arrive; the response is gzip
+     * compressed when the client sends {@code Accept-Encoding: gzip}.
+     *
+     * @param authentication the authenticated user
+     * @param format the output format: json (a ReportResponse-shaped object) or ndjson (one expense per line)
+     * @param startDate optional start date for filtering (format: yyyy-MM-dd)
+     * @param endDate optional end date for filtering (format: yyyy-MM-dd)
+     * @param categoryId optional category ID for filtering
+     * @param status optional status for filtering (DRAFT, SUBMITTED, APPROVED, REJECTED)
+     * @return ResponseEntity streaming the expenses
+     */
+    @GetMapping("/expenses")
+    public ResponseEntity<StreamingResponseBody> streamExpenses(
+            Authentication authentication,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String status) {
+        
+        String userEmail = authentication.getName();
+        log.debug("GET /api/reports/expenses - User: {}, Format: {}, Filters: startDate={}, endDate={}, "
+                + "categoryId={}, status={}", userEmail, format, startDate, endDate, categoryId, status);
+        
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        if (!ndjson && !"json".equalsIgnoreCase(format)) {
+            throw new ValidationException("Unsupported format: " + format + ". Supported formats: json, ndjson");
+        }
+        
+        ExpenseStream stream = reportService.prepareExpenseStream(userEmail, startDate, endDate, categoryId, status);
+        
+        StreamingResponseBody body = ndjson
+                ? out -> expenseStreamWriter.writeNdjson(stream, out)
+                : out -> expenseStreamWriter.writeJson(stream, out);
+        
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+    
     /**
      * Export expense report in specified format.
      * Currently supports CSV format.
@@ -78,7 +241,7 @@ public class ReportController {
             @RequestParam(required = false) String status) {
         
         String userEmail = authentication.getName();
-        log.info("GET /api/reports/export - User: {}, Format: {}, Filters: startDate={}, endDate={}, categoryId={}, status={}",
+        log.debug("GET /api/reports/export - User: {}, Format: {}, Filters: startDate={}, endDate={}, categoryId={}, status={}",
                 userEmail, format, startDate, endDate, categoryId, status);
         
         try {
@@ -103,7 +266,7 @@ public class ReportController {
             headers.setContentDispositionFormData("attachment", filename);
             headers.setContentLength(exportData.length);
             
-            log.info("Report exported successfully for user: {} in format: {}", userEmail, format);
+            log.debug("Report exported successfully for user: {} in format: {}", userEmail, format);
             return new ResponseEntity<>(exportData, headers, HttpStatus.OK);
             
         } catch (IOException e) {
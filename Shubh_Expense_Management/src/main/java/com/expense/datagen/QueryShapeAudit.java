@@ -0,0 +1,333 @@
+package com.expense.datagen;
+
+import com.expense.model.ExpenseStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Command that captures {@code EXPLAIN (ANALYZE, BUFFERS)} for the SQL shape of every
+ * {@code ExpenseRepository} method. Active only with the {@code query-audit} profile and meant to
+ * run against a dataset created with the {@code datagen} profile, e.g.
+ * {@code java -jar app.jar --spring.profiles.active=query-audit --query-audit.output=target/after.json}.
+ *
+ * <p>Parameters are sampled from the data: the user with the most expenses, that user's most used
+ * category and the last three months of expense dates, so every shape runs on its worst case.
+ * Each shape runs {@code runs} times and the median execution time is reported together with the
+ * plan and buffer counts of the last run. All statements share one transaction that is rolled back,
+ * so auditing the conditional updates changes nothing.</p>
+ *
+ * <p>The JSON report holds the full plans; a Markdown summary is written next to it. Passing a
+ * previous report as {@code query-audit.baseline} adds before/after columns to the summary.
+ * PostgreSQL only.</p>
+ */
+@Component
+@Profile("query-audit")
+@RequiredArgsConstructor
+@Slf4j
+public class QueryShapeAudit implements CommandLineRunner {
+
+    /** Column list Hibernate selects when loading Expense entities. */
+    private static final String EXPENSE_COLUMNS = "e.id, e.user_id, e.category_id, e.amount, e.expense_date, "
+            + "e.description, e.status, e.submitted_at, e.reviewed_at, e.reviewed_by, e.review_notes, "
+            + "e.created_at, e.updated_at";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${query-audit.runs:3}")
+    private int runs;
+
+    @Value("${query-audit.page-size:10}")
+    private int pageSize;
+
+    @Value("${query-audit.output:target/query-audit.json}")
+    private String output;
+
+    @Value("${query-audit.baseline:}")
+    private String baseline;
+
+    @Override
+    public void run(String... args) throws Exception {
+        String product = jdbcTemplate.execute((Connection connection) ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(product)) {
+            log.warn("Query shape audit needs PostgreSQL, connected to {}; nothing audited", product);
+            return;
+        }
+
+        List<QueryShape> shapes = shapes(sampleParameters());
+        List<ShapeResult> results = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                for (QueryShape shape : shapes) {
+                    results.add(explain(connection, shape));
+                }
+            } finally {
+                connection.rollback();
+            }
+        }
+
+        Path jsonPath = Path.of(output);
+        if (jsonPath.getParent() != null) {
+            Files.createDirectories(jsonPath.getParent());
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(jsonPath.toFile(), toJson(results));
+
+        Map<String, ShapeResult> before = baseline.isBlank() ? Map.of() : readBaseline(Path.of(baseline));
+        String summary = summary(results, before);
+        Path summaryPath = Path.of(output.replaceFirst("\\.json$", "") + ".md");
+        Files.writeString(summaryPath, summary);
+
+        log.info("Query shape audit of {} shapes written to {} and {}\n{}", results.size(), jsonPath,
+                summaryPath, summary);
+    }
+
+    /**
+     * Pick the busiest user, their most used category and the last three months of data.
+     */
+    private Parameters sampleParameters() {
+        Map<String, Object> user = jdbcTemplate.queryForMap("SELECT e.user_id, u.email FROM expenses e "
+                + "JOIN users u ON u.id = e.user_id GROUP BY e.user_id, u.email ORDER BY COUNT(*) DESC LIMIT 1");
+        long userId = ((Number) user.get("user_id")).longValue();
+        long categoryId = jdbcTemplate.queryForObject("SELECT category_id FROM expenses WHERE user_id = ? "
+                + "GROUP BY category_id ORDER BY COUNT(*) DESC LIMIT 1", Long.class, userId);
+        LocalDate endDate = jdbcTemplate.queryForObject("SELECT MAX(expense_date) FROM expenses", LocalDate.class);
+        List<Long> batchIds = jdbcTemplate.queryForList("SELECT id FROM expenses WHERE user_id = ? LIMIT 50",
+                Long.class, userId);
+        ResultSetExtractor<Long> firstIdOrSample = rs -> rs.next() ? rs.getLong(1) : batchIds.get(0);
+        Long submittedId = jdbcTemplate.query("SELECT id FROM expenses WHERE status = ? LIMIT 1",
+                firstIdOrSample, ExpenseStatus.SUBMITTED.name());
+        Long managerId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users WHERE role IN ('MANAGER', 'ADMIN')",
+                Long.class);
+
+        log.info("Auditing with user {} ({}), category {}, dates {} to {}", userId, user.get("email"),
+                categoryId, endDate.minusMonths(3), endDate);
+        return new Parameters(userId, (String) user.get("email"), categoryId, endDate.minusMonths(3), endDate,
+                batchIds, submittedId, managerId);
+    }
+
+    /**
+     * The SQL each repository method produces, with the parameters bound as the services bind them.
+     */
+    private List<QueryShape> shapes(Parameters p) {
+        Date start = Date.valueOf(p.startDate());
+        Date end = Date.valueOf(p.endDate());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String submitted = ExpenseStatus.SUBMITTED.name();
+        String idList = p.batchIds().stream().map(String::valueOf).collect(Collectors.joining(", "));
+
+        List<QueryShape> shapes = new ArrayList<>();
+        shapes.add(new QueryShape("findByUserId", "first page, expense_date desc, id desc",
+                "SELECT " + EXPENSE_COLUMNS + " FROM expenses e WHERE e.user_id = ? "
+                        + "ORDER BY e.expense_date DESC, e.id DESC LIMIT " + pageSize,
+                p.userId()));
+        shapes.add(new QueryShape("findByUserId", "page 50, expense_date desc, id desc",
+                "SELECT " + EXPENSE_COLUMNS + " FROM expenses e WHERE e.user_id = ? "
+                        + "ORDER BY e.expense_date DESC, e.id DESC OFFSET " + 50 * pageSize + " LIMIT " + pageSize,
+                p.userId()));
+        shapes.add(new QueryShape("findByUserId", "count",
+                "SELECT COUNT(e.id) FROM expenses e WHERE e.user_id = ?", p.userId()));
+        shapes.add(new QueryShape("findProjectedByUserId", "amount,status,expenseDate first page",
+                "SELECT e.id, e.amount, e.status, e.expense_date FROM expenses e WHERE e.user_id = ? "
+                        + "ORDER BY e.expense_date DESC, e.id DESC LIMIT " + pageSize,
+                p.userId()));
+        shapes.add(new QueryShape("findByUserIdAndStatus", "DRAFT",
+                "SELECT " + EXPENSE_COLUMNS + " FROM expenses e WHERE e.user_id = ? AND e.status = ?",
+                p.userId(), ExpenseStatus.DRAFT.name()));
+        shapes.add(new QueryShape("findByStatusOrderBySubmittedAtAscIdAsc", "SUBMITTED queue",
+                "SELECT " + EXPENSE_COLUMNS + " FROM expenses e WHERE e.status = ? "
+                        + "ORDER BY e.submitted_at, e.id",
+                submitted));
+        shapes.add(new QueryShape("findProjectedByStatus", "SUBMITTED queue, amount,submittedAt",
+                "SELECT e.id, e.amount, e.submitted_at FROM expenses e WHERE e.status = ? "
+                        + "ORDER BY e.submitted_at, e.id",
+                submitted));
+        shapes.add(new QueryShape("findByUserIdAndExpenseDateBetween", "three months",
+                "SELECT " + EXPENSE_COLUMNS + " FROM expenses e WHERE e.user_id = ? "
+                        + "AND e.expense_date BETWEEN ? AND ?",
+                p.userId(), start, end));
+        shapes.add(new QueryShape("findByUserIdAndCategory", "busiest category",
+                "SELECT " + EXPENSE_COLUMNS + " FROM expenses e WHERE e.user_id = ? AND e.category_id = ?",
+                p.userId(), p.categoryId()));
+        shapes.add(new QueryShape("findProjectedForReport", "three months, category",
+                "SELECT e.id, e.amount, e.expense_date, e.category_id, e.status FROM expenses e "
+                        + "WHERE e.user_id = ? AND e.expense_date BETWEEN ? AND ? AND e.category_id = ?",
+                p.userId(), start, end, p.categoryId()));
+        shapes.add(new QueryShape("sumAmountForReport", "three months",
+                "SELECT SUM(e.amount) FROM expenses e WHERE e.user_id = ? AND e.expense_date BETWEEN ? AND ?",
+                p.userId(), start, end));
+        shapes.add(new QueryShape("sumAmountForReport", "three months, category, APPROVED",
+                "SELECT SUM(e.amount) FROM expenses e WHERE e.user_id = ? AND e.expense_date BETWEEN ? AND ? "
+                        + "AND e.category_id = ? AND e.status = ?",
+                p.userId(), start, end, p.categoryId(), ExpenseStatus.APPROVED.name()));
+        shapes.add(new QueryShape("findAllWithDetailsByIdIn", p.batchIds().size() + " ids",
+                "SELECT " + EXPENSE_COLUMNS + ", u.email, c.name, r.email, rc.file_name FROM expenses e "
+                        + "JOIN users u ON u.id = e.user_id JOIN categories c ON c.id = e.category_id "
+                        + "LEFT JOIN users r ON r.id = e.reviewed_by LEFT JOIN receipts rc ON rc.expense_id = e.id "
+                        + "WHERE e.id IN (" + idList + ")"));
+        shapes.add(new QueryShape("submitIfInStatus", "DRAFT to SUBMITTED",
+                "UPDATE expenses SET status = ?, submitted_at = ?, updated_at = ? WHERE id = ? AND status = ? "
+                        + "AND user_id IN (SELECT u.id FROM users u WHERE u.email = ?)",
+                submitted, now, now, p.batchIds().get(0), ExpenseStatus.DRAFT.name(), p.email()));
+        shapes.add(new QueryShape("reviewIfInStatus", "SUBMITTED to APPROVED",
+                "UPDATE expenses SET status = ?, reviewed_by = ?, review_notes = ?, reviewed_at = ?, "
+                        + "updated_at = ? WHERE id = ? AND status = ?",
+                ExpenseStatus.APPROVED.name(), p.managerId(), "Query shape audit", now, now, p.submittedId(), submitted));
+        return shapes;
+    }
+
+    /**
+     * Run one shape {@code runs} times under EXPLAIN (ANALYZE, BUFFERS).
+     */
+    private ShapeResult explain(Connection connection, QueryShape shape) throws SQLException, IOException {
+        double[] executionMs = new double[Math.max(1, runs)];
+        JsonNode plan = null;
+        for (int run = 0; run < executionMs.length; run++) {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + shape.sql())) {
+                for (int i = 0; i < shape.params().length; i++) {
+                    statement.setObject(i + 1, shape.params()[i]);
+                }
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    plan = objectMapper.readTree(rs.getString(1)).get(0);
+                }
+            }
+            executionMs[run] = plan.path("Execution Time").asDouble();
+        }
+        Arrays.sort(executionMs);
+
+        JsonNode root = plan.path("Plan");
+        Set<String> indexes = new LinkedHashSet<>();
+        collectIndexes(root, indexes);
+        return new ShapeResult(shape.key(), executionMs[executionMs.length / 2],
+                plan.path("Planning Time").asDouble(),
+                root.path("Shared Hit Blocks").asLong() + root.path("Shared Read Blocks").asLong(),
+                root.path("Shared Read Blocks").asLong(), describe(root), List.copyOf(indexes), shape.sql(), plan);
+    }
+
+    private static void collectIndexes(JsonNode node, Set<String> indexes) {
+        if (node.has("Index Name")) {
+            indexes.add(node.get("Index Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectIndexes(child, indexes);
+        }
+    }
+
+    /**
+     * Compact plan outline such as "Limit > Index Scan Backward", following the first child.
+     */
+    private static String describe(JsonNode node) {
+        List<String> outline = new ArrayList<>();
+        for (JsonNode current = node; !current.isMissingNode(); current = current.path("Plans").path(0)) {
+            String type = current.path("Node Type").asText();
+            outline.add("Backward".equals(current.path("Scan Direction").asText()) ? type + " Backward" : type);
+        }
+        return String.join(" > ", outline);
+    }
+
+    private ArrayNode toJson(List<ShapeResult> results) {
+        ArrayNode array = objectMapper.createArrayNode();
+        for (ShapeResult result : results) {
+            ObjectNode node = array.addObject();
+            node.put("shape", result.key());
+            node.put("executionMs", result.executionMs());
+            node.put("planningMs", result.planningMs());
+            node.put("sharedBlocks", result.sharedBlocks());
+            node.put("readBlocks", result.readBlocks());
+            node.put("outline", result.outline());
+            node.putPOJO("indexes", result.indexes());
+            node.put("sql", result.sql());
+            node.set("plan", result.plan());
+        }
+        return array;
+    }
+
+    private Map<String, ShapeResult> readBaseline(Path path) throws IOException {
+        Map<String, ShapeResult> results = new HashMap<>();
+        for (JsonNode node : objectMapper.readTree(path.toFile())) {
+            List<String> indexes = new ArrayList<>();
+            node.path("indexes").forEach(index -> indexes.add(index.asText()));
+            results.put(node.path("shape").asText(), new ShapeResult(node.path("shape").asText(),
+                    node.path("executionMs").asDouble(), node.path("planningMs").asDouble(),
+                    node.path("sharedBlocks").asLong(), node.path("readBlocks").asLong(),
+                    node.path("outline").asText(), indexes, node.path("sql").asText(), node.path("plan")));
+        }
+        return results;
+    }
+
+    private String summary(List<ShapeResult> results, Map<String, ShapeResult> before) {
+        StringBuilder md = new StringBuilder();
+        if (before.isEmpty()) {
+            md.append("| Shape | Execution ms | Shared blocks | Plan | Indexes |\n");
+            md.append("|---|---:|---:|---|---|\n");
+        } else {
+            md.append("| Shape | Before ms | After ms | Before blocks | After blocks | Plan after | Indexes after |\n");
+            md.append("|---|---:|---:|---:|---:|---|---|\n");
+        }
+        for (ShapeResult result : results) {
+            md.append("| ").append(result.key()).append(" | ");
+            ShapeResult previous = before.get(result.key());
+            if (!before.isEmpty()) {
+                md.append(previous != null ? String.format("%.3f", previous.executionMs()) : "-").append(" | ");
+            }
+            md.append(String.format("%.3f", result.executionMs())).append(" | ");
+            if (!before.isEmpty()) {
+                md.append(previous != null ? String.valueOf(previous.sharedBlocks()) : "-").append(" | ");
+            }
+            md.append(result.sharedBlocks()).append(" | ")
+                    .append(result.outline()).append(" | ")
+                    .append(result.indexes().isEmpty() ? "-" : String.join(", ", result.indexes())).append(" |\n");
+        }
+        return md.toString();
+    }
+
+    private record Parameters(long userId, String email, long categoryId, LocalDate startDate, LocalDate endDate,
+                              List<Long> batchIds, Long submittedId, Long managerId) {
+    }
+
+    private record QueryShape(String method, String variant, String sql, Object... params) {
+
+        String key() {
+            return method + " (" + variant + ")";
+        }
+    }
+
+    private record ShapeResult(String key, double executionMs, double planningMs, long sharedBlocks,
+                               long readBlocks, String outline, List<String> indexes, String sql, JsonNode plan) {
+    }
+}
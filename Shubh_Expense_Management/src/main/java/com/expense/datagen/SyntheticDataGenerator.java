@@ -0,0 +1,316 @@
+package com.expense.datagen;
+
+import com.expense.model.ExpenseStatus;
+import com.expense.model.UserRole;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Command that fills the database with a production-scale synthetic dataset.
+ * Active only with the {@code datagen} profile, e.g.
+ * {@code java -jar app.jar --spring.profiles.active=datagen --datagen.expenses=20000000}.
+ *
+ * <p>Creates N users (about 5% managers), M categories and the requested number of expenses,
+ * split into parallel partitions. Each partition loads its rows with PostgreSQL COPY on PostgreSQL
+ * and with batched inserts on other databases (H2). Receipt placeholders are attached afterwards
+ * with one set-based insert per partition.</p>
+ */
+@Component
+@Profile("datagen")
+@RequiredArgsConstructor
+@Slf4j
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    static final String EXPENSE_COLUMNS = "user_id, category_id, amount, expense_date, description, status, "
+            + "submitted_at, reviewed_at, reviewed_by, review_notes, created_at, updated_at";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${datagen.users:1000}")
+    private int userCount;
+
+    @Value("${datagen.categories:20}")
+    private int categoryCount;
+
+    @Value("${datagen.expenses:1000000}")
+    private long expenseCount;
+
+    @Value("${datagen.months:24}")
+    private int months;
+
+    @Value("${datagen.partitions:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+    private int partitions;
+
+    @Value("${datagen.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${datagen.receipt-percent:60}")
+    private int receiptPercent;
+
+    @Value("${datagen.seed:42}")
+    private long seed;
+
+    @Value("${datagen.run-id:#{T(java.lang.System).currentTimeMillis()}}")
+    private String runId;
+
+    @Override
+    public void run(String... args) throws Exception {
+        log.info("Generating synthetic dataset {}: {} users, {} categories, {} expenses in {} partitions",
+                runId, userCount, categoryCount, expenseCount, partitions);
+        long started = System.nanoTime();
+
+        List<long[]> users = insertUsers();
+        long[] userIds = users.get(0);
+        long[] managerIds = users.get(1);
+        long[] categoryIds = insertCategories();
+        double[] categoryMedianCents = categoryMedians(categoryIds.length);
+
+        boolean postgres = isPostgres();
+        long minExpenseId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM expenses", Long.class);
+
+        ExecutorService executor = Executors.newFixedThreadPool(partitions);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            long perPartition = expenseCount / partitions;
+            for (int partition = 0; partition < partitions; partition++) {
+                long rows = partition == partitions - 1 ? expenseCount - perPartition * (partitions - 1) : perPartition;
+                SyntheticExpenseFactory factory = new SyntheticExpenseFactory(userIds, managerIds, categoryIds,
+                        categoryMedianCents, LocalDate.now(), months, seed + partition);
+                int partitionNumber = partition;
+                results.add(executor.submit(() -> postgres
+                        ? copyExpenses(partitionNumber, factory, rows)
+                        : batchInsertExpenses(partitionNumber, factory, rows)));
+            }
+
+            long loaded = 0;
+            for (Future<Long> result : results) {
+                loaded += result.get();
+            }
+            log.info("Loaded {} expenses in {} ms", loaded, (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            executor.shutdown();
+        }
+
+        long receipts = insertReceiptPlaceholders(minExpenseId);
+        log.info("Attached {} receipt placeholders", receipts);
+
+        if (postgres) {
+            jdbcTemplate.execute("ANALYZE users");
+            jdbcTemplate.execute("ANALYZE categories");
+            jdbcTemplate.execute("ANALYZE expenses");
+            jdbcTemplate.execute("ANALYZE receipts");
+        }
+        log.info("Synthetic dataset {} complete in {} ms", runId, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Insert synthetic users in batches. Roughly every twentieth user is a manager.
+     * All users share the password "password".
+     *
+     * @return two arrays: all user IDs and manager IDs
+     */
+    private List<long[]> insertUsers() {
+        String passwordHash = passwordEncoder.encode("password");
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < userCount; i++) {
+            UserRole role = i % 20 == 0 ? UserRole.MANAGER : UserRole.USER;
+            batch.add(new Object[]{userEmailPrefix() + i + "@example.com", passwordHash, "Synthetic",
+                    "User " + i, role.name(), Timestamp.valueOf(now), Timestamp.valueOf(now)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (email, password_hash, first_name, last_name, role, "
+                + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+
+        long[] userIds = jdbcTemplate.queryForList("SELECT id FROM users WHERE email LIKE ? ORDER BY id",
+                Long.class, userEmailPrefix() + "%").stream().mapToLong(Long::longValue).toArray();
+        long[] managerIds = jdbcTemplate.queryForList("SELECT id FROM users WHERE email LIKE ? AND role = ? ORDER BY id",
+                Long.class, userEmailPrefix() + "%", UserRole.MANAGER.name()).stream().mapToLong(Long::longValue).toArray();
+        log.info("Inserted {} users ({} managers)", userIds.length, managerIds.length);
+        return List.of(userIds, managerIds);
+    }
+
+    /**
+     * Insert synthetic categories.
+     *
+     * @return the category IDs
+     */
+    private long[] insertCategories() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < categoryCount; i++) {
+            batch.add(new Object[]{categoryNamePrefix() + i, "Synthetic category " + i, Timestamp.valueOf(now)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO categories (name, description, created_at) VALUES (?, ?, ?)", batch);
+
+        long[] categoryIds = jdbcTemplate.queryForList("SELECT id FROM categories WHERE name LIKE ? ORDER BY id",
+                Long.class, categoryNamePrefix() + "%").stream().mapToLong(Long::longValue).toArray();
+        log.info("Inserted {} categories", categoryIds.length);
+        return categoryIds;
+    }
+
+    /**
+     * Pick a median amount per category between 8.00 and 800.00, log-uniformly,
+     * so some categories behave like meals and others like equipment.
+     */
+    private double[] categoryMedians(int count) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] medians = new double[count];
+        for (int i = 0; i < count; i++) {
+            medians[i] = 800 * Math.pow(100, random.nextDouble());
+        }
+        return medians;
+    }
+
+    /**
+     * Stream one partition into PostgreSQL with COPY, committing every {@code batchSize * 20} rows.
+     *
+     * @return number of loaded rows
+     */
+    private long copyExpenses(int partition, SyntheticExpenseFactory factory, long rows) throws SQLException {
+        String copySql = "COPY expenses (" + EXPENSE_COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+        long chunkRows = (long) batchSize * 20;
+        SyntheticExpense row = new SyntheticExpense();
+        StringBuilder csv = new StringBuilder(batchSize * 160);
+        long loaded = 0;
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+
+            while (loaded < rows) {
+                long chunkEnd = Math.min(rows, loaded + chunkRows);
+                CopyIn copyIn = copyManager.copyIn(copySql);
+                try {
+                    while (loaded < chunkEnd) {
+                        factory.next(row);
+                        row.appendCsv(csv);
+                        loaded++;
+                        if (csv.length() >= batchSize * 128 || loaded == chunkEnd) {
+                            byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+                            copyIn.writeToCopy(bytes, 0, bytes.length);
+                            csv.setLength(0);
+                        }
+                    }
+                    copyIn.endCopy();
+                } finally {
+                    if (copyIn.isActive()) {
+                        copyIn.cancelCopy();
+                    }
+                }
+                connection.commit();
+                log.info("Partition {}: {} / {} expenses copied", partition, loaded, rows);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Load one partition with batched JDBC inserts, for databases without COPY (e.g. H2).
+     *
+     * @return number of loaded rows
+     */
+    private long batchInsertExpenses(int partition, SyntheticExpenseFactory factory, long rows) throws SQLException {
+        String insertSql = "INSERT INTO expenses (" + EXPENSE_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        SyntheticExpense row = new SyntheticExpense();
+        long loaded = 0;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(insertSql)) {
+            connection.setAutoCommit(false);
+            while (loaded < rows) {
+                factory.next(row);
+                statement.setLong(1, row.userId);
+                statement.setLong(2, row.categoryId);
+                statement.setBigDecimal(3, java.math.BigDecimal.valueOf(row.amountCents, 2));
+                statement.setObject(4, row.expenseDate);
+                statement.setString(5, row.description);
+                statement.setString(6, row.status.name());
+                setTimestamp(statement, 7, row.submittedAt);
+                setTimestamp(statement, 8, row.reviewedAt);
+                if (row.reviewedBy != null) {
+                    statement.setLong(9, row.reviewedBy);
+                } else {
+                    statement.setNull(9, Types.BIGINT);
+                }
+                statement.setString(10, row.reviewNotes);
+                setTimestamp(statement, 11, row.createdAt);
+                setTimestamp(statement, 12, row.updatedAt);
+                statement.addBatch();
+                loaded++;
+
+                if (loaded % batchSize == 0 || loaded == rows) {
+                    statement.executeBatch();
+                    connection.commit();
+                }
+                if (loaded % ((long) batchSize * 20) == 0) {
+                    log.info("Partition {}: {} / {} expenses inserted", partition, loaded, rows);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Attach receipt placeholder rows to a share of the generated, non-draft expenses.
+     * Selection is by expense ID so it is deterministic and portable across databases.
+     *
+     * @param minExpenseId expenses with an ID above this value were generated by this run
+     * @return number of inserted receipts
+     */
+    private long insertReceiptPlaceholders(long minExpenseId) {
+        return jdbcTemplate.update("INSERT INTO receipts (expense_id, file_name, file_path, file_type, file_size, uploaded_at) "
+                        + "SELECT e.id, CONCAT('receipt-', e.id, '.pdf'), CONCAT('synthetic/', e.id, '.pdf'), "
+                        + "'application/pdf', 20480 + MOD(e.id * 7919, 400000), COALESCE(e.submitted_at, e.created_at) "
+                        + "FROM expenses e WHERE e.id > ? AND e.status <> ? AND MOD(e.id, 100) < ?",
+                minExpenseId, ExpenseStatus.DRAFT.name(), receiptPercent);
+    }
+
+    private static void setTimestamp(PreparedStatement statement, int index, LocalDateTime value) throws SQLException {
+        if (value != null) {
+            statement.setTimestamp(index, Timestamp.valueOf(value));
+        } else {
+            statement.setNull(index, Types.TIMESTAMP);
+        }
+    }
+
+    private boolean isPostgres() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+        }
+    }
+
+    private String userEmailPrefix() {
+        return "synth-" + runId + "-";
+    }
+
+    private String categoryNamePrefix() {
+        return "Synthetic " + runId + " #";
+    }
+}
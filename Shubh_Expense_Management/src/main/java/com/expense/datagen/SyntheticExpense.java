@@ -0,0 +1,55 @@
+package com.expense.datagen;
+
+import com.expense.model.ExpenseStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Mutable row holder for one generated expense.
+ * Reused per partition so generating tens of millions of rows does not allocate one object per row.
+ */
+class SyntheticExpense {
+    
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
+    long userId;
+    long categoryId;
+    long amountCents;
+    LocalDate expenseDate;
+    String description;
+    ExpenseStatus status;
+    LocalDateTime submittedAt;
+    LocalDateTime reviewedAt;
+    Long reviewedBy;
+    String reviewNotes;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+    
+    /**
+     * Append this row as one CSV line in the column order of {@link SyntheticDataGenerator#EXPENSE_COLUMNS}.
+     * Empty unquoted values are read as NULL by PostgreSQL COPY.
+     *
+     * @param csv the buffer to append to
+     */
+    void appendCsv(StringBuilder csv) {
+        csv.append(userId).append(',')
+                .append(categoryId).append(',')
+                .append(amountCents / 100).append('.')
+                .append(amountCents % 100 < 10 ? "0" : "").append(amountCents % 100).append(',')
+                .append(expenseDate).append(',')
+                .append('"').append(description).append('"').append(',')
+                .append(status.name()).append(',');
+        appendTimestamp(csv, submittedAt).append(',');
+        appendTimestamp(csv, reviewedAt).append(',');
+        csv.append(reviewedBy != null ? reviewedBy.toString() : "").append(',')
+                .append(reviewNotes != null ? '"' + reviewNotes + '"' : "").append(',');
+        appendTimestamp(csv, createdAt).append(',');
+        appendTimestamp(csv, updatedAt).append('\n');
+    }
+    
+    private static StringBuilder appendTimestamp(StringBuilder csv, LocalDateTime value) {
+        return value != null ? csv.append(TIMESTAMP.format(value)) : csv;
+    }
+}
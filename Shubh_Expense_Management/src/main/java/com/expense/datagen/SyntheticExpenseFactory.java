@@ -0,0 +1,131 @@
+package com.expense.datagen;
+
+import com.expense.model.ExpenseStatus;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+/**
+ * Generates expense rows with production-like distributions.
+ * <ul>
+ *   <li>Users are Zipf-like skewed: a small share of users files most expenses.</li>
+ *   <li>Dates span the configured number of months with most expenses on weekdays.</li>
+ *   <li>Amounts are log-normal around a per-category median (meals are cheap, equipment is not).</li>
+ *   <li>Status depends on age: recent expenses are mostly drafts or pending, older ones are reviewed.</li>
+ * </ul>
+ * Not thread-safe; create one factory per partition.
+ */
+class SyntheticExpenseFactory {
+
+    private static final long MAX_AMOUNT_CENTS = 5_000_000L; // 50,000.00
+
+    private static final String[] DESCRIPTIONS = {
+            "Taxi to client site", "Team lunch", "Hotel stay", "Flight to head office",
+            "Printer paper and toner", "Laptop docking station", "Conference registration",
+            "Client dinner", "Train ticket", "Software license renewal", "Parking fee",
+            "Office snacks", "Mobile data plan", "Courier charges", "Monitor replacement"
+    };
+
+    private final long[] userIds;
+    private final long[] managerIds;
+    private final long[] categoryIds;
+    private final double[] categoryMedianCents;
+    private final LocalDate today;
+    private final int spanDays;
+    private final SplittableRandom random;
+
+    SyntheticExpenseFactory(long[] userIds, long[] managerIds, long[] categoryIds, double[] categoryMedianCents,
+                            LocalDate today, int months, long seed) {
+        this.userIds = userIds;
+        this.managerIds = managerIds;
+        this.categoryIds = categoryIds;
+        this.categoryMedianCents = categoryMedianCents;
+        this.today = today;
+        this.spanDays = Math.max(1, months * 30);
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Fill the holder with the next generated expense.
+     *
+     * @param row the row holder to overwrite
+     */
+    void next(SyntheticExpense row) {
+        // Skew towards low user indexes: u^2 puts ~30% of rows on the first 10% of users
+        double u = random.nextDouble();
+        row.userId = userIds[(int) (u * u * userIds.length)];
+
+        int category = random.nextInt(categoryIds.length);
+        row.categoryId = categoryIds[category];
+        row.amountCents = amountCents(categoryMedianCents[category]);
+
+        row.expenseDate = expenseDate();
+        row.description = DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)];
+        row.createdAt = row.expenseDate.atTime(8 + random.nextInt(12), random.nextInt(60), random.nextInt(60));
+
+        long ageDays = today.toEpochDay() - row.expenseDate.toEpochDay();
+        row.status = status(ageDays);
+        row.submittedAt = null;
+        row.reviewedAt = null;
+        row.reviewedBy = null;
+        row.reviewNotes = null;
+        row.updatedAt = row.createdAt;
+
+        // Workflow timestamps follow each other but never lie in the future
+        LocalDateTime now = today.atTime(23, 59, 59);
+        if (row.status != ExpenseStatus.DRAFT) {
+            row.submittedAt = notAfter(row.createdAt.plusHours(1 + random.nextInt(72)), now);
+            row.updatedAt = row.submittedAt;
+        }
+        if (row.status == ExpenseStatus.APPROVED || row.status == ExpenseStatus.REJECTED) {
+            row.reviewedAt = notAfter(row.submittedAt.plusHours(1 + random.nextInt(120)), now);
+            row.reviewedBy = managerIds[random.nextInt(managerIds.length)];
+            row.reviewNotes = row.status == ExpenseStatus.REJECTED ? "Missing itemised receipt" : null;
+            row.updatedAt = row.reviewedAt;
+        }
+    }
+
+    private static LocalDateTime notAfter(LocalDateTime value, LocalDateTime limit) {
+        return value.isAfter(limit) ? limit : value;
+    }
+
+    private long amountCents(double medianCents) {
+        double cents = medianCents * Math.exp(0.6 * gaussian());
+        return Math.max(100L, Math.min(MAX_AMOUNT_CENTS, Math.round(cents)));
+    }
+
+    private LocalDate expenseDate() {
+        LocalDate date = today.minusDays(random.nextInt(spanDays));
+        // Most business expenses happen on weekdays: re-draw 70% of weekend dates
+        DayOfWeek day = date.getDayOfWeek();
+        if ((day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY) && random.nextDouble() < 0.7) {
+            date = today.minusDays(random.nextInt(spanDays));
+        }
+        return date;
+    }
+
+    private ExpenseStatus status(long ageDays) {
+        double p = random.nextDouble();
+        if (ageDays < 14) {
+            return p < 0.40 ? ExpenseStatus.DRAFT
+                    : p < 0.90 ? ExpenseStatus.SUBMITTED
+                    : p < 0.98 ? ExpenseStatus.APPROVED
+                    : ExpenseStatus.REJECTED;
+        }
+        return p < 0.03 ? ExpenseStatus.DRAFT
+                : p < 0.08 ? ExpenseStatus.SUBMITTED
+                : p < 0.90 ? ExpenseStatus.APPROVED
+                : ExpenseStatus.REJECTED;
+    }
+
+    /**
+     * Standard normal sample using the Box-Muller transform.
+     */
+    private double gaussian() {
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+    }
+}
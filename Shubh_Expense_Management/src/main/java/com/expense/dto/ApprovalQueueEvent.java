@@ -0,0 +1,24 @@
+package com.expense.dto;
+
+import com.expense.event.ExpenseChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for events pushed on the approval queue stream.
+ * SUBMITTED adds an expense to the queue, APPROVED and REJECTED remove it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApprovalQueueEvent {
+    
+    private ExpenseChangeType type;
+    private Long expenseId;
+    private String ownerEmail;
+    private ExpenseResponse expense;
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,43 @@
+package com.expense.dto;
+
+import com.expense.model.ExpenseStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * DTO for multi-dimensional expense report responses.
+ * Contains one aggregate per combination of the requested dimensions plus grand totals.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CubeReportResponse {
+    
+    private List<CubeGroup> groups;
+    private BigDecimal totalAmount;
+    private Long count;
+    private Set<ReportDimension> groupBy;
+    private Long userId;
+    private ReportResponse.ReportFilters filters;
+    
+    /**
+     * Inner class to represent one aggregated group.
+     * Dimensions that were not grouped by are null.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CubeGroup {
+        private Long userId;
+        private Long categoryId;
+        private String month;
+        private ExpenseStatus status;
+        private Long count;
+        private BigDecimal totalAmount;
+    }
+}
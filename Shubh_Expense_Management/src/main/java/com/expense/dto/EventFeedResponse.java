@@ -0,0 +1,21 @@
+package com.expense.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a page of the expense event feed.
+ * Pass {@code nextCursor} as {@code after} to fetch the following events.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventFeedResponse {
+    
+    private List<ExpenseEventResponse> events;
+    private Long nextCursor;
+    private Boolean hasMore;
+}
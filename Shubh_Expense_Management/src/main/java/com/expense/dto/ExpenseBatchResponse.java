@@ -0,0 +1,41 @@
+package com.expense.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a batch read of expenses.
+ * Contains one result per requested ID, in request order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseBatchResponse {
+    
+    private List<BatchItem> results;
+    
+    /**
+     * Outcome of one requested ID.
+     */
+    public enum ItemStatus {
+        OK,
+        NOT_FOUND,
+        FORBIDDEN
+    }
+    
+    /**
+     * Inner class to represent the result for one requested ID.
+     * The expense is only set when the status is OK.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchItem {
+        private Long id;
+        private ItemStatus status;
+        private ExpenseResponse expense;
+    }
+}
@@ -0,0 +1,28 @@
+package com.expense.dto;
+
+import com.expense.event.ExpenseChangeType;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for expense lifecycle events in the event feed.
+ * The payload is the expense state after the change, embedded as JSON.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseEventResponse {
+    
+    private Long id;
+    private Long position;
+    private Long expenseId;
+    private String ownerEmail;
+    private ExpenseChangeType eventType;
+    @JsonRawValue
+    private String payload;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,79 @@
+package com.expense.dto;
+
+import com.expense.exception.ValidationException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Enum of the selectable fields of an expense for sparse fieldset requests.
+ * Each constant maps to the JSON property name used in {@link ExpenseResponse}.
+ */
+public enum ExpenseField {
+    ID("id"),
+    CATEGORY("category"),
+    AMOUNT("amount"),
+    EXPENSE_DATE("expenseDate"),
+    DESCRIPTION("description"),
+    STATUS("status"),
+    RECEIPT("receipt"),
+    SUBMITTED_AT("submittedAt"),
+    REVIEWED_AT("reviewedAt"),
+    REVIEWED_BY("reviewedBy"),
+    REVIEW_NOTES("reviewNotes"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+
+    private final String jsonName;
+
+    ExpenseField(String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    /**
+     * Parse a comma separated {@code fields} request parameter.
+     * The ID is always included so clients can correlate rows.
+     *
+     * @param fields comma separated JSON property names, e.g. "amount,status,category"
+     * @return the selected fields, or an empty set if no fieldset was requested
+     * @throws ValidationException if an unknown field name is given
+     */
+    public static Set<ExpenseField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return Collections.emptySet();
+        }
+
+        Set<ExpenseField> selected = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                selected.add(fromJsonName(trimmed));
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Resolve a field by its JSON property name.
+     *
+     * @param jsonName the JSON property name
+     * @return the matching field
+     * @throws ValidationException if the name is unknown
+     */
+    private static ExpenseField fromJsonName(String jsonName) {
+        return Arrays.stream(values())
+                .filter(field -> field.jsonName.equals(jsonName))
+                .findFirst()
+                .orElseThrow(() -> new ValidationException("Unknown expense field: " + jsonName
+                        + ". Supported fields: " + Arrays.stream(values())
+                                .map(ExpenseField::getJsonName)
+                                .collect(Collectors.joining(","))));
+    }
+}
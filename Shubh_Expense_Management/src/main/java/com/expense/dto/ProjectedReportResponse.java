@@ -0,0 +1,24 @@
+package com.expense.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for expense report responses restricted to a sparse fieldset.
+ * Expenses contain only the requested fields; totals always cover every matching expense.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectedReportResponse {
+    
+    private List<Map<String, Object>> expenses;
+    private BigDecimal totalAmount;
+    private Integer count;
+    private ReportResponse.ReportFilters filters;
+}
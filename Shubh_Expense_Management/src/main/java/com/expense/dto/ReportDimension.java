@@ -0,0 +1,45 @@
+package com.expense.dto;
+
+import com.expense.exception.ValidationException;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Enum of the dimensions an organization-wide expense report can be grouped by.
+ */
+public enum ReportDimension {
+    USER,
+    CATEGORY,
+    MONTH,
+    STATUS;
+
+    /**
+     * Parse a comma separated {@code groupBy} request parameter, e.g. "category,month".
+     *
+     * @param groupBy comma separated dimension names (case-insensitive), may be null or blank
+     * @return the selected dimensions, empty for a single grand total
+     * @throws ValidationException if an unknown dimension is given
+     */
+    public static Set<ReportDimension> parse(String groupBy) {
+        Set<ReportDimension> dimensions = EnumSet.noneOf(ReportDimension.class);
+        if (groupBy == null || groupBy.isBlank()) {
+            return dimensions;
+        }
+
+        for (String name : groupBy.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            try {
+                dimensions.add(valueOf(trimmed.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Unknown report dimension: " + trimmed
+                        + ". Supported dimensions: " + Arrays.toString(values()));
+            }
+        }
+        return dimensions;
+    }
+}
@@ -0,0 +1,26 @@
+package com.expense.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for the state of a resumable receipt upload.
+ * The next chunk must be sent at {@code offset}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionResponse {
+    
+    private String uploadId;
+    private Long expenseId;
+    private String fileName;
+    private String fileType;
+    private Long totalSize;
+    private Long offset;
+    private Long maxChunkSize;
+    private LocalDateTime expiresAt;
+}
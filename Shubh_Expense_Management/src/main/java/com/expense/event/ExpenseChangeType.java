@@ -0,0 +1,47 @@
+package com.expense.event;
+
+/**
+ * Enum describing the kind of write applied to an expense.
+ * Carried by {@link ExpenseChangedEvent} so listeners can react selectively.
+ */
+public enum ExpenseChangeType {
+    /**
+     * A new expense was created
+     */
+    CREATED,
+    
+    /**
+     * An existing draft expense was edited
+     */
+    UPDATED,
+    
+    /**
+     * A draft expense was deleted
+     */
+    DELETED,
+    
+    /**
+     * An expense was submitted for manager approval
+     */
+    SUBMITTED,
+    
+    /**
+     * An expense was approved by a manager
+     */
+    APPROVED,
+    
+    /**
+     * An expense was rejected by a manager
+     */
+    REJECTED,
+    
+    /**
+     * A receipt was uploaded or replaced for an expense
+     */
+    RECEIPT_UPLOADED,
+    
+    /**
+     * A receipt was removed from an expense
+     */
+    RECEIPT_DELETED
+}
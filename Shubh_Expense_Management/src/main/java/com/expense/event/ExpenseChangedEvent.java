@@ -0,0 +1,20 @@
+package com.expense.event;
+
+import com.expense.dto.ExpenseResponse;
+
+/**
+ * Application event published by the service layer whenever an expense (or its receipt) is written.
+ * Listeners that must only observe committed data should use a transactional event listener.
+ *
+ * @param expenseId the ID of the affected expense
+ * @param ownerEmail the email of the user who owns the expense
+ * @param type the kind of change that was applied
+ * @param expense the expense state after the change, null if not captured (e.g. deletes)
+ */
+public record ExpenseChangedEvent(Long expenseId, String ownerEmail, ExpenseChangeType type,
+                                  ExpenseResponse expense) {
+
+    public ExpenseChangedEvent(Long expenseId, String ownerEmail, ExpenseChangeType type) {
+        this(expenseId, ownerEmail, type, null);
+    }
+}
@@ -169,6 +169,32 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
     
+    /**
+     * Handle UploadOffsetConflictException (chunk sent for the wrong offset).
+     * The current offset is returned in the Upload-Offset header so the client can resume.
+     *
+     * @param ex the UploadOffsetConflictException
+     * @param request the web request
+     * @return ResponseEntity with error details
+     */
+    @ExceptionHandler(UploadOffsetConflictException.class)
+    public ResponseEntity<ErrorResponse> handleUploadOffsetConflictException(
+            UploadOffsetConflictException ex, WebRequest request) {
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.CONFLICT.value(),
+                "Upload Offset Conflict",
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+        
+        log.warn("Upload offset conflict: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header("Upload-Offset", String.valueOf(ex.getCurrentOffset()))
+                .body(errorResponse);
+    }
+    
     /**
      * Handle ForbiddenException (e.g., accessing restricted resources).
      *
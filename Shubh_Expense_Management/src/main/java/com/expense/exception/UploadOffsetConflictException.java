@@ -0,0 +1,21 @@
+package com.expense.exception;
+
+/**
+ * Exception thrown when a chunk of a resumable upload is sent for an offset
+ * other than the number of bytes already received.
+ * Results in HTTP 409 Conflict response with the current offset in the Upload-Offset header.
+ */
+public class UploadOffsetConflictException extends RuntimeException {
+    
+    private final long currentOffset;
+    
+    public UploadOffsetConflictException(long requestedOffset, long currentOffset) {
+        super(String.format("Chunk offset %d does not match the current upload offset %d",
+                requestedOffset, currentOffset));
+        this.currentOffset = currentOffset;
+    }
+    
+    public long getCurrentOffset() {
+        return currentOffset;
+    }
+}
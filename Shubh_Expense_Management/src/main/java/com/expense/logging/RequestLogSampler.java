@@ -0,0 +1,66 @@
+package com.expense.logging;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Decides which request summaries are written.
+ * <p>
+ * Each endpoint ({@code "GET /api/expenses/{id}"}, or just the path pattern for every method)
+ * can have its own sample rate between 0 and 1; other endpoints use the default rate.
+ * Server errors and slow requests are always written so sampling never hides a problem.
+ * 503 responses from load shedding are sampled like successes, otherwise an overload would
+ * turn every rejected request into a log line.
+ */
+public class RequestLogSampler {
+
+    private final double defaultRate;
+    private final Map<String, Double> endpointRates;
+    private final long slowThresholdMs;
+    private final DoubleSupplier random;
+
+    public RequestLogSampler(double defaultRate, Map<String, Double> endpointRates, long slowThresholdMs) {
+        this(defaultRate, endpointRates, slowThresholdMs, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    RequestLogSampler(double defaultRate, Map<String, Double> endpointRates, long slowThresholdMs,
+                      DoubleSupplier random) {
+        this.defaultRate = defaultRate;
+        this.endpointRates = Map.copyOf(endpointRates);
+        this.slowThresholdMs = slowThresholdMs;
+        this.random = random;
+    }
+
+    /**
+     * @param method the HTTP method
+     * @param endpoint the matched path pattern, or the request path if no handler matched
+     * @param status the response status
+     * @param latencyMs the request latency
+     * @return true if the summary of this request should be written
+     */
+    public boolean shouldLog(String method, String endpoint, int status, long latencyMs) {
+        if (latencyMs >= slowThresholdMs || (status >= 500 && status != 503)) {
+            return true;
+        }
+
+        double rate = rateFor(method, endpoint);
+        if (rate >= 1.0) {
+            return true;
+        }
+        return rate > 0.0 && random.getAsDouble() < rate;
+    }
+
+    /**
+     * @param method the HTTP method
+     * @param endpoint the matched path pattern
+     * @return the configured rate for the method and endpoint, the endpoint, or the default rate
+     */
+    double rateFor(String method, String endpoint) {
+        Double rate = endpointRates.get(method + " " + endpoint);
+        if (rate == null) {
+            rate = endpointRates.get(endpoint);
+        }
+        return rate != null ? rate : defaultRate;
+    }
+}
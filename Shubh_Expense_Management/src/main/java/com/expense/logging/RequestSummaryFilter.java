@@ -0,0 +1,172 @@
+package com.expense.logging;
+
+import com.expense.security.AuthenticatedUser;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Filter that writes one summary record per API request: method, endpoint pattern, status,
+ * user id, latency and the number of SQL statements.
+ * <p>
+ * Replaces the per-step INFO lines of controllers and services, which are now DEBUG.
+ * Records go to the {@code com.expense.request} logger with the fields also attached as
+ * key/value pairs, so the {@code structured} logging profile emits them as JSON attributes.
+ * Which records are written is decided by {@link RequestLogSampler}. Streamed responses are
+ * summarized when the async request completes, so their latency covers the whole download.
+ */
+@Component
+public class RequestSummaryFilter extends OncePerRequestFilter {
+
+    private static final Logger SUMMARY = LoggerFactory.getLogger("com.expense.request");
+
+    private final SqlStatementCounter sqlStatementCounter;
+    private final RequestLogSampler sampler;
+    private final boolean enabled;
+
+    public RequestSummaryFilter(SqlStatementCounter sqlStatementCounter, Environment environment) {
+        this.sqlStatementCounter = sqlStatementCounter;
+        this.enabled = environment.getProperty("request-log.enabled", Boolean.class, true);
+        this.sampler = new RequestLogSampler(
+                environment.getProperty("request-log.sample-rate", Double.class, 1.0),
+                Binder.get(environment)
+                        .bind("request-log.endpoints", Bindable.mapOf(String.class, Double.class))
+                        .orElse(Map.of()),
+                environment.getProperty("request-log.slow-threshold-ms", Long.class, 1000L));
+    }
+
+    /**
+     * Measure the request and write its summary if it is sampled.
+     *
+     * @param request the HTTP request
+     * @param response the HTTP response
+     * @param filterChain the filter chain
+     * @throws ServletException if a servlet error occurs
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long started = System.nanoTime();
+        AtomicInteger sqlCount = sqlStatementCounter.start();
+        request.setAttribute(SqlStatementCounter.REQUEST_ATTRIBUTE, sqlCount);
+        int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        try {
+            filterChain.doFilter(request, response);
+            status = response.getStatus();
+        } finally {
+            sqlStatementCounter.stop();
+            if (request.isAsyncStarted()) {
+                // The body is still being written on an async thread; summarize once it is done
+                Long userId = currentUserId();
+                request.getAsyncContext().addListener(new SummaryListener(request, response, started, sqlCount, userId));
+            } else {
+                summarize(request, status, started, sqlCount.get(), currentUserId());
+            }
+        }
+    }
+
+    private void summarize(HttpServletRequest request, int status, long started, int sqlCount, Long userId) {
+        long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        String endpoint = endpoint(request);
+
+        if (SUMMARY.isInfoEnabled() && sampler.shouldLog(request.getMethod(), endpoint, status, latencyMs)) {
+            SUMMARY.atInfo()
+                    .addKeyValue("method", request.getMethod())
+                    .addKeyValue("endpoint", endpoint)
+                    .addKeyValue("status", status)
+                    .addKeyValue("userId", userId)
+                    .addKeyValue("latencyMs", latencyMs)
+                    .addKeyValue("sqlCount", sqlCount)
+                    .log("{} {} {} in {} ms ({} SQL, user {})",
+                            request.getMethod(), endpoint, status, latencyMs, sqlCount, userId);
+        }
+    }
+
+    /**
+     * Only API requests are summarized.
+     *
+     * @param request the HTTP request
+     * @return true if the request is not an API request
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getServletPath().startsWith("/api/");
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getServletPath();
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        return null;
+    }
+
+    /**
+     * Writes the summary of an async request when it completes. A timed out or failed stream is
+     * recorded as a server error, whatever status was sent before the body.
+     */
+    private final class SummaryListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final long started;
+        private final AtomicInteger sqlCount;
+        private final Long userId;
+        private volatile boolean failed;
+
+        private SummaryListener(HttpServletRequest request, HttpServletResponse response, long started,
+                                AtomicInteger sqlCount, Long userId) {
+            this.request = request;
+            this.response = response;
+            this.started = started;
+            this.sqlCount = sqlCount;
+            this.userId = userId;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+            summarize(request, status, started, sqlCount.get(), userId);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.expense.logging;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a request is measured.
+ * Registered as Hibernate's statement inspector; statements issued through JdbcTemplate are not seen.
+ * Also registered as a callable interceptor, so streamed responses that run on an async thread
+ * keep counting into the request's counter.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector, HibernatePropertiesCustomizer,
+        CallableProcessingInterceptor {
+
+    /** Request attribute holding the counter of a measured request. */
+    static final String REQUEST_ATTRIBUTE = SqlStatementCounter.class.getName() + ".count";
+
+    private final ThreadLocal<AtomicInteger> counts = new ThreadLocal<>();
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    /**
+     * Count the statement if the current thread is being measured. The SQL is returned unchanged.
+     *
+     * @param sql the SQL Hibernate is about to prepare
+     * @return the same SQL
+     */
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger count = counts.get();
+        if (count != null) {
+            count.incrementAndGet();
+        }
+        return sql;
+    }
+
+    /**
+     * Start counting on the current thread.
+     *
+     * @return the counter, which keeps growing while async work of the request runs
+     */
+    public AtomicInteger start() {
+        AtomicInteger count = new AtomicInteger();
+        counts.set(count);
+        return count;
+    }
+
+    /**
+     * Stop counting on the current thread.
+     *
+     * @return the number of statements since {@link #start()}, 0 if counting was not started
+     */
+    public int stop() {
+        AtomicInteger count = counts.get();
+        counts.remove();
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * Continue counting the request's statements on the async thread that runs its callable.
+     */
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        Object count = request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (count instanceof AtomicInteger counter) {
+            counts.set(counter);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        counts.remove();
+    }
+}
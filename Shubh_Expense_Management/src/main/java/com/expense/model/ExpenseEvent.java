@@ -0,0 +1,54 @@
+package com.expense.model;
+
+import com.expense.event.ExpenseChangeType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing an expense lifecycle event in the transactional outbox.
+ * Written in the same transaction as the expense change, published later by the outbox relay.
+ */
+@Entity
+@Table(name = "expense_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long expenseId;
+    
+    @Column(nullable = false)
+    private String ownerEmail;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private ExpenseChangeType eventType;
+    
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime publishedAt;
+    
+    /** Position in the event feed, assigned by the outbox relay when the event is published. */
+    private Long feedPosition;
+    
+    /**
+     * Automatically set createdAt timestamp before persisting
+     */
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,25 @@
+package com.expense.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity holding the last event feed position handed out by the outbox relay (a single row, id 1).
+ * The relay increments it in its publishing transaction; the row lock serializes relays, so
+ * positions become visible in increasing order and the feed cursor never skips an event.
+ */
+@Entity
+@Table(name = "expense_event_feed")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseEventFeed {
+    
+    @Id
+    private Integer id;
+    
+    @Column(nullable = false)
+    private Long lastPosition;
+}
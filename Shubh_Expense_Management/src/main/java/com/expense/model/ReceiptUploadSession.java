@@ -0,0 +1,71 @@
+package com.expense.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a resumable receipt upload in progress.
+ * Chunks are appended to a temp file named after the session ID; {@code receivedBytes}
+ * is the authoritative offset a client resumes from.
+ */
+@Entity
+@Table(name = "receipt_upload_sessions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReceiptUploadSession {
+    
+    @Id
+    @Column(length = 36)
+    private String id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "expense_id", nullable = false)
+    private Expense expense;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    @Column(nullable = false)
+    private String fileName;
+    
+    @Column(nullable = false, length = 50)
+    private String fileType;
+    
+    @Column(nullable = false)
+    private Long totalSize;
+    
+    @Column(nullable = false)
+    private Long receivedBytes = 0L;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+    
+    /**
+     * Automatically set createdAt and updatedAt timestamps before persisting
+     */
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+    
+    /**
+     * Automatically update updatedAt timestamp before updating
+     */
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
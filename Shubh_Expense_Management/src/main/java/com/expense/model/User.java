@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -40,6 +41,17 @@ public class User {
     @Column(nullable = false)
     private UserRole role = UserRole.USER;
     
+    @Column(length = 100)
+    private String department;
+    
+    /**
+     * Bumped in every transaction that writes the user's expenses or receipts and used to build
+     * their ETags. Only written by {@link com.expense.repository.UserRepository#incrementDataVersion}.
+     */
+    @ColumnDefault("0")
+    @Column(name = "data_version", nullable = false, insertable = false, updatable = false)
+    private Long dataVersion;
+    
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
@@ -0,0 +1,34 @@
+package com.expense.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Outbox sink that collects events in a local queue. Used by tests ({@code outbox.sink=memory}).
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "memory")
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final LinkedBlockingQueue<OutboxMessage> queue = new LinkedBlockingQueue<>();
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        queue.addAll(messages);
+    }
+
+    /**
+     * Remove and return all events published so far.
+     *
+     * @return the published events in publish order
+     */
+    public List<OutboxMessage> drain() {
+        List<OutboxMessage> messages = new ArrayList<>();
+        queue.drainTo(messages);
+        return messages;
+    }
+}
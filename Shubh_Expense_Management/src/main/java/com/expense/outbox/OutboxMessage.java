@@ -0,0 +1,17 @@
+package com.expense.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox event handed to an {@link OutboxSink}.
+ *
+ * @param id the outbox row id, increasing in insert order; consumers can use it to deduplicate
+ * @param expenseId the ID of the affected expense
+ * @param ownerEmail the email of the expense owner
+ * @param eventType the lifecycle change, e.g. APPROVED
+ * @param payload the expense state after the change as JSON, null if not captured
+ * @param createdAt when the change was written
+ */
+public record OutboxMessage(long id, Long expenseId, String ownerEmail, String eventType, String payload,
+                            LocalDateTime createdAt) {
+}
@@ -0,0 +1,139 @@
+package com.expense.outbox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Background relay that drains the {@code expense_events} outbox into the configured {@link OutboxSink}.
+ * <p>
+ * Each batch is claimed with {@code FOR UPDATE SKIP LOCKED}, published and marked as published
+ * in one transaction, so several application instances can relay concurrently without
+ * publishing the same row twice, and a failed publish leaves the batch for the next run.
+ * <p>
+ * Published events get the next positions of the {@code GET /api/events} feed from the
+ * {@code expense_event_feed} counter. Its row lock is held until the batch commits, so positions
+ * become visible in increasing order even with several relays running.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    private static final String CLAIM_BATCH =
+            "SELECT id, expense_id, owner_email, event_type, payload, created_at FROM expense_events "
+                    + "WHERE published_at IS NULL ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String MARK_PUBLISHED = "UPDATE expense_events SET published_at = ?, "
+            + "feed_position = COALESCE(feed_position, ?) WHERE id = ?";
+
+    private static final String RESERVE_POSITIONS =
+            "UPDATE expense_event_feed SET last_position = last_position + ? WHERE id = 1";
+
+    private static final String LAST_POSITION = "SELECT last_position FROM expense_event_feed WHERE id = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final OutboxSink outboxSink;
+
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${outbox.relay.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    /**
+     * Drain full batches until the outbox is empty or the per-run cap is reached.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:1000}",
+            initialDelayString = "${outbox.relay.initial-delay-ms:5000}")
+    public void relay() {
+        try {
+            int published;
+            int batches = 0;
+            do {
+                published = relayBatch();
+                batches++;
+            } while (published == batchSize && batches < maxBatchesPerRun);
+        } catch (RuntimeException e) {
+            log.error("Outbox relay failed, unpublished events will be retried", e);
+        }
+    }
+
+    /**
+     * Claim, publish and mark one batch in a single transaction.
+     *
+     * @return the number of events published
+     */
+    public int relayBatch() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Integer published = transaction.execute(status -> {
+            List<OutboxMessage> batch = jdbcTemplate.query(CLAIM_BATCH, (rs, rowNum) -> new OutboxMessage(
+                    rs.getLong("id"),
+                    rs.getLong("expense_id"),
+                    rs.getString("owner_email"),
+                    rs.getString("event_type"),
+                    rs.getString("payload"),
+                    rs.getTimestamp("created_at").toLocalDateTime()), batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            try {
+                outboxSink.publish(batch);
+            } catch (Exception e) {
+                throw new IllegalStateException("Outbox sink failed for events " + batch.get(0).id()
+                        + ".." + batch.get(batch.size() - 1).id(), e);
+            }
+
+            // Reserved as late as possible: the counter row stays locked until this transaction commits
+            long firstPosition = reservePositions(batch.size());
+            Timestamp publishedAt = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(MARK_PUBLISHED, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement statement, int i) throws SQLException {
+                    statement.setTimestamp(1, publishedAt);
+                    statement.setLong(2, firstPosition + i);
+                    statement.setLong(3, batch.get(i).id());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batch.size();
+                }
+            });
+            return batch.size();
+        });
+
+        if (published != null && published > 0) {
+            log.info("Outbox relay published {} expense events", published);
+        }
+        return published != null ? published : 0;
+    }
+
+    /**
+     * Reserve consecutive feed positions, locking the counter row until the transaction ends.
+     *
+     * @param count the number of positions
+     * @return the first reserved position
+     */
+    private long reservePositions(int count) {
+        if (jdbcTemplate.update(RESERVE_POSITIONS, count) == 0) {
+            // Schemas generated by Hibernate instead of Flyway start without the counter row
+            jdbcTemplate.update("INSERT INTO expense_event_feed (id, last_position) VALUES (1, ?)", count);
+        }
+        return jdbcTemplate.queryForObject(LAST_POSITION, Long.class) - count + 1;
+    }
+}
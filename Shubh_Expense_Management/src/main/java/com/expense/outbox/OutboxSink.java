@@ -0,0 +1,19 @@
+package com.expense.outbox;
+
+import java.util.List;
+
+/**
+ * Destination the outbox relay publishes expense events to, e.g. a message broker or a file.
+ * Delivery is at-least-once: a batch is marked as published only after {@code publish} returns,
+ * so a failure or crash leads to the same events being published again.
+ */
+public interface OutboxSink {
+
+    /**
+     * Publish a batch of events in id order.
+     *
+     * @param messages the events to publish
+     * @throws Exception if the batch could not be published; it will be retried
+     */
+    void publish(List<OutboxMessage> messages) throws Exception;
+}
@@ -0,0 +1,57 @@
+package com.expense.outbox;
+
+import com.expense.event.ExpenseChangedEvent;
+import com.expense.model.ExpenseEvent;
+import com.expense.repository.ExpenseEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes every expense change into the {@code expense_events} outbox.
+ * Runs synchronously inside the transaction that publishes the event, so the outbox row
+ * commits or rolls back together with the expense change it describes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxWriter {
+
+    private final ExpenseEventRepository expenseEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Insert the outbox row for an expense change.
+     *
+     * @param event the expense change event
+     * @throws org.springframework.transaction.IllegalTransactionStateException if no transaction is active
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        ExpenseEvent outboxEvent = new ExpenseEvent();
+        outboxEvent.setExpenseId(event.expenseId());
+        outboxEvent.setOwnerEmail(event.ownerEmail());
+        outboxEvent.setEventType(event.type());
+        outboxEvent.setPayload(toJson(event));
+
+        expenseEventRepository.save(outboxEvent);
+        log.debug("Outbox event {} written for expense {}", event.type(), event.expenseId());
+    }
+
+    private String toJson(ExpenseChangedEvent event) {
+        if (event.expense() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(event.expense());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox payload for expense " + event.expenseId(), e);
+        }
+    }
+}
@@ -0,0 +1,546 @@
+package com.expense.report;
+
+import com.expense.dto.CubeReportResponse;
+import com.expense.dto.ReportDimension;
+import com.expense.event.ExpenseChangeType;
+import com.expense.event.ExpenseChangedEvent;
+import com.expense.model.ExpenseStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory columnar engine for multi-dimensional expense reports.
+ * <p>
+ * Keeps the report-relevant expense attributes in primitive arrays (see {@link ExpenseColumns})
+ * and answers filter/group-by queries over user × category × month × status with a parallel
+ * scan, instead of materializing entities and summing {@code BigDecimal}s per request.
+ * Amounts are held as exact cents, so totals match {@link com.expense.dto.ReportResponse} to the cent.
+ * <p>
+ * Freshness: the first query loads all rows; later queries apply rows whose {@code updated_at}
+ * is at or after the last seen watermark (minus an overlap for late commits). Deletes do not
+ * touch {@code updated_at}, so they are applied from committed {@link ExpenseChangedEvent}s;
+ * a periodic full reload reconciles anything else, e.g. deletes made by another instance.
+ * Only the first load runs on the querying thread; the periodic reload runs in the background
+ * while queries keep reading (and incrementally refreshing) the previous snapshot.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ColumnarReportEngine {
+
+    private static final String SELECT_ROWS =
+            "SELECT id, user_id, category_id, amount, expense_date, status, updated_at FROM expenses";
+
+    private static final int MIN_ROWS_PER_PARTITION = 65_536;
+
+    private static final ExpenseStatus[] STATUSES = ExpenseStatus.values();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${reports.columnar.max-staleness-ms:2000}")
+    private long maxStalenessMs;
+
+    @Value("${reports.columnar.refresh-overlap-ms:10000}")
+    private long refreshOverlapMs;
+
+    @Value("${reports.columnar.full-reload-ms:3600000}")
+    private long fullReloadMs;
+
+    @Value("${reports.columnar.fetch-size:10000}")
+    private int fetchSize;
+
+    /** Guards the column arrays: scans share it, upserts and snapshot swaps take it exclusively. */
+    private final ReentrantReadWriteLock dataLock = new ReentrantReadWriteLock();
+
+    /** Serializes incremental refreshes and snapshot swaps so that concurrent stale queries trigger a single refresh. */
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    /** Serializes full reloads; always taken before {@link #refreshLock}, never while holding it. */
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    /** Set while a background full reload is queued or running. */
+    private final AtomicBoolean backgroundReload = new AtomicBoolean();
+
+    private volatile ExpenseColumns columns;
+    private volatile long lastRefreshMillis;
+    private volatile long lastFullReloadMillis;
+    private LocalDateTime watermark;
+
+    /** Deletes that commit while a full reload is reading; replayed onto the new snapshot. */
+    private boolean reloading;
+    private final List<Long> deletedDuringReload = new ArrayList<>();
+
+    /**
+     * Aggregate expenses matching the filters, grouped by the requested dimensions.
+     * Semantics of the filters follow {@code ReportService.generateReport}: the date range
+     * applies only when both dates are given and is inclusive on both ends.
+     *
+     * @param userId optional owner filter, null for all users
+     * @param startDate optional start date for filtering
+     * @param endDate optional end date for filtering
+     * @param categoryId optional category ID for filtering
+     * @param status optional status for filtering
+     * @param groupBy the dimensions to group by, empty for a grand total only
+     * @return CubeReportResponse with one group per non-empty dimension combination (filters not set)
+     */
+    public CubeReportResponse aggregate(Long userId, LocalDate startDate, LocalDate endDate,
+                                        Long categoryId, ExpenseStatus status, Set<ReportDimension> groupBy) {
+        ensureFresh();
+
+        dataLock.readLock().lock();
+        try {
+            ExpenseColumns data = columns;
+            CubeScan scan = new CubeScan(data, userId, startDate, endDate, categoryId, status, groupBy);
+            GroupAccumulator result = scan.matchesNothing ? new GroupAccumulator() : scanParallel(data, scan);
+            return toResponse(data, scan, result, userId, groupBy);
+        } finally {
+            dataLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Discard the in-memory columns and load all expense rows again.
+     * Queries keep reading the previous snapshot until the new one is swapped in.
+     */
+    public void reload() {
+        reloadLock.lock();
+        try {
+            long started = System.currentTimeMillis();
+            Long rowCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses", Long.class);
+            ExpenseColumns fresh = new ExpenseColumns(Math.toIntExact(rowCount + rowCount / 8));
+
+            dataLock.writeLock().lock();
+            try {
+                reloading = true;
+                deletedDuringReload.clear();
+            } finally {
+                dataLock.writeLock().unlock();
+            }
+
+            LocalDateTime newest;
+            try {
+                newest = stream(SELECT_ROWS + " ORDER BY id", null,
+                        (id, userId, categoryId, cents, date, status) ->
+                                fresh.upsert(id, userId, categoryId, cents, date, status));
+            } catch (RuntimeException e) {
+                dataLock.writeLock().lock();
+                try {
+                    reloading = false;
+                    deletedDuringReload.clear();
+                } finally {
+                    dataLock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            // Swap in the new snapshot together with the deletes it may have missed; holding
+            // refreshLock keeps an incremental refresh from applying older rows on top of it
+            refreshLock.lock();
+            try {
+                dataLock.writeLock().lock();
+                try {
+                    reloading = false;
+                    deletedDuringReload.forEach(fresh::delete);
+                    deletedDuringReload.clear();
+                    columns = fresh;
+                } finally {
+                    dataLock.writeLock().unlock();
+                }
+
+                watermark = newest;
+                lastFullReloadMillis = System.currentTimeMillis();
+                lastRefreshMillis = lastFullReloadMillis;
+            } finally {
+                refreshLock.unlock();
+            }
+            log.info("Columnar report engine loaded {} expense rows in {} ms",
+                    fresh.size, lastFullReloadMillis - started);
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Apply rows changed since the last load. Performs a full reload if nothing is loaded yet.
+     */
+    public void refresh() {
+        if (columns == null) {
+            loadInitial();
+            return;
+        }
+
+        refreshLock.lock();
+        try {
+            long started = System.currentTimeMillis();
+            List<ChangedRow> changes = new ArrayList<>();
+            LocalDateTime since = watermark != null ? watermark.minus(Duration.ofMillis(refreshOverlapMs)) : null;
+            LocalDateTime newest = since == null
+                    ? stream(SELECT_ROWS, null, (id, userId, categoryId, cents, date, status) ->
+                            changes.add(new ChangedRow(id, userId, categoryId, cents, date, status)))
+                    : stream(SELECT_ROWS + " WHERE updated_at >= ?", since,
+                            (id, userId, categoryId, cents, date, status) ->
+                                    changes.add(new ChangedRow(id, userId, categoryId, cents, date, status)));
+
+            if (!changes.isEmpty()) {
+                dataLock.writeLock().lock();
+                try {
+                    ExpenseColumns data = columns;
+                    for (ChangedRow row : changes) {
+                        data.upsert(row.id(), row.userId(), row.categoryId(), row.amountCents(),
+                                row.expenseDate(), row.status());
+                    }
+                } finally {
+                    dataLock.writeLock().unlock();
+                }
+            }
+
+            if (newest != null && (watermark == null || newest.isAfter(watermark))) {
+                watermark = newest;
+            }
+            lastRefreshMillis = System.currentTimeMillis();
+            log.debug("Columnar report engine applied {} changed rows in {} ms",
+                    changes.size(), lastRefreshMillis - started);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Tombstone deleted expenses once the delete has committed.
+     * Other changes are picked up through the {@code updated_at} watermark.
+     *
+     * @param event the expense change event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        if (event.type() != ExpenseChangeType.DELETED) {
+            return;
+        }
+
+        dataLock.writeLock().lock();
+        try {
+            if (columns != null) {
+                columns.delete(event.expenseId());
+            }
+            if (reloading) {
+                deletedDuringReload.add(event.expenseId());
+            }
+        } finally {
+            dataLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Load the columns if they are missing, start a background full reload if one is due,
+     * and refresh the current snapshot if it is older than the allowed staleness.
+     */
+    private void ensureFresh() {
+        if (columns == null) {
+            loadInitial();
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - lastFullReloadMillis >= fullReloadMs) {
+            reloadInBackground();
+        }
+        if (now - lastRefreshMillis < maxStalenessMs) {
+            return;
+        }
+
+        refreshLock.lock();
+        try {
+            if (System.currentTimeMillis() - lastRefreshMillis >= maxStalenessMs) {
+                refresh();
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Load all rows on the calling thread unless another thread finished the first load meanwhile.
+     */
+    private void loadInitial() {
+        reloadLock.lock();
+        try {
+            if (columns == null) {
+                reload();
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Start a full reload on a daemon thread unless one is already queued or running.
+     * A failed reload leaves {@code lastFullReloadMillis} untouched, so the next query retries it.
+     */
+    private void reloadInBackground() {
+        if (!backgroundReload.compareAndSet(false, true)) {
+            return;
+        }
+
+        Thread thread = new Thread(() -> {
+            try {
+                reload();
+            } catch (RuntimeException e) {
+                log.warn("Background reload of the columnar report engine failed", e);
+            } finally {
+                backgroundReload.set(false);
+            }
+        }, "columnar-report-reload");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stream expense rows through a forward-only cursor inside a read-only transaction,
+     * so large tables are fetched in chunks of {@code fetchSize} rows instead of all at once.
+     *
+     * @param sql the select statement
+     * @param since optional {@code updated_at} lower bound bound to the single parameter
+     * @param sink receives every row
+     * @return the newest {@code updated_at} seen, or null if no rows were read
+     */
+    private LocalDateTime stream(String sql, LocalDateTime since, RowSink sink) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        return transaction.execute(status -> {
+            LocalDateTime[] newest = new LocalDateTime[1];
+            RowCallbackHandler handler = (ResultSet rs) -> {
+                LocalDateTime updatedAt = rs.getObject(7, LocalDateTime.class);
+                if (updatedAt != null && (newest[0] == null || updatedAt.isAfter(newest[0]))) {
+                    newest[0] = updatedAt;
+                }
+                sink.accept(
+                        rs.getLong(1),
+                        rs.getLong(2),
+                        rs.getLong(3),
+                        rs.getBigDecimal(4).movePointRight(2).longValueExact(),
+                        rs.getObject(5, LocalDate.class),
+                        (byte) ExpenseStatus.valueOf(rs.getString(6)).ordinal());
+            };
+
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                if (since != null) {
+                    statement.setObject(1, since);
+                }
+                return statement;
+            }, handler);
+            return newest[0];
+        });
+    }
+
+    /**
+     * Split the rows into partitions, scan them on the common fork-join pool and merge the partial groups.
+     */
+    private GroupAccumulator scanParallel(ExpenseColumns data, CubeScan scan) {
+        int rows = data.size;
+        int partitions = Math.max(1, Math.min(rows / MIN_ROWS_PER_PARTITION,
+                ForkJoinPool.getCommonPoolParallelism() * 4));
+
+        return IntStream.range(0, partitions)
+                .parallel()
+                .mapToObj(partition -> scan.scan(
+                        (int) ((long) rows * partition / partitions),
+                        (int) ((long) rows * (partition + 1) / partitions)))
+                .reduce(GroupAccumulator::merge)
+                .orElseGet(GroupAccumulator::new);
+    }
+
+    /**
+     * Decode the packed group keys into response groups and compute the grand totals.
+     */
+    private CubeReportResponse toResponse(ExpenseColumns data, CubeScan scan, GroupAccumulator result,
+                                          Long userId, Set<ReportDimension> groupBy) {
+        List<CubeReportResponse.CubeGroup> groups = new ArrayList<>(result.size());
+        long totalCount = 0;
+        long totalCents = 0;
+
+        for (long key : result.sortedKeys()) {
+            long count = result.count(key);
+            long cents = result.sum(key);
+            totalCount += count;
+            totalCents += cents;
+
+            long rest = key;
+            ExpenseStatus status = scan.groupStatus ? STATUSES[(int) (rest % scan.statusRadix)] : null;
+            rest /= scan.statusRadix;
+            String month = scan.groupMonth ? monthOf(scan.minMonth + (int) (rest % scan.monthRadix)) : null;
+            rest /= scan.monthRadix;
+            Long categoryId = scan.groupCategory ? rest % scan.categoryRadix : null;
+            rest /= scan.categoryRadix;
+            Long groupUserId = scan.groupUser ? data.userIdsByOrdinal[(int) rest] : null;
+
+            groups.add(new CubeReportResponse.CubeGroup(groupUserId, categoryId, month, status, count,
+                    BigDecimal.valueOf(cents, 2)));
+        }
+
+        // Same scale as summing the BigDecimal amounts from ZERO: 0 when empty, 2 otherwise
+        BigDecimal totalAmount = totalCount == 0 ? BigDecimal.ZERO : BigDecimal.valueOf(totalCents, 2);
+        return new CubeReportResponse(groups, totalAmount, totalCount, groupBy, userId, null);
+    }
+
+    private static int monthIndex(int epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    private static String monthOf(int monthIndex) {
+        return YearMonth.of(monthIndex / 12, monthIndex % 12 + 1).toString();
+    }
+
+    /**
+     * Compiled filter and group-key layout of one query.
+     * The group key is a mixed-radix number of the grouped dimensions:
+     * ((user * categories + category) * months + month) * statuses + status.
+     */
+    private static final class CubeScan {
+
+        private final ExpenseColumns data;
+        private final boolean matchesNothing;
+
+        private final int userOrdinal;
+        private final int categoryId;
+        private final int status;
+        private final int fromDay;
+        private final int toDay;
+
+        private final boolean groupUser;
+        private final boolean groupCategory;
+        private final boolean groupMonth;
+        private final boolean groupStatus;
+
+        private final long categoryRadix;
+        private final long monthRadix;
+        private final long statusRadix;
+        private final int minMonth;
+        private final int[] monthByDay;
+
+        private CubeScan(ExpenseColumns data, Long userId, LocalDate startDate, LocalDate endDate,
+                         Long categoryId, ExpenseStatus status, Set<ReportDimension> groupBy) {
+            this.data = data;
+
+            int ordinal = userId != null ? data.findUserOrdinal(userId) : -1;
+            this.userOrdinal = ordinal;
+            this.categoryId = categoryId != null && categoryId <= Integer.MAX_VALUE ? categoryId.intValue() : -1;
+            this.status = status != null ? status.ordinal() : -1;
+
+            boolean byDate = startDate != null && endDate != null;
+            this.fromDay = byDate ? Math.toIntExact(startDate.toEpochDay()) : Integer.MIN_VALUE;
+            this.toDay = byDate ? Math.toIntExact(endDate.toEpochDay()) : Integer.MAX_VALUE;
+
+            this.matchesNothing = data.size == 0
+                    || (userId != null && ordinal == LongIntHashMap.MISSING)
+                    || (categoryId != null && this.categoryId < 0)
+                    || fromDay > toDay;
+
+            this.groupUser = groupBy.contains(ReportDimension.USER);
+            this.groupCategory = groupBy.contains(ReportDimension.CATEGORY);
+            this.groupMonth = groupBy.contains(ReportDimension.MONTH);
+            this.groupStatus = groupBy.contains(ReportDimension.STATUS);
+
+            long userRadix = groupUser ? Math.max(1, data.userCount) : 1;
+            this.categoryRadix = groupCategory ? data.maxCategoryId + 1L : 1;
+            this.statusRadix = groupStatus ? STATUSES.length : 1;
+
+            if (groupMonth && data.size > 0) {
+                // Precompute day -> month offset so the scan does no date arithmetic per row
+                this.minMonth = monthIndex(data.minEpochDay);
+                this.monthRadix = monthIndex(data.maxEpochDay) - minMonth + 1L;
+                this.monthByDay = new int[data.maxEpochDay - data.minEpochDay + 1];
+                for (int day = data.minEpochDay; day <= data.maxEpochDay; day++) {
+                    monthByDay[day - data.minEpochDay] = monthIndex(day) - minMonth;
+                }
+            } else {
+                this.minMonth = 0;
+                this.monthRadix = 1;
+                this.monthByDay = null;
+            }
+
+            // Fail loudly rather than wrap around if the key space ever exceeds a long
+            Math.multiplyExact(Math.multiplyExact(Math.multiplyExact(userRadix, categoryRadix), monthRadix),
+                    statusRadix);
+        }
+
+        /**
+         * Scan one row range into a private accumulator.
+         *
+         * @param from first row (inclusive)
+         * @param to last row (exclusive)
+         * @return the partial groups of the range
+         */
+        private GroupAccumulator scan(int from, int to) {
+            GroupAccumulator accumulator = new GroupAccumulator();
+            byte[] statuses = data.statuses;
+            int[] epochDays = data.epochDays;
+            int[] userOrdinals = data.userOrdinals;
+            int[] categoryIds = data.categoryIds;
+            long[] amountCents = data.amountCents;
+
+            for (int row = from; row < to; row++) {
+                byte rowStatus = statuses[row];
+                if (rowStatus == ExpenseColumns.DELETED || (status >= 0 && rowStatus != status)) {
+                    continue;
+                }
+                int day = epochDays[row];
+                if (day < fromDay || day > toDay) {
+                    continue;
+                }
+                int user = userOrdinals[row];
+                if (userOrdinal >= 0 && user != userOrdinal) {
+                    continue;
+                }
+                int category = categoryIds[row];
+                if (categoryId >= 0 && category != categoryId) {
+                    continue;
+                }
+
+                long key = groupUser ? user : 0;
+                key = key * categoryRadix + (groupCategory ? category : 0);
+                key = key * monthRadix + (groupMonth ? monthByDay[day - data.minEpochDay] : 0);
+                key = key * statusRadix + (groupStatus ? rowStatus : 0);
+                accumulator.add(key, amountCents[row]);
+            }
+            return accumulator;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowSink {
+        void accept(long id, long userId, long categoryId, long amountCents, LocalDate expenseDate, byte status);
+    }
+
+    private record ChangedRow(long id, long userId, long categoryId, long amountCents,
+                              LocalDate expenseDate, byte status) {
+    }
+}
@@ -0,0 +1,119 @@
+package com.expense.report;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Column-oriented copy of the expense rows that reports aggregate over.
+ * Each attribute lives in its own primitive array indexed by row, so a scan touches
+ * only the columns it needs and no per-row objects exist. Rows are upserted by
+ * expense id and deletions leave a tombstone status. Not thread-safe; guarded by
+ * {@link ColumnarReportEngine}.
+ */
+final class ExpenseColumns {
+
+    /** Status value of a deleted row; skipped by every scan. */
+    static final byte DELETED = -1;
+
+    long[] ids;
+    int[] userOrdinals;
+    int[] categoryIds;
+    long[] amountCents;
+    int[] epochDays;
+    byte[] statuses;
+    int size;
+
+    /** Dense ordinals for user ids so the user dimension packs into a small key range. */
+    long[] userIdsByOrdinal;
+    int userCount;
+
+    int maxCategoryId;
+    int minEpochDay = Integer.MAX_VALUE;
+    int maxEpochDay = Integer.MIN_VALUE;
+
+    private final LongIntHashMap rowsById;
+    private final LongIntHashMap ordinalsByUserId;
+
+    ExpenseColumns(int expectedRows) {
+        int capacity = Math.max(16, expectedRows);
+        ids = new long[capacity];
+        userOrdinals = new int[capacity];
+        categoryIds = new int[capacity];
+        amountCents = new long[capacity];
+        epochDays = new int[capacity];
+        statuses = new byte[capacity];
+        userIdsByOrdinal = new long[16];
+        rowsById = new LongIntHashMap(capacity);
+        ordinalsByUserId = new LongIntHashMap(16);
+    }
+
+    /**
+     * Insert a new row or overwrite the row with the same expense id.
+     */
+    void upsert(long id, long userId, long categoryId, long cents, LocalDate expenseDate, byte status) {
+        int row = rowsById.get(id);
+        if (row == LongIntHashMap.MISSING) {
+            ensureCapacity(size + 1);
+            row = size++;
+            ids[row] = id;
+            rowsById.put(id, row);
+        }
+
+        int epochDay = Math.toIntExact(expenseDate.toEpochDay());
+        userOrdinals[row] = userOrdinal(userId);
+        categoryIds[row] = Math.toIntExact(categoryId);
+        amountCents[row] = cents;
+        epochDays[row] = epochDay;
+        statuses[row] = status;
+
+        maxCategoryId = Math.max(maxCategoryId, categoryIds[row]);
+        minEpochDay = Math.min(minEpochDay, epochDay);
+        maxEpochDay = Math.max(maxEpochDay, epochDay);
+    }
+
+    /**
+     * Mark a row as deleted. Unknown ids are ignored.
+     *
+     * @param id the expense id
+     */
+    void delete(long id) {
+        int row = rowsById.get(id);
+        if (row != LongIntHashMap.MISSING) {
+            statuses[row] = DELETED;
+        }
+    }
+
+    /**
+     * @param userId the user id
+     * @return the dense ordinal of the user, or {@link LongIntHashMap#MISSING} if no row belongs to the user
+     */
+    int findUserOrdinal(long userId) {
+        return ordinalsByUserId.get(userId);
+    }
+
+    private int userOrdinal(long userId) {
+        int ordinal = ordinalsByUserId.get(userId);
+        if (ordinal == LongIntHashMap.MISSING) {
+            if (userCount == userIdsByOrdinal.length) {
+                userIdsByOrdinal = Arrays.copyOf(userIdsByOrdinal, userCount * 2);
+            }
+            ordinal = userCount++;
+            userIdsByOrdinal[ordinal] = userId;
+            ordinalsByUserId.put(userId, ordinal);
+        }
+        return ordinal;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        userOrdinals = Arrays.copyOf(userOrdinals, capacity);
+        categoryIds = Arrays.copyOf(categoryIds, capacity);
+        amountCents = Arrays.copyOf(amountCents, capacity);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+    }
+}
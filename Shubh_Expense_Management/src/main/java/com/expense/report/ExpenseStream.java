@@ -0,0 +1,16 @@
+package com.expense.report;
+
+import com.expense.dto.ReportResponse;
+import com.expense.model.ExpenseStatus;
+
+/**
+ * Validated expense report query, ready to be streamed by {@link ExpenseStreamWriter}.
+ *
+ * @param userId the owner of the expenses
+ * @param filters the filters as requested, echoed in the JSON output
+ * @param status the parsed status filter, null for all statuses
+ */
+public record ExpenseStream(Long userId,
+                            ReportResponse.ReportFilters filters,
+                            ExpenseStatus status) {
+}
@@ -0,0 +1,240 @@
+package com.expense.report;
+
+import com.expense.dto.CategoryResponse;
+import com.expense.dto.ExpenseResponse;
+import com.expense.dto.ReceiptResponse;
+import com.expense.dto.ReportResponse;
+import com.expense.dto.UserResponse;
+import com.expense.model.ExpenseStatus;
+import com.expense.model.UserRole;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams a user's filtered expenses straight from a database cursor, as a JSON report or as NDJSON.
+ * Rows are fetched in chunks of {@code fetchSize} and written as they arrive, so memory use and
+ * time to first byte do not grow with the number of expenses. Compression is left to the server
+ * ({@code server.compression}), which gzips the chunked output when the client accepts it.
+ * <p>
+ * The cursor keeps a pooled connection and a read-only transaction open until the last row is
+ * written, so a slow client holds them for the whole download. The export concurrency limit,
+ * held until the async request completes, and {@code spring.mvc.async.request-timeout} bound
+ * how many connections and for how long.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExpenseStreamWriter {
+
+    private static final String SELECT_EXPENSES = "SELECT e.id, e.amount, e.expense_date, e.description, e.status, "
+            + "e.submitted_at, e.reviewed_at, e.review_notes, e.created_at, e.updated_at, "
+            + "c.id AS category_id, c.name AS category_name, c.description AS category_description, "
+            + "r.id AS receipt_id, r.file_name, r.file_type, r.file_size, r.uploaded_at, "
+            + "u.id AS reviewer_id, u.email AS reviewer_email, u.first_name AS reviewer_first_name, "
+            + "u.last_name AS reviewer_last_name, u.role AS reviewer_role "
+            + "FROM expenses e JOIN categories c ON c.id = e.category_id "
+            + "LEFT JOIN receipts r ON r.expense_id = e.id "
+            + "LEFT JOIN users u ON u.id = e.reviewed_by "
+            + "WHERE e.user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${reports.stream.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${reports.stream.flush-rows:500}")
+    private int flushRows;
+
+    /**
+     * Write the expenses as a JSON object shaped like {@link ReportResponse}: the filters first,
+     * then the {@code expenses} array, then {@code totalAmount} and {@code count}, which are
+     * accumulated while streaming.
+     *
+     * @param stream the validated query
+     * @param out the output stream, left open
+     * @throws IOException if writing fails, e.g. because the client disconnected
+     */
+    public void writeJson(ExpenseStream stream, OutputStream out) throws IOException {
+        try (JsonGenerator json = createGenerator(out)) {
+            json.writeStartObject();
+            json.writeObjectField("filters", stream.filters());
+            json.writeArrayFieldStart("expenses");
+            Totals totals = streamExpenses(stream, json, false);
+            json.writeEndArray();
+            json.writeNumberField("totalAmount", totals.amount);
+            json.writeNumberField("count", totals.count);
+            json.writeEndObject();
+        }
+    }
+
+    /**
+     * Write the expenses as newline-delimited JSON, one {@link ExpenseResponse} per line.
+     *
+     * @param stream the validated query
+     * @param out the output stream, left open
+     * @throws IOException if writing fails, e.g. because the client disconnected
+     */
+    public void writeNdjson(ExpenseStream stream, OutputStream out) throws IOException {
+        try (JsonGenerator json = createGenerator(out)) {
+            json.setRootValueSeparator(null);
+            streamExpenses(stream, json, true);
+        }
+    }
+
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return json;
+    }
+
+    /**
+     * Read the expenses through a forward-only cursor inside a read-only transaction and write each
+     * row as it is read. The output is flushed after the first row and then every {@code flushRows}
+     * rows, so the client starts receiving data before the query is exhausted.
+     */
+    private Totals streamExpenses(ExpenseStream stream, JsonGenerator json, boolean newlineDelimited)
+            throws IOException {
+        List<Object> args = new ArrayList<>();
+        String sql = filteredQuery(stream, args);
+        Totals totals = new Totals();
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        try {
+            transaction.executeWithoutResult(status -> {
+                RowCallbackHandler handler = (ResultSet rs) -> {
+                    ExpenseResponse expense = mapRow(rs);
+                    try {
+                        json.writeObject(expense);
+                        if (newlineDelimited) {
+                            json.writeRaw('\n');
+                        }
+                        totals.add(expense.getAmount());
+                        if (totals.count == 1 || totals.count % flushRows == 0) {
+                            json.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                };
+
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(sql,
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(fetchSize);
+                    for (int i = 0; i < args.size(); i++) {
+                        statement.setObject(i + 1, args.get(i));
+                    }
+                    return statement;
+                }, handler);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return totals;
+    }
+
+    /**
+     * Build the filtered query, mirroring the filters of the report endpoints, newest expenses first.
+     */
+    private static String filteredQuery(ExpenseStream stream, List<Object> args) {
+        ReportResponse.ReportFilters filters = stream.filters();
+        StringBuilder sql = new StringBuilder(SELECT_EXPENSES);
+        args.add(stream.userId());
+        if (filters.getStartDate() != null && filters.getEndDate() != null) {
+            sql.append(" AND e.expense_date BETWEEN ? AND ?");
+            args.add(Date.valueOf(filters.getStartDate()));
+            args.add(Date.valueOf(filters.getEndDate()));
+        }
+        if (filters.getCategoryId() != null) {
+            sql.append(" AND e.category_id = ?");
+            args.add(filters.getCategoryId());
+        }
+        if (stream.status() != null) {
+            sql.append(" AND e.status = ?");
+            args.add(stream.status().name());
+        }
+        sql.append(" ORDER BY e.expense_date DESC, e.id DESC");
+        return sql.toString();
+    }
+
+    private static ExpenseResponse mapRow(ResultSet rs) throws SQLException {
+        CategoryResponse category = new CategoryResponse(
+                rs.getLong("category_id"),
+                rs.getString("category_name"),
+                rs.getString("category_description"));
+
+        ReceiptResponse receipt = null;
+        long receiptId = rs.getLong("receipt_id");
+        if (!rs.wasNull()) {
+            receipt = new ReceiptResponse(
+                    receiptId,
+                    rs.getString("file_name"),
+                    rs.getString("file_type"),
+                    rs.getLong("file_size"),
+                    rs.getObject("uploaded_at", LocalDateTime.class));
+        }
+
+        UserResponse reviewedBy = null;
+        long reviewerId = rs.getLong("reviewer_id");
+        if (!rs.wasNull()) {
+            reviewedBy = new UserResponse(
+                    reviewerId,
+                    rs.getString("reviewer_email"),
+                    rs.getString("reviewer_first_name"),
+                    rs.getString("reviewer_last_name"),
+                    UserRole.valueOf(rs.getString("reviewer_role")));
+        }
+
+        return new ExpenseResponse(
+                rs.getLong("id"),
+                category,
+                rs.getBigDecimal("amount"),
+                rs.getObject("expense_date", LocalDate.class),
+                rs.getString("description"),
+                ExpenseStatus.valueOf(rs.getString("status")),
+                receipt,
+                rs.getObject("submitted_at", LocalDateTime.class),
+                rs.getObject("reviewed_at", LocalDateTime.class),
+                reviewedBy,
+                rs.getString("review_notes"),
+                rs.getObject("created_at", LocalDateTime.class),
+                rs.getObject("updated_at", LocalDateTime.class));
+    }
+
+    /**
+     * Running count and total of the streamed expenses.
+     */
+    private static final class Totals {
+
+        private long count;
+        private BigDecimal amount = BigDecimal.ZERO;
+
+        private void add(BigDecimal value) {
+            count++;
+            amount = amount.add(value);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.expense.report;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from a packed group key to a row count and an amount sum in cents.
+ * Each scan partition fills its own accumulator; partitions are merged afterwards, so no
+ * synchronization is needed while scanning. Not thread-safe.
+ */
+final class GroupAccumulator {
+
+    private long[] keys; // stored as key + 1 so that 0 marks an empty slot
+    private long[] counts;
+    private long[] sums;
+    private int mask;
+    private int size;
+
+    GroupAccumulator() {
+        keys = new long[64];
+        counts = new long[64];
+        sums = new long[64];
+        mask = 63;
+    }
+
+    /**
+     * Add one row to its group.
+     *
+     * @param key the non-negative packed group key
+     * @param amountCents the row amount in cents
+     */
+    void add(long key, long amountCents) {
+        add(key, 1L, amountCents);
+    }
+
+    /**
+     * Merge another accumulator into this one.
+     *
+     * @param other the accumulator to merge
+     * @return this accumulator
+     */
+    GroupAccumulator merge(GroupAccumulator other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] != 0L) {
+                add(other.keys[i] - 1, other.counts[i], other.sums[i]);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return the group keys in ascending order
+     */
+    long[] sortedKeys() {
+        long[] result = new long[size];
+        int next = 0;
+        for (long stored : keys) {
+            if (stored != 0L) {
+                result[next++] = stored - 1;
+            }
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    long count(long key) {
+        int slot = find(key);
+        return slot < 0 ? 0L : counts[slot];
+    }
+
+    long sum(long key) {
+        int slot = find(key);
+        return slot < 0 ? 0L : sums[slot];
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void add(long key, long count, long amountCents) {
+        long stored = key + 1;
+        int slot = slot(stored);
+        while (keys[slot] != 0L && keys[slot] != stored) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == 0L) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+                add(key, count, amountCents);
+                return;
+            }
+            keys[slot] = stored;
+            size++;
+        }
+        counts[slot] += count;
+        sums[slot] += amountCents;
+    }
+
+    private int find(long key) {
+        long stored = key + 1;
+        int slot = slot(stored);
+        while (keys[slot] != 0L) {
+            if (keys[slot] == stored) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        long[] oldCounts = counts;
+        long[] oldSums = sums;
+        keys = new long[oldKeys.length * 2];
+        counts = new long[oldKeys.length * 2];
+        sums = new long[oldKeys.length * 2];
+        mask = keys.length - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0L) {
+                add(oldKeys[i] - 1, oldCounts[i], oldSums[i]);
+            }
+        }
+    }
+
+    private int slot(long stored) {
+        long hash = stored * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,23 @@
+package com.expense.report;
+
+import com.expense.dto.ReportResponse;
+import com.expense.dto.UserResponse;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregated organization report, ready to be streamed by {@link OrganizationReportWriter}.
+ *
+ * @param department the department the report is scoped to, null for the whole organization
+ * @param filters the applied filters
+ * @param users the included users in ID order, including users without matching expenses
+ * @param categoryNames category names by ID
+ * @param subtotals per-user and per-category subtotals
+ */
+public record OrganizationReport(String department,
+                                 ReportResponse.ReportFilters filters,
+                                 List<UserResponse> users,
+                                 Map<Long, String> categoryNames,
+                                 OrganizationSubtotals subtotals) {
+}
@@ -0,0 +1,149 @@
+package com.expense.report;
+
+import com.expense.model.ExpenseStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes per-user and per-category subtotals for many users in parallel.
+ * <p>
+ * The user list is split recursively on a dedicated fork-join pool until a partition holds at
+ * most {@code reports.organization.users-per-task} users; each leaf runs one grouped query for its
+ * users and the partial results are merged on the way back up. The pool is separate from the
+ * common pool because leaves block on JDBC, and its parallelism should stay well below the
+ * connection pool size so regular requests still get connections.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrganizationReportAggregator {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${reports.organization.parallelism:4}")
+    private int parallelism;
+
+    @Value("${reports.organization.users-per-task:200}")
+    private int usersPerTask;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void start() {
+        pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("org-report-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    @PreDestroy
+    void stop() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Aggregate the expenses of the given users.
+     * As in {@code ReportService.generateReport}, the date range applies only when both dates are given.
+     *
+     * @param userIds the users to include
+     * @param startDate optional start date (inclusive)
+     * @param endDate optional end date (inclusive)
+     * @param categoryId optional category filter
+     * @param status optional status filter
+     * @return subtotals per user and category
+     */
+    public OrganizationSubtotals aggregate(List<Long> userIds, LocalDate startDate, LocalDate endDate,
+                                           Long categoryId, ExpenseStatus status) {
+        if (userIds.isEmpty()) {
+            return new OrganizationSubtotals();
+        }
+        long started = System.nanoTime();
+        OrganizationSubtotals subtotals = pool.invoke(new PartitionTask(
+                userIds, 0, userIds.size(), new Filters(startDate, endDate, categoryId, status)));
+        log.debug("Aggregated expenses of {} users in {} ms", userIds.size(),
+                (System.nanoTime() - started) / 1_000_000);
+        return subtotals;
+    }
+
+    /**
+     * Run the grouped query for one partition of users.
+     */
+    private OrganizationSubtotals aggregatePartition(List<Long> userIds, Filters filters) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT user_id, category_id, COUNT(*) AS expense_count, SUM(amount) AS total_amount "
+                        + "FROM expenses WHERE user_id IN (")
+                .append(String.join(",", Collections.nCopies(userIds.size(), "?")))
+                .append(")");
+        List<Object> args = new ArrayList<>(userIds);
+
+        if (filters.startDate() != null && filters.endDate() != null) {
+            sql.append(" AND expense_date BETWEEN ? AND ?");
+            args.add(Date.valueOf(filters.startDate()));
+            args.add(Date.valueOf(filters.endDate()));
+        }
+        if (filters.categoryId() != null) {
+            sql.append(" AND category_id = ?");
+            args.add(filters.categoryId());
+        }
+        if (filters.status() != null) {
+            sql.append(" AND status = ?");
+            args.add(filters.status().name());
+        }
+        sql.append(" GROUP BY user_id, category_id");
+
+        OrganizationSubtotals subtotals = new OrganizationSubtotals();
+        RowCallbackHandler handler = rs -> subtotals.add(rs.getLong("user_id"), rs.getLong("category_id"),
+                rs.getLong("expense_count"), rs.getBigDecimal("total_amount"));
+        jdbcTemplate.query(sql.toString(), handler, args.toArray());
+        return subtotals;
+    }
+
+    private record Filters(LocalDate startDate, LocalDate endDate, Long categoryId, ExpenseStatus status) {
+    }
+
+    /**
+     * Splits a range of the user list in half until it is small enough for one query.
+     */
+    private final class PartitionTask extends RecursiveTask<OrganizationSubtotals> {
+
+        private final List<Long> userIds;
+        private final int from;
+        private final int to;
+        private final Filters filters;
+
+        private PartitionTask(List<Long> userIds, int from, int to, Filters filters) {
+            this.userIds = userIds;
+            this.from = from;
+            this.to = to;
+            this.filters = filters;
+        }
+
+        @Override
+        protected OrganizationSubtotals compute() {
+            if (to - from <= usersPerTask) {
+                return aggregatePartition(userIds.subList(from, to), filters);
+            }
+            int middle = (from + to) >>> 1;
+            PartitionTask left = new PartitionTask(userIds, from, middle, filters);
+            left.fork();
+            OrganizationSubtotals right = new PartitionTask(userIds, middle, to, filters).compute();
+            return left.join().merge(right);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.expense.report;
+
+import com.expense.dto.UserResponse;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Streams an {@link OrganizationReport} as CSV or JSON.
+ * Rows are written user by user straight to the response, so the output is never held in memory.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrganizationReportWriter {
+
+    private static final String ALL_CATEGORIES = "All categories";
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Write the report as CSV: one row per user and category, a subtotal row per user,
+     * then the category subtotals and the grand total.
+     *
+     * @param report the aggregated report
+     * @param out the output stream, left open
+     */
+    public void writeCsv(OrganizationReport report, OutputStream out) {
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), false);
+        OrganizationSubtotals subtotals = report.subtotals();
+
+        writer.println("User ID,Email,First Name,Last Name,Category,Expenses,Total Amount");
+        for (UserResponse user : report.users()) {
+            String userColumns = String.format("%d,%s,%s,%s", user.getId(), csv(user.getEmail()),
+                    csv(user.getFirstName()), csv(user.getLastName()));
+            for (Map.Entry<Long, OrganizationSubtotals.Subtotal> entry : subtotals.categoriesOf(user.getId()).entrySet()) {
+                writeCsvRow(writer, userColumns, categoryName(report, entry.getKey()), entry.getValue());
+            }
+            writeCsvRow(writer, userColumns, ALL_CATEGORIES, subtotals.userTotal(user.getId()));
+        }
+
+        writer.println();
+        writer.println("Category,Expenses,Total Amount");
+        subtotals.byCategory().forEach((categoryId, subtotal) ->
+                writer.printf("%s,%d,%.2f%n", csv(categoryName(report, categoryId)), subtotal.getCount(),
+                        subtotal.getAmount()));
+
+        OrganizationSubtotals.Subtotal total = subtotals.total();
+        writer.println();
+        writer.printf("Department,%s%n", csv(report.department() != null ? report.department() : "All"));
+        writer.printf("Users,%d%n", report.users().size());
+        writer.printf("Total Expenses,%d%n", total.getCount());
+        writer.printf("Total Amount,%.2f%n", total.getAmount());
+        writer.flush();
+    }
+
+    /**
+     * Write the report as a JSON object with a {@code users} array (each with its category
+     * subtotals), a {@code categories} array and the grand total.
+     *
+     * @param report the aggregated report
+     * @param out the output stream, left open
+     * @throws IOException if writing fails
+     */
+    public void writeJson(OrganizationReport report, OutputStream out) throws IOException {
+        OrganizationSubtotals subtotals = report.subtotals();
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartObject();
+            json.writeStringField("department", report.department());
+            json.writeObjectField("filters", report.filters());
+
+            json.writeArrayFieldStart("users");
+            for (UserResponse user : report.users()) {
+                OrganizationSubtotals.Subtotal userTotal = subtotals.userTotal(user.getId());
+                json.writeStartObject();
+                json.writeNumberField("userId", user.getId());
+                json.writeStringField("email", user.getEmail());
+                json.writeStringField("firstName", user.getFirstName());
+                json.writeStringField("lastName", user.getLastName());
+                json.writeNumberField("count", userTotal.getCount());
+                json.writeNumberField("totalAmount", userTotal.getAmount());
+                json.writeArrayFieldStart("categories");
+                for (Map.Entry<Long, OrganizationSubtotals.Subtotal> entry : subtotals.categoriesOf(user.getId()).entrySet()) {
+                    writeJsonCategory(json, report, entry.getKey(), entry.getValue());
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+
+            json.writeArrayFieldStart("categories");
+            for (Map.Entry<Long, OrganizationSubtotals.Subtotal> entry : subtotals.byCategory().entrySet()) {
+                writeJsonCategory(json, report, entry.getKey(), entry.getValue());
+            }
+            json.writeEndArray();
+
+            OrganizationSubtotals.Subtotal total = subtotals.total();
+            json.writeNumberField("userCount", report.users().size());
+            json.writeNumberField("count", total.getCount());
+            json.writeNumberField("totalAmount", total.getAmount());
+            json.writeEndObject();
+        }
+    }
+
+    private static void writeCsvRow(PrintWriter writer, String userColumns, String category,
+                                    OrganizationSubtotals.Subtotal subtotal) {
+        writer.printf("%s,%s,%d,%.2f%n", userColumns, csv(category), subtotal.getCount(), subtotal.getAmount());
+    }
+
+    private static void writeJsonCategory(JsonGenerator json, OrganizationReport report, Long categoryId,
+                                          OrganizationSubtotals.Subtotal subtotal) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("categoryId", categoryId);
+        json.writeStringField("categoryName", categoryName(report, categoryId));
+        json.writeNumberField("count", subtotal.getCount());
+        json.writeNumberField("totalAmount", subtotal.getAmount());
+        json.writeEndObject();
+    }
+
+    private static String categoryName(OrganizationReport report, Long categoryId) {
+        return report.categoryNames().getOrDefault(categoryId, String.valueOf(categoryId));
+    }
+
+    /**
+     * Quote a CSV field, doubling embedded quotes.
+     */
+    private static String csv(String field) {
+        return field == null ? "\"\"" : "\"" + field.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,106 @@
+package com.expense.report;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-user, per-category expense counts and amounts of an organization report.
+ * Each fork-join leaf fills its own instance; partial results are combined with {@link #merge}.
+ */
+public class OrganizationSubtotals {
+
+    private final Map<Long, Map<Long, Subtotal>> byUser = new HashMap<>();
+
+    /**
+     * Add an aggregated row.
+     *
+     * @param userId the expense owner
+     * @param categoryId the expense category
+     * @param count the number of expenses
+     * @param amount the sum of their amounts
+     */
+    public void add(long userId, long categoryId, long count, BigDecimal amount) {
+        byUser.computeIfAbsent(userId, id -> new HashMap<>())
+                .computeIfAbsent(categoryId, id -> new Subtotal())
+                .add(count, amount);
+    }
+
+    /**
+     * Fold another partial result into this one.
+     *
+     * @param other the partial result of another partition
+     * @return this instance
+     */
+    public OrganizationSubtotals merge(OrganizationSubtotals other) {
+        other.byUser.forEach((userId, categories) -> categories.forEach(
+                (categoryId, subtotal) -> add(userId, categoryId, subtotal.count, subtotal.amount)));
+        return this;
+    }
+
+    /**
+     * @param userId the user
+     * @return the user's subtotals by category ID in ascending order, empty if the user has no expenses
+     */
+    public Map<Long, Subtotal> categoriesOf(long userId) {
+        Map<Long, Subtotal> categories = byUser.get(userId);
+        return categories == null ? Collections.emptyMap() : new TreeMap<>(categories);
+    }
+
+    /**
+     * @param userId the user
+     * @return the user's total over all categories
+     */
+    public Subtotal userTotal(long userId) {
+        Subtotal total = new Subtotal();
+        categoriesOf(userId).values().forEach(total::add);
+        return total;
+    }
+
+    /**
+     * @return subtotals across all users by category ID in ascending order
+     */
+    public Map<Long, Subtotal> byCategory() {
+        Map<Long, Subtotal> categories = new TreeMap<>();
+        byUser.values().forEach(userCategories -> userCategories.forEach(
+                (categoryId, subtotal) -> categories.computeIfAbsent(categoryId, id -> new Subtotal()).add(subtotal)));
+        return categories;
+    }
+
+    /**
+     * @return the grand total
+     */
+    public Subtotal total() {
+        Subtotal total = new Subtotal();
+        byUser.values().forEach(categories -> categories.values().forEach(total::add));
+        return total;
+    }
+
+    /**
+     * Expense count and amount of one group.
+     */
+    public static final class Subtotal {
+
+        private long count;
+        private BigDecimal amount = BigDecimal.ZERO;
+
+        private void add(long count, BigDecimal amount) {
+            this.count += count;
+            this.amount = this.amount.add(amount);
+        }
+
+        private void add(Subtotal other) {
+            add(other.count, other.amount);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.expense.repository;
+
+import com.expense.event.ExpenseChangeType;
+import com.expense.model.ExpenseEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for ExpenseEvent entity.
+ * Provides database access methods for the expense event outbox and its cursor feed.
+ */
+@Repository
+public interface ExpenseEventRepository extends JpaRepository<ExpenseEvent, Long> {
+    
+    /**
+     * Find published events after a cursor position in feed position order.
+     * Positions are assigned by the outbox relay and commit in increasing order, so no event
+     * can appear behind a cursor a consumer already passed.
+     *
+     * @param after the feed position of the last event the consumer has seen
+     * @param pageable the maximum number of events
+     * @return events in ascending feed position order
+     */
+    @Query("SELECT e FROM ExpenseEvent e WHERE e.feedPosition > :after ORDER BY e.feedPosition ASC")
+    List<ExpenseEvent> findFeedPage(@Param("after") Long after, Pageable pageable);
+    
+    /**
+     * Find published events of the given types in a range of feed positions.
+     * Used by the approval queue stream to follow the feed and to replay missed events.
+     *
+     * @param after only events after this feed position are returned
+     * @param upTo only events at or before this feed position are returned
+     * @param types the event types to return
+     * @param pageable the maximum number of events
+     * @return events in ascending feed position order
+     */
+    @Query("SELECT e FROM ExpenseEvent e WHERE e.feedPosition > :after AND e.feedPosition <= :upTo "
+            + "AND e.eventType IN :types ORDER BY e.feedPosition ASC")
+    List<ExpenseEvent> findFeedEventsAfter(@Param("after") Long after,
+                                           @Param("upTo") Long upTo,
+                                           @Param("types") Collection<ExpenseChangeType> types,
+                                           Pageable pageable);
+    
+    /**
+     * Find the highest feed position handed out so far.
+     *
+     * @return the position, empty if no event has been published
+     */
+    @Query("SELECT MAX(e.feedPosition) FROM ExpenseEvent e")
+    Optional<Long> findMaxFeedPosition();
+}
@@ -0,0 +1,68 @@
+package com.expense.repository;
+
+import com.expense.dto.ExpenseField;
+import com.expense.model.ExpenseStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Custom repository fragment for sparse fieldset queries on expenses.
+ * Selects only the requested columns as tuples and joins associations only when they are requested,
+ * so unrequested categories, reviewers and receipts are never loaded.
+ */
+public interface ExpenseProjectionRepository {
+    
+    /**
+     * Find a page of projected expenses for a user.
+     *
+     * @param userId the ID of the user
+     * @param fields the fields to select
+     * @param pageable pagination and sorting parameters
+     * @return Page of rows keyed by JSON property name
+     */
+    Page<Map<String, Object>> findProjectedByUserId(Long userId, Set<ExpenseField> fields, Pageable pageable);
+    
+    /**
+     * Find projected expenses with a specific status, oldest submission first.
+     *
+     * @param status the expense status to filter by
+     * @param fields the fields to select
+     * @return List of rows keyed by JSON property name
+     */
+    List<Map<String, Object>> findProjectedByStatus(ExpenseStatus status, Set<ExpenseField> fields);
+    
+    /**
+     * Find projected expenses of a user matching optional report filters.
+     * Null filter arguments are ignored.
+     *
+     * @param userId the ID of the user
+     * @param startDate optional start date (inclusive), applied together with endDate
+     * @param endDate optional end date (inclusive), applied together with startDate
+     * @param categoryId optional category ID
+     * @param status optional expense status
+     * @param fields the fields to select
+     * @return List of rows keyed by JSON property name
+     */
+    List<Map<String, Object>> findProjectedForReport(Long userId, LocalDate startDate, LocalDate endDate,
+                                                     Long categoryId, ExpenseStatus status,
+                                                     Set<ExpenseField> fields);
+    
+    /**
+     * Sum the amounts of a user's expenses matching optional report filters.
+     *
+     * @param userId the ID of the user
+     * @param startDate optional start date (inclusive), applied together with endDate
+     * @param endDate optional end date (inclusive), applied together with startDate
+     * @param categoryId optional category ID
+     * @param status optional expense status
+     * @return total amount, zero if no expense matches
+     */
+    BigDecimal sumAmountForReport(Long userId, LocalDate startDate, LocalDate endDate,
+                                  Long categoryId, ExpenseStatus status);
+}
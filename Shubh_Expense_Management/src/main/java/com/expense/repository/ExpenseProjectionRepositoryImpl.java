@@ -0,0 +1,245 @@
+package com.expense.repository;
+
+import com.expense.dto.CategoryResponse;
+import com.expense.dto.ExpenseField;
+import com.expense.dto.ReceiptResponse;
+import com.expense.dto.UserResponse;
+import com.expense.model.Category;
+import com.expense.model.Expense;
+import com.expense.model.ExpenseStatus;
+import com.expense.model.Receipt;
+import com.expense.model.User;
+import com.expense.model.UserRole;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Criteria API implementation of {@link ExpenseProjectionRepository}.
+ * Builds tuple queries that select only the requested columns.
+ */
+public class ExpenseProjectionRepositoryImpl implements ExpenseProjectionRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public Page<Map<String, Object>> findProjectedByUserId(Long userId, Set<ExpenseField> fields, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Expense> root = query.from(Expense.class);
+        query.multiselect(selectionsFor(root, fields));
+        query.where(cb.equal(root.get("user").get("id"), userId));
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+        
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<Map<String, Object>> content = toRows(typedQuery.getResultList(), fields);
+        
+        return PageableExecutionUtils.getPage(content, pageable, () -> countByUserId(userId));
+    }
+    
+    @Override
+    public List<Map<String, Object>> findProjectedByStatus(ExpenseStatus status, Set<ExpenseField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Expense> root = query.from(Expense.class);
+        query.multiselect(selectionsFor(root, fields));
+        query.where(cb.equal(root.get("status"), status));
+        query.orderBy(cb.asc(root.get("submittedAt")), cb.asc(root.get("id")));
+        
+        return toRows(entityManager.createQuery(query).getResultList(), fields);
+    }
+    
+    @Override
+    public List<Map<String, Object>> findProjectedForReport(Long userId, LocalDate startDate, LocalDate endDate,
+                                                            Long categoryId, ExpenseStatus status,
+                                                            Set<ExpenseField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Expense> root = query.from(Expense.class);
+        query.multiselect(selectionsFor(root, fields));
+        query.where(reportPredicates(cb, root, userId, startDate, endDate, categoryId, status));
+        
+        return toRows(entityManager.createQuery(query).getResultList(), fields);
+    }
+    
+    @Override
+    public BigDecimal sumAmountForReport(Long userId, LocalDate startDate, LocalDate endDate,
+                                         Long categoryId, ExpenseStatus status) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BigDecimal> query = cb.createQuery(BigDecimal.class);
+        Root<Expense> root = query.from(Expense.class);
+        query.select(cb.sum(root.<BigDecimal>get("amount")));
+        query.where(reportPredicates(cb, root, userId, startDate, endDate, categoryId, status));
+        
+        BigDecimal total = entityManager.createQuery(query).getSingleResult();
+        return total != null ? total : BigDecimal.ZERO;
+    }
+    
+    /**
+     * Count all expenses of a user, used for page totals.
+     *
+     * @param userId the ID of the user
+     * @return number of expenses
+     */
+    private long countByUserId(Long userId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Expense> root = query.from(Expense.class);
+        query.select(cb.count(root));
+        query.where(cb.equal(root.get("user").get("id"), userId));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+    
+    /**
+     * Build the report filter predicates, mirroring the filters of ReportService.
+     */
+    private Predicate[] reportPredicates(CriteriaBuilder cb, Root<Expense> root, Long userId,
+                                         LocalDate startDate, LocalDate endDate,
+                                         Long categoryId, ExpenseStatus status) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(root.get("user").get("id"), userId));
+        if (startDate != null && endDate != null) {
+            predicates.add(cb.between(root.get("expenseDate"), startDate, endDate));
+        }
+        if (categoryId != null) {
+            predicates.add(cb.equal(root.get("category").get("id"), categoryId));
+        }
+        if (status != null) {
+            predicates.add(cb.equal(root.get("status"), status));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+    
+    /**
+     * Build the select list for the requested fields, in field declaration order.
+     * Associations are joined only when one of their fields is requested;
+     * optional associations use left joins so rows without them are kept.
+     *
+     * @param root the expense root
+     * @param fields the requested fields
+     * @return list of selections
+     */
+    private List<Selection<?>> selectionsFor(Root<Expense> root, Set<ExpenseField> fields) {
+        List<Selection<?>> selections = new ArrayList<>();
+        for (ExpenseField field : fields) {
+            switch (field) {
+                case ID -> selections.add(root.get("id"));
+                case AMOUNT -> selections.add(root.get("amount"));
+                case EXPENSE_DATE -> selections.add(root.get("expenseDate"));
+                case DESCRIPTION -> selections.add(root.get("description"));
+                case STATUS -> selections.add(root.get("status"));
+                case SUBMITTED_AT -> selections.add(root.get("submittedAt"));
+                case REVIEWED_AT -> selections.add(root.get("reviewedAt"));
+                case REVIEW_NOTES -> selections.add(root.get("reviewNotes"));
+                case CREATED_AT -> selections.add(root.get("createdAt"));
+                case UPDATED_AT -> selections.add(root.get("updatedAt"));
+                case CATEGORY -> {
+                    Join<Expense, Category> category = root.join("category", JoinType.INNER);
+                    selections.add(category.get("id"));
+                    selections.add(category.get("name"));
+                    selections.add(category.get("description"));
+                }
+                case RECEIPT -> {
+                    Join<Expense, Receipt> receipt = root.join("receipt", JoinType.LEFT);
+                    selections.add(receipt.get("id"));
+                    selections.add(receipt.get("fileName"));
+                    selections.add(receipt.get("fileType"));
+                    selections.add(receipt.get("fileSize"));
+                    selections.add(receipt.get("uploadedAt"));
+                }
+                case REVIEWED_BY -> {
+                    Join<Expense, User> reviewer = root.join("reviewedBy", JoinType.LEFT);
+                    selections.add(reviewer.get("id"));
+                    selections.add(reviewer.get("email"));
+                    selections.add(reviewer.get("firstName"));
+                    selections.add(reviewer.get("lastName"));
+                    selections.add(reviewer.get("role"));
+                }
+            }
+        }
+        return selections;
+    }
+    
+    /**
+     * Convert result tuples to rows keyed by JSON property name, in field declaration order.
+     * Tuple elements are read positionally in the same order {@link #selectionsFor} added them.
+     * Nested associations are mapped to the same DTOs used by the full response.
+     *
+     * @param tuples the query results
+     * @param fields the requested fields
+     * @return list of rows
+     */
+    private List<Map<String, Object>> toRows(List<Tuple> tuples, Set<ExpenseField> fields) {
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            int index = 0;
+            for (ExpenseField field : fields) {
+                switch (field) {
+                    case CATEGORY -> {
+                        Long id = tuple.get(index, Long.class);
+                        row.put(field.getJsonName(), id == null ? null : new CategoryResponse(
+                                id,
+                                tuple.get(index + 1, String.class),
+                                tuple.get(index + 2, String.class)));
+                        index += 3;
+                    }
+                    case RECEIPT -> {
+                        Long id = tuple.get(index, Long.class);
+                        row.put(field.getJsonName(), id == null ? null : new ReceiptResponse(
+                                id,
+                                tuple.get(index + 1, String.class),
+                                tuple.get(index + 2, String.class),
+                                tuple.get(index + 3, Long.class),
+                                tuple.get(index + 4, LocalDateTime.class)));
+                        index += 5;
+                    }
+                    case REVIEWED_BY -> {
+                        Long id = tuple.get(index, Long.class);
+                        row.put(field.getJsonName(), id == null ? null : new UserResponse(
+                                id,
+                                tuple.get(index + 1, String.class),
+                                tuple.get(index + 2, String.class),
+                                tuple.get(index + 3, String.class),
+                                tuple.get(index + 4, UserRole.class)));
+                        index += 5;
+                    }
+                    default -> {
+                        row.put(field.getJsonName(), tuple.get(index));
+                        index++;
+                    }
+                }
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
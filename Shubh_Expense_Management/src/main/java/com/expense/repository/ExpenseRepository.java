@@ -3,12 +3,18 @@ package com.expense.repository;
 import com.expense.model.Category;
 import com.expense.model.Expense;
 import com.expense.model.ExpenseStatus;
+import com.expense.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -16,7 +22,7 @@ import java.util.List;
  * Provides database access methods for expense management with custom query methods for filtering.
  */
 @Repository
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, ExpenseProjectionRepository {
     
     /**
      * Find all expenses for a specific user with pagination support.
@@ -39,13 +45,13 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     List<Expense> findByUserIdAndStatus(Long userId, ExpenseStatus status);
     
     /**
-     * Find all expenses with a specific status.
+     * Find all expenses with a specific status, oldest submission first.
      * Used by managers to retrieve pending expenses for approval.
      *
      * @param status the expense status to filter by
-     * @return List of expenses with the specified status
+     * @return List of expenses with the specified status ordered by submittedAt, then ID
      */
-    List<Expense> findByStatus(ExpenseStatus status);
+    List<Expense> findByStatusOrderBySubmittedAtAscIdAsc(ExpenseStatus status);
     
     /**
      * Find all expenses for a user within a date range.
@@ -67,4 +73,61 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
      * @return List of expenses in the specified category
      */
     List<Expense> findByUserIdAndCategory(Long userId, Category category);
+    
+    /**
+     * Atomically move an expense owned by the given user from one status to another and stamp submittedAt.
+     * Ownership and the expected status are checked in the same statement, so concurrent callers
+     * cannot both succeed.
+     *
+     * @param expenseId the ID of the expense
+     * @param ownerEmail the email of the user who must own the expense
+     * @param expectedStatus the status the expense must currently have
+     * @param newStatus the status to set
+     * @param submittedAt the submission timestamp to set
+     * @return number of updated rows, 0 if the expense is missing, not owned or not in the expected status
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Expense e SET e.status = :newStatus, e.submittedAt = :submittedAt, e.updatedAt = :submittedAt " +
+           "WHERE e.id = :expenseId AND e.status = :expectedStatus " +
+           "AND e.user.id IN (SELECT u.id FROM User u WHERE u.email = :ownerEmail)")
+    int submitIfInStatus(@Param("expenseId") Long expenseId,
+                         @Param("ownerEmail") String ownerEmail,
+                         @Param("expectedStatus") ExpenseStatus expectedStatus,
+                         @Param("newStatus") ExpenseStatus newStatus,
+                         @Param("submittedAt") LocalDateTime submittedAt);
+    
+    /**
+     * Atomically move an expense from one status to another and record the review.
+     * The expected status is checked in the same statement, so two reviewers acting at once
+     * cannot both succeed.
+     *
+     * @param expenseId the ID of the expense
+     * @param expectedStatus the status the expense must currently have
+     * @param newStatus the status to set
+     * @param reviewer the reviewing manager
+     * @param reviewNotes optional review notes
+     * @param reviewedAt the review timestamp to set
+     * @return number of updated rows, 0 if the expense is missing or not in the expected status
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Expense e SET e.status = :newStatus, e.reviewedBy = :reviewer, e.reviewNotes = :reviewNotes, " +
+           "e.reviewedAt = :reviewedAt, e.updatedAt = :reviewedAt " +
+           "WHERE e.id = :expenseId AND e.status = :expectedStatus")
+    int reviewIfInStatus(@Param("expenseId") Long expenseId,
+                         @Param("expectedStatus") ExpenseStatus expectedStatus,
+                         @Param("newStatus") ExpenseStatus newStatus,
+                         @Param("reviewer") User reviewer,
+                         @Param("reviewNotes") String reviewNotes,
+                         @Param("reviewedAt") LocalDateTime reviewedAt);
+    
+    /**
+     * Find expenses by ID with owner, category, reviewer and receipt fetched in the same query.
+     * Used for batch reads, so mapping the results issues no further queries.
+     *
+     * @param ids the expense IDs
+     * @return the existing expenses, in no particular order
+     */
+    @Query("SELECT e FROM Expense e JOIN FETCH e.user JOIN FETCH e.category " +
+           "LEFT JOIN FETCH e.reviewedBy LEFT JOIN FETCH e.receipt WHERE e.id IN :ids")
+    List<Expense> findAllWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
 }
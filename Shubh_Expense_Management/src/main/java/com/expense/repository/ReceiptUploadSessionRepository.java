@@ -0,0 +1,48 @@
+package com.expense.repository;
+
+import com.expense.model.ReceiptUploadSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for ReceiptUploadSession entity.
+ * Provides database access methods for resumable receipt uploads.
+ */
+@Repository
+public interface ReceiptUploadSessionRepository extends JpaRepository<ReceiptUploadSession, String> {
+    
+    /**
+     * Advance the offset of an upload only if no other request advanced it in the meantime.
+     *
+     * @param id the upload session ID
+     * @param expectedOffset the offset the chunk was appended at
+     * @param newOffset the offset after the chunk
+     * @param updatedAt the update timestamp
+     * @param expiresAt the new expiry, extended on every chunk
+     * @return the number of updated rows (0 or 1)
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ReceiptUploadSession s SET s.receivedBytes = :newOffset, s.updatedAt = :updatedAt, " +
+           "s.expiresAt = :expiresAt WHERE s.id = :id AND s.receivedBytes = :expectedOffset")
+    int advanceOffset(@Param("id") String id,
+                      @Param("expectedOffset") Long expectedOffset,
+                      @Param("newOffset") Long newOffset,
+                      @Param("updatedAt") LocalDateTime updatedAt,
+                      @Param("expiresAt") LocalDateTime expiresAt);
+    
+    /**
+     * Find sessions that expired before the given time.
+     *
+     * @param time the cutoff
+     * @return expired sessions
+     */
+    List<ReceiptUploadSession> findByExpiresAtBefore(LocalDateTime time);
+}
@@ -2,8 +2,12 @@ package com.expense.repository;
 
 import com.expense.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -30,4 +34,43 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return true if a user with this email exists, false otherwise
      */
     boolean existsByEmail(String email);
+    
+    /**
+     * Find all users ordered by ID.
+     * Used for organization-wide reports.
+     *
+     * @return list of all users
+     */
+    List<User> findAllByOrderByIdAsc();
+    
+    /**
+     * Find the users of a department ordered by ID.
+     * Used for department reports.
+     *
+     * @param department the department name
+     * @return list of users in the department
+     */
+    List<User> findByDepartmentOrderByIdAsc(String department);
+    
+    /**
+     * Get the data version of a user.
+     * Used to build ETags before any expense query runs.
+     *
+     * @param email the email address of the user
+     * @return Optional containing the data version if the user exists, empty otherwise
+     */
+    @Query("SELECT u.dataVersion FROM User u WHERE u.email = :email")
+    Optional<Long> findDataVersionByEmail(@Param("email") String email);
+    
+    /**
+     * Increment the data version of a user.
+     * Runs in the transaction that writes the user's data, so the new version becomes
+     * visible to every instance exactly when the write commits.
+     *
+     * @param email the email address of the user
+     * @return the number of rows updated
+     */
+    @Modifying
+    @Query(value = "UPDATE users SET data_version = data_version + 1 WHERE email = :email", nativeQuery = true)
+    int incrementDataVersion(@Param("email") String email);
 }
@@ -0,0 +1,86 @@
+package com.expense.security;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to observed latency with additive increase / multiplicative decrease.
+ * <p>
+ * A request that finishes within the latency threshold while the limit was actually being used
+ * (at least half of it in flight) raises the limit by one; a request that exceeds the threshold
+ * or fails with a server error cuts it by the backoff ratio. Under overload the limit therefore
+ * shrinks towards what the database can serve within the threshold, and excess requests are shed
+ * immediately instead of queueing in Tomcat and the connection pool.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdMs) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Invalid concurrency limit bounds: " + minLimit + ".." + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Take a slot if the group is below its current limit.
+     *
+     * @return true if the request may proceed and must later call {@link #release}
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Give back a slot and feed the request outcome into the limit.
+     *
+     * @param latencyNanos how long the request took
+     * @param failed whether the request ended in a server error
+     * @return true if the request counted as a drop (too slow or failed) and the limit was decreased
+     */
+    public boolean release(long latencyNanos, boolean failed) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        boolean dropped = failed || latencyNanos > latencyThresholdNanos;
+        synchronized (this) {
+            if (dropped) {
+                limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            } else if (inFlightBefore * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * @return the current limit, rounded down
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return the number of requests currently in flight
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
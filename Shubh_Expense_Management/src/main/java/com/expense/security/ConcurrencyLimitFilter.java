@@ -0,0 +1,208 @@
+package com.expense.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Filter that sheds load with adaptive per-endpoint-group concurrency limits.
+ * Runs before {@link JwtAuthenticationFilter}, so a rejected request costs neither a token
+ * validation nor a user lookup. Requests over the limit get an immediate 503 with Retry-After
+ * instead of waiting for a Tomcat thread and a database connection until they time out.
+ * Streamed responses keep their slot until the async request completes, because the cursor
+ * read and its database connection only start after the filter chain has returned.
+ * <p>
+ * Metrics per group: {@code expense.concurrency.limit} and {@code expense.concurrency.inflight}
+ * gauges, and an {@code expense.concurrency.requests} counter tagged with the outcome
+ * (accepted, rejected, dropped for slow or failed requests).
+ */
+@Component
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String METRIC_PREFIX = "expense.concurrency.";
+
+    private final boolean enabled;
+    private final int retryAfterSeconds;
+    private final Map<EndpointGroup, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Counter> accepted = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Counter> rejected = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Counter> dropped = new EnumMap<>(EndpointGroup.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public ConcurrencyLimitFilter(Environment environment, MeterRegistry meterRegistry) {
+        this.enabled = environment.getProperty("concurrency-limit.enabled", Boolean.class, true);
+        this.retryAfterSeconds = environment.getProperty("concurrency-limit.retry-after-seconds", Integer.class, 1);
+
+        for (EndpointGroup group : EndpointGroup.values()) {
+            String prefix = "concurrency-limit." + group.getPropertyName() + ".";
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                    environment.getProperty(prefix + "initial-limit", Integer.class, group.getInitialLimit()),
+                    environment.getProperty(prefix + "min-limit", Integer.class, group.getMinLimit()),
+                    environment.getProperty(prefix + "max-limit", Integer.class, group.getMaxLimit()),
+                    environment.getProperty(prefix + "latency-threshold-ms", Long.class,
+                            group.getLatencyThresholdMs()));
+            limiters.put(group, limiter);
+
+            String tag = group.getPropertyName();
+            Gauge.builder(METRIC_PREFIX + "limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("group", tag)
+                    .description("Current adaptive concurrency limit")
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + "inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("group", tag)
+                    .description("Requests currently holding a concurrency slot")
+                    .register(meterRegistry);
+            accepted.put(group, requestCounter(meterRegistry, tag, "accepted"));
+            rejected.put(group, requestCounter(meterRegistry, tag, "rejected"));
+            dropped.put(group, requestCounter(meterRegistry, tag, "dropped"));
+        }
+    }
+
+    /**
+     * Acquire a slot of the request's endpoint group, or reject the request with 503.
+     *
+     * @param request the HTTP request
+     * @param response the HTTP response
+     * @param filterChain the filter chain
+     * @throws ServletException if a servlet error occurs
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        EndpointGroup group = EndpointGroup.forPath(request.getServletPath());
+        AdaptiveConcurrencyLimiter limiter = limiters.get(group);
+
+        if (!limiter.tryAcquire()) {
+            rejected.get(group).increment();
+            log.warn("Shedding {} {}: {} concurrency limit of {} reached", request.getMethod(),
+                    request.getServletPath(), group, limiter.getLimit());
+            writeRejection(request, response);
+            return;
+        }
+
+        accepted.get(group).increment();
+        long started = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseListener(group, response, started));
+            } else {
+                release(group, started, failed);
+            }
+        }
+    }
+
+    private void release(EndpointGroup group, long started, boolean failed) {
+        if (limiters.get(group).release(System.nanoTime() - started, failed)) {
+            dropped.get(group).increment();
+        }
+    }
+
+    /**
+     * Requests that do not hold a database connection or that stay open indefinitely are not limited.
+     *
+     * @param request the HTTP request
+     * @return true if the request bypasses the limiter
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return !enabled
+                || HttpMethod.OPTIONS.matches(request.getMethod())
+                || !path.startsWith("/api/")
+                || path.equals("/api/health")
+                || path.endsWith("/stream");
+    }
+
+    private void writeRejection(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now().toString());
+        body.put("status", HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        body.put("error", "Service Unavailable");
+        body.put("message", "Server is busy, please retry later");
+        body.put("path", request.getServletPath());
+
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String group, String outcome) {
+        return Counter.builder(METRIC_PREFIX + "requests")
+                .tag("group", group)
+                .tag("outcome", outcome)
+                .description("Requests seen by the concurrency limiter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Releases the slot of an async request once, when it completes. Timeouts and errors count
+     * as failures, so streams cut off by the async timeout lower the limit.
+     */
+    private final class ReleaseListener implements AsyncListener {
+
+        private final EndpointGroup group;
+        private final HttpServletResponse response;
+        private final long started;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile boolean failed;
+
+        private ReleaseListener(EndpointGroup group, HttpServletResponse response, long started) {
+            this.group = group;
+            this.response = response;
+            this.started = started;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            if (released.compareAndSet(false, true)) {
+                release(group, started,
+                        failed || response.getStatus() >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.expense.security;
+
+/**
+ * Enum of endpoint groups that get separate concurrency budgets.
+ * Defaults can be overridden with {@code concurrency-limit.<group>.*} properties,
+ * e.g. {@code concurrency-limit.export.max-limit}.
+ */
+public enum EndpointGroup {
+    /**
+     * CSV exports, organization reports and streamed expense reports: few, slow and memory hungry.
+     * Streamed responses hold a slot for the whole download, hence the long latency threshold.
+     */
+    EXPORT("export", 2, 1, 4, 60_000),
+    /** Report generation and aggregation. */
+    REPORTS("reports", 4, 2, 16, 3_000),
+    /** Regular CRUD, auth and workflow endpoints. */
+    CRUD("crud", 32, 8, 128, 1_000);
+
+    private final String propertyName;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdMs;
+
+    EndpointGroup(String propertyName, int initialLimit, int minLimit, int maxLimit, long latencyThresholdMs) {
+        this.propertyName = propertyName;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdMs = latencyThresholdMs;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public long getLatencyThresholdMs() {
+        return latencyThresholdMs;
+    }
+
+    /**
+     * Resolve the group of a request path.
+     *
+     * @param path the servlet path, e.g. "/api/reports/export"
+     * @return the endpoint group
+     */
+    public static EndpointGroup forPath(String path) {
+        if (path.startsWith("/api/reports/export") || path.startsWith("/api/reports/organization")
+                || path.startsWith("/api/reports/expenses")) {
+            return EXPORT;
+        }
+        if (path.startsWith("/api/reports")) {
+            return REPORTS;
+        }
+        return CRUD;
+    }
+}
@@ -0,0 +1,359 @@
+package com.expense.service;
+
+import com.expense.dto.ApprovalQueueEvent;
+import com.expense.dto.ExpenseResponse;
+import com.expense.event.ExpenseChangeType;
+import com.expense.exception.ResourceNotFoundException;
+import com.expense.exception.UnauthorizedException;
+import com.expense.model.ExpenseEvent;
+import com.expense.model.User;
+import com.expense.model.UserRole;
+import com.expense.repository.ExpenseEventRepository;
+import com.expense.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service that pushes approval queue changes to managers over Server-Sent Events.
+ * <p>
+ * The hub of every instance follows the {@code expense_events} outbox feed, which holds every
+ * committed submit/approve/reject whichever instance handled it, and fans those events out to
+ * the streams connected to it, so managers no longer poll {@code GET /api/expenses/pending}.
+ * Events arrive once the outbox relay has published them and the next poll has run, typically
+ * within {@code outbox.relay.interval-ms} plus {@code approval-stream.poll-ms}.
+ * <p>
+ * Event ids are feed positions, which are the same on every instance, so a reconnecting client
+ * resumes from its {@code Last-Event-ID} on any instance; missed events are read back from the
+ * outbox. If too many were missed it gets a {@code reset} event and should reload the pending list.
+ * Each stream has a bounded buffer drained by a small shared dispatcher pool: a slow client never
+ * blocks the poller, and a client whose buffer overflows is disconnected and expected to reconnect.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ApprovalQueueHub {
+
+    static final String RESET_EVENT = "reset";
+
+    private static final Set<ExpenseChangeType> QUEUE_CHANGES =
+            EnumSet.of(ExpenseChangeType.SUBMITTED, ExpenseChangeType.APPROVED, ExpenseChangeType.REJECTED);
+
+    private static final int POLL_BATCH_SIZE = 500;
+
+    private final UserRepository userRepository;
+    private final ExpenseEventRepository expenseEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${approval-stream.poll-ms:500}")
+    private long pollMs;
+
+    @Value("${approval-stream.client-buffer-size:256}")
+    private int clientBufferSize;
+
+    @Value("${approval-stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${approval-stream.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    @Value("${approval-stream.dispatch-threads:4}")
+    private int dispatchThreads;
+
+    /** Guards the feed position and subscriber registration. */
+    private final Object lock = new Object();
+
+    /** Feed position of the last queue event fanned out by this instance. */
+    private long position;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService dispatcher;
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    void start() {
+        position = expenseEventRepository.findMaxFeedPosition().orElse(0L);
+        dispatcher = Executors.newFixedThreadPool(dispatchThreads, daemonThreads("approval-stream-"));
+        scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("approval-stream-poll-"));
+        scheduler.scheduleWithFixedDelay(this::poll, pollMs, pollMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleAtFixedRate(this::sendHeartbeats, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.close(null));
+        dispatcher.shutdown();
+    }
+
+    /**
+     * Open an approval queue stream for a manager.
+     * Only accessible by users with MANAGER or ADMIN role.
+     *
+     * @param userEmail the email of the authenticated user (must be manager)
+     * @param lastEventId optional id of the last event the client received
+     * @return the emitter to return from the controller
+     * @throws ResourceNotFoundException if user not found
+     * @throws UnauthorizedException if user is not a manager
+     */
+    public SseEmitter subscribe(String userEmail, String lastEventId) {
+        // Fetch user and verify manager role
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
+
+        if (user.getRole() != UserRole.MANAGER && user.getRole() != UserRole.ADMIN) {
+            log.warn("Unauthorized access attempt: User {} with role {} tried to stream pending expenses",
+                    userEmail, user.getRole());
+            throw new UnauthorizedException("Only managers can access pending expenses");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+
+        // Register and queue the backlog atomically so no event falls between replay and live delivery
+        Subscriber subscriber;
+        synchronized (lock) {
+            Resume resume = resume(lastEventId);
+            subscriber = new Subscriber(userEmail, emitter, resume.after());
+            subscribers.add(subscriber);
+            resume.backlog().forEach(subscriber::offer);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscriber.close(null));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        log.info("Manager {} subscribed to the approval queue stream (Last-Event-ID: {}, subscribers: {})",
+                userEmail, lastEventId, subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Fan out the queue events published to the outbox feed since the last poll.
+     * Failures are logged and retried on the next poll.
+     */
+    void poll() {
+        try {
+            List<ExpenseEvent> events;
+            do {
+                events = expenseEventRepository.findFeedEventsAfter(position, Long.MAX_VALUE, QUEUE_CHANGES,
+                        PageRequest.of(0, POLL_BATCH_SIZE));
+                events.forEach(this::publish);
+            } while (events.size() == POLL_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            log.warn("Approval queue poll failed, retrying in {} ms: {}", pollMs, e.getMessage());
+        }
+    }
+
+    private void publish(ExpenseEvent event) {
+        StreamMessage message = toMessage(event);
+        synchronized (lock) {
+            position = message.sequence();
+            subscribers.forEach(subscriber -> subscriber.offer(message));
+        }
+        log.debug("Approval queue event {} for expense {} sent to {} subscribers",
+                event.getEventType(), event.getExpenseId(), subscribers.size());
+    }
+
+    /**
+     * @return the number of connected streams
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Work out where a (re)connecting client starts and what it must receive before live events.
+     * Must be called while holding {@link #lock}.
+     *
+     * @param lastEventId the client's Last-Event-ID, may be null
+     * @return the position the client has seen and the missed events, or a single reset event
+     *         if the gap cannot be replayed
+     */
+    Resume resume(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return new Resume(position, List.of());
+        }
+
+        long after;
+        try {
+            after = Long.parseLong(lastEventId);
+        } catch (NumberFormatException e) {
+            return new Resume(position, List.of(reset("Invalid Last-Event-ID")));
+        }
+
+        // A client ahead of this instance's poller skips the events it already has
+        if (after >= position) {
+            return new Resume(after, List.of());
+        }
+
+        List<ExpenseEvent> missed = expenseEventRepository.findFeedEventsAfter(after, position, QUEUE_CHANGES,
+                PageRequest.of(0, clientBufferSize + 1));
+        if (missed.size() > clientBufferSize) {
+            return new Resume(position, List.of(reset("Too many missed events")));
+        }
+        return new Resume(after, missed.stream().map(this::toMessage).toList());
+    }
+
+    private StreamMessage toMessage(ExpenseEvent event) {
+        ApprovalQueueEvent payload = new ApprovalQueueEvent(event.getEventType(), event.getExpenseId(),
+                event.getOwnerEmail(), readExpense(event), event.getCreatedAt());
+        return new StreamMessage(event.getFeedPosition(), event.getEventType().name().toLowerCase(), payload);
+    }
+
+    private ExpenseResponse readExpense(ExpenseEvent event) {
+        if (event.getPayload() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(event.getPayload(), ExpenseResponse.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Unreadable payload of expense event {}: {}", event.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private StreamMessage reset(String reason) {
+        return new StreamMessage(position, RESET_EVENT, Map.of("reason", reason));
+    }
+
+    private void sendHeartbeats() {
+        subscribers.forEach(subscriber -> subscriber.offer(StreamMessage.HEARTBEAT));
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * One buffered message; the sequence is the feed position. Heartbeats are sent as SSE
+     * comments and carry no id.
+     */
+    record StreamMessage(long sequence, String name, Object data) {
+
+        static final StreamMessage HEARTBEAT = new StreamMessage(-1, null, null);
+
+        boolean isFeedEvent() {
+            return this != HEARTBEAT && !RESET_EVENT.equals(name);
+        }
+    }
+
+    /**
+     * Where a connecting client starts: the last feed position it has, and the events to send first.
+     */
+    record Resume(long after, List<StreamMessage> backlog) {
+    }
+
+    /**
+     * A connected stream with its bounded buffer. At most one dispatcher task drains a
+     * subscriber at a time, which keeps its events in order.
+     */
+    private final class Subscriber {
+
+        private final String userEmail;
+        private final SseEmitter emitter;
+        private final BlockingQueue<StreamMessage> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        /** Feed position of the last event queued; only offered under the hub lock. */
+        private long delivered;
+
+        private Subscriber(String userEmail, SseEmitter emitter, long after) {
+            this.userEmail = userEmail;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(clientBufferSize);
+            this.delivered = after;
+        }
+
+        private void offer(StreamMessage message) {
+            if (closed) {
+                return;
+            }
+            if (message.isFeedEvent()) {
+                if (message.sequence() <= delivered) {
+                    return;
+                }
+                delivered = message.sequence();
+            }
+            if (!buffer.offer(message)) {
+                log.warn("Approval queue stream of {} fell {} events behind, disconnecting", userEmail,
+                        clientBufferSize);
+                close(null);
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                StreamMessage message;
+                while (!closed && (message = buffer.poll()) != null) {
+                    emitter.send(toSseEvent(message));
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Approval queue stream of {} closed: {}", userEmail, e.getMessage());
+                close(e);
+            } finally {
+                draining.set(false);
+                if (!closed && !buffer.isEmpty()) {
+                    scheduleDrain();
+                }
+            }
+        }
+
+        private void close(Throwable error) {
+            closed = true;
+            subscribers.remove(this);
+            buffer.clear();
+            if (error != null) {
+                emitter.completeWithError(error);
+            } else {
+                emitter.complete();
+            }
+        }
+
+        private SseEmitter.SseEventBuilder toSseEvent(StreamMessage message) {
+            if (message == StreamMessage.HEARTBEAT) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event()
+                    .id(String.valueOf(message.sequence()))
+                    .name(message.name())
+                    .data(message.data());
+        }
+    }
+}
@@ -42,7 +42,7 @@ public class AuthService {
      */
     @Transactional
     public AuthResponse register(RegisterRequest registerRequest) {
-        log.info("Attempting to register user with email: {}", registerRequest.getEmail());
+        log.debug("Attempting to register user with email: {}", registerRequest.getEmail());
         
         // Check if email already exists
         if (userRepository.existsByEmail(registerRequest.getEmail())) {
@@ -60,7 +60,7 @@ public class AuthService {
         
         // Save user to database
         User savedUser = userRepository.save(user);
-        log.info("User registered successfully with ID: {}", savedUser.getId());
+        log.debug("User registered successfully with ID: {}", savedUser.getId());
         
         // Generate JWT token
         String token = jwtTokenProvider.generateTokenFromUsername(savedUser.getEmail());
@@ -80,7 +80,7 @@ public class AuthService {
      */
     @Transactional(readOnly = true)
     public AuthResponse login(LoginRequest loginRequest) {
-        log.info("Attempting to authenticate user: {}", loginRequest.getEmail());
+        log.debug("Attempting to authenticate user: {}", loginRequest.getEmail());
         
         // Authenticate user
         Authentication authentication = authenticationManager.authenticate(
@@ -99,7 +99,7 @@ public class AuthService {
         User user = userRepository.findByEmail(loginRequest.getEmail())
                 .orElseThrow(() -> new IllegalStateException("User not found after authentication"));
         
-        log.info("User authenticated successfully: {}", user.getEmail());
+        log.debug("User authenticated successfully: {}", user.getEmail());
         
         // Create response
         UserResponse userResponse = mapToUserResponse(user);
@@ -114,7 +114,7 @@ public class AuthService {
      * @return new JWT token
      */
     public String refreshToken(String email) {
-        log.info("Refreshing token for user: {}", email);
+        log.debug("Refreshing token for user: {}", email);
         
         // Verify user exists
         userRepository.findByEmail(email)
@@ -0,0 +1,90 @@
+package com.expense.service;
+
+import com.expense.event.ExpenseChangedEvent;
+import com.expense.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Service that keeps a per-user change version for expense data.
+ * The version is the {@code users.data_version} column, bumped inside every expense or receipt
+ * write transaction, so all instances see the same version once the write commits. It is used
+ * to build ETags, so unchanged list and report responses can be answered with 304 after a
+ * single primary-key lookup instead of the full query.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExpenseChangeTracker {
+
+    private final UserRepository userRepository;
+
+    /**
+     * Bump the change version of the expense owner.
+     * Runs synchronously inside the transaction that publishes the event, so the version
+     * changes if and only if the write commits.
+     *
+     * @param event the expense change event
+     * @throws org.springframework.transaction.IllegalTransactionStateException if no transaction is active
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        userRepository.incrementDataVersion(event.ownerEmail());
+        log.debug("Change version for user {} bumped ({} on expense {})",
+                event.ownerEmail(), event.type(), event.expenseId());
+    }
+
+    /**
+     * Get the current change version for a user.
+     *
+     * @param userEmail the email of the user
+     * @return the current version, 0 if the user does not exist
+     */
+    public long currentVersion(String userEmail) {
+        return userRepository.findDataVersionByEmail(userEmail).orElse(0L);
+    }
+
+    /**
+     * Build a weak ETag for a user-scoped resource.
+     * The tag covers the user identity, the user's change version and the request
+     * parameters, so different pages, sorts or filters never share a tag.
+     *
+     * @param userEmail the email of the authenticated user
+     * @param resource a short name of the resource (e.g. "expenses")
+     * @param parameters the request parameters that shape the response
+     * @return weak ETag value including quotes
+     */
+    public String etagFor(String userEmail, String resource, Object... parameters) {
+        StringBuilder key = new StringBuilder(userEmail).append('|').append(resource);
+        for (Object parameter : parameters) {
+            key.append('|').append(parameter);
+        }
+        return "W/\"" + currentVersion(userEmail) + "-" + digest(key.toString()) + "\"";
+    }
+
+    /**
+     * Hash the ETag key so that no user or filter data leaks into response headers.
+     *
+     * @param key the key to hash
+     * @return hex encoded prefix of the SHA-256 digest
+     */
+    private String digest(String key) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
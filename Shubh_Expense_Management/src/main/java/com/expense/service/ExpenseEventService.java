@@ -0,0 +1,105 @@
+package com.expense.service;
+
+import com.expense.dto.EventFeedResponse;
+import com.expense.dto.ExpenseEventResponse;
+import com.expense.exception.ResourceNotFoundException;
+import com.expense.exception.UnauthorizedException;
+import com.expense.exception.ValidationException;
+import com.expense.model.ExpenseEvent;
+import com.expense.model.User;
+import com.expense.model.UserRole;
+import com.expense.repository.ExpenseEventRepository;
+import com.expense.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for the cursor-based expense event feed.
+ * Lets downstream systems (payroll, accounting) follow expense lifecycle changes
+ * without re-scanning expenses. Events enter the feed when the outbox relay publishes them,
+ * in the order of the positions it assigns, so a cursor never passes an event that appears later.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExpenseEventService {
+    
+    private static final int MAX_LIMIT = 1000;
+    
+    private final ExpenseEventRepository expenseEventRepository;
+    private final UserRepository userRepository;
+    
+    /**
+     * Retrieve the events after a cursor position.
+     * Only accessible by users with MANAGER or ADMIN role.
+     *
+     * @param userEmail the email of the authenticated user (must be manager)
+     * @param after the position of the last event already consumed, 0 to start from the beginning
+     * @param limit the maximum number of events to return (1-1000)
+     * @return EventFeedResponse with events in position order and the cursor for the next call
+     * @throws ResourceNotFoundException if user not found
+     * @throws UnauthorizedException if user is not a manager
+     * @throws ValidationException if after or limit is out of range
+     */
+    @Transactional(readOnly = true)
+    public EventFeedResponse getEventFeed(String userEmail, long after, int limit) {
+        log.debug("Retrieving expense events after {} (limit {}) for user: {}", after, limit, userEmail);
+        
+        // Fetch user and verify manager role
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
+        
+        if (user.getRole() != UserRole.MANAGER && user.getRole() != UserRole.ADMIN) {
+            log.warn("Unauthorized access attempt: User {} with role {} tried to read the event feed",
+                    userEmail, user.getRole());
+            throw new UnauthorizedException("Only managers can access the event feed");
+        }
+        
+        if (after < 0) {
+            throw new ValidationException("after must not be negative");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ValidationException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        
+        // Fetch one extra row to know whether more events are available
+        List<ExpenseEvent> events = expenseEventRepository.findFeedPage(after, PageRequest.of(0, limit + 1));
+        
+        boolean hasMore = events.size() > limit;
+        if (hasMore) {
+            events = events.subList(0, limit);
+        }
+        
+        List<ExpenseEventResponse> responses = events.stream()
+                .map(this::mapToEventResponse)
+                .collect(Collectors.toList());
+        long nextCursor = events.isEmpty() ? after : events.get(events.size() - 1).getFeedPosition();
+        
+        log.debug("Retrieved {} expense events, next cursor: {}", responses.size(), nextCursor);
+        return new EventFeedResponse(responses, nextCursor, hasMore);
+    }
+    
+    /**
+     * Map ExpenseEvent entity to ExpenseEventResponse DTO.
+     *
+     * @param event the ExpenseEvent entity
+     * @return ExpenseEventResponse DTO
+     */
+    private ExpenseEventResponse mapToEventResponse(ExpenseEvent event) {
+        return new ExpenseEventResponse(
+                event.getId(),
+                event.getFeedPosition(),
+                event.getExpenseId(),
+                event.getOwnerEmail(),
+                event.getEventType(),
+                event.getPayload(),
+                event.getCreatedAt()
+        );
+    }
+}
@@ -1,12 +1,17 @@
 package com.expense.service;
 
 import com.expense.dto.CategoryResponse;
+import com.expense.dto.ExpenseBatchResponse;
+import com.expense.dto.ExpenseField;
 import com.expense.dto.ExpenseRequest;
 import com.expense.dto.ExpenseResponse;
 import com.expense.dto.ReceiptResponse;
 import com.expense.dto.UserResponse;
+import com.expense.event.ExpenseChangeType;
+import com.expense.event.ExpenseChangedEvent;
 import com.expense.exception.ResourceNotFoundException;
 import com.expense.exception.UnauthorizedException;
+import com.expense.exception.ValidationException;
 import com.expense.model.Category;
 import com.expense.model.Expense;
 import com.expense.model.ExpenseStatus;
@@ -16,11 +21,20 @@ import com.expense.repository.ExpenseRepository;
 import com.expense.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 /**
  * Service class for managing expense operations.
  * Handles CRUD operations, validation, and authorization for expenses.
@@ -33,6 +47,10 @@ public class ExpenseService {
     private final ExpenseRepository expenseRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${expenses.batch.max-ids:100}")
+    private int maxBatchIds;
     
     /**
      * Create a new expense for the authenticated user.
@@ -46,7 +64,7 @@ public class ExpenseService {
      */
     @Transactional
     public ExpenseResponse createExpense(ExpenseRequest expenseRequest, String userEmail) {
-        log.info("Creating expense for user: {}", userEmail);
+        log.debug("Creating expense for user: {}", userEmail);
         
         // Fetch user
         User user = userRepository.findByEmail(userEmail)
@@ -67,9 +85,11 @@ public class ExpenseService {
         
         // Save expense
         Expense savedExpense = expenseRepository.save(expense);
-        log.info("Expense created successfully with ID: {}", savedExpense.getId());
+        log.debug("Expense created successfully with ID: {}", savedExpense.getId());
+        ExpenseResponse response = mapToExpenseResponse(savedExpense);
+        publishChange(savedExpense.getId(), userEmail, ExpenseChangeType.CREATED, response);
         
-        return mapToExpenseResponse(savedExpense);
+        return response;
     }
     
     /**
@@ -82,7 +102,7 @@ public class ExpenseService {
      */
     @Transactional(readOnly = true)
     public Page<ExpenseResponse> getAllExpensesForUser(String userEmail, Pageable pageable) {
-        log.info("Retrieving expenses for user: {}", userEmail);
+        log.debug("Retrieving expenses for user: {}", userEmail);
         
         // Fetch user
         User user = userRepository.findByEmail(userEmail)
@@ -91,10 +111,32 @@ public class ExpenseService {
         // Fetch expenses with pagination
         Page<Expense> expenses = expenseRepository.findByUserId(user.getId(), pageable);
         
-        log.info("Retrieved {} expenses for user: {}", expenses.getTotalElements(), userEmail);
+        log.debug("Retrieved {} expenses for user: {}", expenses.getTotalElements(), userEmail);
         return expenses.map(this::mapToExpenseResponse);
     }
     
+    /**
+     * Retrieve expenses for the authenticated user restricted to a sparse fieldset.
+     * Only the requested columns are selected; unrequested associations are never loaded.
+     *
+     * @param userEmail the email of the authenticated user
+     * @param fields the fields to include in each row
+     * @param pageable pagination and sorting parameters
+     * @return Page of rows keyed by JSON property name
+     * @throws ResourceNotFoundException if user not found
+     */
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getProjectedExpensesForUser(String userEmail, Set<ExpenseField> fields,
+                                                                 Pageable pageable) {
+        log.debug("Retrieving projected expenses for user: {} with fields: {}", userEmail, fields);
+        
+        // Fetch user
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
+        
+        return expenseRepository.findProjectedByUserId(user.getId(), fields, pageable);
+    }
+    
     /**
      * Retrieve a single expense by ID with authorization check.
      * Ensures the expense belongs to the authenticated user.
@@ -107,7 +149,7 @@ public class ExpenseService {
      */
     @Transactional(readOnly = true)
     public ExpenseResponse getExpenseById(Long expenseId, String userEmail) {
-        log.info("Retrieving expense with ID: {} for user: {}", expenseId, userEmail);
+        log.debug("Retrieving expense with ID: {} for user: {}", expenseId, userEmail);
         
         // Fetch expense
         Expense expense = expenseRepository.findById(expenseId)
@@ -120,10 +162,62 @@ public class ExpenseService {
             throw new UnauthorizedException("You are not authorized to access this expense");
         }
         
-        log.info("Expense retrieved successfully: {}", expenseId);
+        log.debug("Expense retrieved successfully: {}", expenseId);
         return mapToExpenseResponse(expense);
     }
     
+    /**
+     * Retrieve several expenses by ID with a single query.
+     * Ownership is checked per expense in the same pass, so one inaccessible or missing ID
+     * does not fail the whole batch.
+     *
+     * @param expenseIds the IDs to retrieve, at most {@code expenses.batch.max-ids}
+     * @param userEmail the email of the authenticated user
+     * @return ExpenseBatchResponse with one result per requested ID in request order,
+     *         marked OK, NOT_FOUND or FORBIDDEN
+     * @throws ValidationException if no IDs or too many IDs are given
+     */
+    @Transactional(readOnly = true)
+    public ExpenseBatchResponse getExpensesByIds(List<Long> expenseIds, String userEmail) {
+        log.debug("Retrieving {} expenses by ID for user: {}", expenseIds == null ? 0 : expenseIds.size(), userEmail);
+        
+        if (expenseIds == null || expenseIds.isEmpty()) {
+            throw new ValidationException("At least one expense ID is required");
+        }
+        if (expenseIds.size() > maxBatchIds) {
+            throw new ValidationException("At most " + maxBatchIds + " expense IDs can be requested at once");
+        }
+        
+        Map<Long, Expense> expensesById = expenseRepository.findAllWithDetailsByIdIn(new LinkedHashSet<>(expenseIds))
+                .stream()
+                .collect(Collectors.toMap(Expense::getId, Function.identity()));
+        
+        List<ExpenseBatchResponse.BatchItem> results = expenseIds.stream()
+                .map(id -> {
+                    Expense expense = expensesById.get(id);
+                    if (expense == null) {
+                        return new ExpenseBatchResponse.BatchItem(id, ExpenseBatchResponse.ItemStatus.NOT_FOUND, null);
+                    }
+                    if (!expense.getUser().getEmail().equals(userEmail)) {
+                        return new ExpenseBatchResponse.BatchItem(id, ExpenseBatchResponse.ItemStatus.FORBIDDEN, null);
+                    }
+                    return new ExpenseBatchResponse.BatchItem(id, ExpenseBatchResponse.ItemStatus.OK,
+                            mapToExpenseResponse(expense));
+                })
+                .collect(Collectors.toList());
+        
+        long forbidden = results.stream()
+                .filter(result -> result.getStatus() == ExpenseBatchResponse.ItemStatus.FORBIDDEN)
+                .count();
+        if (forbidden > 0) {
+            log.warn("Unauthorized access attempt: User {} requested {} expenses owned by other users",
+                    userEmail, forbidden);
+        }
+        
+        log.debug("Retrieved {} of {} requested expenses", expensesById.size(), expenseIds.size());
+        return new ExpenseBatchResponse(results);
+    }
+    
     /**
      * Update an existing expense with validation and authorization.
      * Ensures the expense belongs to the authenticated user and validates the new data.
@@ -138,7 +232,7 @@ public class ExpenseService {
      */
     @Transactional
     public ExpenseResponse updateExpense(Long expenseId, ExpenseRequest expenseRequest, String userEmail) {
-        log.info("Updating expense with ID: {} for user: {}", expenseId, userEmail);
+        log.debug("Updating expense with ID: {} for user: {}", expenseId, userEmail);
         
         // Fetch expense
         Expense expense = expenseRepository.findById(expenseId)
@@ -169,9 +263,11 @@ public class ExpenseService {
         
         // Save updated expense
         Expense updatedExpense = expenseRepository.save(expense);
-        log.info("Expense updated successfully: {}", expenseId);
+        log.debug("Expense updated successfully: {}", expenseId);
+        ExpenseResponse response = mapToExpenseResponse(updatedExpense);
+        publishChange(expenseId, userEmail, ExpenseChangeType.UPDATED, response);
         
-        return mapToExpenseResponse(updatedExpense);
+        return response;
     }
     
     /**
@@ -186,7 +282,7 @@ public class ExpenseService {
      */
     @Transactional
     public void deleteExpense(Long expenseId, String userEmail) {
-        log.info("Deleting expense with ID: {} for user: {}", expenseId, userEmail);
+        log.debug("Deleting expense with ID: {} for user: {}", expenseId, userEmail);
         
         // Fetch expense
         Expense expense = expenseRepository.findById(expenseId)
@@ -207,12 +303,14 @@ public class ExpenseService {
         
         // Delete expense
         expenseRepository.delete(expense);
-        log.info("Expense deleted successfully: {}", expenseId);
+        log.debug("Expense deleted successfully: {}", expenseId);
+        publishChange(expenseId, userEmail, ExpenseChangeType.DELETED);
     }
     
     /**
      * Submit an expense for approval.
-     * Changes the expense status from DRAFT to SUBMITTED.
+     * Changes the expense status from DRAFT to SUBMITTED with a single conditional update
+     * that checks ownership and status atomically.
      *
      * @param expenseId the ID of the expense to submit
      * @param userEmail the email of the authenticated user
@@ -223,34 +321,24 @@ public class ExpenseService {
      */
     @Transactional
     public ExpenseResponse submitExpenseForApproval(Long expenseId, String userEmail) {
-        log.info("Submitting expense with ID: {} for approval by user: {}", expenseId, userEmail);
-        
-        // Fetch expense
-        Expense expense = expenseRepository.findById(expenseId)
-                .orElseThrow(() -> new ResourceNotFoundException("Expense", "id", expenseId));
-        
-        // Authorization check: ensure user owns the expense
-        if (!expense.getUser().getEmail().equals(userEmail)) {
-            log.warn("Unauthorized submit attempt: User {} tried to submit expense {} owned by {}",
-                    userEmail, expenseId, expense.getUser().getEmail());
-            throw new UnauthorizedException("You are not authorized to submit this expense");
-        }
-        
-        // Business rule: only DRAFT expenses can be submitted
-        if (expense.getStatus() != ExpenseStatus.DRAFT) {
-            log.warn("Attempt to submit non-draft expense: {} with status {}", expenseId, expense.getStatus());
-            throw new IllegalArgumentException("Only expenses in DRAFT status can be submitted");
+        log.debug("Submitting expense with ID: {} for approval by user: {}", expenseId, userEmail);
+        
+        // Business rule: only DRAFT expenses owned by the user can be submitted (checked in the update)
+        int updated = expenseRepository.submitIfInStatus(
+                expenseId, userEmail, ExpenseStatus.DRAFT, ExpenseStatus.SUBMITTED, java.time.LocalDateTime.now());
+        if (updated == 0) {
+            throw explainFailedTransition(expenseId, userEmail, ExpenseStatus.DRAFT, "submit",
+                    "Only expenses in DRAFT status can be submitted");
         }
         
-        // Update status and timestamp
-        expense.setStatus(ExpenseStatus.SUBMITTED);
-        expense.setSubmittedAt(java.time.LocalDateTime.now());
-        
-        // Save updated expense
-        Expense submittedExpense = expenseRepository.save(expense);
-        log.info("Expense submitted successfully: {}", expenseId);
+        // Re-read the updated row
+        Expense submittedExpense = expenseRepository.findById(expenseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Expense", "id", expenseId));
+        log.debug("Expense submitted successfully: {}", expenseId);
+        ExpenseResponse response = mapToExpenseResponse(submittedExpense);
+        publishChange(expenseId, userEmail, ExpenseChangeType.SUBMITTED, response);
         
-        return mapToExpenseResponse(submittedExpense);
+        return response;
     }
     
     /**
@@ -264,7 +352,7 @@ public class ExpenseService {
      */
     @Transactional(readOnly = true)
     public java.util.List<ExpenseResponse> getPendingExpenses(String userEmail) {
-        log.info("Retrieving pending expenses for manager: {}", userEmail);
+        log.debug("Retrieving pending expenses for manager: {}", userEmail);
         
         // Fetch user and verify manager role
         User user = userRepository.findByEmail(userEmail)
@@ -278,17 +366,47 @@ public class ExpenseService {
         }
         
         // Fetch all expenses with SUBMITTED status
-        java.util.List<Expense> pendingExpenses = expenseRepository.findByStatus(ExpenseStatus.SUBMITTED);
+        java.util.List<Expense> pendingExpenses = expenseRepository.findByStatusOrderBySubmittedAtAscIdAsc(ExpenseStatus.SUBMITTED);
         
-        log.info("Retrieved {} pending expenses for manager: {}", pendingExpenses.size(), userEmail);
+        log.debug("Retrieved {} pending expenses for manager: {}", pendingExpenses.size(), userEmail);
         return pendingExpenses.stream()
                 .map(this::mapToExpenseResponse)
                 .collect(java.util.stream.Collectors.toList());
     }
     
+    /**
+     * Retrieve pending expenses for manager approval restricted to a sparse fieldset.
+     * Only accessible by users with MANAGER or ADMIN role.
+     *
+     * @param userEmail the email of the authenticated user (must be manager)
+     * @param fields the fields to include in each row
+     * @return List of rows keyed by JSON property name for SUBMITTED expenses
+     * @throws ResourceNotFoundException if user not found
+     * @throws UnauthorizedException if user is not a manager
+     */
+    @Transactional(readOnly = true)
+    public java.util.List<Map<String, Object>> getProjectedPendingExpenses(String userEmail,
+                                                                           Set<ExpenseField> fields) {
+        log.debug("Retrieving projected pending expenses for manager: {} with fields: {}", userEmail, fields);
+        
+        // Fetch user and verify manager role
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
+        
+        if (user.getRole() != com.expense.model.UserRole.MANAGER && 
+            user.getRole() != com.expense.model.UserRole.ADMIN) {
+            log.warn("Unauthorized access attempt: User {} with role {} tried to access pending expenses",
+                    userEmail, user.getRole());
+            throw new UnauthorizedException("Only managers can access pending expenses");
+        }
+        
+        return expenseRepository.findProjectedByStatus(ExpenseStatus.SUBMITTED, fields);
+    }
+    
     /**
      * Approve an expense.
-     * Changes the expense status to APPROVED and records the reviewer.
+     * Changes the expense status to APPROVED and records the reviewer with a single
+     * conditional update, so concurrent reviewers cannot both succeed.
      * Only accessible by users with MANAGER or ADMIN role.
      *
      * @param expenseId the ID of the expense to approve
@@ -301,7 +419,7 @@ public class ExpenseService {
      */
     @Transactional
     public ExpenseResponse approveExpense(Long expenseId, String reviewNotes, String userEmail) {
-        log.info("Approving expense with ID: {} by manager: {}", expenseId, userEmail);
+        log.debug("Approving expense with ID: {} by manager: {}", expenseId, userEmail);
         
         // Fetch user and verify manager role
         User manager = userRepository.findByEmail(userEmail)
@@ -314,33 +432,28 @@ public class ExpenseService {
             throw new UnauthorizedException("Only managers can approve expenses");
         }
         
-        // Fetch expense
-        Expense expense = expenseRepository.findById(expenseId)
-                .orElseThrow(() -> new ResourceNotFoundException("Expense", "id", expenseId));
-        
-        // Business rule: only SUBMITTED expenses can be approved
-        if (expense.getStatus() != ExpenseStatus.SUBMITTED) {
-            log.warn("Attempt to approve expense with invalid status: {} has status {}", 
-                    expenseId, expense.getStatus());
-            throw new IllegalArgumentException("Only expenses in SUBMITTED status can be approved");
+        // Business rule: only SUBMITTED expenses can be approved (checked in the update)
+        int updated = expenseRepository.reviewIfInStatus(expenseId, ExpenseStatus.SUBMITTED, ExpenseStatus.APPROVED,
+                manager, reviewNotes, java.time.LocalDateTime.now());
+        if (updated == 0) {
+            throw explainFailedTransition(expenseId, null, ExpenseStatus.SUBMITTED, "approve",
+                    "Only expenses in SUBMITTED status can be approved");
         }
         
-        // Update expense with approval details
-        expense.setStatus(ExpenseStatus.APPROVED);
-        expense.setReviewedAt(java.time.LocalDateTime.now());
-        expense.setReviewedBy(manager);
-        expense.setReviewNotes(reviewNotes);
-        
-        // Save updated expense
-        Expense approvedExpense = expenseRepository.save(expense);
-        log.info("Expense approved successfully: {} by manager: {}", expenseId, userEmail);
+        // Re-read the updated row
+        Expense approvedExpense = expenseRepository.findById(expenseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Expense", "id", expenseId));
+        log.debug("Expense approved successfully: {} by manager: {}", expenseId, userEmail);
+        ExpenseResponse response = mapToExpenseResponse(approvedExpense);
+        publishChange(expenseId, approvedExpense.getUser().getEmail(), ExpenseChangeType.APPROVED, response);
         
-        return mapToExpenseResponse(approvedExpense);
+        return response;
     }
     
     /**
      * Reject an expense.
-     * Changes the expense status to REJECTED and records the reviewer.
+     * Changes the expense status to REJECTED and records the reviewer with a single
+     * conditional update, so concurrent reviewers cannot both succeed.
      * Only accessible by users with MANAGER or ADMIN role.
      *
      * @param expenseId the ID of the expense to reject
@@ -353,7 +466,7 @@ public class ExpenseService {
      */
     @Transactional
     public ExpenseResponse rejectExpense(Long expenseId, String reviewNotes, String userEmail) {
-        log.info("Rejecting expense with ID: {} by manager: {}", expenseId, userEmail);
+        log.debug("Rejecting expense with ID: {} by manager: {}", expenseId, userEmail);
         
         // Fetch user and verify manager role
         User manager = userRepository.findByEmail(userEmail)
@@ -366,28 +479,76 @@ public class ExpenseService {
             throw new UnauthorizedException("Only managers can reject expenses");
         }
         
-        // Fetch expense
-        Expense expense = expenseRepository.findById(expenseId)
+        // Business rule: only SUBMITTED expenses can be rejected (checked in the update)
+        int updated = expenseRepository.reviewIfInStatus(expenseId, ExpenseStatus.SUBMITTED, ExpenseStatus.REJECTED,
+                manager, reviewNotes, java.time.LocalDateTime.now());
+        if (updated == 0) {
+            throw explainFailedTransition(expenseId, null, ExpenseStatus.SUBMITTED, "reject",
+                    "Only expenses in SUBMITTED status can be rejected");
+        }
+        
+        // Re-read the updated row
+        Expense rejectedExpense = expenseRepository.findById(expenseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Expense", "id", expenseId));
+        log.debug("Expense rejected successfully: {} by manager: {}", expenseId, userEmail);
+        ExpenseResponse response = mapToExpenseResponse(rejectedExpense);
+        publishChange(expenseId, rejectedExpense.getUser().getEmail(), ExpenseChangeType.REJECTED, response);
         
-        // Business rule: only SUBMITTED expenses can be rejected
-        if (expense.getStatus() != ExpenseStatus.SUBMITTED) {
-            log.warn("Attempt to reject expense with invalid status: {} has status {}", 
-                    expenseId, expense.getStatus());
-            throw new IllegalArgumentException("Only expenses in SUBMITTED status can be rejected");
+        return response;
+    }
+    
+    /**
+     * Work out why a conditional status transition updated no row.
+     * Only runs on the failure path, so successful transitions stay a single statement.
+     *
+     * @param expenseId the ID of the expense
+     * @param ownerEmail the email the expense must belong to, or null if ownership is not required
+     * @param expectedStatus the status the transition required
+     * @param action the attempted action, used in log and error messages
+     * @param statusMessage the error message when the expense has the wrong status
+     * @return the exception to throw
+     */
+    private RuntimeException explainFailedTransition(Long expenseId, String ownerEmail, ExpenseStatus expectedStatus,
+                                                     String action, String statusMessage) {
+        Expense expense = expenseRepository.findById(expenseId).orElse(null);
+        if (expense == null) {
+            return new ResourceNotFoundException("Expense", "id", expenseId);
         }
         
-        // Update expense with rejection details
-        expense.setStatus(ExpenseStatus.REJECTED);
-        expense.setReviewedAt(java.time.LocalDateTime.now());
-        expense.setReviewedBy(manager);
-        expense.setReviewNotes(reviewNotes);
-        
-        // Save updated expense
-        Expense rejectedExpense = expenseRepository.save(expense);
-        log.info("Expense rejected successfully: {} by manager: {}", expenseId, userEmail);
+        // Authorization check: ensure user owns the expense
+        if (ownerEmail != null && !expense.getUser().getEmail().equals(ownerEmail)) {
+            log.warn("Unauthorized {} attempt: User {} tried to {} expense {} owned by {}",
+                    action, ownerEmail, action, expenseId, expense.getUser().getEmail());
+            return new UnauthorizedException("You are not authorized to " + action + " this expense");
+        }
         
-        return mapToExpenseResponse(rejectedExpense);
+        log.warn("Attempt to {} expense with invalid status: {} has status {}, expected {}",
+                action, expenseId, expense.getStatus(), expectedStatus);
+        return new IllegalArgumentException(statusMessage);
+    }
+    
+    /**
+     * Publish an expense change event for listeners such as the ETag change tracker.
+     *
+     * @param expenseId the ID of the changed expense
+     * @param ownerEmail the email of the expense owner
+     * @param type the kind of change
+     */
+    private void publishChange(Long expenseId, String ownerEmail, ExpenseChangeType type) {
+        eventPublisher.publishEvent(new ExpenseChangedEvent(expenseId, ownerEmail, type));
+    }
+    
+    /**
+     * Publish an expense change event carrying the expense state, for listeners such as
+     * the outbox, which forwards it to other systems and to the approval queue stream.
+     *
+     * @param expenseId the ID of the changed expense
+     * @param ownerEmail the email of the expense owner
+     * @param type the kind of change
+     * @param expense the expense after the change
+     */
+    private void publishChange(Long expenseId, String ownerEmail, ExpenseChangeType type, ExpenseResponse expense) {
+        eventPublisher.publishEvent(new ExpenseChangedEvent(expenseId, ownerEmail, type, expense));
     }
     
     /**
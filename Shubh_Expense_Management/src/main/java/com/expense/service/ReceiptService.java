@@ -1,6 +1,8 @@
 package com.expense.service;
 
 import com.expense.dto.ReceiptResponse;
+import com.expense.event.ExpenseChangeType;
+import com.expense.event.ExpenseChangedEvent;
 import com.expense.exception.FileUploadException;
 import com.expense.exception.ResourceNotFoundException;
 import com.expense.exception.UnauthorizedException;
@@ -13,6 +15,7 @@ import com.expense.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
@@ -40,6 +43,7 @@ public class ReceiptService {
     private final ReceiptRepository receiptRepository;
     private final ExpenseRepository expenseRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Value("${file.upload-dir}")
     private String uploadDir;
@@ -63,7 +67,7 @@ public class ReceiptService {
      */
     @Transactional
     public ReceiptResponse uploadReceipt(Long expenseId, MultipartFile file, String userEmail) {
-        log.info("Uploading receipt for expense ID: {} by user: {}", expenseId, userEmail);
+        log.debug("Uploading receipt for expense ID: {} by user: {}", expenseId, userEmail);
         
         // Fetch user
         User user = userRepository.findByEmail(userEmail)
@@ -80,25 +84,86 @@ public class ReceiptService {
             throw new UnauthorizedException("You are not authorized to upload receipt for this expense");
         }
         
+        // Store file
+        String storedFileName = storeFile(file);
+        
+        return saveReceipt(expense, file.getOriginalFilename(), storedFileName, file.getContentType(),
+                file.getSize(), userEmail);
+    }
+    
+    /**
+     * Attach a file that is already in the upload directory as the receipt of an expense.
+     * Used to complete resumable uploads; replaces an existing receipt like a regular upload.
+     *
+     * @param expenseId the ID of the expense
+     * @param fileName the original file name
+     * @param storedFileName the name of the file in the upload directory
+     * @param fileType the MIME type of the file
+     * @param fileSize the file size in bytes
+     * @param userEmail the email of the authenticated user
+     * @return ReceiptResponse containing receipt metadata
+     * @throws ResourceNotFoundException if user or expense not found
+     * @throws UnauthorizedException if user doesn't own the expense
+     */
+    @Transactional
+    public ReceiptResponse attachStoredReceipt(Long expenseId, String fileName, String storedFileName,
+                                               String fileType, long fileSize, String userEmail) {
+        // Fetch user
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
+        
+        // Find expense and verify ownership
+        Expense expense = expenseRepository.findById(expenseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Expense", "id", expenseId));
+        
+        if (!expense.getUser().getId().equals(user.getId())) {
+            throw new UnauthorizedException("You are not authorized to upload receipt for this expense");
+        }
+        
+        return saveReceipt(expense, fileName, storedFileName, fileType, fileSize, userEmail);
+    }
+    
+    /**
+     * Check a MIME type against the allowed receipt file types.
+     *
+     * @param contentType the MIME type, may be null
+     * @return true if receipts of this type are accepted
+     */
+    static boolean isAllowedFileType(String contentType) {
+        return contentType != null && ALLOWED_FILE_TYPES.contains(contentType.toLowerCase());
+    }
+    
+    /**
+     * Replace the expense's receipt with a stored file and announce the change.
+     *
+     * @param expense the expense (ownership already verified)
+     * @param fileName the original file name
+     * @param storedFileName the name of the file in the upload directory
+     * @param fileType the MIME type of the file
+     * @param fileSize the file size in bytes
+     * @param userEmail the email of the authenticated user
+     * @return ReceiptResponse containing receipt metadata
+     */
+    private ReceiptResponse saveReceipt(Expense expense, String fileName, String storedFileName, String fileType,
+                                        long fileSize, String userEmail) {
         // Delete existing receipt if present
         if (expense.getReceipt() != null) {
             deleteReceiptFile(expense.getReceipt());
             receiptRepository.delete(expense.getReceipt());
         }
         
-        // Store file
-        String storedFileName = storeFile(file);
-        
         // Create receipt entity
         Receipt receipt = new Receipt();
         receipt.setExpense(expense);
-        receipt.setFileName(file.getOriginalFilename());
+        receipt.setFileName(fileName);
         receipt.setFilePath(storedFileName);
-        receipt.setFileType(file.getContentType());
-        receipt.setFileSize(file.getSize());
+        receipt.setFileType(fileType);
+        receipt.setFileSize(fileSize);
         
         Receipt savedReceipt = receiptRepository.save(receipt);
-        log.info("Receipt uploaded successfully with ID: {}", savedReceipt.getId());
+        log.debug("Receipt uploaded successfully with ID: {}", savedReceipt.getId());
+        eventPublisher.publishEvent(
+                new ExpenseChangedEvent(expense.getId(), userEmail, ExpenseChangeType.RECEIPT_UPLOADED));
         
         return mapToReceiptResponse(savedReceipt);
     }
@@ -115,7 +180,7 @@ public class ReceiptService {
      */
     @Transactional(readOnly = true)
     public Resource getReceiptFile(Long receiptId, String userEmail) {
-        log.info("Retrieving receipt file ID: {} for user: {}", receiptId, userEmail);
+        log.debug("Retrieving receipt file ID: {} for user: {}", receiptId, userEmail);
         
         // Fetch user
         User user = userRepository.findByEmail(userEmail)
@@ -154,7 +219,7 @@ public class ReceiptService {
      */
     @Transactional(readOnly = true)
     public ReceiptResponse getReceiptMetadata(Long receiptId, String userEmail) {
-        log.info("Retrieving receipt metadata ID: {} for user: {}", receiptId, userEmail);
+        log.debug("Retrieving receipt metadata ID: {} for user: {}", receiptId, userEmail);
         
         // Fetch user
         User user = userRepository.findByEmail(userEmail)
@@ -182,7 +247,7 @@ public class ReceiptService {
      */
     @Transactional
     public void deleteReceipt(Long receiptId, String userEmail) {
-        log.info("Deleting receipt ID: {} by user: {}", receiptId, userEmail);
+        log.debug("Deleting receipt ID: {} by user: {}", receiptId, userEmail);
         
         // Fetch user
         User user = userRepository.findByEmail(userEmail)
@@ -201,7 +266,9 @@ public class ReceiptService {
         
         // Delete database record
         receiptRepository.delete(receipt);
-        log.info("Receipt deleted successfully with ID: {}", receiptId);
+        log.debug("Receipt deleted successfully with ID: {}", receiptId);
+        eventPublisher.publishEvent(new ExpenseChangedEvent(
+                receipt.getExpense().getId(), userEmail, ExpenseChangeType.RECEIPT_DELETED));
     }
     
     /**
@@ -221,8 +288,7 @@ public class ReceiptService {
         }
         
         // Validate file type
-        String contentType = file.getContentType();
-        if (contentType == null || !ALLOWED_FILE_TYPES.contains(contentType.toLowerCase())) {
+        if (!isAllowedFileType(file.getContentType())) {
             throw new FileUploadException("Invalid file type. Allowed types: JPEG, PNG, PDF");
         }
     }
@@ -254,7 +320,7 @@ public class ReceiptService {
             Path targetLocation = uploadPath.resolve(storedFileName);
             Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
             
-            log.info("File stored successfully: {}", storedFileName);
+            log.debug("File stored successfully: {}", storedFileName);
             return storedFileName;
             
         } catch (IOException ex) {
@@ -271,7 +337,7 @@ public class ReceiptService {
         try {
             Path filePath = Paths.get(uploadDir).resolve(receipt.getFilePath()).normalize();
             Files.deleteIfExists(filePath);
-            log.info("File deleted successfully: {}", receipt.getFilePath());
+            log.debug("File deleted successfully: {}", receipt.getFilePath());
         } catch (IOException ex) {
             log.error("Failed to delete file: {}", receipt.getFilePath(), ex);
             // Don't throw exception, continue with database deletion
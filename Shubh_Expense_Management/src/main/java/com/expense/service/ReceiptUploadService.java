@@ -0,0 +1,440 @@
+package com.expense.service;
+
+import com.expense.dto.ReceiptResponse;
+import com.expense.dto.UploadSessionRequest;
+import com.expense.dto.UploadSessionResponse;
+import com.expense.exception.FileUploadException;
+import com.expense.exception.ResourceNotFoundException;
+import com.expense.exception.UnauthorizedException;
+import com.expense.exception.UploadOffsetConflictException;
+import com.expense.model.Expense;
+import com.expense.model.ReceiptUploadSession;
+import com.expense.model.User;
+import com.expense.repository.ExpenseRepository;
+import com.expense.repository.ReceiptUploadSessionRepository;
+import com.expense.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service for resumable, chunked receipt uploads.
+ * <p>
+ * A client creates an upload session, then PUTs chunks at increasing offsets. Each chunk is
+ * streamed straight from the request into a temp file while a SHA-256 digest is updated, so
+ * neither the chunk nor the file is ever held in memory. When all bytes have arrived the
+ * upload is completed: the optional client checksum is verified, the temp file is moved into
+ * the upload directory and attached to the expense like a regular receipt.
+ * <p>
+ * The session's {@code receivedBytes} is the authoritative offset. If a chunk is interrupted,
+ * the bytes that did arrive are kept and the client resumes from the offset reported by
+ * {@link #getSession}. Sessions expire after {@code receipts.upload.session-ttl-ms} of
+ * inactivity and are cleaned up periodically. Temp files are local to the instance that
+ * received them, so chunks of one upload must reach the same instance (or a shared volume).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReceiptUploadService {
+    
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    
+    private final ReceiptUploadSessionRepository uploadSessionRepository;
+    private final ExpenseRepository expenseRepository;
+    private final UserRepository userRepository;
+    private final ReceiptService receiptService;
+    
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+    
+    @Value("${receipts.upload.max-size:26214400}")
+    private long maxSize;
+    
+    @Value("${receipts.upload.max-chunk-size:2097152}")
+    private long maxChunkSize;
+    
+    @Value("${receipts.upload.session-ttl-ms:86400000}")
+    private long sessionTtlMs;
+    
+    /**
+     * Per-session lock and running digest. The digest covers exactly {@code digestedBytes}
+     * bytes of the temp file; it is rebuilt from the file after a restart.
+     */
+    private final Map<String, UploadState> states = new ConcurrentHashMap<>();
+    
+    /**
+     * Start a resumable upload for an expense.
+     *
+     * @param expenseId the ID of the expense
+     * @param request the file name, MIME type and total size
+     * @param userEmail the email of the authenticated user
+     * @return UploadSessionResponse with the upload ID and offset 0
+     * @throws ResourceNotFoundException if user or expense not found
+     * @throws UnauthorizedException if user doesn't own the expense
+     * @throws FileUploadException if the file type or size is not accepted
+     */
+    public UploadSessionResponse createSession(Long expenseId, UploadSessionRequest request, String userEmail) {
+        log.debug("Creating receipt upload session for expense ID: {} by user: {}", expenseId, userEmail);
+        
+        // Fetch user
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
+        
+        // Find expense and verify ownership
+        Expense expense = expenseRepository.findById(expenseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Expense", "id", expenseId));
+        
+        if (!expense.getUser().getId().equals(user.getId())) {
+            throw new UnauthorizedException("You are not authorized to upload receipt for this expense");
+        }
+        
+        // Validate file
+        if (!ReceiptService.isAllowedFileType(request.getFileType())) {
+            throw new FileUploadException("Invalid file type. Allowed types: JPEG, PNG, PDF");
+        }
+        if (request.getTotalSize() > maxSize) {
+            throw new FileUploadException("File size exceeds maximum limit of " + maxSize / (1024 * 1024) + " MB");
+        }
+        
+        ReceiptUploadSession session = new ReceiptUploadSession();
+        session.setId(UUID.randomUUID().toString());
+        session.setExpense(expense);
+        session.setUser(user);
+        session.setFileName(request.getFileName());
+        session.setFileType(request.getFileType().toLowerCase());
+        session.setTotalSize(request.getTotalSize());
+        session.setReceivedBytes(0L);
+        session.setExpiresAt(LocalDateTime.now().plusNanos(sessionTtlMs * 1_000_000L));
+        
+        try {
+            Files.createDirectories(tempDir());
+            Files.deleteIfExists(tempFile(session.getId()));
+            Files.createFile(tempFile(session.getId()));
+        } catch (IOException ex) {
+            throw new FileUploadException("Failed to create upload", ex);
+        }
+        
+        ReceiptUploadSession savedSession = uploadSessionRepository.save(session);
+        log.debug("Receipt upload session {} created for {} bytes", savedSession.getId(), savedSession.getTotalSize());
+        return mapToSessionResponse(savedSession, expenseId);
+    }
+    
+    /**
+     * Get the state of an upload, e.g. the offset to resume from after a connection loss.
+     *
+     * @param uploadId the upload session ID
+     * @param userEmail the email of the authenticated user
+     * @return UploadSessionResponse with the current offset
+     * @throws ResourceNotFoundException if the upload does not exist or expired
+     * @throws UnauthorizedException if the upload belongs to another user
+     */
+    public UploadSessionResponse getSession(String uploadId, String userEmail) {
+        ReceiptUploadSession session = findOwnSession(uploadId, userEmail);
+        return mapToSessionResponse(session, expenseIdOf(session));
+    }
+    
+    /**
+     * Append a chunk at the given offset.
+     * The chunk is copied from the request stream to the temp file in small buffers.
+     *
+     * @param uploadId the upload session ID
+     * @param offset the offset of the chunk; must equal the bytes received so far
+     * @param content the chunk bytes
+     * @param userEmail the email of the authenticated user
+     * @return UploadSessionResponse with the new offset
+     * @throws ResourceNotFoundException if the upload does not exist or expired
+     * @throws UnauthorizedException if the upload belongs to another user
+     * @throws UploadOffsetConflictException if the offset is not the current offset
+     * @throws FileUploadException if the chunk is too large or the transfer was interrupted
+     */
+    public UploadSessionResponse appendChunk(String uploadId, long offset, InputStream content, String userEmail) {
+        ReceiptUploadSession session = findOwnSession(uploadId, userEmail);
+        UploadState state = states.computeIfAbsent(uploadId, id -> new UploadState());
+        
+        state.lock.lock();
+        try {
+            // Re-read under the lock: a concurrent chunk may have advanced the offset
+            long current = uploadSessionRepository.findById(uploadId)
+                    .map(ReceiptUploadSession::getReceivedBytes)
+                    .orElseThrow(() -> new ResourceNotFoundException("Upload", "id", uploadId));
+            if (offset != current) {
+                throw new UploadOffsetConflictException(offset, current);
+            }
+            
+            long limit = Math.min(maxChunkSize, session.getTotalSize() - current);
+            Path file = tempFile(uploadId);
+            long written = 0;
+            IOException interrupted = null;
+            
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                // Drop bytes of a chunk whose offset update never happened, e.g. after a crash
+                if (channel.size() < current) {
+                    throw new FileUploadException("Upload data is missing, please start a new upload");
+                }
+                channel.truncate(current);
+                ensureDigest(state, file, current);
+                channel.position(current);
+                
+                byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                int read;
+                while (true) {
+                    try {
+                        read = content.read(buffer);
+                    } catch (IOException ex) {
+                        interrupted = ex;
+                        break;
+                    }
+                    if (read < 0) {
+                        break;
+                    }
+                    if (written + read > limit) {
+                        // Keep nothing of an oversized chunk
+                        channel.truncate(current);
+                        state.reset();
+                        throw new FileUploadException(written + read > maxChunkSize
+                                ? "Chunk exceeds maximum size of " + maxChunkSize + " bytes"
+                                : "Chunk exceeds the declared file size");
+                    }
+                    channel.write(ByteBuffer.wrap(buffer, 0, read));
+                    state.digest.update(buffer, 0, read);
+                    written += read;
+                }
+                channel.force(false);
+            } catch (IOException ex) {
+                state.reset();
+                throw new FileUploadException("Failed to store chunk", ex);
+            }
+            state.digestedBytes = current + written;
+            
+            LocalDateTime now = LocalDateTime.now();
+            if (written > 0 && uploadSessionRepository.advanceOffset(uploadId, current, current + written, now,
+                    now.plusNanos(sessionTtlMs * 1_000_000L)) == 0) {
+                state.reset();
+                throw new ResourceNotFoundException("Upload", "id", uploadId);
+            }
+            
+            if (interrupted != null) {
+                log.debug("Chunk of upload {} interrupted after {} bytes: {}", uploadId, written,
+                        interrupted.getMessage());
+                throw new FileUploadException("Chunk transfer interrupted, resume at offset " + (current + written),
+                        interrupted);
+            }
+            
+            session.setReceivedBytes(current + written);
+            log.debug("Upload {} received {} bytes at offset {}", uploadId, written, current);
+            return mapToSessionResponse(session, expenseIdOf(session));
+        } finally {
+            state.lock.unlock();
+        }
+    }
+    
+    /**
+     * Complete an upload once all bytes have been received and attach it as the expense's receipt.
+     *
+     * @param uploadId the upload session ID
+     * @param sha256 optional hex SHA-256 of the whole file, verified if given
+     * @param userEmail the email of the authenticated user
+     * @return ReceiptResponse containing receipt metadata
+     * @throws ResourceNotFoundException if the upload does not exist or expired
+     * @throws UnauthorizedException if the upload belongs to another user
+     * @throws FileUploadException if bytes are missing or the checksum does not match
+     */
+    public ReceiptResponse completeUpload(String uploadId, String sha256, String userEmail) {
+        log.debug("Completing receipt upload {} by user: {}", uploadId, userEmail);
+        ReceiptUploadSession session = findOwnSession(uploadId, userEmail);
+        UploadState state = states.computeIfAbsent(uploadId, id -> new UploadState());
+        
+        state.lock.lock();
+        try {
+            long received = session.getReceivedBytes();
+            if (received != session.getTotalSize()) {
+                throw new FileUploadException(String.format("Upload incomplete: %d of %d bytes received",
+                        received, session.getTotalSize()));
+            }
+            
+            Path file = tempFile(uploadId);
+            try {
+                ensureDigest(state, file, received);
+            } catch (IOException ex) {
+                throw new FileUploadException("Failed to read upload", ex);
+            }
+            String digest = HexFormat.of().formatHex(state.digest.digest());
+            state.reset();
+            if (sha256 != null && !sha256.isBlank() && !sha256.equalsIgnoreCase(digest)) {
+                discard(uploadId);
+                throw new FileUploadException("Checksum mismatch, please start a new upload");
+            }
+            
+            String storedFileName = UUID.randomUUID() + extensionOf(session.getFileName());
+            Path target = Paths.get(uploadDir).resolve(storedFileName);
+            try {
+                Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException ex) {
+                throw new FileUploadException("Failed to store file", ex);
+            }
+            
+            ReceiptResponse receipt;
+            try {
+                receipt = receiptService.attachStoredReceipt(expenseIdOf(session), session.getFileName(),
+                        storedFileName, session.getFileType(), received, userEmail);
+            } catch (RuntimeException ex) {
+                deleteQuietly(target);
+                throw ex;
+            }
+            
+            uploadSessionRepository.deleteById(uploadId);
+            states.remove(uploadId);
+            log.debug("Receipt upload {} completed as receipt {} (sha256 {})", uploadId, receipt.getId(), digest);
+            return receipt;
+        } finally {
+            state.lock.unlock();
+        }
+    }
+    
+    /**
+     * Abort an upload and delete its data.
+     *
+     * @param uploadId the upload session ID
+     * @param userEmail the email of the authenticated user
+     * @throws ResourceNotFoundException if the upload does not exist or expired
+     * @throws UnauthorizedException if the upload belongs to another user
+     */
+    public void abortUpload(String uploadId, String userEmail) {
+        findOwnSession(uploadId, userEmail);
+        discard(uploadId);
+        log.debug("Receipt upload {} aborted by user: {}", uploadId, userEmail);
+    }
+    
+    /**
+     * Delete sessions and temp files of uploads that were abandoned.
+     */
+    @Scheduled(fixedDelayString = "${receipts.upload.cleanup-interval-ms:3600000}")
+    public void removeExpiredSessions() {
+        for (ReceiptUploadSession session : uploadSessionRepository.findByExpiresAtBefore(LocalDateTime.now())) {
+            discard(session.getId());
+            log.info("Removed expired receipt upload {}", session.getId());
+        }
+    }
+    
+    private ReceiptUploadSession findOwnSession(String uploadId, String userEmail) {
+        ReceiptUploadSession session = uploadSessionRepository.findById(uploadId)
+                .filter(found -> found.getExpiresAt().isAfter(LocalDateTime.now()))
+                .orElseThrow(() -> new ResourceNotFoundException("Upload", "id", uploadId));
+        
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
+        
+        if (!session.getUser().getId().equals(user.getId())) {
+            throw new UnauthorizedException("You are not authorized to access this upload");
+        }
+        return session;
+    }
+    
+    /**
+     * Make the running digest cover exactly the first {@code length} bytes of the file,
+     * re-reading the file if the digest is missing or out of step.
+     */
+    private void ensureDigest(UploadState state, Path file, long length) throws IOException {
+        if (state.digest != null && state.digestedBytes == length) {
+            return;
+        }
+        state.digest = newDigest();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            long remaining = length;
+            int read;
+            while (remaining > 0 && (read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining))) > 0) {
+                state.digest.update(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+        state.digestedBytes = length;
+    }
+    
+    private void discard(String uploadId) {
+        uploadSessionRepository.deleteById(uploadId);
+        states.remove(uploadId);
+        deleteQuietly(tempFile(uploadId));
+    }
+    
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.error("Failed to delete file: {}", file, ex);
+        }
+    }
+    
+    private Path tempDir() {
+        return Paths.get(uploadDir).resolve(".partial");
+    }
+    
+    private Path tempFile(String uploadId) {
+        return tempDir().resolve(uploadId + ".part");
+    }
+    
+    private static String extensionOf(String fileName) {
+        if (fileName != null && fileName.contains(".")) {
+            return fileName.substring(fileName.lastIndexOf("."));
+        }
+        return "";
+    }
+    
+    private static Long expenseIdOf(ReceiptUploadSession session) {
+        // Reading the ID of a lazy association does not initialize it
+        return session.getExpense().getId();
+    }
+    
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+    
+    private UploadSessionResponse mapToSessionResponse(ReceiptUploadSession session, Long expenseId) {
+        return new UploadSessionResponse(
+                session.getId(),
+                expenseId,
+                session.getFileName(),
+                session.getFileType(),
+                session.getTotalSize(),
+                session.getReceivedBytes(),
+                maxChunkSize,
+                session.getExpiresAt()
+        );
+    }
+    
+    private static final class UploadState {
+        
+        private final ReentrantLock lock = new ReentrantLock();
+        private MessageDigest digest;
+        private long digestedBytes;
+        
+        private void reset() {
+            digest = null;
+            digestedBytes = 0;
+        }
+    }
+}
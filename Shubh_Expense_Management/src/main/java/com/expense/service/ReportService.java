@@ -1,12 +1,25 @@
 package com.expense.service;
 
+import com.expense.dto.CubeReportResponse;
+import com.expense.dto.ExpenseField;
 import com.expense.dto.ExpenseResponse;
+import com.expense.dto.ProjectedReportResponse;
+import com.expense.dto.ReportDimension;
 import com.expense.dto.ReportResponse;
+import com.expense.dto.UserResponse;
 import com.expense.exception.ResourceNotFoundException;
+import com.expense.exception.UnauthorizedException;
 import com.expense.model.Category;
 import com.expense.model.Expense;
 import com.expense.model.ExpenseStatus;
 import com.expense.model.User;
+import com.expense.model.UserRole;
+import com.expense.report.ColumnarReportEngine;
+import com.expense.report.ExpenseStream;
+import com.expense.report.ExpenseStreamWriter;
+import com.expense.report.OrganizationReport;
+import com.expense.report.OrganizationReportAggregator;
+import com.expense.report.OrganizationSubtotals;
 import com.expense.repository.CategoryRepository;
 import com.expense.repository.ExpenseRepository;
 import com.expense.repository.UserRepository;
@@ -24,6 +37,8 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -39,6 +54,8 @@ public class ReportService {
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
     private final ExpenseService expenseService;
+    private final ColumnarReportEngine columnarReportEngine;
+    private final OrganizationReportAggregator organizationReportAggregator;
     
     /**
      * Generate an expense report with optional filters.
@@ -55,7 +72,7 @@ public class ReportService {
     @Transactional(readOnly = true)
     public ReportResponse generateReport(String userEmail, LocalDate startDate, LocalDate endDate, 
                                          Long categoryId, String status) {
-        log.info("Generating report for user: {} with filters - startDate: {}, endDate: {}, categoryId: {}, status: {}",
+        log.debug("Generating report for user: {} with filters - startDate: {}, endDate: {}, categoryId: {}, status: {}",
                 userEmail, startDate, endDate, categoryId, status);
         
         // Fetch user
@@ -97,12 +114,235 @@ public class ReportService {
                 startDate, endDate, categoryId, status
         );
         
-        log.info("Report generated successfully: {} expenses, total amount: {}", 
+        log.debug("Report generated successfully: {} expenses, total amount: {}", 
                 expenseResponses.size(), totalAmount);
         
         return new ReportResponse(expenseResponses, totalAmount, expenseResponses.size(), filters);
     }
     
+    /**
+     * Generate an expense report restricted to a sparse fieldset.
+     * Filters are applied in the database and only the requested columns are selected;
+     * the total amount is computed with a single aggregate query.
+     *
+     * @param userEmail the email of the authenticated user
+     * @param startDate optional start date for filtering
+     * @param endDate optional end date for filtering
+     * @param categoryId optional category ID for filtering
+     * @param status optional status for filtering
+     * @param fields the fields to include in each expense row
+     * @return ProjectedReportResponse containing projected expenses and aggregated data
+     * @throws ResourceNotFoundException if user or category not found
+     * @throws IllegalArgumentException if status is invalid
+     */
+    @Transactional(readOnly = true)
+    public ProjectedReportResponse generateProjectedReport(String userEmail, LocalDate startDate, LocalDate endDate,
+                                                           Long categoryId, String status,
+                                                           Set<ExpenseField> fields) {
+        log.debug("Generating projected report for user: {} with fields: {}", userEmail, fields);
+        
+        // Fetch user
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
+        
+        // Validate category exists
+        if (categoryId != null && !categoryRepository.existsById(categoryId)) {
+            throw new ResourceNotFoundException("Category", "id", categoryId);
+        }
+        
+        ExpenseStatus expenseStatus = parseStatus(status);
+        
+        List<Map<String, Object>> expenses = expenseRepository.findProjectedForReport(
+                user.getId(), startDate, endDate, categoryId, expenseStatus, fields);
+        BigDecimal totalAmount = expenseRepository.sumAmountForReport(
+                user.getId(), startDate, endDate, categoryId, expenseStatus);
+        
+        ReportResponse.ReportFilters filters = new ReportResponse.ReportFilters(
+                startDate, endDate, categoryId, status
+        );
+        
+        log.debug("Projected report generated successfully: {} expenses, total amount: {}",
+                expenses.size(), totalAmount);
+        
+        return new ProjectedReportResponse(expenses, totalAmount, expenses.size(), filters);
+    }
+    
+    /**
+     * Validate the filters of a streamed expense report.
+     * The expenses themselves are read later by {@link ExpenseStreamWriter} while the response is
+     * written, so validation errors are reported before the response starts.
+     *
+     * @param userEmail the email of the authenticated user
+     * @param startDate optional start date for filtering
+     * @param endDate optional end date for filtering
+     * @param categoryId optional category ID for filtering
+     * @param status optional status for filtering
+     * @return the validated query for the stream writer
+     * @throws ResourceNotFoundException if user or category not found
+     * @throws IllegalArgumentException if status is invalid
+     */
+    @Transactional(readOnly = true)
+    public ExpenseStream prepareExpenseStream(String userEmail, LocalDate startDate, LocalDate endDate,
+                                              Long categoryId, String status) {
+        log.debug("Preparing streamed report for user: {} with filters - startDate: {}, endDate: {}, "
+                + "categoryId: {}, status: {}", userEmail, startDate, endDate, categoryId, status);
+        
+        // Fetch user
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
+        
+        // Validate category exists
+        if (categoryId != null && !categoryRepository.existsById(categoryId)) {
+            throw new ResourceNotFoundException("Category", "id", categoryId);
+        }
+        
+        ExpenseStatus expenseStatus = parseStatus(status);
+        
+        ReportResponse.ReportFilters filters = new ReportResponse.ReportFilters(
+                startDate, endDate, categoryId, status
+        );
+        
+        return new ExpenseStream(user.getId(), filters, expenseStatus);
+    }
+    
+    /**
+     * Generate an organization-wide multi-dimensional report.
+     * Aggregates across all users (or one user) grouped by any of user, category, month and status,
+     * served from the in-memory columnar engine instead of loading expense entities.
+     * Only accessible by users with MANAGER or ADMIN role.
+     *
+     * @param userEmail the email of the authenticated user (must be manager)
+     * @param userId optional owner filter, null for all users
+     * @param startDate optional start date for filtering
+     * @param endDate optional end date for filtering
+     * @param categoryId optional category ID for filtering
+     * @param status optional status for filtering
+     * @param groupBy the dimensions to group by
+     * @return CubeReportResponse with one aggregate per group and grand totals
+     * @throws ResourceNotFoundException if user or category not found
+     * @throws UnauthorizedException if user is not a manager
+     * @throws IllegalArgumentException if status is invalid
+     */
+    @Transactional(readOnly = true)
+    public CubeReportResponse generateCubeReport(String userEmail, Long userId, LocalDate startDate,
+                                                 LocalDate endDate, Long categoryId, String status,
+                                                 Set<ReportDimension> groupBy) {
+        log.debug("Generating cube report for manager: {} grouped by {} with filters - userId: {}, startDate: {}, "
+                + "endDate: {}, categoryId: {}, status: {}", userEmail, groupBy, userId, startDate, endDate,
+                categoryId, status);
+        
+        // Fetch user and verify manager role
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
+        
+        if (user.getRole() != UserRole.MANAGER && user.getRole() != UserRole.ADMIN) {
+            log.warn("Unauthorized access attempt: User {} with role {} tried to access the cube report",
+                    userEmail, user.getRole());
+            throw new UnauthorizedException("Only managers can access organization reports");
+        }
+        
+        // Validate filters
+        if (userId != null && !userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+        if (categoryId != null && !categoryRepository.existsById(categoryId)) {
+            throw new ResourceNotFoundException("Category", "id", categoryId);
+        }
+        ExpenseStatus expenseStatus = parseStatus(status);
+        
+        CubeReportResponse report = columnarReportEngine.aggregate(
+                userId, startDate, endDate, categoryId, expenseStatus, groupBy);
+        report.setFilters(new ReportResponse.ReportFilters(startDate, endDate, categoryId, status));
+        
+        log.debug("Cube report generated successfully: {} groups, {} expenses, total amount: {}",
+                report.getGroups().size(), report.getCount(), report.getTotalAmount());
+        return report;
+    }
+    
+    /**
+     * Generate per-user and per-category subtotals for every user, or for the users of one department.
+     * Users are partitioned across a fork-join pool and aggregated in parallel; the result is
+     * streamed to the client by {@link com.expense.report.OrganizationReportWriter}.
+     * Only accessible by users with MANAGER or ADMIN role.
+     * Not transactional on purpose: the partitions run their queries on their own connections.
+     *
+     * @param userEmail the email of the authenticated user (must be manager)
+     * @param department optional department, null for the whole organization
+     * @param startDate optional start date for filtering
+     * @param endDate optional end date for filtering
+     * @param categoryId optional category ID for filtering
+     * @param status optional status for filtering
+     * @return OrganizationReport with the included users and their subtotals
+     * @throws ResourceNotFoundException if user or category not found
+     * @throws UnauthorizedException if user is not a manager
+     * @throws IllegalArgumentException if status is invalid
+     */
+    public OrganizationReport generateOrganizationReport(String userEmail, String department, LocalDate startDate,
+                                                         LocalDate endDate, Long categoryId, String status) {
+        log.debug("Generating organization report for manager: {} with filters - department: {}, startDate: {}, "
+                + "endDate: {}, categoryId: {}, status: {}", userEmail, department, startDate, endDate,
+                categoryId, status);
+        
+        // Fetch user and verify manager role
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
+        
+        if (user.getRole() != UserRole.MANAGER && user.getRole() != UserRole.ADMIN) {
+            log.warn("Unauthorized access attempt: User {} with role {} tried to access the organization report",
+                    userEmail, user.getRole());
+            throw new UnauthorizedException("Only managers can access organization reports");
+        }
+        
+        // Validate filters
+        if (categoryId != null && !categoryRepository.existsById(categoryId)) {
+            throw new ResourceNotFoundException("Category", "id", categoryId);
+        }
+        ExpenseStatus expenseStatus = parseStatus(status);
+        
+        List<User> users = department == null || department.isBlank()
+                ? userRepository.findAllByOrderByIdAsc()
+                : userRepository.findByDepartmentOrderByIdAsc(department);
+        List<Long> userIds = users.stream().map(User::getId).collect(Collectors.toList());
+        
+        OrganizationSubtotals subtotals = organizationReportAggregator.aggregate(
+                userIds, startDate, endDate, categoryId, expenseStatus);
+        
+        List<UserResponse> userResponses = users.stream()
+                .map(included -> new UserResponse(included.getId(), included.getEmail(), included.getFirstName(),
+                        included.getLastName(), included.getRole()))
+                .collect(Collectors.toList());
+        Map<Long, String> categoryNames = categoryRepository.findAll().stream()
+                .collect(Collectors.toMap(Category::getId, Category::getName));
+        
+        log.debug("Organization report generated successfully: {} users, {} expenses",
+                userResponses.size(), subtotals.total().getCount());
+        return new OrganizationReport(
+                department == null || department.isBlank() ? null : department,
+                new ReportResponse.ReportFilters(startDate, endDate, categoryId, status),
+                userResponses,
+                categoryNames,
+                subtotals);
+    }
+    
+    /**
+     * Parse an optional status filter.
+     *
+     * @param status status string, may be null or empty
+     * @return the parsed status, or null if no status filter is given
+     * @throws IllegalArgumentException if status is invalid
+     */
+    private ExpenseStatus parseStatus(String status) {
+        if (status == null || status.isEmpty()) {
+            return null;
+        }
+        try {
+            return ExpenseStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid expense status: {}", status);
+            throw new IllegalArgumentException("Invalid expense status: " + status);
+        }
+    }
+    
     /**
      * Filter expenses by date range.
      *
@@ -182,7 +422,7 @@ public class ReportService {
      */
     public byte[] exportReportAsCsv(String userEmail, LocalDate startDate, LocalDate endDate,
                                     Long categoryId, String status) throws IOException {
-        log.info("Exporting report as CSV for user: {}", userEmail);
+        log.debug("Exporting report as CSV for user: {}", userEmail);
         
         // Generate report with filters
         ReportResponse report = generateReport(userEmail, startDate, endDate, categoryId, status);
@@ -219,7 +459,7 @@ public class ReportService {
         writer.flush();
         writer.close();
         
-        log.info("CSV export completed successfully: {} bytes", outputStream.size());
+        log.debug("CSV export completed successfully: {} bytes", outputStream.size());
         return outputStream.toByteArray();
     }
     
@@ -0,0 +1,20 @@
+-- Gap-free positions for the GET /api/events cursor feed
+-- Ids are taken at INSERT but become visible at commit, so a slow transaction could appear
+-- behind a cursor a consumer already passed. The outbox relay instead hands out positions
+-- from a single-row counter when it publishes events; the counter's row lock makes positions
+-- commit in increasing order, and the feed pages by position.
+
+ALTER TABLE expense_events ADD COLUMN feed_position BIGINT;
+
+-- Existing events are all committed, so their ids are safe positions and old cursors stay valid
+UPDATE expense_events SET feed_position = id;
+
+CREATE UNIQUE INDEX idx_expense_events_feed_position ON expense_events(feed_position);
+
+CREATE TABLE expense_event_feed (
+    id INT PRIMARY KEY,
+    last_position BIGINT NOT NULL
+);
+
+INSERT INTO expense_event_feed (id, last_position)
+SELECT 1, COALESCE(MAX(id), 0) FROM expense_events;
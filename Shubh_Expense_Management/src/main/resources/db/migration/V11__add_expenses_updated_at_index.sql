@@ -0,0 +1,4 @@
+-- Incremental refresh of the columnar report engine: WHERE updated_at >= ?
+-- Runs every few seconds per instance and matches only the rows changed since the last
+-- watermark, so without an index each refresh would scan the whole expenses table.
+CREATE INDEX idx_expenses_updated_at ON expenses(updated_at);
@@ -0,0 +1,17 @@
+-- Create expense_events outbox table
+-- Lifecycle events are inserted in the same transaction as the expense change and
+-- drained by the outbox relay; rows also back the GET /api/events cursor feed.
+-- No foreign key to expenses: events must outlive deleted expenses.
+
+CREATE TABLE expense_events (
+    id BIGSERIAL PRIMARY KEY,
+    expense_id BIGINT NOT NULL,
+    owner_email VARCHAR(255) NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP
+);
+
+-- Partial index so the relay finds unpublished events without scanning the history
+CREATE INDEX idx_expense_events_unpublished ON expense_events(id) WHERE published_at IS NULL;
@@ -0,0 +1,7 @@
+-- Add department to users
+-- Optional grouping used to scope organization reports to a department's users.
+
+ALTER TABLE users ADD COLUMN department VARCHAR(100);
+
+-- Index for selecting a department's users
+CREATE INDEX idx_users_department ON users(department);
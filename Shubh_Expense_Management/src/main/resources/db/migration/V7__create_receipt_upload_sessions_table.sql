@@ -0,0 +1,19 @@
+-- Create receipt_upload_sessions table
+-- Tracks resumable chunked receipt uploads; the bytes live in a temp file until the upload is completed.
+
+CREATE TABLE receipt_upload_sessions (
+    id VARCHAR(36) PRIMARY KEY,
+    expense_id BIGINT NOT NULL REFERENCES expenses(id) ON DELETE CASCADE,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    file_name VARCHAR(255) NOT NULL,
+    file_type VARCHAR(50) NOT NULL,
+    total_size BIGINT NOT NULL,
+    received_bytes BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    CONSTRAINT upload_within_size CHECK (received_bytes >= 0 AND received_bytes <= total_size)
+);
+
+-- Index for the cleanup of expired sessions
+CREATE INDEX idx_receipt_upload_sessions_expires_at ON receipt_upload_sessions(expires_at);
@@ -0,0 +1,19 @@
+-- Add expense indexes matched to the query shapes the service runs
+-- Proposed from the SQL each ExpenseRepository method generates; not yet measured on PostgreSQL.
+-- The query-audit profile (EXPLAIN (ANALYZE, BUFFERS) per method) is the way to confirm them, see
+-- DATABASE_MIGRATIONS.md. The V3 indexes they may make redundant are kept until that audit has run.
+
+-- Paged expense lists: WHERE user_id = ? ORDER BY expense_date DESC, id DESC LIMIT ?
+-- The id column makes the order total, so the scan stops after one page instead of sorting
+-- all of a user's rows. INCLUDE lets date-range report sums and the organization report
+-- aggregate run as index-only scans.
+CREATE INDEX idx_expenses_user_date_id ON expenses(user_id, expense_date, id)
+    INCLUDE (amount, category_id, status);
+
+-- Category-filtered report ranges: WHERE user_id = ? AND category_id = ? AND expense_date BETWEEN ? AND ?
+CREATE INDEX idx_expenses_user_category_date ON expenses(user_id, category_id, expense_date)
+    INCLUDE (amount, status);
+
+-- Manager approval queue: WHERE status = 'SUBMITTED' ORDER BY submitted_at, id
+-- Partial, so it only holds the few rows awaiting review instead of the whole history.
+CREATE INDEX idx_expenses_submitted_queue ON expenses(submitted_at, id) WHERE status = 'SUBMITTED';
@@ -0,0 +1,5 @@
+-- Add a per-user data version for expense list and report ETags
+-- Bumped in the transaction that writes a user's expenses or receipts, so every application
+-- instance derives the same ETag from the committed state instead of a process-local counter.
+
+ALTER TABLE users ADD COLUMN data_version BIGINT NOT NULL DEFAULT 0;
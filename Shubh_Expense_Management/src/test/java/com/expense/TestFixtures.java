@@ -0,0 +1,47 @@
+package com.expense;
+
+import com.expense.model.Category;
+import com.expense.model.Expense;
+import com.expense.model.ExpenseStatus;
+import com.expense.model.User;
+import com.expense.model.UserRole;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Unsaved entities for integration tests; each test persists them with its own repositories.
+ */
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    public static User user(String email, UserRole role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPasswordHash("hash");
+        user.setFirstName("Test");
+        user.setLastName(role.name());
+        user.setRole(role);
+        return user;
+    }
+
+    public static Category category(String name) {
+        Category category = new Category();
+        category.setName(name);
+        category.setDescription(name + " test category");
+        return category;
+    }
+
+    public static Expense expense(User user, Category category, String amount, LocalDate date, ExpenseStatus status) {
+        Expense expense = new Expense();
+        expense.setUser(user);
+        expense.setCategory(category);
+        expense.setAmount(new BigDecimal(amount));
+        expense.setExpenseDate(date);
+        expense.setDescription("Test expense");
+        expense.setStatus(status);
+        return expense;
+    }
+}
@@ -138,6 +138,54 @@ class ExpenseControllerIntegrationTest {
                 .andExpect(jsonPath("$.totalElements").value(2));
     }
 
+    @Test
+    void getAllExpenses_MatchingETag_ReturnsNotModified() throws Exception {
+        // Arrange
+        createExpense(testUser, testCategory, new BigDecimal("100.00"));
+
+        String etag = mockMvc.perform(get("/api/expenses")
+                        .with(user(testUser.getEmail()).roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/expenses")
+                        .with(user(testUser.getEmail()).roles("USER"))
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        // A different page must not share the tag
+        mockMvc.perform(get("/api/expenses?page=1")
+                        .with(user(testUser.getEmail()).roles("USER"))
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getAllExpenses_WithFields_ReturnsOnlyRequestedFields() throws Exception {
+        // Arrange
+        createExpense(testUser, testCategory, new BigDecimal("100.00"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/expenses?fields=amount,category")
+                        .with(user(testUser.getEmail()).roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id", notNullValue()))
+                .andExpect(jsonPath("$.content[0].amount").value(100.00))
+                .andExpect(jsonPath("$.content[0].category.name").value("Travel"))
+                .andExpect(jsonPath("$.content[0].description").doesNotExist())
+                .andExpect(jsonPath("$.content[0].receipt").doesNotExist());
+    }
+
+    @Test
+    void getAllExpenses_WithUnknownField_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/expenses?fields=amount,password")
+                        .with(user(testUser.getEmail()).roles("USER")))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getExpenseById_Success() throws Exception {
         // Arrange
@@ -0,0 +1,55 @@
+package com.expense.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestLogSamplerTest {
+
+    private static final Map<String, Double> RATES = Map.of(
+            "GET /api/expenses/{id}", 0.1,
+            "/api/health", 0.0);
+
+    @Test
+    void rateFor_PrefersMethodAndPatternOverPatternOverDefault() {
+        RequestLogSampler sampler = new RequestLogSampler(0.5, RATES, 1000, () -> 0.0);
+
+        assertEquals(0.1, sampler.rateFor("GET", "/api/expenses/{id}"));
+        assertEquals(0.5, sampler.rateFor("PUT", "/api/expenses/{id}"));
+        assertEquals(0.0, sampler.rateFor("GET", "/api/health"));
+        assertEquals(0.5, sampler.rateFor("GET", "/api/reports/summary"));
+    }
+
+    @Test
+    void shouldLog_SampledEndpoint_FollowsRandomDraw() {
+        RequestLogSampler kept = new RequestLogSampler(1.0, RATES, 1000, () -> 0.05);
+        RequestLogSampler dropped = new RequestLogSampler(1.0, RATES, 1000, () -> 0.5);
+
+        assertTrue(kept.shouldLog("GET", "/api/expenses/{id}", 200, 5));
+        assertFalse(dropped.shouldLog("GET", "/api/expenses/{id}", 200, 5));
+    }
+
+    @Test
+    void shouldLog_ZeroRate_NeverLogsFastSuccess() {
+        RequestLogSampler sampler = new RequestLogSampler(1.0, RATES, 1000, () -> 0.0);
+
+        assertFalse(sampler.shouldLog("GET", "/api/health", 200, 2));
+    }
+
+    @Test
+    void shouldLog_SlowRequestOrServerError_AlwaysLogs() {
+        RequestLogSampler sampler = new RequestLogSampler(0.0, RATES, 1000, () -> 0.99);
+
+        assertTrue(sampler.shouldLog("GET", "/api/health", 200, 1000));
+        assertTrue(sampler.shouldLog("GET", "/api/health", 500, 2));
+    }
+
+    @Test
+    void shouldLog_LoadShedding503_IsSampled() {
+        RequestLogSampler sampler = new RequestLogSampler(0.0, RATES, 1000, () -> 0.0);
+
+        assertFalse(sampler.shouldLog("GET", "/api/reports/summary", 503, 1));
+    }
+}
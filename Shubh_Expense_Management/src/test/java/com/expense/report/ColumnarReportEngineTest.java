@@ -0,0 +1,214 @@
+package com.expense.report;
+
+import com.expense.TestFixtures;
+import com.expense.dto.CubeReportResponse;
+import com.expense.dto.ReportDimension;
+import com.expense.dto.ReportResponse;
+import com.expense.event.ExpenseChangeType;
+import com.expense.event.ExpenseChangedEvent;
+import com.expense.model.*;
+import com.expense.repository.CategoryRepository;
+import com.expense.repository.ExpenseRepository;
+import com.expense.repository.UserRepository;
+import com.expense.service.ReportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the columnar engine aggregates to exactly the totals of the entity based report.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ColumnarReportEngineTest {
+
+    @Autowired
+    private ColumnarReportEngine engine;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private User alice;
+    private User bob;
+    private Category travel;
+    private Category meals;
+
+    @BeforeEach
+    void setUp() {
+        alice = userRepository.saveAndFlush(TestFixtures.user("alice@example.com", UserRole.USER));
+        bob = userRepository.saveAndFlush(TestFixtures.user("bob@example.com", UserRole.USER));
+        travel = categoryRepository.saveAndFlush(TestFixtures.category("Cube Travel"));
+        meals = categoryRepository.saveAndFlush(TestFixtures.category("Cube Meals"));
+
+        expenseRepository.saveAllAndFlush(List.of(
+                TestFixtures.expense(alice, travel, "120.10", LocalDate.of(2024, 1, 15), ExpenseStatus.APPROVED),
+                TestFixtures.expense(alice, travel, "0.20", LocalDate.of(2024, 1, 31), ExpenseStatus.SUBMITTED),
+                TestFixtures.expense(alice, meals, "33.33", LocalDate.of(2024, 2, 1), ExpenseStatus.APPROVED),
+                TestFixtures.expense(alice, meals, "19.99", LocalDate.of(2024, 3, 10), ExpenseStatus.DRAFT),
+                TestFixtures.expense(bob, travel, "999.99", LocalDate.of(2024, 2, 20), ExpenseStatus.REJECTED),
+                TestFixtures.expense(bob, meals, "0.01", LocalDate.of(2024, 2, 29), ExpenseStatus.APPROVED)));
+
+        engine.reload();
+    }
+
+    @Test
+    void totalsMatchReportServiceForEveryFilterCombination() {
+        LocalDate[][] ranges = {
+                {null, null},
+                {LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 29)},
+                {LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)}
+        };
+        Long[] categories = {null, travel.getId(), meals.getId()};
+        String[] statuses = {null, "APPROVED", "DRAFT"};
+
+        for (User user : List.of(alice, bob)) {
+            for (LocalDate[] range : ranges) {
+                for (Long categoryId : categories) {
+                    for (String status : statuses) {
+                        ReportResponse expected = reportService.generateReport(
+                                user.getEmail(), range[0], range[1], categoryId, status);
+                        CubeReportResponse actual = engine.aggregate(user.getId(), range[0], range[1], categoryId,
+                                status != null ? ExpenseStatus.valueOf(status) : null,
+                                EnumSet.noneOf(ReportDimension.class));
+
+                        String context = user.getEmail() + " " + range[0] + ".." + range[1]
+                                + " category=" + categoryId + " status=" + status;
+                        assertEquals(expected.getTotalAmount(), actual.getTotalAmount(), context);
+                        assertEquals(expected.getCount().longValue(), actual.getCount(), context);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void groupsByCategoryAndMonth() {
+        // Act
+        CubeReportResponse report = engine.aggregate(alice.getId(), null, null, null, null,
+                EnumSet.of(ReportDimension.CATEGORY, ReportDimension.MONTH));
+
+        // Assert
+        assertEquals(3, report.getGroups().size());
+        assertGroup(report.getGroups().get(0), travel.getId(), "2024-01", 2L, "120.30");
+        assertGroup(report.getGroups().get(1), meals.getId(), "2024-02", 1L, "33.33");
+        assertGroup(report.getGroups().get(2), meals.getId(), "2024-03", 1L, "19.99");
+        assertEquals(new BigDecimal("173.62"), report.getTotalAmount());
+    }
+
+    @Test
+    void groupsByUserAndStatusAcrossOrganization() {
+        // Act
+        CubeReportResponse report = engine.aggregate(null, null, null, null, ExpenseStatus.APPROVED,
+                EnumSet.of(ReportDimension.USER));
+
+        // Assert
+        assertEquals(2, report.getGroups().size());
+        CubeReportResponse.CubeGroup aliceGroup = findUser(report, alice.getId());
+        CubeReportResponse.CubeGroup bobGroup = findUser(report, bob.getId());
+        assertEquals(new BigDecimal("153.43"), aliceGroup.getTotalAmount());
+        assertEquals(new BigDecimal("0.01"), bobGroup.getTotalAmount());
+        assertNull(aliceGroup.getCategoryId());
+        assertNull(aliceGroup.getStatus());
+    }
+
+    @Test
+    void refreshAppliesUpdatesAndDeleteEventsTombstoneRows() {
+        // Arrange
+        Expense added = expenseRepository.saveAndFlush(
+                TestFixtures.expense(bob, travel, "50.00", LocalDate.of(2024, 4, 1), ExpenseStatus.DRAFT));
+        Expense changed = expenseRepository.findByUserId(alice.getId(),
+                org.springframework.data.domain.Pageable.unpaged()).getContent().get(0);
+        changed.setAmount(new BigDecimal("1.00"));
+        expenseRepository.saveAndFlush(changed);
+
+        // Act
+        engine.refresh();
+        engine.onExpenseChanged(new ExpenseChangedEvent(added.getId(), bob.getEmail(), ExpenseChangeType.DELETED));
+
+        // Assert
+        for (User user : List.of(alice, bob)) {
+            CubeReportResponse actual = engine.aggregate(user.getId(), null, null, null, null, Set.of());
+            ReportResponse expected = reportService.generateReport(user.getEmail(), null, null, null, null);
+            BigDecimal expectedTotal = user == bob
+                    ? expected.getTotalAmount().subtract(new BigDecimal("50.00"))
+                    : expected.getTotalAmount();
+            assertEquals(expectedTotal, actual.getTotalAmount());
+        }
+    }
+
+    @Test
+    void dueFullReloadRunsInBackgroundWhileOldSnapshotIsServed() throws InterruptedException {
+        // Arrange: hold the reload lock so the background reload cannot finish
+        ReentrantLock reloadLock = (ReentrantLock) ReflectionTestUtils.getField(engine, "reloadLock");
+        AtomicBoolean backgroundReload = (AtomicBoolean) ReflectionTestUtils.getField(engine, "backgroundReload");
+        ReflectionTestUtils.setField(engine, "lastFullReloadMillis", 0L);
+        reloadLock.lock();
+        try {
+            // Act
+            CubeReportResponse actual = engine.aggregate(alice.getId(), null, null, null, null, Set.of());
+
+            // Assert
+            ReportResponse expected = reportService.generateReport(alice.getEmail(), null, null, null, null);
+            assertEquals(expected.getTotalAmount(), actual.getTotalAmount());
+            assertTrue(backgroundReload.get());
+        } finally {
+            reloadLock.unlock();
+        }
+
+        // The background reload reads outside this test's transaction; wait for it before the next test
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (backgroundReload.get() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(backgroundReload.get());
+    }
+
+    @Test
+    void unknownUserReturnsEmptyTotals() {
+        CubeReportResponse report = engine.aggregate(Long.MAX_VALUE, null, null, null, null,
+                EnumSet.of(ReportDimension.CATEGORY));
+
+        assertTrue(report.getGroups().isEmpty());
+        assertEquals(BigDecimal.ZERO, report.getTotalAmount());
+        assertEquals(0L, report.getCount());
+    }
+
+    private void assertGroup(CubeReportResponse.CubeGroup group, Long categoryId, String month,
+                             Long count, String total) {
+        assertEquals(categoryId, group.getCategoryId());
+        assertEquals(month, group.getMonth());
+        assertEquals(count, group.getCount());
+        assertEquals(new BigDecimal(total), group.getTotalAmount());
+    }
+
+    private CubeReportResponse.CubeGroup findUser(CubeReportResponse report, Long userId) {
+        return report.getGroups().stream()
+                .filter(group -> group.getUserId().equals(userId))
+                .findFirst()
+                .orElseThrow();
+    }
+}
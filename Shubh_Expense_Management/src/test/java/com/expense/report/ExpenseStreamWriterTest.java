@@ -0,0 +1,125 @@
+package com.expense.report;
+
+import com.expense.TestFixtures;
+import com.expense.dto.ReportResponse;
+import com.expense.model.Category;
+import com.expense.model.ExpenseStatus;
+import com.expense.model.User;
+import com.expense.model.UserRole;
+import com.expense.repository.CategoryRepository;
+import com.expense.repository.ExpenseRepository;
+import com.expense.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the streamed expense report against the rows in the database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ExpenseStreamWriterTest {
+
+    @Autowired
+    private ExpenseStreamWriter writer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private User alice;
+    private Category travel;
+    private Category meals;
+
+    @BeforeEach
+    void setUp() {
+        alice = userRepository.saveAndFlush(TestFixtures.user("stream-alice@example.com", UserRole.USER));
+        User bob = userRepository.saveAndFlush(TestFixtures.user("stream-bob@example.com", UserRole.USER));
+        travel = categoryRepository.saveAndFlush(TestFixtures.category("Stream Travel"));
+        meals = categoryRepository.saveAndFlush(TestFixtures.category("Stream Meals"));
+
+        expenseRepository.saveAllAndFlush(List.of(
+                TestFixtures.expense(alice, travel, "120.10", LocalDate.of(2024, 1, 15), ExpenseStatus.APPROVED),
+                TestFixtures.expense(alice, meals, "33.33", LocalDate.of(2024, 2, 1), ExpenseStatus.SUBMITTED),
+                TestFixtures.expense(alice, travel, "0.20", LocalDate.of(2024, 3, 10), ExpenseStatus.DRAFT),
+                TestFixtures.expense(bob, travel, "999.99", LocalDate.of(2024, 2, 20), ExpenseStatus.APPROVED)));
+    }
+
+    @Test
+    void writeNdjson_WritesOneExpensePerLineNewestFirst() throws Exception {
+        // Arrange
+        ExpenseStream stream = new ExpenseStream(alice.getId(),
+                new ReportResponse.ReportFilters(null, null, null, null), null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        writer.writeNdjson(stream, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("2024-03-10", first.get("expenseDate").asText());
+        assertEquals("Stream Travel", first.get("category").get("name").asText());
+        assertEquals("DRAFT", first.get("status").asText());
+        assertEquals("2024-01-15", objectMapper.readTree(lines[2]).get("expenseDate").asText());
+    }
+
+    @Test
+    void writeJson_AppliesFiltersAndAccumulatesTotals() throws Exception {
+        // Arrange
+        ExpenseStream stream = new ExpenseStream(alice.getId(),
+                new ReportResponse.ReportFilters(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 28),
+                        travel.getId(), null), null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        writer.writeJson(stream, out);
+
+        // Assert
+        JsonNode report = objectMapper.readTree(out.toByteArray());
+        assertEquals(1, report.get("expenses").size());
+        assertEquals(1, report.get("count").asInt());
+        assertEquals(0, new BigDecimal("120.10").compareTo(report.get("totalAmount").decimalValue()));
+        assertEquals(travel.getId(), report.get("filters").get("categoryId").asLong());
+    }
+
+    @Test
+    void writeJson_NoMatchingExpenses_WritesEmptyReport() throws Exception {
+        // Arrange
+        ExpenseStream stream = new ExpenseStream(alice.getId(),
+                new ReportResponse.ReportFilters(null, null, meals.getId(), "APPROVED"), ExpenseStatus.APPROVED);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        writer.writeJson(stream, out);
+
+        // Assert
+        JsonNode report = objectMapper.readTree(out.toByteArray());
+        assertEquals(0, report.get("expenses").size());
+        assertEquals(0, report.get("count").asInt());
+        assertEquals(0, BigDecimal.ZERO.compareTo(report.get("totalAmount").decimalValue()));
+    }
+}
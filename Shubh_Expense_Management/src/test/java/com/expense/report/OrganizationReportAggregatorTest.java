@@ -0,0 +1,66 @@
+package com.expense.report;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class OrganizationReportAggregatorTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private OrganizationReportAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(aggregator, "parallelism", 1);
+        ReflectionTestUtils.setField(aggregator, "usersPerTask", 10);
+        aggregator.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        aggregator.stop();
+    }
+
+    @Test
+    void aggregate_OnlyStartDate_IgnoresDateRange() {
+        // Act
+        aggregator.aggregate(List.of(1L, 2L), LocalDate.of(2024, 1, 1), null, null, null);
+
+        // Assert
+        assertFalse(capturedSql().contains("expense_date"));
+    }
+
+    @Test
+    void aggregate_BothDates_FiltersInclusiveRange() {
+        // Act
+        aggregator.aggregate(List.of(1L, 2L), LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), null, null);
+
+        // Assert
+        assertTrue(capturedSql().contains("AND expense_date BETWEEN ? AND ?"));
+    }
+
+    private String capturedSql() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowCallbackHandler.class), any(Object[].class));
+        return sql.getValue();
+    }
+}
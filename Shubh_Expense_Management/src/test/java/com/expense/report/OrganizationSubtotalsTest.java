@@ -0,0 +1,47 @@
+package com.expense.report;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrganizationSubtotalsTest {
+
+    @Test
+    void merge_CombinesPartitionsIntoUserCategoryAndGrandTotals() {
+        // Arrange
+        OrganizationSubtotals left = new OrganizationSubtotals();
+        left.add(1L, 10L, 2, new BigDecimal("50.25"));
+        left.add(1L, 20L, 1, new BigDecimal("10.00"));
+
+        OrganizationSubtotals right = new OrganizationSubtotals();
+        right.add(2L, 10L, 3, new BigDecimal("99.75"));
+        right.add(1L, 10L, 1, new BigDecimal("0.75"));
+
+        // Act
+        OrganizationSubtotals merged = left.merge(right);
+
+        // Assert
+        assertEquals(List.of(10L, 20L), List.copyOf(merged.categoriesOf(1L).keySet()));
+        assertEquals(3, merged.categoriesOf(1L).get(10L).getCount());
+        assertEquals(new BigDecimal("51.00"), merged.categoriesOf(1L).get(10L).getAmount());
+        assertEquals(new BigDecimal("61.00"), merged.userTotal(1L).getAmount());
+
+        assertEquals(6, merged.byCategory().get(10L).getCount());
+        assertEquals(new BigDecimal("150.75"), merged.byCategory().get(10L).getAmount());
+
+        assertEquals(7, merged.total().getCount());
+        assertEquals(new BigDecimal("160.75"), merged.total().getAmount());
+    }
+
+    @Test
+    void userTotal_UserWithoutExpenses_IsZero() {
+        OrganizationSubtotals subtotals = new OrganizationSubtotals();
+
+        assertTrue(subtotals.categoriesOf(3L).isEmpty());
+        assertEquals(0, subtotals.userTotal(3L).getCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(subtotals.userTotal(3L).getAmount()));
+    }
+}
@@ -0,0 +1,72 @@
+package com.expense.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    void tryAcquire_AtLimit_RejectsUntilReleased() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 100);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+
+        limiter.release(FAST, false);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void release_FastRequestsUnderLoad_IncreaseLimitUpToMax() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 4, 100);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+            assertTrue(limiter.tryAcquire());
+            assertFalse(limiter.release(FAST, false));
+            limiter.release(FAST, false);
+        }
+
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void release_SlowOrFailedRequests_DecreaseLimitDownToMin() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 3, 20, 100);
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limiter.tryAcquire());
+            assertTrue(limiter.release(i % 2 == 0 ? SLOW : FAST, i % 2 != 0));
+        }
+
+        assertEquals(3, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void release_FastRequestsWhileMostlyIdle_KeepLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 20, 100);
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(FAST, false);
+        }
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void forPath_ResolvesExportReportsAndCrud() {
+        assertEquals(EndpointGroup.EXPORT, EndpointGroup.forPath("/api/reports/export"));
+        assertEquals(EndpointGroup.REPORTS, EndpointGroup.forPath("/api/reports/summary"));
+        assertEquals(EndpointGroup.CRUD, EndpointGroup.forPath("/api/expenses/1"));
+    }
+}
@@ -0,0 +1,55 @@
+package com.expense.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private MeterRegistry meterRegistry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ConcurrencyLimitFilter(new MockEnvironment(), meterRegistry);
+    }
+
+    @Test
+    void doFilter_SynchronousRequest_ReleasesSlotOnReturn() throws Exception {
+        filter.doFilter(request("/api/reports/export"), new MockHttpServletResponse(), (req, res) -> { });
+
+        assertEquals(0, inFlight("export"));
+    }
+
+    @Test
+    void doFilter_StreamedResponse_HoldsSlotUntilAsyncCompletes() throws Exception {
+        MockHttpServletRequest request = request("/api/reports/expenses");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertEquals(1, inFlight("export"));
+
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        assertEquals(0, inFlight("export"));
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        request.setAsyncSupported(true);
+        return request;
+    }
+
+    private double inFlight(String group) {
+        return meterRegistry.get("expense.concurrency.inflight").tag("group", group).gauge().value();
+    }
+}
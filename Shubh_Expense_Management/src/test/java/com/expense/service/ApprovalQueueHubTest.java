@@ -0,0 +1,182 @@
+package com.expense.service;
+
+import com.expense.event.ExpenseChangeType;
+import com.expense.exception.UnauthorizedException;
+import com.expense.model.ExpenseEvent;
+import com.expense.model.User;
+import com.expense.model.UserRole;
+import com.expense.repository.ExpenseEventRepository;
+import com.expense.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ApprovalQueueHubTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ExpenseEventRepository expenseEventRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @InjectMocks
+    private ApprovalQueueHub hub;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(hub, "pollMs", 60_000L);
+        ReflectionTestUtils.setField(hub, "clientBufferSize", 3);
+        ReflectionTestUtils.setField(hub, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(hub, "heartbeatMs", 60_000L);
+        ReflectionTestUtils.setField(hub, "dispatchThreads", 1);
+        hub.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.stop();
+    }
+
+    @Test
+    void subscribe_Manager_RegistersStream() {
+        // Arrange
+        when(userRepository.findByEmail("manager@example.com")).thenReturn(Optional.of(user(UserRole.MANAGER)));
+
+        // Act
+        hub.subscribe("manager@example.com", null);
+
+        // Assert
+        assertEquals(1, hub.subscriberCount());
+    }
+
+    @Test
+    void subscribe_RegularUser_ThrowsUnauthorizedException() {
+        // Arrange
+        when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user(UserRole.USER)));
+
+        // Act & Assert
+        assertThrows(UnauthorizedException.class, () -> hub.subscribe("user@example.com", null));
+        assertEquals(0, hub.subscriberCount());
+    }
+
+    @Test
+    void poll_NewFeedEvents_AdvancesPosition() {
+        // Arrange
+        when(expenseEventRepository.findFeedEventsAfter(eq(0L), eq(Long.MAX_VALUE), any(), any()))
+                .thenReturn(List.of(event(3, ExpenseChangeType.SUBMITTED), event(5, ExpenseChangeType.APPROVED)));
+        when(expenseEventRepository.findFeedEventsAfter(eq(5L), eq(Long.MAX_VALUE), any(), any()))
+                .thenReturn(List.of());
+
+        // Act
+        hub.poll();
+        hub.poll();
+
+        // Assert
+        assertEquals(5L, ReflectionTestUtils.getField(hub, "position"));
+    }
+
+    @Test
+    void resume_KnownPosition_ReplaysMissedEventsFromFeed() {
+        // Arrange
+        ReflectionTestUtils.setField(hub, "position", 10L);
+        when(expenseEventRepository.findFeedEventsAfter(eq(4L), eq(10L), any(), any()))
+                .thenReturn(List.of(event(6, ExpenseChangeType.APPROVED), event(9, ExpenseChangeType.SUBMITTED)));
+
+        // Act
+        ApprovalQueueHub.Resume resume = hub.resume("4");
+
+        // Assert
+        assertEquals(4L, resume.after());
+        assertEquals(List.of("approved", "submitted"),
+                resume.backlog().stream().map(ApprovalQueueHub.StreamMessage::name).toList());
+        assertEquals(List.of(6L, 9L),
+                resume.backlog().stream().map(ApprovalQueueHub.StreamMessage::sequence).toList());
+    }
+
+    @Test
+    void resume_TooManyMissedEvents_ReturnsReset() {
+        // Arrange
+        ReflectionTestUtils.setField(hub, "position", 10L);
+        List<ExpenseEvent> missed = new ArrayList<>();
+        for (long position = 2; position <= 5; position++) {
+            missed.add(event(position, ExpenseChangeType.SUBMITTED));
+        }
+        when(expenseEventRepository.findFeedEventsAfter(eq(1L), eq(10L), any(), any())).thenReturn(missed);
+
+        // Act
+        ApprovalQueueHub.Resume resume = hub.resume("1");
+
+        // Assert
+        assertEquals(10L, resume.after());
+        assertEquals(1, resume.backlog().size());
+        assertEquals(ApprovalQueueHub.RESET_EVENT, resume.backlog().get(0).name());
+    }
+
+    @Test
+    void resume_ClientAheadOfThisInstance_SkipsEventsItHas() {
+        ReflectionTestUtils.setField(hub, "position", 5L);
+
+        ApprovalQueueHub.Resume resume = hub.resume("8");
+
+        assertEquals(8L, resume.after());
+        assertTrue(resume.backlog().isEmpty());
+    }
+
+    @Test
+    void resume_InvalidEventId_ReturnsReset() {
+        ApprovalQueueHub.Resume resume = hub.resume("deadbeef-7");
+
+        assertEquals(1, resume.backlog().size());
+        assertEquals(ApprovalQueueHub.RESET_EVENT, resume.backlog().get(0).name());
+    }
+
+    @Test
+    void resume_NoLastEventId_StartsAtCurrentPosition() {
+        ReflectionTestUtils.setField(hub, "position", 7L);
+
+        ApprovalQueueHub.Resume resume = hub.resume(null);
+
+        assertEquals(7L, resume.after());
+        assertTrue(resume.backlog().isEmpty());
+    }
+
+    private ExpenseEvent event(long position, ExpenseChangeType type) {
+        ExpenseEvent event = new ExpenseEvent();
+        event.setId(position);
+        event.setFeedPosition(position);
+        event.setExpenseId(position);
+        event.setOwnerEmail("a@example.com");
+        event.setEventType(type);
+        event.setCreatedAt(LocalDateTime.now());
+        return event;
+    }
+
+    private User user(UserRole role) {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail(role.name().toLowerCase() + "@example.com");
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,71 @@
+package com.expense.service;
+
+import com.expense.event.ExpenseChangeType;
+import com.expense.event.ExpenseChangedEvent;
+import com.expense.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseChangeTrackerTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private ExpenseChangeTracker tracker;
+
+    @Test
+    void etagFor_SameVersionAndParameters_IsStable() {
+        when(userRepository.findDataVersionByEmail("user@example.com")).thenReturn(Optional.of(3L));
+
+        String first = tracker.etagFor("user@example.com", "expenses", 0, 10, "expenseDate", "desc");
+        String second = tracker.etagFor("user@example.com", "expenses", 0, 10, "expenseDate", "desc");
+
+        assertEquals(first, second);
+        assertTrue(first.startsWith("W/\""));
+        assertFalse(first.contains("user@example.com"));
+    }
+
+    @Test
+    void etagFor_DifferentUsersOrParameters_Differ() {
+        when(userRepository.findDataVersionByEmail(anyString())).thenReturn(Optional.of(0L));
+        String base = tracker.etagFor("user@example.com", "expenses", 0, 10);
+
+        assertNotEquals(base, tracker.etagFor("other@example.com", "expenses", 0, 10));
+        assertNotEquals(base, tracker.etagFor("user@example.com", "expenses", 1, 10));
+        assertNotEquals(base, tracker.etagFor("user@example.com", "report-summary", 0, 10));
+    }
+
+    @Test
+    void etagFor_ChangesWithStoredVersion() {
+        when(userRepository.findDataVersionByEmail("user@example.com"))
+                .thenReturn(Optional.of(1L), Optional.of(2L));
+
+        assertNotEquals(tracker.etagFor("user@example.com", "expenses"), tracker.etagFor("user@example.com", "expenses"));
+    }
+
+    @Test
+    void onExpenseChanged_BumpsOwnerVersionInDatabase() {
+        tracker.onExpenseChanged(new ExpenseChangedEvent(1L, "user@example.com", ExpenseChangeType.APPROVED));
+
+        verify(userRepository).incrementDataVersion("user@example.com");
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void currentVersion_UnknownUser_IsZero() {
+        when(userRepository.findDataVersionByEmail("ghost@example.com")).thenReturn(Optional.empty());
+
+        assertEquals(0L, tracker.currentVersion("ghost@example.com"));
+    }
+}
@@ -0,0 +1,149 @@
+package com.expense.service;
+
+import com.expense.TestFixtures;
+import com.expense.dto.EventFeedResponse;
+import com.expense.dto.ExpenseRequest;
+import com.expense.dto.ExpenseResponse;
+import com.expense.event.ExpenseChangeType;
+import com.expense.exception.UnauthorizedException;
+import com.expense.model.*;
+import com.expense.outbox.InMemoryOutboxSink;
+import com.expense.outbox.OutboxMessage;
+import com.expense.outbox.OutboxRelay;
+import com.expense.repository.CategoryRepository;
+import com.expense.repository.ExpenseEventRepository;
+import com.expense.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that expense changes land in the outbox within the same transaction,
+ * that the relay publishes them once, and that the cursor feed pages through them.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ExpenseEventOutboxTest {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseEventService expenseEventService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private InMemoryOutboxSink outboxSink;
+
+    @Autowired
+    private ExpenseEventRepository expenseEventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private User owner;
+    private User manager;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        expenseEventRepository.deleteAll();
+        outboxSink.drain();
+
+        owner = userRepository.save(TestFixtures.user("outbox-owner@example.com", UserRole.USER));
+        manager = userRepository.save(TestFixtures.user("outbox-manager@example.com", UserRole.MANAGER));
+
+        category = categoryRepository.save(TestFixtures.category("Outbox"));
+    }
+
+    @Test
+    void lifecycleChanges_AreWrittenToOutboxAndRelayedOnce() {
+        // Arrange
+        ExpenseResponse created = expenseService.createExpense(request(), owner.getEmail());
+        expenseService.submitExpenseForApproval(created.getId(), owner.getEmail());
+        expenseService.approveExpense(created.getId(), "Looks good", manager.getEmail());
+
+        expenseEventRepository.flush();
+
+        // Act
+        int published = outboxRelay.relayBatch();
+        int republished = outboxRelay.relayBatch();
+
+        // Assert
+        assertEquals(3, published);
+        assertEquals(0, republished);
+
+        List<OutboxMessage> messages = outboxSink.drain();
+        assertEquals(List.of("CREATED", "SUBMITTED", "APPROVED"),
+                messages.stream().map(OutboxMessage::eventType).toList());
+        assertTrue(messages.get(2).payload().contains("\"status\":\"APPROVED\""));
+        assertEquals(owner.getEmail(), messages.get(2).ownerEmail());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM expense_events WHERE published_at IS NULL", Integer.class));
+    }
+
+    @Test
+    void eventFeed_PagesWithCursor() {
+        // Arrange
+        ExpenseResponse created = expenseService.createExpense(request(), owner.getEmail());
+        expenseService.submitExpenseForApproval(created.getId(), owner.getEmail());
+        expenseService.rejectExpense(created.getId(), "Missing receipt", manager.getEmail());
+        expenseEventRepository.flush();
+
+        // Unpublished events are not in the feed yet
+        assertTrue(expenseEventService.getEventFeed(manager.getEmail(), 0, 10).getEvents().isEmpty());
+        outboxRelay.relayBatch();
+
+        // Act
+        EventFeedResponse first = expenseEventService.getEventFeed(manager.getEmail(), 0, 2);
+        EventFeedResponse second = expenseEventService.getEventFeed(manager.getEmail(), first.getNextCursor(), 2);
+        EventFeedResponse empty = expenseEventService.getEventFeed(manager.getEmail(), second.getNextCursor(), 2);
+
+        // Assert
+        assertEquals(2, first.getEvents().size());
+        assertTrue(first.getHasMore());
+        assertEquals(ExpenseChangeType.CREATED, first.getEvents().get(0).getEventType());
+        assertEquals(first.getEvents().get(1).getPosition(), first.getNextCursor());
+
+        assertEquals(1, second.getEvents().size());
+        assertFalse(second.getHasMore());
+        assertEquals(ExpenseChangeType.REJECTED, second.getEvents().get(0).getEventType());
+
+        assertTrue(empty.getEvents().isEmpty());
+        assertEquals(second.getNextCursor(), empty.getNextCursor());
+    }
+
+    @Test
+    void eventFeed_RegularUser_ThrowsUnauthorizedException() {
+        assertThrows(UnauthorizedException.class,
+                () -> expenseEventService.getEventFeed(owner.getEmail(), 0, 10));
+    }
+
+    private ExpenseRequest request() {
+        ExpenseRequest request = new ExpenseRequest();
+        request.setCategoryId(category.getId());
+        request.setAmount(new BigDecimal("75.50"));
+        request.setExpenseDate(LocalDate.now());
+        request.setDescription("Outbox expense");
+        return request;
+    }
+}
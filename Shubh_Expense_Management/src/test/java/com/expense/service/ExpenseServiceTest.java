@@ -1,9 +1,12 @@
 package com.expense.service;
 
+import com.expense.dto.ExpenseBatchResponse;
 import com.expense.dto.ExpenseRequest;
 import com.expense.dto.ExpenseResponse;
+import com.expense.event.ExpenseChangedEvent;
 import com.expense.exception.ResourceNotFoundException;
 import com.expense.exception.UnauthorizedException;
+import com.expense.exception.ValidationException;
 import com.expense.model.*;
 import com.expense.repository.CategoryRepository;
 import com.expense.repository.ExpenseRepository;
@@ -14,9 +17,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -40,6 +45,9 @@ class ExpenseServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ExpenseService expenseService;
 
@@ -84,6 +92,8 @@ class ExpenseServiceTest {
         expenseRequest.setAmount(new BigDecimal("100.00"));
         expenseRequest.setExpenseDate(LocalDate.now());
         expenseRequest.setDescription("Test expense");
+
+        ReflectionTestUtils.setField(expenseService, "maxBatchIds", 3);
     }
 
     @Test
@@ -105,6 +115,7 @@ class ExpenseServiceTest {
         verify(userRepository).findByEmail("user@example.com");
         verify(categoryRepository).findById(1L);
         verify(expenseRepository).save(any(Expense.class));
+        verify(eventPublisher).publishEvent(any(ExpenseChangedEvent.class));
     }
 
     @Test
@@ -241,8 +252,9 @@ class ExpenseServiceTest {
     @Test
     void submitExpenseForApproval_Success() {
         // Arrange
+        when(expenseRepository.submitIfInStatus(eq(1L), eq("user@example.com"), eq(ExpenseStatus.DRAFT),
+                eq(ExpenseStatus.SUBMITTED), any())).thenReturn(1);
         when(expenseRepository.findById(anyLong())).thenReturn(Optional.of(testExpense));
-        when(expenseRepository.save(any(Expense.class))).thenReturn(testExpense);
 
         // Act
         ExpenseResponse response = expenseService.submitExpenseForApproval(1L, "user@example.com");
@@ -250,7 +262,34 @@ class ExpenseServiceTest {
         // Assert
         assertNotNull(response);
         verify(expenseRepository).findById(1L);
-        verify(expenseRepository).save(any(Expense.class));
+        verify(expenseRepository, never()).save(any(Expense.class));
+    }
+
+    @Test
+    void submitExpenseForApproval_NotOwner_ThrowsException() {
+        // Arrange
+        when(expenseRepository.submitIfInStatus(anyLong(), anyString(), any(), any(), any())).thenReturn(0);
+        when(expenseRepository.findById(anyLong())).thenReturn(Optional.of(testExpense));
+
+        // Act & Assert
+        assertThrows(UnauthorizedException.class,
+                () -> expenseService.submitExpenseForApproval(1L, "other@example.com"));
+
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void submitExpenseForApproval_NonDraftStatus_ThrowsException() {
+        // Arrange
+        testExpense.setStatus(ExpenseStatus.SUBMITTED);
+        when(expenseRepository.submitIfInStatus(anyLong(), anyString(), any(), any(), any())).thenReturn(0);
+        when(expenseRepository.findById(anyLong())).thenReturn(Optional.of(testExpense));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> expenseService.submitExpenseForApproval(1L, "user@example.com"));
+
+        assertEquals("Only expenses in DRAFT status can be submitted", exception.getMessage());
     }
 
     @Test
@@ -286,17 +325,34 @@ class ExpenseServiceTest {
     @Test
     void approveExpense_Success() {
         // Arrange
-        testExpense.setStatus(ExpenseStatus.SUBMITTED);
+        testExpense.setStatus(ExpenseStatus.APPROVED);
         when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(managerUser));
+        when(expenseRepository.reviewIfInStatus(eq(1L), eq(ExpenseStatus.SUBMITTED), eq(ExpenseStatus.APPROVED),
+                eq(managerUser), eq("Approved"), any())).thenReturn(1);
         when(expenseRepository.findById(anyLong())).thenReturn(Optional.of(testExpense));
-        when(expenseRepository.save(any(Expense.class))).thenReturn(testExpense);
 
         // Act
         ExpenseResponse response = expenseService.approveExpense(1L, "Approved", "manager@example.com");
 
         // Assert
         assertNotNull(response);
-        verify(expenseRepository).save(any(Expense.class));
+        assertEquals(ExpenseStatus.APPROVED, response.getStatus());
+        verify(expenseRepository, never()).save(any(Expense.class));
+    }
+
+    @Test
+    void approveExpense_AlreadyReviewed_ThrowsException() {
+        // Arrange
+        testExpense.setStatus(ExpenseStatus.REJECTED);
+        when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(managerUser));
+        when(expenseRepository.reviewIfInStatus(anyLong(), any(), any(), any(), any(), any())).thenReturn(0);
+        when(expenseRepository.findById(anyLong())).thenReturn(Optional.of(testExpense));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> expenseService.approveExpense(1L, "Approved", "manager@example.com"));
+
+        assertEquals("Only expenses in SUBMITTED status can be approved", exception.getMessage());
     }
 
     @Test
@@ -308,22 +364,61 @@ class ExpenseServiceTest {
         assertThrows(UnauthorizedException.class,
                 () -> expenseService.approveExpense(1L, "Approved", "user@example.com"));
 
-        verify(expenseRepository, never()).save(any(Expense.class));
+        verify(expenseRepository, never()).reviewIfInStatus(anyLong(), any(), any(), any(), any(), any());
     }
 
     @Test
     void rejectExpense_Success() {
         // Arrange
-        testExpense.setStatus(ExpenseStatus.SUBMITTED);
+        testExpense.setStatus(ExpenseStatus.REJECTED);
         when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(managerUser));
+        when(expenseRepository.reviewIfInStatus(eq(1L), eq(ExpenseStatus.SUBMITTED), eq(ExpenseStatus.REJECTED),
+                eq(managerUser), eq("Rejected"), any())).thenReturn(1);
         when(expenseRepository.findById(anyLong())).thenReturn(Optional.of(testExpense));
-        when(expenseRepository.save(any(Expense.class))).thenReturn(testExpense);
 
         // Act
         ExpenseResponse response = expenseService.rejectExpense(1L, "Rejected", "manager@example.com");
 
         // Assert
         assertNotNull(response);
-        verify(expenseRepository).save(any(Expense.class));
+        assertEquals(ExpenseStatus.REJECTED, response.getStatus());
+        verify(expenseRepository, never()).save(any(Expense.class));
+    }
+
+    @Test
+    void getExpensesByIds_MixedIds_ReturnsMarkersInRequestOrder() {
+        // Arrange
+        Expense otherUsersExpense = new Expense();
+        otherUsersExpense.setId(2L);
+        otherUsersExpense.setUser(managerUser);
+        otherUsersExpense.setCategory(testCategory);
+        otherUsersExpense.setAmount(new BigDecimal("50.00"));
+        otherUsersExpense.setStatus(ExpenseStatus.DRAFT);
+
+        when(expenseRepository.findAllWithDetailsByIdIn(any()))
+                .thenReturn(List.of(otherUsersExpense, testExpense));
+
+        // Act
+        ExpenseBatchResponse response = expenseService.getExpensesByIds(List.of(99L, 1L, 2L), "user@example.com");
+
+        // Assert
+        List<ExpenseBatchResponse.BatchItem> results = response.getResults();
+        assertEquals(List.of(99L, 1L, 2L), results.stream().map(ExpenseBatchResponse.BatchItem::getId).toList());
+        assertEquals(ExpenseBatchResponse.ItemStatus.NOT_FOUND, results.get(0).getStatus());
+        assertEquals(ExpenseBatchResponse.ItemStatus.OK, results.get(1).getStatus());
+        assertEquals(new BigDecimal("100.00"), results.get(1).getExpense().getAmount());
+        assertEquals(ExpenseBatchResponse.ItemStatus.FORBIDDEN, results.get(2).getStatus());
+        assertNull(results.get(2).getExpense());
+
+        verify(expenseRepository, times(1)).findAllWithDetailsByIdIn(any());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void getExpensesByIds_TooManyIds_ThrowsValidationException() {
+        // Act & Assert
+        assertThrows(ValidationException.class,
+                () -> expenseService.getExpensesByIds(List.of(1L, 2L, 3L, 4L), "user@example.com"));
+        verifyNoInteractions(expenseRepository);
     }
 }
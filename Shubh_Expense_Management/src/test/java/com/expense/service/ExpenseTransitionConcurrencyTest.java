@@ -0,0 +1,148 @@
+package com.expense.service;
+
+import com.expense.TestFixtures;
+import com.expense.model.*;
+import com.expense.repository.CategoryRepository;
+import com.expense.repository.ExpenseRepository;
+import com.expense.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hammers the same expense from many threads and checks that the conditional
+ * status updates let exactly one transition win. Not transactional on purpose:
+ * every call must commit for the race to be real.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ExpenseTransitionConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private User owner;
+    private User manager;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(TestFixtures.user("owner@example.com", UserRole.USER));
+        manager = userRepository.save(TestFixtures.user("reviewer@example.com", UserRole.MANAGER));
+
+        category = categoryRepository.save(TestFixtures.category("Concurrency"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        expenseRepository.deleteAll();
+        userRepository.delete(owner);
+        userRepository.delete(manager);
+        categoryRepository.delete(category);
+    }
+
+    @Test
+    void concurrentApproveAndReject_OnlyOneSucceeds() throws Exception {
+        // Arrange
+        Expense expense = expenseRepository.save(
+                TestFixtures.expense(owner, category, "42.00", LocalDate.now(), ExpenseStatus.SUBMITTED));
+
+        // Act
+        Outcome outcome = race(index -> {
+            if (index % 2 == 0) {
+                expenseService.approveExpense(expense.getId(), "Approved " + index, manager.getEmail());
+            } else {
+                expenseService.rejectExpense(expense.getId(), "Rejected " + index, manager.getEmail());
+            }
+        });
+
+        // Assert
+        assertEquals(1, outcome.successes.get());
+        assertEquals(THREADS - 1, outcome.conflicts.get());
+
+        Expense reloaded = expenseRepository.findById(expense.getId()).orElseThrow();
+        assertNotEquals(ExpenseStatus.SUBMITTED, reloaded.getStatus());
+        assertNotNull(reloaded.getReviewedAt());
+    }
+
+    @Test
+    void concurrentSubmits_OnlyOneSucceeds() throws Exception {
+        // Arrange
+        Expense expense = expenseRepository.save(
+                TestFixtures.expense(owner, category, "42.00", LocalDate.now(), ExpenseStatus.DRAFT));
+
+        // Act
+        Outcome outcome = race(index -> expenseService.submitExpenseForApproval(expense.getId(), owner.getEmail()));
+
+        // Assert
+        assertEquals(1, outcome.successes.get());
+        assertEquals(THREADS - 1, outcome.conflicts.get());
+        assertEquals(ExpenseStatus.SUBMITTED, expenseRepository.findById(expense.getId()).orElseThrow().getStatus());
+    }
+
+    /**
+     * Release all threads at once and count successful and rejected transitions.
+     */
+    private Outcome race(IndexedAction action) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Outcome outcome = new Outcome();
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        action.run(index);
+                        outcome.successes.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        outcome.conflicts.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return outcome;
+    }
+
+    @FunctionalInterface
+    private interface IndexedAction {
+        void run(int index);
+    }
+
+    private static class Outcome {
+        private final AtomicInteger successes = new AtomicInteger();
+        private final AtomicInteger conflicts = new AtomicInteger();
+    }
+}
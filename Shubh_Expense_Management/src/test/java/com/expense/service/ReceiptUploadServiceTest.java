@@ -0,0 +1,175 @@
+package com.expense.service;
+
+import com.expense.TestFixtures;
+import com.expense.dto.ReceiptResponse;
+import com.expense.dto.UploadSessionRequest;
+import com.expense.dto.UploadSessionResponse;
+import com.expense.exception.FileUploadException;
+import com.expense.exception.UnauthorizedException;
+import com.expense.exception.UploadOffsetConflictException;
+import com.expense.model.*;
+import com.expense.repository.CategoryRepository;
+import com.expense.repository.ExpenseRepository;
+import com.expense.repository.ReceiptRepository;
+import com.expense.repository.ReceiptUploadSessionRepository;
+import com.expense.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises the resumable upload protocol end to end: session, chunks, resume, completion.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ReceiptUploadServiceTest {
+
+    private static final byte[] CONTENT = "%PDF-1.4 scanned receipt content".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private ReceiptUploadService receiptUploadService;
+
+    @Autowired
+    private ReceiptUploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private ReceiptRepository receiptRepository;
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    private User owner;
+    private Expense expense;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(TestFixtures.user("upload-owner@example.com", UserRole.USER));
+
+        Category category = categoryRepository.save(TestFixtures.category("Upload Test"));
+        expense = expenseRepository.save(
+                TestFixtures.expense(owner, category, "12.50", LocalDate.now(), ExpenseStatus.DRAFT));
+    }
+
+    @Test
+    void chunkedUpload_ResumesAfterConflictAndCompletes() throws Exception {
+        // Arrange
+        UploadSessionResponse session = receiptUploadService.createSession(expense.getId(),
+                new UploadSessionRequest("receipt.pdf", "application/pdf", (long) CONTENT.length), owner.getEmail());
+        int half = CONTENT.length / 2;
+
+        // Act
+        UploadSessionResponse first = receiptUploadService.appendChunk(session.getUploadId(), 0,
+                new ByteArrayInputStream(Arrays.copyOfRange(CONTENT, 0, half)), owner.getEmail());
+        UploadOffsetConflictException conflict = assertThrows(UploadOffsetConflictException.class,
+                () -> receiptUploadService.appendChunk(session.getUploadId(), 0,
+                        new ByteArrayInputStream(CONTENT), owner.getEmail()));
+        UploadSessionResponse second = receiptUploadService.appendChunk(session.getUploadId(),
+                conflict.getCurrentOffset(),
+                new ByteArrayInputStream(Arrays.copyOfRange(CONTENT, half, CONTENT.length)), owner.getEmail());
+        ReceiptResponse receipt = receiptUploadService.completeUpload(session.getUploadId(),
+                sha256(CONTENT), owner.getEmail());
+
+        // Assert
+        assertEquals(0L, session.getOffset());
+        assertEquals(half, first.getOffset());
+        assertEquals(half, conflict.getCurrentOffset());
+        assertEquals(CONTENT.length, second.getOffset());
+
+        assertEquals("receipt.pdf", receipt.getFileName());
+        assertEquals(CONTENT.length, receipt.getFileSize());
+        assertFalse(uploadSessionRepository.existsById(session.getUploadId()));
+
+        Receipt stored = receiptRepository.findById(receipt.getId()).orElseThrow();
+        Path storedFile = Paths.get(uploadDir).resolve(stored.getFilePath());
+        assertArrayEquals(CONTENT, Files.readAllBytes(storedFile));
+        Files.deleteIfExists(storedFile);
+    }
+
+    @Test
+    void completeUpload_IncompleteUpload_ThrowsFileUploadException() {
+        // Arrange
+        UploadSessionResponse session = receiptUploadService.createSession(expense.getId(),
+                new UploadSessionRequest("receipt.pdf", "application/pdf", (long) CONTENT.length), owner.getEmail());
+        receiptUploadService.appendChunk(session.getUploadId(), 0,
+                new ByteArrayInputStream(Arrays.copyOfRange(CONTENT, 0, 4)), owner.getEmail());
+
+        // Act & Assert
+        assertThrows(FileUploadException.class,
+                () -> receiptUploadService.completeUpload(session.getUploadId(), null, owner.getEmail()));
+        assertEquals(4L, receiptUploadService.getSession(session.getUploadId(), owner.getEmail()).getOffset());
+    }
+
+    @Test
+    void completeUpload_ChecksumMismatch_DiscardsUpload() {
+        // Arrange
+        UploadSessionResponse session = receiptUploadService.createSession(expense.getId(),
+                new UploadSessionRequest("receipt.pdf", "application/pdf", (long) CONTENT.length), owner.getEmail());
+        receiptUploadService.appendChunk(session.getUploadId(), 0,
+                new ByteArrayInputStream(CONTENT), owner.getEmail());
+
+        // Act & Assert
+        assertThrows(FileUploadException.class, () -> receiptUploadService.completeUpload(
+                session.getUploadId(), "00".repeat(32), owner.getEmail()));
+        assertFalse(uploadSessionRepository.existsById(session.getUploadId()));
+    }
+
+    @Test
+    void appendChunk_ChunkBeyondDeclaredSize_ThrowsFileUploadException() {
+        // Arrange
+        UploadSessionResponse session = receiptUploadService.createSession(expense.getId(),
+                new UploadSessionRequest("receipt.pdf", "application/pdf", 4L), owner.getEmail());
+
+        // Act & Assert
+        assertThrows(FileUploadException.class, () -> receiptUploadService.appendChunk(
+                session.getUploadId(), 0, new ByteArrayInputStream(CONTENT), owner.getEmail()));
+        assertEquals(0L, receiptUploadService.getSession(session.getUploadId(), owner.getEmail()).getOffset());
+    }
+
+    @Test
+    void getSession_OtherUser_ThrowsUnauthorizedException() {
+        // Arrange
+        User other = userRepository.save(TestFixtures.user("upload-other@example.com", UserRole.USER));
+        UploadSessionResponse session = receiptUploadService.createSession(expense.getId(),
+                new UploadSessionRequest("receipt.png", "image/png", 10L), owner.getEmail());
+
+        // Act & Assert
+        assertThrows(UnauthorizedException.class,
+                () -> receiptUploadService.getSession(session.getUploadId(), other.getEmail()));
+    }
+
+    @Test
+    void createSession_InvalidFileType_ThrowsFileUploadException() {
+        assertThrows(FileUploadException.class, () -> receiptUploadService.createSession(expense.getId(),
+                new UploadSessionRequest("receipt.exe", "application/octet-stream", 10L), owner.getEmail()));
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
@@ -2,7 +2,12 @@ package com.expense.service;
 
 import com.expense.dto.ReportResponse;
 import com.expense.exception.ResourceNotFoundException;
+import com.expense.exception.UnauthorizedException;
 import com.expense.model.*;
+import com.expense.report.ColumnarReportEngine;
+import com.expense.report.OrganizationReport;
+import com.expense.report.OrganizationReportAggregator;
+import com.expense.report.OrganizationSubtotals;
 import com.expense.repository.CategoryRepository;
 import com.expense.repository.ExpenseRepository;
 import com.expense.repository.UserRepository;
@@ -41,6 +46,12 @@ class ReportServiceTest {
     @Mock
     private ExpenseService expenseService;
 
+    @Mock
+    private ColumnarReportEngine columnarReportEngine;
+
+    @Mock
+    private OrganizationReportAggregator organizationReportAggregator;
+
     @InjectMocks
     private ReportService reportService;
 
@@ -247,4 +258,46 @@ class ReportServiceTest {
         assertEquals(new BigDecimal("100.00"), response.getTotalAmount());
         assertEquals(ExpenseStatus.APPROVED, response.getExpenses().get(0).getStatus());
     }
+
+    @Test
+    void generateOrganizationReport_Department_AggregatesDepartmentUsers() {
+        // Arrange
+        User manager = new User();
+        manager.setId(9L);
+        manager.setEmail("manager@example.com");
+        manager.setRole(UserRole.MANAGER);
+        testUser.setDepartment("Sales");
+
+        OrganizationSubtotals subtotals = new OrganizationSubtotals();
+        subtotals.add(1L, 1L, 2, new BigDecimal("300.00"));
+
+        when(userRepository.findByEmail("manager@example.com")).thenReturn(Optional.of(manager));
+        when(userRepository.findByDepartmentOrderByIdAsc("Sales")).thenReturn(List.of(testUser));
+        when(organizationReportAggregator.aggregate(List.of(1L), null, null, null, ExpenseStatus.APPROVED))
+                .thenReturn(subtotals);
+        when(categoryRepository.findAll()).thenReturn(List.of(testCategory));
+
+        // Act
+        OrganizationReport report = reportService.generateOrganizationReport(
+                "manager@example.com", "Sales", null, null, null, "approved");
+
+        // Assert
+        assertEquals("Sales", report.department());
+        assertEquals(1, report.users().size());
+        assertEquals("user@example.com", report.users().get(0).getEmail());
+        assertEquals("Travel", report.categoryNames().get(1L));
+        assertEquals(new BigDecimal("300.00"), report.subtotals().userTotal(1L).getAmount());
+        verify(userRepository, never()).findAllByOrderByIdAsc();
+    }
+
+    @Test
+    void generateOrganizationReport_RegularUser_ThrowsUnauthorizedException() {
+        // Arrange
+        when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(testUser));
+
+        // Act & Assert
+        assertThrows(UnauthorizedException.class, () -> reportService.generateOrganizationReport(
+                "user@example.com", null, null, null, null, null));
+        verifyNoInteractions(organizationReportAggregator);
+    }
 }
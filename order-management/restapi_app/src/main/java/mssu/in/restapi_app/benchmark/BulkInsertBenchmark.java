@@ -0,0 +1,92 @@
+package mssu.in.restapi_app.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import mssu.in.restapi_app.dto.BulkOrderResponse;
+import mssu.in.restapi_app.entity.Order;
+import mssu.in.restapi_app.entity.OrderStatus;
+import mssu.in.restapi_app.entity.PaymentType;
+import mssu.in.restapi_app.service.OrderService;
+
+/**
+ * Compares inserting orders one statement at a time (the {@code POST /orders/add} path) with
+ * {@code POST /orders/bulk} batches, then removes the rows it created. Run with
+ * {@code ./mvnw spring-boot:run -Dspring-boot.run.profiles=bulk-benchmark -Dspring-boot.run.arguments=--benchmark.orders=20000}.
+ */
+@Component
+@Profile("bulk-benchmark")
+public class BulkInsertBenchmark implements CommandLineRunner {
+	
+	private static final Logger log = LoggerFactory.getLogger(BulkInsertBenchmark.class);
+	
+	@Autowired
+	private OrderService orderService;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	@Value("${benchmark.orders:10000}")
+	private int orderCount;
+	
+	@Override
+	public void run(String... args) {
+		String marker = "benchmark-" + System.currentTimeMillis() + "-";
+		try {
+			List<Order> single = buildOrders(marker + "single-", orderCount);
+			long started = System.nanoTime();
+			for (Order order : single) {
+				orderService.addNewOrder(order);
+			}
+			report("single inserts", started);
+			
+			List<Order> bulk = buildOrders(marker + "bulk-", orderCount);
+			started = System.nanoTime();
+			long inserted = 0;
+			for (int from = 0; from < bulk.size(); from += 10_000) {
+				BulkOrderResponse response = orderService.addNewOrders(bulk.subList(from, Math.min(from + 10_000, bulk.size())));
+				inserted += response.getInsertedCount();
+			}
+			report("bulk inserts (" + inserted + " inserted)", started);
+		} finally {
+			int removed = jdbcTemplate.update("delete from orders where customer_name like ?", marker + "%");
+			orderService.rebuildDailySummary();
+			log.info("Removed {} benchmark orders and rebuilt the daily summary", removed);
+		}
+	}
+	
+	private void report(String label, long startedNanos) {
+		double seconds = (System.nanoTime() - startedNanos) / 1_000_000_000.0;
+		log.info("{}: {} orders in {} ms, {} orders/s", label, orderCount, Math.round(seconds * 1000),
+				Math.round(orderCount / seconds));
+	}
+	
+	private static List<Order> buildOrders(String namePrefix, int count) {
+		List<Order> orders = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Order order = new Order();
+			order.setCustomerName(namePrefix + i);
+			order.setCustomerContact("555-0000");
+			order.setDescription("Benchmark order " + i);
+			order.setOrderDate(LocalDate.now());
+			order.setStatus(OrderStatus.PENDING);
+			order.setDeliveryAddress(i + " Benchmark Street");
+			order.setQuantity(1 + i % 10);
+			order.setTotalPrice(BigDecimal.valueOf(100 + i % 900, 0));
+			order.setPaymentType(i % 2 == 0 ? PaymentType.PAID : PaymentType.COD);
+			orders.add(order);
+		}
+		return orders;
+	}
+}
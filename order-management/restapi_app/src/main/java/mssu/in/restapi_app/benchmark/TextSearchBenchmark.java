@@ -0,0 +1,123 @@
+package mssu.in.restapi_app.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import mssu.in.restapi_app.dto.OrderTextSearchResponse;
+import mssu.in.restapi_app.entity.Order;
+import mssu.in.restapi_app.entity.OrderStatus;
+import mssu.in.restapi_app.entity.PaymentType;
+import mssu.in.restapi_app.service.OrderNgramIndex;
+import mssu.in.restapi_app.service.OrderService;
+
+/**
+ * Generates orders with random names, products and streets, then measures {@code GET /orders/text-search}
+ * latency (p50, p95, max) for FULLTEXT queries and for short queries answered by the n-gram index.
+ * Removes the generated rows afterwards. Run with
+ * {@code ./mvnw spring-boot:run -Dspring-boot.run.profiles=search-benchmark -Dspring-boot.run.arguments=--benchmark.orders=200000}.
+ */
+@Component
+@Profile("search-benchmark")
+public class TextSearchBenchmark implements CommandLineRunner {
+
+	private static final Logger log = LoggerFactory.getLogger(TextSearchBenchmark.class);
+
+	private static final String[] FIRST_NAMES = { "Ava", "Liam", "Sofia", "Noah", "Maya", "Arjun", "Jo", "Mei",
+			"Omar", "Priya", "Lucas", "Emma", "Ravi", "Chloe", "Ethan", "Zara" };
+	private static final String[] LAST_NAMES = { "Johnson", "Patel", "Chen", "Smith", "Garcia", "Khan", "Müller",
+			"Rossi", "Nguyen", "Kim", "Brown", "Singh", "Silva", "Ito", "Novak", "Ma" };
+	private static final String[] PRODUCTS = { "laptop", "desk lamp", "wellness kit", "garden hose", "apparel",
+			"gadget components", "coffee grinder", "office chair", "yoga mat", "tv stand", "bookshelf", "kettle" };
+	private static final String[] STREETS = { "Baker Street", "Evergreen Terrace", "Amphitheatre Parkway",
+			"Main St", "Oak Avenue", "MG Road", "Park Lane", "Station Road", "Hill View", "Lake Drive" };
+	private static final List<String> QUERIES = List.of("smith", "laptop baker", "garden hose oak", "patel road",
+			"jo", "ma st", "tv", "mg road");
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderNgramIndex ngramIndex;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Value("${benchmark.orders:200000}")
+	private int orderCount;
+
+	@Value("${benchmark.repeats:50}")
+	private int repeats;
+
+	@Override
+	public void run(String... args) {
+		String marker = "bench-" + System.currentTimeMillis();
+		try {
+			Random random = new Random(42);
+			long started = System.nanoTime();
+			for (int from = 0; from < orderCount; from += 10_000) {
+				orderService.addNewOrders(buildOrders(marker, Math.min(10_000, orderCount - from), random));
+			}
+			log.info("Generated {} orders in {} ms", orderCount, (System.nanoTime() - started) / 1_000_000);
+			ngramIndex.rebuild();
+
+			for (String query : QUERIES) {
+				long[] nanos = new long[repeats];
+				OrderTextSearchResponse response = null;
+				for (int i = 0; i < repeats; i++) {
+					long queryStarted = System.nanoTime();
+					response = orderService.textSearch(query, 0, 20, false);
+					nanos[i] = System.nanoTime() - queryStarted;
+				}
+				Arrays.sort(nanos);
+				log.info("'{}' ({}, {} hits on first page): p50 {} ms, p95 {} ms, max {} ms", query,
+						response.getMethod(), response.getCount(), millis(nanos[repeats / 2]),
+						millis(nanos[(int) Math.ceil(repeats * 0.95) - 1]), millis(nanos[repeats - 1]));
+			}
+		} finally {
+			int removed = jdbcTemplate.update("delete from orders where customer_contact = ?", marker);
+			orderService.rebuildDailySummary();
+			ngramIndex.rebuild();
+			log.info("Removed {} benchmark orders and rebuilt the daily summary and n-gram index", removed);
+		}
+	}
+
+	private static String millis(long nanos) {
+		return String.format("%.2f", nanos / 1_000_000.0);
+	}
+
+	private static List<Order> buildOrders(String marker, int count, Random random) {
+		List<Order> orders = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Order order = new Order();
+			order.setCustomerName(pick(FIRST_NAMES, random) + " " + pick(LAST_NAMES, random));
+			order.setCustomerContact(marker);
+			order.setDescription((1 + random.nextInt(50)) + " " + pick(PRODUCTS, random) + " and "
+					+ pick(PRODUCTS, random));
+			order.setOrderDate(LocalDate.now().minusDays(random.nextInt(365)));
+			order.setStatus(OrderStatus.PENDING);
+			order.setDeliveryAddress((1 + random.nextInt(999)) + " " + pick(STREETS, random));
+			order.setQuantity(1 + random.nextInt(10));
+			order.setTotalPrice(BigDecimal.valueOf(100 + random.nextInt(9900), 0));
+			order.setPaymentType(random.nextBoolean() ? PaymentType.PAID : PaymentType.COD);
+			orders.add(order);
+		}
+		return orders;
+	}
+
+	private static String pick(String[] values, Random random) {
+		return values[random.nextInt(values.length)];
+	}
+}
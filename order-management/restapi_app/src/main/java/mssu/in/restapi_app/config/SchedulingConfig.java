@@ -0,0 +1,16 @@
+package mssu.in.restapi_app.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the background jobs, such as the n-gram index rebuild. One-shot profiles like the
+ * benchmarks turn it off with {@code orders.scheduling.enabled=false}, so the JVM exits once
+ * they finish.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "orders.scheduling.enabled", matchIfMissing = true)
+public class SchedulingConfig {
+}
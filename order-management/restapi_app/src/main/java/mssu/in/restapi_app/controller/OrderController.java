@@ -4,8 +4,14 @@ import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -14,12 +20,24 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import mssu.in.restapi_app.dto.BulkOrderResponse;
+import mssu.in.restapi_app.dto.CacheStatsResponse;
 import mssu.in.restapi_app.dto.OrderListResponse;
+import mssu.in.restapi_app.dto.OrderPageResponse;
+import mssu.in.restapi_app.dto.OrderSearchCriteria;
+import mssu.in.restapi_app.dto.OrderStatusChange;
+import mssu.in.restapi_app.dto.OrderSummaryRow;
+import mssu.in.restapi_app.dto.OrderTextSearchResponse;
+import mssu.in.restapi_app.dto.TimelineBucketRow;
 import mssu.in.restapi_app.entity.Order;
 import mssu.in.restapi_app.entity.OrderStatus;
 import mssu.in.restapi_app.entity.OrderTimelineType;
+import mssu.in.restapi_app.entity.OrderTransition;
 import mssu.in.restapi_app.entity.PaymentType;
+import mssu.in.restapi_app.entity.TimelineBucket;
+import mssu.in.restapi_app.service.InvalidOrderTransitionException;
 import mssu.in.restapi_app.service.OrderService;
 
 @RestController
@@ -34,11 +52,24 @@ public class OrderController {
 		return orderService.getAllOrders();
 	}
 	
+	@GetMapping("/export")
+	public ResponseEntity<StreamingResponseBody> exportOrders() {
+		StreamingResponseBody body = out -> orderService.exportOrders(out);
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.body(body);
+	}
+	
 	@PostMapping("/add")
 	public void addNewOrder(@RequestBody Order order) {
 		orderService.addNewOrder(order);
 	}
 	
+	@PostMapping("/bulk")
+	public BulkOrderResponse addNewOrders(@RequestBody List<Order> orders) {
+		return orderService.addNewOrders(orders);
+	}
+	
 	@DeleteMapping("/delete/{id}")
 	public void deleteOrder(@PathVariable Integer id) {
 		orderService.deleteOrder(id);
@@ -50,8 +81,28 @@ public class OrderController {
 	}
 	
 	@GetMapping("/get/{id}")
-	public Order getOrderById(@PathVariable Integer id) {
-		return orderService.getOrderById(id);
+	public Order getOrderById(@PathVariable Integer id, @RequestParam(defaultValue = "false") boolean includeArchived) {
+		return orderService.getOrderById(id, includeArchived);
+	}
+	
+	@PostMapping("/{id}/ship")
+	public void shipOrder(@PathVariable Integer id) {
+		orderService.transitionOrder(id, OrderTransition.SHIP);
+	}
+	
+	@PostMapping("/{id}/deliver")
+	public void deliverOrder(@PathVariable Integer id) {
+		orderService.transitionOrder(id, OrderTransition.DELIVER);
+	}
+	
+	@PostMapping("/{id}/cancel")
+	public void cancelOrder(@PathVariable Integer id) {
+		orderService.transitionOrder(id, OrderTransition.CANCEL);
+	}
+	
+	@GetMapping("/{id}/history")
+	public List<OrderStatusChange> getStatusHistory(@PathVariable Integer id) {
+		return orderService.getStatusHistory(id);
 	}
 	
 	@GetMapping("/status/{status}")
@@ -70,5 +121,84 @@ public class OrderController {
 			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
 		return orderService.getOrdersByTimeline(type, date);
 	}
+	
+	@GetMapping("/summary/daily")
+	public List<OrderSummaryRow> getDailySummary(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam(required = false) OrderStatus status,
+			@RequestParam(required = false) PaymentType paymentType) {
+		return orderService.getDailySummary(from, to, status, paymentType);
+	}
+	
+	@GetMapping("/summary/breakdown")
+	public List<OrderSummaryRow> getSummaryBreakdown(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+		return orderService.getSummaryBreakdown(from, to);
+	}
+	
+	@PostMapping("/summary/rebuild")
+	public int rebuildDailySummary() {
+		return orderService.rebuildDailySummary();
+	}
+	
+	@PostMapping("/archive/run")
+	public int archiveOrders() {
+		return orderService.archiveOrders();
+	}
+	
+	@GetMapping("/cache/stats")
+	public List<CacheStatsResponse> getCacheStats() {
+		return orderService.getCacheStats();
+	}
+	
+	@GetMapping("/timeline/range")
+	public OrderPageResponse getOrdersByTimelineRange(
+			@RequestParam OrderTimelineType type,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate afterDate,
+			@RequestParam(required = false) Integer afterId,
+			@RequestParam(required = false) Integer limit) {
+		return orderService.getOrdersByTimelineRange(type, from, to, afterDate, afterId, limit);
+	}
+	
+	@GetMapping("/timeline/histogram")
+	public List<TimelineBucketRow> getTimelineHistogram(
+			@RequestParam OrderTimelineType type,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam(defaultValue = "DAY") TimelineBucket bucket) {
+		return orderService.getTimelineHistogram(type, from, to, bucket);
+	}
+	
+	@GetMapping("/text-search")
+	public OrderTextSearchResponse textSearch(
+			@RequestParam String q,
+			@RequestParam(required = false) Integer offset,
+			@RequestParam(required = false) Integer limit,
+			@RequestParam(defaultValue = "false") boolean includeArchived) {
+		return orderService.textSearch(q, offset, limit, includeArchived);
+	}
+	
+	@GetMapping("/search")
+	public OrderPageResponse searchOrders(OrderSearchCriteria criteria) {
+		return orderService.searchOrders(criteria);
+	}
+	
+	@ExceptionHandler({ OptimisticLockingFailureException.class, InvalidOrderTransitionException.class })
+	public ResponseEntity<String> handleConflict(RuntimeException e) {
+		return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+	}
+	
+	@ExceptionHandler(IllegalArgumentException.class)
+	public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+		return ResponseEntity.badRequest().body(e.getMessage());
+	}
+	
+	@ExceptionHandler(EmptyResultDataAccessException.class)
+	public ResponseEntity<String> handleNotFound(EmptyResultDataAccessException e) {
+		return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+	}
 }
-
@@ -0,0 +1,65 @@
+package mssu.in.restapi_app.dto;
+
+import java.util.List;
+
+public class BulkOrderResponse {
+
+	private final long insertedCount;
+	private final long failedCount;
+	private final List<Item> results;
+
+	public BulkOrderResponse(List<Item> results) {
+		this.results = results;
+		this.insertedCount = results.stream().filter(item -> item.getId() != null).count();
+		this.failedCount = results.size() - insertedCount;
+	}
+
+	public long getInsertedCount() {
+		return insertedCount;
+	}
+
+	public long getFailedCount() {
+		return failedCount;
+	}
+
+	public List<Item> getResults() {
+		return results;
+	}
+
+	/**
+	 * Outcome for one submitted order, at the same position as in the request:
+	 * the generated id, or the reason it was not inserted.
+	 */
+	public static class Item {
+
+		private final int index;
+		private final Integer id;
+		private final String error;
+
+		private Item(int index, Integer id, String error) {
+			this.index = index;
+			this.id = id;
+			this.error = error;
+		}
+
+		public static Item inserted(int index, Integer id) {
+			return new Item(index, id, null);
+		}
+
+		public static Item failed(int index, String error) {
+			return new Item(index, null, error);
+		}
+
+		public int getIndex() {
+			return index;
+		}
+
+		public Integer getId() {
+			return id;
+		}
+
+		public String getError() {
+			return error;
+		}
+	}
+}
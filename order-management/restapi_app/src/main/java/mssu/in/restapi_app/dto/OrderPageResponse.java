@@ -0,0 +1,50 @@
+package mssu.in.restapi_app.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import mssu.in.restapi_app.entity.Order;
+
+public class OrderPageResponse {
+
+	private final long count;
+	private final List<Order> orders;
+	private final Integer nextAfterId;
+	private final LocalDate nextAfterDate;
+
+	public OrderPageResponse(List<Order> orders, Integer nextAfterId) {
+		this(orders, nextAfterId, null);
+	}
+
+	public OrderPageResponse(List<Order> orders, Integer nextAfterId, LocalDate nextAfterDate) {
+		this.orders = orders;
+		this.count = orders == null ? 0 : orders.size();
+		this.nextAfterId = nextAfterId;
+		this.nextAfterDate = nextAfterDate;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public List<Order> getOrders() {
+		return orders;
+	}
+
+	/**
+	 * Pass as {@code afterId} to fetch the next page; null on the last page.
+	 */
+	public Integer getNextAfterId() {
+		return nextAfterId;
+	}
+
+	/**
+	 * For pages ordered by a date, pass as {@code afterDate} together with {@code afterId}.
+	 */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	public LocalDate getNextAfterDate() {
+		return nextAfterDate;
+	}
+}
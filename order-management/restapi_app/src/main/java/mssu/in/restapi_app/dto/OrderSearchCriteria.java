@@ -0,0 +1,110 @@
+package mssu.in.restapi_app.dto;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import mssu.in.restapi_app.entity.OrderStatus;
+import mssu.in.restapi_app.entity.PaymentType;
+
+/**
+ * Filters of {@code GET /orders/search}, bound from query parameters. Every filter is optional;
+ * date ranges are inclusive and the customer filter matches a name prefix.
+ */
+public class OrderSearchCriteria {
+	private OrderStatus status;
+	private PaymentType paymentType;
+	private String customer;
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+	private LocalDate orderDateFrom;
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+	private LocalDate orderDateTo;
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+	private LocalDate shippingDateFrom;
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+	private LocalDate shippingDateTo;
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+	private LocalDate deliveryDateFrom;
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+	private LocalDate deliveryDateTo;
+	private Integer afterId;
+	private Integer limit;
+	private boolean includeArchived;
+	
+	public OrderStatus getStatus() {
+		return status;
+	}
+	public void setStatus(OrderStatus status) {
+		this.status = status;
+	}
+	public PaymentType getPaymentType() {
+		return paymentType;
+	}
+	public void setPaymentType(PaymentType paymentType) {
+		this.paymentType = paymentType;
+	}
+	public String getCustomer() {
+		return customer;
+	}
+	public void setCustomer(String customer) {
+		this.customer = customer;
+	}
+	public LocalDate getOrderDateFrom() {
+		return orderDateFrom;
+	}
+	public void setOrderDateFrom(LocalDate orderDateFrom) {
+		this.orderDateFrom = orderDateFrom;
+	}
+	public LocalDate getOrderDateTo() {
+		return orderDateTo;
+	}
+	public void setOrderDateTo(LocalDate orderDateTo) {
+		this.orderDateTo = orderDateTo;
+	}
+	public LocalDate getShippingDateFrom() {
+		return shippingDateFrom;
+	}
+	public void setShippingDateFrom(LocalDate shippingDateFrom) {
+		this.shippingDateFrom = shippingDateFrom;
+	}
+	public LocalDate getShippingDateTo() {
+		return shippingDateTo;
+	}
+	public void setShippingDateTo(LocalDate shippingDateTo) {
+		this.shippingDateTo = shippingDateTo;
+	}
+	public LocalDate getDeliveryDateFrom() {
+		return deliveryDateFrom;
+	}
+	public void setDeliveryDateFrom(LocalDate deliveryDateFrom) {
+		this.deliveryDateFrom = deliveryDateFrom;
+	}
+	public LocalDate getDeliveryDateTo() {
+		return deliveryDateTo;
+	}
+	public void setDeliveryDateTo(LocalDate deliveryDateTo) {
+		this.deliveryDateTo = deliveryDateTo;
+	}
+	public Integer getAfterId() {
+		return afterId;
+	}
+	public void setAfterId(Integer afterId) {
+		this.afterId = afterId;
+	}
+	public Integer getLimit() {
+		return limit;
+	}
+	public void setLimit(Integer limit) {
+		this.limit = limit;
+	}
+	/**
+	 * Also search {@code orders_archive}, which holds delivered and cancelled orders moved out of
+	 * the active table.
+	 */
+	public boolean isIncludeArchived() {
+		return includeArchived;
+	}
+	public void setIncludeArchived(boolean includeArchived) {
+		this.includeArchived = includeArchived;
+	}
+}
@@ -0,0 +1,38 @@
+package mssu.in.restapi_app.dto;
+
+import java.time.LocalDateTime;
+
+import mssu.in.restapi_app.entity.OrderStatus;
+
+public class OrderStatusChange {
+	private OrderStatus fromStatus;
+	private OrderStatus toStatus;
+	private LocalDateTime changedAt;
+	
+	public OrderStatusChange() {}
+	
+	public OrderStatusChange(OrderStatus fromStatus, OrderStatus toStatus, LocalDateTime changedAt) {
+		this.fromStatus = fromStatus;
+		this.toStatus = toStatus;
+		this.changedAt = changedAt;
+	}
+	
+	public OrderStatus getFromStatus() {
+		return fromStatus;
+	}
+	public void setFromStatus(OrderStatus fromStatus) {
+		this.fromStatus = fromStatus;
+	}
+	public OrderStatus getToStatus() {
+		return toStatus;
+	}
+	public void setToStatus(OrderStatus toStatus) {
+		this.toStatus = toStatus;
+	}
+	public LocalDateTime getChangedAt() {
+		return changedAt;
+	}
+	public void setChangedAt(LocalDateTime changedAt) {
+		this.changedAt = changedAt;
+	}
+}
@@ -0,0 +1,52 @@
+package mssu.in.restapi_app.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import mssu.in.restapi_app.entity.OrderStatus;
+import mssu.in.restapi_app.entity.PaymentType;
+
+/**
+ * Order count and revenue from the daily summary, per day or per status and payment type.
+ * Dimensions that were not grouped on are left out of the JSON.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderSummaryRow {
+
+	private final LocalDate date;
+	private final OrderStatus status;
+	private final PaymentType paymentType;
+	private final long orderCount;
+	private final BigDecimal revenue;
+
+	public OrderSummaryRow(LocalDate date, OrderStatus status, PaymentType paymentType, long orderCount,
+			BigDecimal revenue) {
+		this.date = date;
+		this.status = status;
+		this.paymentType = paymentType;
+		this.orderCount = orderCount;
+		this.revenue = revenue;
+	}
+
+	public LocalDate getDate() {
+		return date;
+	}
+
+	public OrderStatus getStatus() {
+		return status;
+	}
+
+	public PaymentType getPaymentType() {
+		return paymentType;
+	}
+
+	public long getOrderCount() {
+		return orderCount;
+	}
+
+	public BigDecimal getRevenue() {
+		return revenue;
+	}
+}
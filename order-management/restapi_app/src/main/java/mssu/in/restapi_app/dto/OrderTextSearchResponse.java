@@ -0,0 +1,68 @@
+package mssu.in.restapi_app.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import mssu.in.restapi_app.entity.Order;
+
+public class OrderTextSearchResponse {
+
+	private final String method;
+	private final long count;
+	private final List<Hit> results;
+	private final Integer nextOffset;
+
+	public OrderTextSearchResponse(String method, List<Hit> results, Integer nextOffset) {
+		this.method = method;
+		this.results = results;
+		this.count = results.size();
+		this.nextOffset = nextOffset;
+	}
+
+	/**
+	 * {@code fulltext} for the MySQL FULLTEXT index, {@code ngram} for the in-memory n-gram index.
+	 */
+	public String getMethod() {
+		return method;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public List<Hit> getResults() {
+		return results;
+	}
+
+	/**
+	 * Pass as {@code offset} to fetch the next page; null on the last page.
+	 */
+	public Integer getNextOffset() {
+		return nextOffset;
+	}
+
+	/**
+	 * A matching order and its FULLTEXT relevance; the relevance is left out for n-gram matches,
+	 * which are ordered newest first.
+	 */
+	public static class Hit {
+
+		private final Order order;
+		private final Double relevance;
+
+		public Hit(Order order, Double relevance) {
+			this.order = order;
+			this.relevance = relevance;
+		}
+
+		public Order getOrder() {
+			return order;
+		}
+
+		@JsonInclude(JsonInclude.Include.NON_NULL)
+		public Double getRelevance() {
+			return relevance;
+		}
+	}
+}
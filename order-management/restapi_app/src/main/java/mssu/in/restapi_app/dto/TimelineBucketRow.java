@@ -0,0 +1,29 @@
+package mssu.in.restapi_app.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class TimelineBucketRow {
+
+	private final LocalDate bucketStart;
+	private final long orderCount;
+	private final BigDecimal revenue;
+
+	public TimelineBucketRow(LocalDate bucketStart, long orderCount, BigDecimal revenue) {
+		this.bucketStart = bucketStart;
+		this.orderCount = orderCount;
+		this.revenue = revenue;
+	}
+
+	public LocalDate getBucketStart() {
+		return bucketStart;
+	}
+
+	public long getOrderCount() {
+		return orderCount;
+	}
+
+	public BigDecimal getRevenue() {
+		return revenue;
+	}
+}
@@ -19,6 +19,7 @@ public class Order {
 	private PaymentType paymentType;
 	private String orderNotes;
 	private LocalDateTime createdAt;
+	private Integer version;
 	
 	public Order() {}
 	
@@ -106,5 +107,10 @@ public class Order {
 	public void setCreatedAt(LocalDateTime createdAt) {
 		this.createdAt = createdAt;
 	}
+	public Integer getVersion() {
+		return version;
+	}
+	public void setVersion(Integer version) {
+		this.version = version;
+	}
 }
-
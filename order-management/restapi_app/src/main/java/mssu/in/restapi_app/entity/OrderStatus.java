@@ -3,6 +3,6 @@ package mssu.in.restapi_app.entity;
 public enum OrderStatus {
 	PENDING,
 	DISPATCHED,
-	DELIVERED
+	DELIVERED,
+	CANCELLED
 }
-
@@ -0,0 +1,38 @@
+package mssu.in.restapi_app.entity;
+
+import java.util.List;
+
+/**
+ * The status changes an order can go through, with the states each one is allowed from and the
+ * date column it stamps.
+ */
+public enum OrderTransition {
+	SHIP(OrderStatus.DISPATCHED, "shipping_date", OrderStatus.PENDING),
+	DELIVER(OrderStatus.DELIVERED, "delivery_date", OrderStatus.DISPATCHED),
+	CANCEL(OrderStatus.CANCELLED, null, OrderStatus.PENDING, OrderStatus.DISPATCHED);
+	
+	private final OrderStatus target;
+	private final String dateColumn;
+	private final List<OrderStatus> sources;
+	
+	OrderTransition(OrderStatus target, String dateColumn, OrderStatus... sources) {
+		this.target = target;
+		this.dateColumn = dateColumn;
+		this.sources = List.of(sources);
+	}
+	
+	public OrderStatus getTarget() {
+		return target;
+	}
+	
+	/**
+	 * The date column set to the transition date, or {@code null} when the transition stamps none.
+	 */
+	public String getDateColumn() {
+		return dateColumn;
+	}
+	
+	public List<OrderStatus> getSources() {
+		return sources;
+	}
+}
@@ -0,0 +1,44 @@
+package mssu.in.restapi_app.entity;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Bucket size of a timeline histogram. Weeks start on Monday.
+ */
+public enum TimelineBucket {
+	DAY,
+	WEEK,
+	MONTH;
+	
+	/**
+	 * The first day of the bucket containing the date.
+	 */
+	public LocalDate start(LocalDate date) {
+		switch (this) {
+		case WEEK:
+			return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+		case MONTH:
+			return date.withDayOfMonth(1);
+		case DAY:
+		default:
+			return date;
+		}
+	}
+	
+	/**
+	 * The first day of the bucket after the one starting on {@code start}.
+	 */
+	public LocalDate next(LocalDate start) {
+		switch (this) {
+		case WEEK:
+			return start.plusWeeks(1);
+		case MONTH:
+			return start.plusMonths(1);
+		case DAY:
+		default:
+			return start.plusDays(1);
+		}
+	}
+}
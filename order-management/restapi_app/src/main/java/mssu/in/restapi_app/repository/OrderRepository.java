@@ -1,24 +1,69 @@
 package mssu.in.restapi_app.repository;
 
 import java.sql.Date;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
+import mssu.in.restapi_app.dto.OrderSearchCriteria;
+import mssu.in.restapi_app.dto.OrderStatusChange;
+import mssu.in.restapi_app.dto.OrderSummaryRow;
+import mssu.in.restapi_app.dto.OrderTextSearchResponse;
+import mssu.in.restapi_app.dto.TimelineBucketRow;
 import mssu.in.restapi_app.entity.Order;
 import mssu.in.restapi_app.entity.OrderStatus;
+import mssu.in.restapi_app.entity.OrderTimelineType;
+import mssu.in.restapi_app.entity.OrderTransition;
 import mssu.in.restapi_app.entity.PaymentType;
+import mssu.in.restapi_app.entity.TimelineBucket;
 
 @Repository
 public class OrderRepository {
 	
+	private static final String INSERT_ORDER_SQL = """
+			insert into orders
+			(customer_name, customer_contact, description, order_date, shipping_date, delivery_date, status,
+			delivery_address, quantity, total_price, payment_type, order_notes)
+			values (?,?,?,?,?,?,?,?,?,?,?,?)
+			""";
+	
+	/**
+	 * Adds the rows of the derived table {@code delta} to the daily summary. The derived table lets the
+	 * ON DUPLICATE KEY UPDATE clause refer to grouped values.
+	 */
+	private static final String SUMMARY_UPSERT_SQL = """
+			insert into order_daily_summary (summary_date, status, payment_type, order_count, revenue)
+			select * from (%s) as delta
+			on duplicate key update
+			order_daily_summary.order_count = order_daily_summary.order_count + delta.order_count,
+			order_daily_summary.revenue = order_daily_summary.revenue + delta.revenue
+			""";
+	
+	private static final String SUMMARY_DATE = "coalesce(order_date, date(created_at))";
+	
+	/** The columns orders and orders_archive share, for queries that read or copy both. */
+	private static final String ORDER_COLUMNS = "id, customer_name, customer_contact, description, order_date, "
+			+ "shipping_date, delivery_date, status, delivery_address, quantity, total_price, payment_type, "
+			+ "order_notes, created_at, version";
+	
 	@Autowired
 	private JdbcTemplate jdbcTemplate;
 	
@@ -27,15 +72,64 @@ public class OrderRepository {
 		return jdbcTemplate.query(sql, new OrderRowMapper());
 	}
 	
-	public void addNewOrder(Order order) {
-		String sql = """
-				insert into orders
-				(customer_name, customer_contact, description, order_date, shipping_date, delivery_date, status,
-				delivery_address, quantity, total_price, payment_type, order_notes)
-				values (?,?,?,?,?,?,?,?,?,?,?,?)
-				""";
-		jdbcTemplate.update(
-				sql,
+	/**
+	 * Read every order through a forward-only, read-only result set that MySQL streams row by row
+	 * (fetch size {@code Integer.MIN_VALUE}), handing each row to the consumer as it arrives.
+	 * Heap use stays constant regardless of the table size.
+	 */
+	public void streamAllOrders(Consumer<Order> consumer) {
+		OrderRowMapper mapper = new OrderRowMapper();
+		RowCallbackHandler handler = rs -> consumer.accept(mapper.mapRow(rs, rs.getRow()));
+		jdbcTemplate.query(connection -> {
+			PreparedStatement statement = connection.prepareStatement("select * from orders order by id",
+					ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			statement.setFetchSize(Integer.MIN_VALUE);
+			return statement;
+		}, handler);
+	}
+	
+	/**
+	 * Insert the order and return its generated id.
+	 */
+	public Integer addNewOrder(Order order) {
+		KeyHolder keyHolder = new GeneratedKeyHolder();
+		jdbcTemplate.update(connection -> {
+			PreparedStatement statement = connection.prepareStatement(INSERT_ORDER_SQL, Statement.RETURN_GENERATED_KEYS);
+			new ArgumentPreparedStatementSetter(newOrderArgs(order)).setValues(statement);
+			return statement;
+		}, keyHolder);
+		return keyHolder.getKey().intValue();
+	}
+	
+	/**
+	 * Insert the orders as one JDBC batch and return their generated ids in input order.
+	 * With {@code rewriteBatchedStatements=true} the driver sends the batch as multi-row INSERTs.
+	 */
+	public List<Integer> addNewOrders(List<Order> orders) {
+		KeyHolder keyHolder = new GeneratedKeyHolder();
+		jdbcTemplate.batchUpdate(
+				connection -> connection.prepareStatement(INSERT_ORDER_SQL, Statement.RETURN_GENERATED_KEYS),
+				new BatchPreparedStatementSetter() {
+					@Override
+					public void setValues(PreparedStatement ps, int i) throws SQLException {
+						new ArgumentPreparedStatementSetter(newOrderArgs(orders.get(i))).setValues(ps);
+					}
+					
+					@Override
+					public int getBatchSize() {
+						return orders.size();
+					}
+				},
+				keyHolder);
+		List<Integer> ids = new ArrayList<>(orders.size());
+		for (Map<String, Object> keys : keyHolder.getKeyList()) {
+			ids.add(((Number) keys.values().iterator().next()).intValue());
+		}
+		return ids;
+	}
+	
+	private static Object[] newOrderArgs(Order order) {
+		return new Object[] {
 				order.getCustomerName(),
 				order.getCustomerContact(),
 				order.getDescription(),
@@ -48,31 +142,170 @@ public class OrderRepository {
 				order.getTotalPrice(),
 				toDbPaymentType(order.getPaymentType()),
 				order.getOrderNotes()
-		);
+		};
+	}
+	
+	/**
+	 * Update only the non-null fields of the order in one statement and increment its version.
+	 * When the order carries a version, the update applies only while the row still has that version.
+	 *
+	 * @return the number of rows updated: 0 when the order does not exist or its version has moved on
+	 */
+	public int editOrder(Order order) {
+		SetClause set = new SetClause()
+				.setIfPresent("customer_name", order.getCustomerName())
+				.setIfPresent("customer_contact", order.getCustomerContact())
+				.setIfPresent("description", order.getDescription())
+				.setIfPresent("order_date", order.getOrderDate())
+				.setIfPresent("shipping_date", order.getShippingDate())
+				.setIfPresent("delivery_date", order.getDeliveryDate())
+				.setIfPresent("delivery_address", order.getDeliveryAddress())
+				.setIfPresent("quantity", order.getQuantity())
+				.setIfPresent("total_price", order.getTotalPrice())
+				.setIfPresent("payment_type",
+						order.getPaymentType() == null ? null : toDbPaymentType(order.getPaymentType()))
+				.setIfPresent("order_notes", order.getOrderNotes());
+		if (set.isEmpty()) {
+			throw new IllegalArgumentException("At least one field to update is required.");
+		}
+		set.set("version = version + 1");
+		WhereClause where = new WhereClause()
+				.and("id = ?", order.getId())
+				.andIfPresent("version = ?", order.getVersion());
+		List<Object> args = new ArrayList<>(set.args());
+		args.addAll(List.of(where.args()));
+		return jdbcTemplate.update("update orders" + set.toSql() + where.toSql(), args.toArray());
+	}
+	
+	/**
+	 * The current version of the order, or {@code null} when it does not exist.
+	 */
+	public Integer getOrderVersion(Integer id) {
+		List<Integer> versions = jdbcTemplate.queryForList("select version from orders where id = ?", Integer.class, id);
+		return versions.isEmpty() ? null : versions.get(0);
 	}
 	
-	public void editOrder(Order order) {
+	/**
+	 * Move the order to the transition's target status, but only while it is still in {@code from},
+	 * stamping the transition's date column. The status check and the change happen in one statement,
+	 * so of two concurrent callers only one can succeed.
+	 *
+	 * @return {@code true} if the order was in {@code from} and has been updated
+	 */
+	public boolean transitionOrder(Integer id, OrderStatus from, OrderTransition transition, LocalDate date) {
+		SetClause set = new SetClause().setIfPresent("status", toDbStatus(transition.getTarget()));
+		if (transition.getDateColumn() != null) {
+			set.setIfPresent(transition.getDateColumn(), date);
+		}
+		set.set("version = version + 1");
+		List<Object> args = new ArrayList<>(set.args());
+		args.add(id);
+		args.add(toDbStatus(from));
+		return jdbcTemplate.update("update orders" + set.toSql() + " where id = ? and status = ?", args.toArray()) == 1;
+	}
+	
+	public void addStatusHistory(Integer orderId, OrderStatus from, OrderStatus to) {
+		String sql = "insert into order_status_history (order_id, from_status, to_status) values (?,?,?)";
+		jdbcTemplate.update(sql, orderId, toDbStatus(from), toDbStatus(to));
+	}
+	
+	public List<OrderStatusChange> getStatusHistory(Integer orderId) {
 		String sql = """
-				update orders set customer_name=?, customer_contact=?, description=?, order_date=?, shipping_date=?,
-				delivery_date=?, status=?, delivery_address=?, quantity=?, total_price=?, payment_type=?, order_notes=?
-				where id=?
+				select from_status, to_status, changed_at from order_status_history
+				where order_id = ? order by changed_at, id
 				""";
-		jdbcTemplate.update(
-				sql,
-				order.getCustomerName(),
-				order.getCustomerContact(),
-				order.getDescription(),
-				order.getOrderDate(),
-				order.getShippingDate(),
-				order.getDeliveryDate(),
-				toDbStatus(order.getStatus()),
-				order.getDeliveryAddress(),
-				order.getQuantity(),
-				order.getTotalPrice(),
-				toDbPaymentType(order.getPaymentType()),
-				order.getOrderNotes(),
-				order.getId()
-		);
+		return jdbcTemplate.query(sql, (rs, rowNum) -> new OrderStatusChange(
+				OrderRowMapper.toStatus(rs.getString("from_status")),
+				OrderRowMapper.toStatus(rs.getString("to_status")),
+				OrderRowMapper.toLocalDateTime(rs.getTimestamp("changed_at"))), orderId);
+	}
+	
+	/**
+	 * The current status of the order, or {@code null} when it does not exist.
+	 */
+	public OrderStatus getOrderStatus(Integer id) {
+		List<String> statuses = jdbcTemplate.queryForList("select status from orders where id = ?", String.class, id);
+		return statuses.isEmpty() ? null : OrderRowMapper.toStatus(statuses.get(0));
+	}
+	
+	/**
+	 * Lock the order row until the end of the transaction, so its summary contribution can be
+	 * read and changed without a concurrent writer in between.
+	 */
+	public void lockOrder(Integer id) {
+		jdbcTemplate.queryForList("select id from orders where id = ? for update", Integer.class, id);
+	}
+	
+	/**
+	 * Add ({@code sign} 1) or remove ({@code sign} -1) the orders' current rows from the daily summary.
+	 */
+	public void addToDailySummary(List<Integer> ids, int sign) {
+		if (ids.isEmpty()) {
+			return;
+		}
+		String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+		String delta = "select " + SUMMARY_DATE + " as summary_date, status, payment_type, "
+				+ sign + " * count(*) as order_count, " + sign + " * coalesce(sum(total_price), 0) as revenue "
+				+ "from orders where id in (" + placeholders + ") "
+				+ "group by " + SUMMARY_DATE + ", status, payment_type";
+		jdbcTemplate.update(SUMMARY_UPSERT_SQL.formatted(delta), ids.toArray());
+	}
+	
+	/**
+	 * Move the order's summary contribution from {@code from} to its current status.
+	 */
+	public void moveInDailySummary(Integer id, OrderStatus from) {
+		String delta = "select " + SUMMARY_DATE + " as summary_date, ? as status, payment_type, "
+				+ "-1 as order_count, -coalesce(total_price, 0) as revenue from orders where id = ? "
+				+ "union all "
+				+ "select " + SUMMARY_DATE + ", status, payment_type, 1, coalesce(total_price, 0) from orders where id = ?";
+		jdbcTemplate.update(SUMMARY_UPSERT_SQL.formatted(delta), toDbStatus(from), id, id);
+	}
+	
+	/**
+	 * Recompute the daily summary from the active and archived orders and return the number of summary rows.
+	 */
+	public int rebuildDailySummary() {
+		jdbcTemplate.update("delete from order_daily_summary");
+		String sql = "insert into order_daily_summary (summary_date, status, payment_type, order_count, revenue) "
+				+ "select " + SUMMARY_DATE + ", status, payment_type, count(*), coalesce(sum(total_price), 0) "
+				+ "from (select order_date, created_at, status, payment_type, total_price from orders "
+				+ "union all select order_date, created_at, status, payment_type, total_price from orders_archive) as all_orders "
+				+ "group by " + SUMMARY_DATE + ", status, payment_type";
+		return jdbcTemplate.update(sql);
+	}
+	
+	/**
+	 * Order count and revenue per day between the dates (inclusive), optionally for one status or payment type.
+	 */
+	public List<OrderSummaryRow> getDailySummary(LocalDate from, LocalDate to, OrderStatus status,
+			PaymentType paymentType) {
+		WhereClause where = new WhereClause()
+				.and("summary_date between ? and ?", from, to)
+				.andIfPresent("status = ?", status == null ? null : toDbStatus(status))
+				.andIfPresent("payment_type = ?", paymentType == null ? null : toDbPaymentType(paymentType));
+		String sql = "select summary_date, sum(order_count) as order_count, sum(revenue) as revenue "
+				+ "from order_daily_summary" + where.toSql()
+				+ " group by summary_date having sum(order_count) <> 0 order by summary_date";
+		return jdbcTemplate.query(sql, (rs, rowNum) -> new OrderSummaryRow(
+				rs.getDate("summary_date").toLocalDate(), null, null,
+				rs.getLong("order_count"), rs.getBigDecimal("revenue")), where.args());
+	}
+	
+	/**
+	 * Order count and revenue per status and payment type between the dates (inclusive).
+	 */
+	public List<OrderSummaryRow> getSummaryBreakdown(LocalDate from, LocalDate to) {
+		String sql = """
+				select status, payment_type, sum(order_count) as order_count, sum(revenue) as revenue
+				from order_daily_summary where summary_date between ? and ?
+				group by status, payment_type having sum(order_count) <> 0
+				order by status, payment_type
+				""";
+		return jdbcTemplate.query(sql, (rs, rowNum) -> new OrderSummaryRow(
+				null, OrderRowMapper.toStatus(rs.getString("status")),
+				OrderRowMapper.toPaymentType(rs.getString("payment_type")),
+				rs.getLong("order_count"), rs.getBigDecimal("revenue")), from, to);
 	}
 	
 	public void deleteOrder(Integer id) {
@@ -85,14 +318,49 @@ public class OrderRepository {
 		return jdbcTemplate.queryForObject(sql, new OrderRowMapper(), id);
 	}
 	
+	public Order getArchivedOrderById(Integer id) {
+		String sql = "select " + ORDER_COLUMNS + " from orders_archive where id = ?";
+		return jdbcTemplate.queryForObject(sql, new OrderRowMapper(), id);
+	}
+	
+	/**
+	 * Lock and return up to {@code limit} ids of delivered or cancelled orders whose delivery date
+	 * (or order date, or creation date when missing) is before the cutoff. Rows another transaction
+	 * holds are skipped rather than waited for.
+	 */
+	public List<Integer> lockArchivableOrderIds(LocalDate cutoff, int limit) {
+		String sql = """
+				select id from orders
+				where status in ('delivered', 'cancelled')
+				and coalesce(delivery_date, order_date, date(created_at)) < ?
+				order by id limit ?
+				for update skip locked
+				""";
+		return jdbcTemplate.queryForList(sql, Integer.class, cutoff, limit);
+	}
+	
+	/**
+	 * Copy the orders into orders_archive and delete them from orders. Run in the transaction that
+	 * locked them. The daily summary keeps their contribution.
+	 */
+	public int moveToArchive(List<Integer> ids) {
+		if (ids.isEmpty()) {
+			return 0;
+		}
+		String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+		jdbcTemplate.update("insert into orders_archive (" + ORDER_COLUMNS + ") select " + ORDER_COLUMNS
+				+ " from orders where id in (" + placeholders + ")", ids.toArray());
+		return jdbcTemplate.update("delete from orders where id in (" + placeholders + ")", ids.toArray());
+	}
+	
 	public List<Order> getOrdersByStatus(OrderStatus status) {
-		String sql = "select * from orders where lower(status) = ?";
+		String sql = "select * from orders where status = ?";
 		return jdbcTemplate.query(sql, new OrderRowMapper(), toDbStatus(status));
 	}
 	
 	public List<Order> getOrdersByPaymentType(PaymentType paymentType) {
-		String sql = "select * from orders where lower(payment_type) = ?";
-		return jdbcTemplate.query(sql, new OrderRowMapper(), toDbPaymentType(paymentType).toLowerCase());
+		String sql = "select * from orders where payment_type = ?";
+		return jdbcTemplate.query(sql, new OrderRowMapper(), toDbPaymentType(paymentType));
 	}
 	
 	public List<Order> getOrdersByOrderDate(LocalDate date) {
@@ -110,21 +378,166 @@ public class OrderRepository {
 		return jdbcTemplate.query(sql, new OrderRowMapper(), date);
 	}
 	
-	private static String toDbStatus(OrderStatus status) {
-		return status == null ? "pending" : status.name().toLowerCase();
+	/**
+	 * Orders whose timeline date lies between the dates (inclusive), ordered by that date and id,
+	 * starting after the ({@code afterDate}, {@code afterId}) cursor when one is given. The range and
+	 * the order both follow the date column's index, which ends in the primary key.
+	 */
+	public List<Order> getOrdersByTimelineRange(OrderTimelineType type, LocalDate from, LocalDate to,
+			LocalDate afterDate, Integer afterId, int limit) {
+		String column = timelineColumn(type);
+		WhereClause where = new WhereClause().and(column + " between ? and ?", from, to);
+		if (afterDate != null && afterId != null) {
+			where.and("(" + column + " > ? or (" + column + " = ? and id > ?))", afterDate, afterDate, afterId);
+		}
+		String sql = "select * from orders" + where.toSql() + " order by " + column + ", id limit ?";
+		return jdbcTemplate.query(sql, new OrderRowMapper(), where.args(limit));
 	}
 	
-	private static String toDbPaymentType(PaymentType paymentType) {
-		if (paymentType == null) {
-			return "COD";
+	/**
+	 * Order count and revenue per bucket of the timeline date, in one grouped range scan.
+	 * Buckets without orders are not returned.
+	 */
+	public List<TimelineBucketRow> getTimelineHistogram(OrderTimelineType type, LocalDate from, LocalDate to,
+			TimelineBucket bucket) {
+		String column = timelineColumn(type);
+		String bucketStart;
+		switch (bucket) {
+		case WEEK:
+			bucketStart = "date_sub(" + column + ", interval weekday(" + column + ") day)";
+			break;
+		case MONTH:
+			bucketStart = "date_sub(" + column + ", interval dayofmonth(" + column + ") - 1 day)";
+			break;
+		case DAY:
+		default:
+			bucketStart = column;
+			break;
 		}
-		switch (paymentType) {
-		case PAID:
-			return "paid";
-		case COD:
+		String sql = "select " + bucketStart + " as bucket_start, count(*) as order_count, "
+				+ "coalesce(sum(total_price), 0) as revenue from orders where " + column + " between ? and ? "
+				+ "group by bucket_start order by bucket_start";
+		return jdbcTemplate.query(sql, (rs, rowNum) -> new TimelineBucketRow(
+				rs.getDate("bucket_start").toLocalDate(), rs.getLong("order_count"), rs.getBigDecimal("revenue")),
+				from, to);
+	}
+	
+	private static String timelineColumn(OrderTimelineType type) {
+		switch (type) {
+		case SHIPPED:
+			return "shipping_date";
+		case DELIVERED:
+			return "delivery_date";
+		case CREATED:
 		default:
-			return "COD";
+			return "order_date";
+		}
+	}
+	
+	/**
+	 * Find orders matching every given filter, newest first, with keyset paging on id. Archived
+	 * orders are included only when the criteria ask for them.
+	 */
+	public List<Order> searchOrders(OrderSearchCriteria criteria, int limit) {
+		WhereClause where = new WhereClause()
+				.andIfPresent("status = ?", criteria.getStatus() == null ? null : toDbStatus(criteria.getStatus()))
+				.andIfPresent("payment_type = ?",
+						criteria.getPaymentType() == null ? null : toDbPaymentType(criteria.getPaymentType()))
+				.andIfPresent("customer_name like ?", toPrefixPattern(criteria.getCustomer()))
+				.andIfPresent("order_date >= ?", criteria.getOrderDateFrom())
+				.andIfPresent("order_date <= ?", criteria.getOrderDateTo())
+				.andIfPresent("shipping_date >= ?", criteria.getShippingDateFrom())
+				.andIfPresent("shipping_date <= ?", criteria.getShippingDateTo())
+				.andIfPresent("delivery_date >= ?", criteria.getDeliveryDateFrom())
+				.andIfPresent("delivery_date <= ?", criteria.getDeliveryDateTo())
+				.andIfPresent("id < ?", criteria.getAfterId());
+		if (!criteria.isIncludeArchived()) {
+			String sql = "select * from orders" + where.toSql() + " order by id desc limit ?";
+			return jdbcTemplate.query(sql, new OrderRowMapper(), where.args(limit));
 		}
+		// Each table returns at most one page through its own index before the pages are merged
+		String sql = "select * from ("
+				+ "(select " + ORDER_COLUMNS + " from orders" + where.toSql() + " order by id desc limit ?) union all "
+				+ "(select " + ORDER_COLUMNS + " from orders_archive" + where.toSql() + " order by id desc limit ?)"
+				+ ") as combined order by id desc limit ?";
+		List<Object> args = new ArrayList<>(List.of(where.args(limit)));
+		args.addAll(List.of(where.args(limit, limit)));
+		return jdbcTemplate.query(sql, new OrderRowMapper(), args.toArray());
+	}
+	
+	/**
+	 * Orders matching the FULLTEXT boolean-mode query, most relevant first.
+	 */
+	public List<OrderTextSearchResponse.Hit> fullTextSearch(String booleanQuery, int offset, int limit,
+			boolean includeArchived) {
+		String match = "match(customer_name, description, delivery_address) against (? in boolean mode)";
+		String hot = "select " + ORDER_COLUMNS + ", " + match + " as relevance from orders where " + match;
+		String sql;
+		Object[] args;
+		if (includeArchived) {
+			String archived = "select " + ORDER_COLUMNS + ", " + match + " as relevance from orders_archive where " + match;
+			sql = "select * from (" + hot + " union all " + archived + ") as hits "
+					+ "order by relevance desc, id desc limit ? offset ?";
+			args = new Object[] { booleanQuery, booleanQuery, booleanQuery, booleanQuery, limit, offset };
+		} else {
+			sql = hot + " order by relevance desc, id desc limit ? offset ?";
+			args = new Object[] { booleanQuery, booleanQuery, limit, offset };
+		}
+		OrderRowMapper mapper = new OrderRowMapper();
+		return jdbcTemplate.query(sql, (rs, rowNum) -> new OrderTextSearchResponse.Hit(
+				mapper.mapRow(rs, rowNum), rs.getDouble("relevance")), args);
+	}
+	
+	/**
+	 * The orders with the given ids that still exist, in no particular order.
+	 */
+	public List<Order> getOrdersByIds(List<Integer> ids) {
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+		String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+		return jdbcTemplate.query("select * from orders where id in (" + placeholders + ")", new OrderRowMapper(),
+				ids.toArray());
+	}
+	
+	/**
+	 * Stream the id and text columns of the newest orders, newest first, for the in-memory n-gram index.
+	 */
+	public void streamOrderText(int maxOrders, Consumer<Order> consumer) {
+		RowCallbackHandler handler = rs -> {
+			Order order = new Order();
+			order.setId(rs.getInt("id"));
+			order.setCustomerName(rs.getString("customer_name"));
+			order.setDescription(rs.getString("description"));
+			order.setDeliveryAddress(rs.getString("delivery_address"));
+			consumer.accept(order);
+		};
+		jdbcTemplate.query(connection -> {
+			PreparedStatement statement = connection.prepareStatement(
+					"select id, customer_name, description, delivery_address from orders order by id desc limit ?",
+					ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			statement.setFetchSize(Integer.MIN_VALUE);
+			statement.setInt(1, maxOrders);
+			return statement;
+		}, handler);
+	}
+	
+	/**
+	 * A LIKE pattern matching names that start with the given text, which is matched literally.
+	 */
+	private static String toPrefixPattern(String text) {
+		if (text == null || text.isBlank()) {
+			return null;
+		}
+		return text.trim().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+	}
+	
+	private static String toDbStatus(OrderStatus status) {
+		return status == null ? "pending" : status.name().toLowerCase();
+	}
+	
+	private static String toDbPaymentType(PaymentType paymentType) {
+		return paymentType == null ? "cod" : paymentType.name().toLowerCase();
 	}
 	
 	private static class OrderRowMapper implements RowMapper<Order> {
@@ -146,6 +559,7 @@ public class OrderRepository {
 			order.setPaymentType(toPaymentType(rs.getString("payment_type")));
 			order.setOrderNotes(rs.getString("order_notes"));
 			order.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+			order.setVersion(rs.getInt("version"));
 			return order;
 		}
 		
@@ -0,0 +1,39 @@
+package mssu.in.restapi_app.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the assignments of a partial UPDATE. Column names are fixed in code; request values
+ * only ever reach the database as bound parameters.
+ */
+class SetClause {
+
+	private final List<String> assignments = new ArrayList<>();
+	private final List<Object> args = new ArrayList<>();
+
+	SetClause setIfPresent(String column, Object value) {
+		if (value != null) {
+			assignments.add(column + " = ?");
+			args.add(value);
+		}
+		return this;
+	}
+
+	SetClause set(String assignment) {
+		assignments.add(assignment);
+		return this;
+	}
+
+	boolean isEmpty() {
+		return assignments.isEmpty();
+	}
+
+	String toSql() {
+		return " set " + String.join(", ", assignments);
+	}
+
+	List<Object> args() {
+		return args;
+	}
+}
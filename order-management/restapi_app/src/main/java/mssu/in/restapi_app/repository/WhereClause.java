@@ -0,0 +1,38 @@
+package mssu.in.restapi_app.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects the conditions of a dynamic query. Conditions are fixed SQL fragments written in code;
+ * request values only ever reach the database as bound parameters.
+ */
+class WhereClause {
+
+	private final List<String> conditions = new ArrayList<>();
+	private final List<Object> args = new ArrayList<>();
+
+	WhereClause and(String condition, Object... values) {
+		conditions.add(condition);
+		args.addAll(Arrays.asList(values));
+		return this;
+	}
+
+	WhereClause andIfPresent(String condition, Object value) {
+		if (value != null) {
+			and(condition, value);
+		}
+		return this;
+	}
+
+	String toSql() {
+		return conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+	}
+
+	Object[] args(Object... trailing) {
+		List<Object> all = new ArrayList<>(args);
+		all.addAll(Arrays.asList(trailing));
+		return all.toArray();
+	}
+}
@@ -0,0 +1,13 @@
+package mssu.in.restapi_app.service;
+
+/**
+ * The order exists but its current status does not allow the requested ship, deliver or cancel.
+ */
+public class InvalidOrderTransitionException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public InvalidOrderTransitionException(String message) {
+		super(message);
+	}
+}
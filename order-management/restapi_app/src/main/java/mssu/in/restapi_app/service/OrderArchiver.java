@@ -0,0 +1,101 @@
+package mssu.in.restapi_app.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import mssu.in.restapi_app.repository.OrderRepository;
+
+/**
+ * Moves delivered and cancelled orders older than {@code orders.archive.min-age-days} from orders to
+ * orders_archive. Each batch of {@code batch-size} orders is locked, copied and deleted in its own
+ * short transaction, with a pause between batches and a cap on batches per run, so the archiver
+ * never holds many locks or saturates the database while the application serves traffic.
+ */
+@Component
+public class OrderArchiver {
+
+	private static final Logger log = LoggerFactory.getLogger(OrderArchiver.class);
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderCache orderCache;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Value("${orders.archive.enabled:true}")
+	private boolean enabled;
+
+	@Value("${orders.archive.min-age-days:90}")
+	private int minAgeDays;
+
+	@Value("${orders.archive.batch-size:500}")
+	private int batchSize;
+
+	@Value("${orders.archive.pause-ms:200}")
+	private long pauseMillis;
+
+	@Value("${orders.archive.max-batches-per-run:200}")
+	private int maxBatchesPerRun;
+
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	@Scheduled(initialDelayString = "${orders.archive.initial-delay-ms:60000}",
+			fixedDelayString = "${orders.archive.interval-ms:3600000}")
+	public void scheduledRun() {
+		if (enabled) {
+			archive();
+		}
+	}
+
+	/**
+	 * Archive eligible orders until none are left or the batch cap is reached.
+	 *
+	 * @return the number of orders moved to the archive
+	 */
+	public int archive() {
+		if (!running.compareAndSet(false, true)) {
+			throw new IllegalStateException("The archiver is already running.");
+		}
+		try {
+			LocalDate cutoff = LocalDate.now().minusDays(minAgeDays);
+			TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+			int archived = 0;
+			for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+				List<Integer> ids = transaction.execute(status -> {
+					List<Integer> locked = orderRepository.lockArchivableOrderIds(cutoff, batchSize);
+					orderRepository.moveToArchive(locked);
+					return locked;
+				});
+				archived += ids.size();
+				// Reads that do not ask for archived orders must stop seeing these
+				ids.forEach(orderCache::evict);
+				if (ids.size() < batchSize) {
+					break;
+				}
+				Thread.sleep(pauseMillis);
+			}
+			if (archived > 0) {
+				log.info("Archived {} orders completed before {}", archived, cutoff);
+			}
+			return archived;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("The archiver was interrupted.", e);
+		} finally {
+			running.set(false);
+		}
+	}
+}
@@ -0,0 +1,101 @@
+package mssu.in.restapi_app.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import mssu.in.restapi_app.dto.CacheStatsResponse;
+import mssu.in.restapi_app.entity.Order;
+
+/**
+ * In-memory caches in front of the order queries: a bounded cache of single orders by id, and a
+ * short-lived cache of list query results. Writes evict the affected order and drop every cached
+ * list. Inside a transaction the eviction waits until commit, so a concurrent read cannot cache the
+ * row as it was before the write.
+ */
+@Component
+public class OrderCache {
+
+	private final Cache<Integer, Order> orders;
+	private final Cache<String, List<Order>> lists;
+
+	public OrderCache(
+			@Value("${orders.cache.max-orders:10000}") long maxOrders,
+			@Value("${orders.cache.order-ttl-seconds:600}") long orderTtlSeconds,
+			@Value("${orders.cache.max-lists:500}") long maxLists,
+			@Value("${orders.cache.list-ttl-seconds:5}") long listTtlSeconds) {
+		this.orders = Caffeine.newBuilder()
+				.maximumSize(maxOrders)
+				.expireAfterWrite(Duration.ofSeconds(orderTtlSeconds))
+				.recordStats()
+				.build();
+		this.lists = Caffeine.newBuilder()
+				.maximumSize(maxLists)
+				.expireAfterWrite(Duration.ofSeconds(listTtlSeconds))
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * The cached order, loading it on a miss. Concurrent misses for the same id share one load,
+	 * and an eviction that races with a load removes the loaded value.
+	 */
+	public Order getOrder(Integer id, Function<Integer, Order> loader) {
+		return orders.get(id, loader);
+	}
+
+	public List<Order> getList(String key, Supplier<List<Order>> loader) {
+		return lists.get(key, k -> loader.get());
+	}
+
+	/**
+	 * Drop the order and all cached lists once the current transaction commits, or right away
+	 * when there is none.
+	 */
+	public void evict(Integer id) {
+		afterCommit(() -> {
+			orders.invalidate(id);
+			lists.invalidateAll();
+		});
+	}
+
+	/**
+	 * Drop all cached lists, e.g. after new orders were added.
+	 */
+	public void evictLists() {
+		afterCommit(lists::invalidateAll);
+	}
+
+	public List<CacheStatsResponse> getStats() {
+		return List.of(toResponse("orders", orders), toResponse("lists", lists));
+	}
+
+	private static CacheStatsResponse toResponse(String name, Cache<?, ?> cache) {
+		CacheStats stats = cache.stats();
+		return new CacheStatsResponse(name, cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+				stats.hitRate(), stats.evictionCount());
+	}
+
+	private static void afterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+}
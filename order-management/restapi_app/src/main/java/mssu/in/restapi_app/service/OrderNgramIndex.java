@@ -0,0 +1,214 @@
+package mssu.in.restapi_app.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import mssu.in.restapi_app.entity.Order;
+import mssu.in.restapi_app.repository.OrderRepository;
+
+/**
+ * In-memory index from the first two characters of every word of an order's customer name,
+ * description and delivery address (edge bigrams) to the ids of the orders containing such a word.
+ * It answers the short queries the FULLTEXT index cannot, and holds only ids, never text.
+ * <p>
+ * Lookups return candidates: an order added or edited since the last rebuild keeps the bigrams of
+ * its old text until then, and a deleted order stays in the index. Callers verify candidates
+ * against the current rows. The index is rebuilt from the newest {@code max-orders} orders on a
+ * fixed delay, starting right after startup; until the first build completes it is empty.
+ */
+@Component
+public class OrderNgramIndex {
+
+	private static final Logger log = LoggerFactory.getLogger(OrderNgramIndex.class);
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Value("${orders.text-search.ngram.max-orders:500000}")
+	private int maxOrders;
+
+	private Map<String, IdList> grams = new HashMap<>();
+
+	/** Orders added while a rebuild is scanning, replayed into the new index before it is published. */
+	private List<Order> addedDuringRebuild;
+
+	/**
+	 * Split text into lower-case words of letters and digits.
+	 */
+	public static List<String> words(String text) {
+		List<String> words = new ArrayList<>();
+		if (text == null) {
+			return words;
+		}
+		for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+			if (!word.isEmpty()) {
+				words.add(word);
+			}
+		}
+		return words;
+	}
+
+	/**
+	 * Index the text fields the order carries. Called after inserts and edits.
+	 */
+	public synchronized void add(Order order) {
+		addTo(grams, order, true);
+		if (addedDuringRebuild != null) {
+			addedDuringRebuild.add(order);
+		}
+	}
+
+	/**
+	 * Ids of the orders that may contain a word starting with each of the words, newest first.
+	 * Every word must have at least two characters.
+	 */
+	public synchronized int[] candidates(List<String> words) {
+		int[] result = null;
+		for (String word : words) {
+			IdList ids = grams.get(word.substring(0, 2));
+			if (ids == null) {
+				return new int[0];
+			}
+			result = result == null ? ids.toArray() : intersect(result, ids.toArray());
+		}
+		if (result == null) {
+			return new int[0];
+		}
+		for (int i = 0, j = result.length - 1; i < j; i++, j--) {
+			int id = result[i];
+			result[i] = result[j];
+			result[j] = id;
+		}
+		return result;
+	}
+
+	@Scheduled(initialDelayString = "${orders.text-search.ngram.initial-delay-ms:0}",
+			fixedDelayString = "${orders.text-search.ngram.refresh-ms:300000}")
+	public void rebuild() {
+		long started = System.nanoTime();
+		synchronized (this) {
+			addedDuringRebuild = new ArrayList<>();
+		}
+		Map<String, IdList> fresh = new HashMap<>();
+		long[] indexed = {0};
+		try {
+			orderRepository.streamOrderText(maxOrders, order -> {
+				addTo(fresh, order, false);
+				indexed[0]++;
+			});
+		} catch (RuntimeException e) {
+			synchronized (this) {
+				addedDuringRebuild = null;
+			}
+			throw e;
+		}
+		fresh.values().forEach(IdList::sortAndDeduplicate);
+		synchronized (this) {
+			for (Order order : addedDuringRebuild) {
+				addTo(fresh, order, true);
+			}
+			addedDuringRebuild = null;
+			grams = fresh;
+		}
+		log.info("N-gram index rebuilt from {} orders ({} bigrams) in {} ms", indexed[0], fresh.size(),
+				(System.nanoTime() - started) / 1_000_000);
+	}
+
+	private static void addTo(Map<String, IdList> grams, Order order, boolean sorted) {
+		Set<String> orderGrams = new LinkedHashSet<>();
+		for (String text : Arrays.asList(order.getCustomerName(), order.getDescription(), order.getDeliveryAddress())) {
+			for (String word : words(text)) {
+				if (word.length() >= 2) {
+					orderGrams.add(word.substring(0, 2));
+				}
+			}
+		}
+		for (String gram : orderGrams) {
+			IdList ids = grams.computeIfAbsent(gram, g -> new IdList());
+			if (sorted) {
+				ids.insert(order.getId());
+			} else {
+				ids.append(order.getId());
+			}
+		}
+	}
+
+	private static int[] intersect(int[] a, int[] b) {
+		int[] out = new int[Math.min(a.length, b.length)];
+		int i = 0;
+		int j = 0;
+		int n = 0;
+		while (i < a.length && j < b.length) {
+			if (a[i] < b[j]) {
+				i++;
+			} else if (a[i] > b[j]) {
+				j++;
+			} else {
+				out[n++] = a[i];
+				i++;
+				j++;
+			}
+		}
+		return Arrays.copyOf(out, n);
+	}
+
+	/**
+	 * A growable array of order ids, kept sorted ascending and free of duplicates once built.
+	 */
+	private static final class IdList {
+
+		private int[] ids = new int[4];
+		private int size;
+
+		void append(int id) {
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, Math.max(4, size * 2));
+			}
+			ids[size++] = id;
+		}
+
+		void insert(int id) {
+			if (size == 0 || ids[size - 1] < id) {
+				append(id);
+				return;
+			}
+			int position = Arrays.binarySearch(ids, 0, size, id);
+			if (position >= 0) {
+				return;
+			}
+			position = -position - 1;
+			append(0);
+			System.arraycopy(ids, position, ids, position + 1, size - 1 - position);
+			ids[position] = id;
+		}
+
+		void sortAndDeduplicate() {
+			Arrays.sort(ids, 0, size);
+			int n = 0;
+			for (int i = 0; i < size; i++) {
+				if (n == 0 || ids[n - 1] != ids[i]) {
+					ids[n++] = ids[i];
+				}
+			}
+			size = n;
+			ids = Arrays.copyOf(ids, size);
+		}
+
+		int[] toArray() {
+			return Arrays.copyOf(ids, size);
+		}
+	}
+}
@@ -1,116 +1,525 @@
 package mssu.in.restapi_app.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.DataTruncation;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import mssu.in.restapi_app.dto.BulkOrderResponse;
+import mssu.in.restapi_app.dto.CacheStatsResponse;
 import mssu.in.restapi_app.dto.OrderListResponse;
+import mssu.in.restapi_app.dto.OrderPageResponse;
+import mssu.in.restapi_app.dto.OrderSearchCriteria;
+import mssu.in.restapi_app.dto.OrderStatusChange;
+import mssu.in.restapi_app.dto.OrderSummaryRow;
+import mssu.in.restapi_app.dto.OrderTextSearchResponse;
+import mssu.in.restapi_app.dto.TimelineBucketRow;
 import mssu.in.restapi_app.entity.Order;
 import mssu.in.restapi_app.entity.OrderTimelineType;
 import mssu.in.restapi_app.entity.OrderStatus;
+import mssu.in.restapi_app.entity.OrderTransition;
 import mssu.in.restapi_app.entity.PaymentType;
+import mssu.in.restapi_app.entity.TimelineBucket;
 import mssu.in.restapi_app.repository.OrderRepository;
 
 @Service
 public class OrderService {
 	
+	private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+	
+	private static final int DEFAULT_SEARCH_LIMIT = 50;
+	private static final int MAX_SEARCH_LIMIT = 500;
+	private static final int EXPORT_FLUSH_ROWS = 1000;
+	private static final int MAX_HISTOGRAM_BUCKETS = 1000;
+	private static final int DEFAULT_TEXT_SEARCH_LIMIT = 20;
+	private static final int MAX_TEXT_SEARCH_LIMIT = 100;
+	private static final int MAX_TEXT_SEARCH_OFFSET = 1000;
+	private static final int NGRAM_VERIFY_BATCH = 200;
+	
 	@Autowired
 	private OrderRepository orderRepository;
 	
+	@Autowired
+	private ObjectMapper objectMapper;
+	
+	@Autowired
+	private OrderCache orderCache;
+	
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	
+	@Autowired
+	private OrderNgramIndex ngramIndex;
+	
+	@Autowired
+	private OrderArchiver orderArchiver;
+	
+	@Value("${orders.bulk.chunk-size:500}")
+	private int bulkChunkSize;
+	
+	@Value("${orders.bulk.max-orders:10000}")
+	private int bulkMaxOrders;
+	
+	@Value("${orders.text-search.min-fulltext-word:3}")
+	private int minFullTextWord;
+	
 	public List<Order> getAllOrders() {
 		return orderRepository.getAllOrders();
 	}
 	
+	/**
+	 * Write every order to the stream as newline-delimited JSON while it is read from the database.
+	 */
+	public void exportOrders(OutputStream out) throws IOException {
+		try (JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+			json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			long[] written = {0};
+			try {
+				orderRepository.streamAllOrders(order -> {
+					try {
+						json.writeObject(order);
+						json.writeRaw('\n');
+						if (++written[0] % EXPORT_FLUSH_ROWS == 0) {
+							json.flush();
+						}
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+		}
+	}
+	
+	@Transactional
 	public void addNewOrder(Order order) {
-		orderRepository.addNewOrder(order);
+		Integer id = orderRepository.addNewOrder(order);
+		orderRepository.addToDailySummary(List.of(id), 1);
+		order.setId(id);
+		ngramIndex.add(order);
+		orderCache.evictLists();
+	}
+	
+	/**
+	 * Validate the orders and insert the valid ones in batches of {@code orders.bulk.chunk-size}.
+	 * A batch the database rejects is retried row by row, so one bad order only fails itself.
+	 * Each batch commits on its own, together with its daily summary increments.
+	 */
+	public BulkOrderResponse addNewOrders(List<Order> orders) {
+		if (orders == null || orders.isEmpty()) {
+			throw new IllegalArgumentException("At least one order is required.");
+		}
+		if (orders.size() > bulkMaxOrders) {
+			throw new IllegalArgumentException("At most " + bulkMaxOrders + " orders can be added at once.");
+		}
+		
+		BulkOrderResponse.Item[] results = new BulkOrderResponse.Item[orders.size()];
+		List<Integer> valid = new ArrayList<>();
+		for (int i = 0; i < orders.size(); i++) {
+			String error = validateNewOrder(orders.get(i));
+			if (error == null) {
+				valid.add(i);
+			} else {
+				results[i] = BulkOrderResponse.Item.failed(i, error);
+			}
+		}
+		
+		for (int from = 0; from < valid.size(); from += bulkChunkSize) {
+			List<Integer> chunk = valid.subList(from, Math.min(from + bulkChunkSize, valid.size()));
+			try {
+				List<Integer> ids = insertAndSummarize(chunk.stream().map(orders::get).toList());
+				for (int i = 0; i < chunk.size(); i++) {
+					results[chunk.get(i)] = BulkOrderResponse.Item.inserted(chunk.get(i), ids.get(i));
+				}
+			} catch (DataAccessException e) {
+				for (Integer index : chunk) {
+					results[index] = insertOne(index, orders.get(index));
+				}
+			}
+		}
+		orderCache.evictLists();
+		return new BulkOrderResponse(Arrays.asList(results));
+	}
+	
+	private BulkOrderResponse.Item insertOne(int index, Order order) {
+		try {
+			return BulkOrderResponse.Item.inserted(index, insertAndSummarize(List.of(order)).get(0));
+		} catch (DataAccessException e) {
+			log.warn("Bulk order at index {} was rejected by the database", index, e);
+			return BulkOrderResponse.Item.failed(index, bulkInsertError(e));
+		}
+	}
+	
+	/**
+	 * Map a rejected insert to a short, stable message; the driver's own text stays in the server log.
+	 */
+	private static String bulkInsertError(DataAccessException e) {
+		if (e.getMostSpecificCause() instanceof DataTruncation) {
+			return "A field value is too long or out of range.";
+		}
+		if (e instanceof DuplicateKeyException) {
+			return "Order duplicates an existing order.";
+		}
+		if (e instanceof DataIntegrityViolationException) {
+			return "Order violates a database constraint.";
+		}
+		return "Order could not be saved.";
+	}
+	
+	private List<Integer> insertAndSummarize(List<Order> orders) {
+		return new TransactionTemplate(transactionManager).execute(status -> {
+			List<Integer> ids = orderRepository.addNewOrders(orders);
+			orderRepository.addToDailySummary(ids, 1);
+			for (int i = 0; i < orders.size(); i++) {
+				orders.get(i).setId(ids.get(i));
+				ngramIndex.add(orders.get(i));
+			}
+			return ids;
+		});
+	}
+	
+	private static String validateNewOrder(Order order) {
+		if (order == null) {
+			return "Order is required.";
+		}
+		if (order.getCustomerName() == null || order.getCustomerName().isBlank()) {
+			return "customerName is required.";
+		}
+		if (order.getDescription() == null || order.getDescription().isBlank()) {
+			return "description is required.";
+		}
+		if (order.getDeliveryAddress() == null || order.getDeliveryAddress().isBlank()) {
+			return "deliveryAddress is required.";
+		}
+		if (order.getQuantity() != null && order.getQuantity() <= 0) {
+			return "quantity must be positive.";
+		}
+		if (order.getTotalPrice() != null && order.getTotalPrice().signum() < 0) {
+			return "totalPrice must not be negative.";
+		}
+		return null;
 	}
 	
+	@Transactional
 	public void deleteOrder(Integer id) {
+		orderRepository.lockOrder(id);
+		orderRepository.addToDailySummary(List.of(id), -1);
 		orderRepository.deleteOrder(id);
+		orderCache.evict(id);
 	}
 	
+	/**
+	 * Apply the non-null fields of the order in a single UPDATE. Sending the {@code version} read
+	 * earlier makes the edit fail with {@link OptimisticLockingFailureException} if someone else
+	 * changed the order in the meantime. An edit of the order date, payment type or price also moves
+	 * the order's contribution in the daily summary, under a row lock taken first.
+	 */
+	@Transactional
 	public void editOrder(Order order) {
 		if (order == null || order.getId() == null) {
 			throw new IllegalArgumentException("Order id is required for update.");
 		}
+		if (order.getStatus() != null) {
+			throw new IllegalArgumentException("Status changes go through the ship, deliver and cancel endpoints.");
+		}
 		
-		Order existing = orderRepository.getOrderById(order.getId());
-		Order merged = mergeOrders(existing, order);
-		orderRepository.editOrder(merged);
+		boolean summaryChanges = order.getOrderDate() != null || order.getPaymentType() != null
+				|| order.getTotalPrice() != null;
+		if (summaryChanges) {
+			orderRepository.lockOrder(order.getId());
+			orderRepository.addToDailySummary(List.of(order.getId()), -1);
+		}
+		if (orderRepository.editOrder(order) == 0) {
+			// Only a failed edit pays for the lookup that tells a missing order from a stale version
+			Integer current = orderRepository.getOrderVersion(order.getId());
+			if (current == null) {
+				throw new EmptyResultDataAccessException("Order " + order.getId() + " not found.", 1);
+			}
+			throw new OptimisticLockingFailureException("Order " + order.getId() + " was modified concurrently: version "
+					+ order.getVersion() + " is stale, current version is " + current + ".");
+		}
+		if (summaryChanges) {
+			orderRepository.addToDailySummary(List.of(order.getId()), 1);
+		}
+		if (order.getCustomerName() != null || order.getDescription() != null || order.getDeliveryAddress() != null) {
+			ngramIndex.add(order);
+		}
+		orderCache.evict(order.getId());
+	}
+	
+	/**
+	 * Apply the transition with one guarded UPDATE per allowed source state and record it in the
+	 * status history and the daily summary in the same transaction. No row lock is taken: the UPDATE only matches while
+	 * the order is still in the source state, so concurrent callers cannot both succeed.
+	 */
+	@Transactional
+	public void transitionOrder(Integer id, OrderTransition transition) {
+		LocalDate today = LocalDate.now();
+		for (OrderStatus from : transition.getSources()) {
+			if (orderRepository.transitionOrder(id, from, transition, today)) {
+				orderRepository.addStatusHistory(id, from, transition.getTarget());
+				orderRepository.moveInDailySummary(id, from);
+				orderCache.evict(id);
+				return;
+			}
+		}
+		OrderStatus current = orderRepository.getOrderStatus(id);
+		if (current == null) {
+			throw new EmptyResultDataAccessException("Order " + id + " not found.", 1);
+		}
+		throw new InvalidOrderTransitionException("Cannot " + transition.name().toLowerCase() + " order " + id
+				+ " while it is " + current.name().toLowerCase() + ".");
+	}
+	
+	/**
+	 * The status transitions of the order, oldest first. Only an empty history pays for the lookup
+	 * that tells an order without transitions from a missing one.
+	 */
+	public List<OrderStatusChange> getStatusHistory(Integer id) {
+		List<OrderStatusChange> history = orderRepository.getStatusHistory(id);
+		if (history.isEmpty() && orderRepository.getOrderStatus(id) == null) {
+			throw new EmptyResultDataAccessException("Order " + id + " not found.", 1);
+		}
+		return history;
 	}
 	
 	public Order getOrderById(Integer id) {
-		return orderRepository.getOrderById(id);
+		return getOrderById(id, false);
+	}
+	
+	/**
+	 * The active order with the id, or, when asked and there is none, the archived one.
+	 * Only active orders are cached.
+	 */
+	public Order getOrderById(Integer id, boolean includeArchived) {
+		try {
+			return orderCache.getOrder(id, orderRepository::getOrderById);
+		} catch (EmptyResultDataAccessException e) {
+			if (!includeArchived) {
+				throw e;
+			}
+			return orderRepository.getArchivedOrderById(id);
+		}
+	}
+	
+	/**
+	 * Move old delivered and cancelled orders to the archive now instead of waiting for the schedule.
+	 */
+	public int archiveOrders() {
+		return orderArchiver.archive();
 	}
 	
 	public OrderListResponse getOrdersByStatus(OrderStatus status) {
-		return new OrderListResponse(orderRepository.getOrdersByStatus(status));
+		return new OrderListResponse(
+				orderCache.getList("status:" + status, () -> orderRepository.getOrdersByStatus(status)));
 	}
 	
 	public OrderListResponse getOrdersByPaymentType(PaymentType paymentType) {
-		return new OrderListResponse(orderRepository.getOrdersByPaymentType(paymentType));
+		return new OrderListResponse(
+				orderCache.getList("payment:" + paymentType, () -> orderRepository.getOrdersByPaymentType(paymentType)));
 	}
 	
 	public OrderListResponse getOrdersByTimeline(OrderTimelineType type, LocalDate date) {
-		List<Order> orders;
+		return new OrderListResponse(
+				orderCache.getList("timeline:" + type + ":" + date, () -> loadOrdersByTimeline(type, date)));
+	}
+	
+	private List<Order> loadOrdersByTimeline(OrderTimelineType type, LocalDate date) {
 		switch (type) {
 		case SHIPPED:
-			orders = orderRepository.getOrdersByShippingDate(date);
-			break;
+			return orderRepository.getOrdersByShippingDate(date);
 		case DELIVERED:
-			orders = orderRepository.getOrdersByDeliveryDate(date);
-			break;
+			return orderRepository.getOrdersByDeliveryDate(date);
 		case CREATED:
 		default:
-			orders = orderRepository.getOrdersByOrderDate(date);
-			break;
+			return orderRepository.getOrdersByOrderDate(date);
 		}
-		return new OrderListResponse(orders);
 	}
 	
-	private Order mergeOrders(Order base, Order updates) {
-		if (updates.getCustomerName() != null) {
-			base.setCustomerName(updates.getCustomerName());
-		}
-		if (updates.getCustomerContact() != null) {
-			base.setCustomerContact(updates.getCustomerContact());
+	public List<OrderSummaryRow> getDailySummary(LocalDate from, LocalDate to, OrderStatus status,
+			PaymentType paymentType) {
+		validateRange(from, to);
+		return orderRepository.getDailySummary(from, to, status, paymentType);
+	}
+	
+	public List<OrderSummaryRow> getSummaryBreakdown(LocalDate from, LocalDate to) {
+		validateRange(from, to);
+		return orderRepository.getSummaryBreakdown(from, to);
+	}
+	
+	/**
+	 * Recompute the daily summary from the orders table, e.g. to reconcile it after rows were
+	 * changed outside the application. Returns the number of summary rows written.
+	 */
+	@Transactional
+	public int rebuildDailySummary() {
+		return orderRepository.rebuildDailySummary();
+	}
+	
+	private static void validateRange(LocalDate from, LocalDate to) {
+		if (from.isAfter(to)) {
+			throw new IllegalArgumentException("from must not be after to.");
 		}
-		if (updates.getDescription() != null) {
-			base.setDescription(updates.getDescription());
+	}
+	
+	public List<CacheStatsResponse> getCacheStats() {
+		return orderCache.getStats();
+	}
+	
+	/**
+	 * Search customer names, descriptions and delivery addresses for orders with a word starting
+	 * with each word of the query. Words of one character are ignored. When every word is long
+	 * enough for the FULLTEXT index, results are ranked by its relevance; otherwise the in-memory
+	 * n-gram index supplies candidates, newest first, which are checked against the current rows.
+	 * Archived orders can be included in FULLTEXT searches; the n-gram index covers active orders only.
+	 */
+	public OrderTextSearchResponse textSearch(String query, Integer offset, Integer limit, boolean includeArchived) {
+		List<String> words = OrderNgramIndex.words(query).stream().filter(word -> word.length() >= 2).toList();
+		if (words.isEmpty()) {
+			throw new IllegalArgumentException("Search text needs a word of at least two characters.");
 		}
-		if (updates.getOrderDate() != null) {
-			base.setOrderDate(updates.getOrderDate());
+		int skip = offset == null ? 0 : offset;
+		if (skip < 0 || skip > MAX_TEXT_SEARCH_OFFSET) {
+			throw new IllegalArgumentException("offset must be between 0 and " + MAX_TEXT_SEARCH_OFFSET + ".");
 		}
-		if (updates.getShippingDate() != null) {
-			base.setShippingDate(updates.getShippingDate());
+		int pageSize = limit == null
+				? DEFAULT_TEXT_SEARCH_LIMIT
+				: Math.max(1, Math.min(limit, MAX_TEXT_SEARCH_LIMIT));
+		
+		if (words.stream().allMatch(word -> word.length() >= minFullTextWord)) {
+			// Every word is required and matched as a prefix; words only hold letters and digits,
+			// so they cannot carry boolean-mode operators
+			String booleanQuery = words.stream().map(word -> "+" + word + "*").collect(Collectors.joining(" "));
+			return textSearchPage("fulltext", orderRepository.fullTextSearch(booleanQuery, skip, pageSize + 1, includeArchived), skip,
+					pageSize);
 		}
-		if (updates.getDeliveryDate() != null) {
-			base.setDeliveryDate(updates.getDeliveryDate());
+		
+		int[] candidates = ngramIndex.candidates(words);
+		int wanted = skip + pageSize + 1;
+		List<OrderTextSearchResponse.Hit> hits = new ArrayList<>();
+		for (int from = 0; from < candidates.length && hits.size() < wanted; from += NGRAM_VERIFY_BATCH) {
+			List<Integer> batch = Arrays.stream(candidates, from, Math.min(from + NGRAM_VERIFY_BATCH, candidates.length))
+					.boxed().toList();
+			Map<Integer, Order> rows = new HashMap<>();
+			for (Order order : orderRepository.getOrdersByIds(batch)) {
+				rows.put(order.getId(), order);
+			}
+			for (Integer id : batch) {
+				Order order = rows.get(id);
+				if (order != null && containsWordPrefixes(order, words) && hits.size() < wanted) {
+					hits.add(new OrderTextSearchResponse.Hit(order, null));
+				}
+			}
 		}
-		if (updates.getStatus() != null) {
-			base.setStatus(updates.getStatus());
+		return textSearchPage("ngram", hits.size() > skip ? hits.subList(skip, hits.size()) : List.of(), skip,
+				pageSize);
+	}
+	
+	private static OrderTextSearchResponse textSearchPage(String method, List<OrderTextSearchResponse.Hit> hits,
+			int skip, int pageSize) {
+		if (hits.size() <= pageSize) {
+			return new OrderTextSearchResponse(method, hits, null);
 		}
-		if (updates.getDeliveryAddress() != null) {
-			base.setDeliveryAddress(updates.getDeliveryAddress());
+		return new OrderTextSearchResponse(method, hits.subList(0, pageSize), skip + pageSize);
+	}
+	
+	private static boolean containsWordPrefixes(Order order, List<String> prefixes) {
+		List<String> words = new ArrayList<>(OrderNgramIndex.words(order.getCustomerName()));
+		words.addAll(OrderNgramIndex.words(order.getDescription()));
+		words.addAll(OrderNgramIndex.words(order.getDeliveryAddress()));
+		return prefixes.stream().allMatch(prefix -> words.stream().anyMatch(word -> word.startsWith(prefix)));
+	}
+	
+	/**
+	 * One page of the orders whose timeline date is in the range, ordered by that date and id.
+	 */
+	public OrderPageResponse getOrdersByTimelineRange(OrderTimelineType type, LocalDate from, LocalDate to,
+			LocalDate afterDate, Integer afterId, Integer limit) {
+		validateRange(from, to);
+		int pageSize = limit == null ? DEFAULT_SEARCH_LIMIT : Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+		List<Order> orders = orderRepository.getOrdersByTimelineRange(type, from, to, afterDate, afterId, pageSize + 1);
+		if (orders.size() <= pageSize) {
+			return new OrderPageResponse(orders, null);
 		}
-		if (updates.getQuantity() != null) {
-			base.setQuantity(updates.getQuantity());
+		List<Order> page = orders.subList(0, pageSize);
+		Order last = page.get(pageSize - 1);
+		return new OrderPageResponse(page, last.getId(), timelineDate(type, last));
+	}
+	
+	/**
+	 * Order count and revenue for every bucket from the one containing {@code from} to the one
+	 * containing {@code to}, including empty buckets, so charts need no gap filling.
+	 */
+	public List<TimelineBucketRow> getTimelineHistogram(OrderTimelineType type, LocalDate from, LocalDate to,
+			TimelineBucket bucket) {
+		validateRange(from, to);
+		List<LocalDate> starts = new ArrayList<>();
+		for (LocalDate start = bucket.start(from); !start.isAfter(to); start = bucket.next(start)) {
+			if (starts.size() == MAX_HISTOGRAM_BUCKETS) {
+				throw new IllegalArgumentException("At most " + MAX_HISTOGRAM_BUCKETS + " buckets can be requested.");
+			}
+			starts.add(start);
 		}
-		if (updates.getTotalPrice() != null) {
-			base.setTotalPrice(updates.getTotalPrice());
+		Map<LocalDate, TimelineBucketRow> found = new HashMap<>();
+		for (TimelineBucketRow row : orderRepository.getTimelineHistogram(type, from, to, bucket)) {
+			found.put(row.getBucketStart(), row);
 		}
-		if (updates.getPaymentType() != null) {
-			base.setPaymentType(updates.getPaymentType());
+		List<TimelineBucketRow> histogram = new ArrayList<>(starts.size());
+		for (LocalDate start : starts) {
+			histogram.add(found.getOrDefault(start, new TimelineBucketRow(start, 0, BigDecimal.ZERO)));
 		}
-		if (updates.getOrderNotes() != null) {
-			base.setOrderNotes(updates.getOrderNotes());
+		return histogram;
+	}
+	
+	private static LocalDate timelineDate(OrderTimelineType type, Order order) {
+		switch (type) {
+		case SHIPPED:
+			return order.getShippingDate();
+		case DELIVERED:
+			return order.getDeliveryDate();
+		case CREATED:
+		default:
+			return order.getOrderDate();
 		}
-		if (updates.getCreatedAt() != null) {
-			base.setCreatedAt(updates.getCreatedAt());
+	}
+	
+	public OrderPageResponse searchOrders(OrderSearchCriteria criteria) {
+		int limit = criteria.getLimit() == null
+				? DEFAULT_SEARCH_LIMIT
+				: Math.max(1, Math.min(criteria.getLimit(), MAX_SEARCH_LIMIT));
+		// One extra row tells whether another page follows
+		List<Order> orders = orderRepository.searchOrders(criteria, limit + 1);
+		if (orders.size() <= limit) {
+			return new OrderPageResponse(orders, null);
 		}
-		return base;
+		List<Order> page = orders.subList(0, limit);
+		return new OrderPageResponse(page, page.get(limit - 1).getId());
 	}
 }
-
@@ -13,6 +13,19 @@ INSERT INTO orders (
     order_notes
 ) VALUES
 ('Ava Johnson', '555-1200', '50 premium gadget components', '2025-11-01', '2025-11-02', '2025-11-08', 'dispatched', '221B Baker Street, London', 50, 12500.00, 'paid', 'Expedite delivery'),
-('Liam Patel', '555-2255', 'Bulk wellness kits', '2025-11-03', NULL, NULL, 'pending', '742 Evergreen Terrace, Springfield', 80, 18400.00, 'COD', 'Customer will confirm shipping date'),
+('Liam Patel', '555-2255', 'Bulk wellness kits', '2025-11-03', NULL, NULL, 'pending', '742 Evergreen Terrace, Springfield', 80, 18400.00, 'cod', 'Customer will confirm shipping date'),
 ('Sofia Chen', '555-7788', 'Custom apparel order', '2025-10-28', '2025-10-30', '2025-11-05', 'delivered', '1600 Amphitheatre Parkway, Mountain View', 120, 27600.00, 'paid', 'Delivered to reception');
 
+
+-- Add the seed orders to the daily summary; LAST_INSERT_ID() is the id of the first row inserted above
+INSERT INTO order_daily_summary (summary_date, status, payment_type, order_count, revenue)
+SELECT * FROM (
+    SELECT COALESCE(order_date, DATE(created_at)) AS summary_date, status, payment_type,
+        COUNT(*) AS order_count, COALESCE(SUM(total_price), 0) AS revenue
+    FROM orders
+    WHERE id >= LAST_INSERT_ID()
+    GROUP BY COALESCE(order_date, DATE(created_at)), status, payment_type
+) AS delta
+ON DUPLICATE KEY UPDATE
+    order_daily_summary.order_count = order_daily_summary.order_count + delta.order_count,
+    order_daily_summary.revenue = order_daily_summary.revenue + delta.revenue;
@@ -10,7 +10,7 @@ CREATE TABLE IF NOT EXISTS orders (
     delivery_address TEXT NOT NULL,
     quantity INT,
     total_price DECIMAL(12, 2),
-    payment_type VARCHAR(32) NOT NULL DEFAULT 'COD',
+    payment_type VARCHAR(32) NOT NULL DEFAULT 'cod',
     order_notes TEXT,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     INDEX idx_orders_status (status),
@@ -20,3 +20,108 @@ CREATE TABLE IF NOT EXISTS orders (
     INDEX idx_orders_delivery_date (delivery_date)
 );
 
+-- Status and payment type are stored in lower case, so lookups compare the bare column
+-- (status = ?) and can use the indexes. Normalizes rows written before that rule.
+UPDATE orders SET status = LOWER(status), payment_type = LOWER(payment_type)
+WHERE CAST(status AS BINARY) <> CAST(LOWER(status) AS BINARY)
+   OR CAST(payment_type AS BINARY) <> CAST(LOWER(payment_type) AS BINARY);
+
+-- Composite indexes for /orders/search. InnoDB appends the primary key to every secondary
+-- index, so equality filters on the leading columns also return rows in id order for keyset paging.
+-- MySQL has no CREATE INDEX IF NOT EXISTS; each index is created only when missing.
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE()
+        AND table_name = 'orders' AND index_name = 'idx_orders_status_payment_type') = 0,
+    'CREATE INDEX idx_orders_status_payment_type ON orders (status, payment_type)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE()
+        AND table_name = 'orders' AND index_name = 'idx_orders_status_order_date') = 0,
+    'CREATE INDEX idx_orders_status_order_date ON orders (status, order_date)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE()
+        AND table_name = 'orders' AND index_name = 'idx_orders_customer_name') = 0,
+    'CREATE INDEX idx_orders_customer_name ON orders (customer_name)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Row version for optimistic concurrency: every edit increments it, and an edit that sends the
+-- version it read only applies while the row still has that version.
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns WHERE table_schema = DATABASE()
+        AND table_name = 'orders' AND column_name = 'version') = 0,
+    'ALTER TABLE orders ADD COLUMN version INT NOT NULL DEFAULT 0', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- One row per status transition (ship, deliver, cancel), written in the same transaction as the
+-- guarded UPDATE that made it.
+CREATE TABLE IF NOT EXISTS order_status_history (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    order_id INT NOT NULL,
+    from_status VARCHAR(32) NOT NULL,
+    to_status VARCHAR(32) NOT NULL,
+    changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_order_status_history_order (order_id, changed_at)
+);
+
+-- Order count and revenue per day (order_date, or the creation date when it is missing), status and
+-- payment type. Every write adjusts it with an upsert that adds the order's contribution (+1 / -1),
+-- so dashboards read a few rows instead of scanning orders.
+SET @summary_missing = (SELECT COUNT(*) = 0 FROM information_schema.tables WHERE table_schema = DATABASE()
+        AND table_name = 'order_daily_summary');
+
+CREATE TABLE IF NOT EXISTS order_daily_summary (
+    summary_date DATE NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    payment_type VARCHAR(32) NOT NULL,
+    order_count INT NOT NULL,
+    revenue DECIMAL(16, 2) NOT NULL,
+    PRIMARY KEY (summary_date, status, payment_type)
+);
+
+-- Backfill from existing orders the first time the table is created
+INSERT INTO order_daily_summary (summary_date, status, payment_type, order_count, revenue)
+SELECT COALESCE(order_date, DATE(created_at)), status, payment_type, COUNT(*), COALESCE(SUM(total_price), 0)
+FROM orders
+WHERE @summary_missing = 1
+GROUP BY COALESCE(order_date, DATE(created_at)), status, payment_type;
+
+-- Full-text index for GET /orders/text-search (customer names, product text, street names).
+-- InnoDB does not index words shorter than innodb_ft_min_token_size (3 by default); the service
+-- answers queries with shorter words from an in-memory prefix index instead.
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE()
+        AND table_name = 'orders' AND index_name = 'ft_orders_text') = 0,
+    'ALTER TABLE orders ADD FULLTEXT INDEX ft_orders_text (customer_name, description, delivery_address)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Cold storage for delivered and cancelled orders moved out of orders by the archiver, so the
+-- active table and its secondary indexes only hold live orders. Same columns, a lean index set.
+CREATE TABLE IF NOT EXISTS orders_archive (
+    id INT PRIMARY KEY,
+    customer_name VARCHAR(255) NOT NULL,
+    customer_contact VARCHAR(50),
+    description TEXT NOT NULL,
+    order_date DATE,
+    shipping_date DATE,
+    delivery_date DATE,
+    status VARCHAR(32) NOT NULL,
+    delivery_address TEXT NOT NULL,
+    quantity INT,
+    total_price DECIMAL(12, 2),
+    payment_type VARCHAR(32) NOT NULL,
+    order_notes TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    version INT NOT NULL DEFAULT 0,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_orders_archive_customer_name (customer_name),
+    INDEX idx_orders_archive_order_date (order_date),
+    FULLTEXT INDEX ft_orders_archive_text (customer_name, description, delivery_address)
+);
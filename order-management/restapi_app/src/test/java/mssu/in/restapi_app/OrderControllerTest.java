@@ -0,0 +1,156 @@
+package mssu.in.restapi_app;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import mssu.in.restapi_app.controller.OrderController;
+import mssu.in.restapi_app.entity.OrderTransition;
+import mssu.in.restapi_app.service.InvalidOrderTransitionException;
+import mssu.in.restapi_app.service.OrderService;
+
+@ExtendWith(MockitoExtension.class)
+class OrderControllerTest {
+
+	@Mock
+	private OrderService orderService;
+
+	@InjectMocks
+	private OrderController orderController;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.standaloneSetup(orderController).build();
+	}
+
+	@Test
+	void invalidTransitionReturnsConflict() throws Exception {
+		doThrow(new InvalidOrderTransitionException("Cannot ship order 8 while it is delivered."))
+				.when(orderService).transitionOrder(8, OrderTransition.SHIP);
+
+		mockMvc.perform(post("/orders/8/ship"))
+				.andExpect(status().isConflict())
+				.andExpect(content().string("Cannot ship order 8 while it is delivered."));
+	}
+
+	@Test
+	void staleVersionReturnsConflict() throws Exception {
+		doThrow(new OptimisticLockingFailureException("stale")).when(orderService).editOrder(any());
+
+		mockMvc.perform(put("/orders/edit").contentType(MediaType.APPLICATION_JSON).content("{\"id\": 5, \"version\": 1, \"quantity\": 2}"))
+				.andExpect(status().isConflict());
+	}
+
+	@Test
+	void statusEditReturnsBadRequest() throws Exception {
+		doThrow(new IllegalArgumentException("Status changes go through the ship, deliver and cancel endpoints."))
+				.when(orderService).editOrder(any());
+
+		mockMvc.perform(put("/orders/edit").contentType(MediaType.APPLICATION_JSON).content("{\"id\": 5, \"status\": \"DELIVERED\"}"))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().string("Status changes go through the ship, deliver and cancel endpoints."));
+	}
+
+	@Test
+	void oversizedBulkRequestReturnsBadRequest() throws Exception {
+		doThrow(new IllegalArgumentException("At most 10000 orders can be added at once."))
+				.when(orderService).addNewOrders(any());
+
+		mockMvc.perform(post("/orders/bulk").contentType(MediaType.APPLICATION_JSON).content("[{\"customerName\": \"A\"}]"))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().string("At most 10000 orders can be added at once."));
+	}
+
+	@Test
+	void emptyBulkRequestReturnsBadRequest() throws Exception {
+		doThrow(new IllegalArgumentException("At least one order is required.")).when(orderService).addNewOrders(any());
+
+		mockMvc.perform(post("/orders/bulk").contentType(MediaType.APPLICATION_JSON).content("[]"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void editWithoutFieldsReturnsBadRequest() throws Exception {
+		doThrow(new IllegalArgumentException("At least one field to update is required."))
+				.when(orderService).editOrder(any());
+
+		mockMvc.perform(put("/orders/edit").contentType(MediaType.APPLICATION_JSON).content("{\"id\": 5, \"version\": 1}"))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().string("At least one field to update is required."));
+	}
+
+	@Test
+	void summaryWithReversedRangeReturnsBadRequest() throws Exception {
+		doThrow(new IllegalArgumentException("from must not be after to."))
+				.when(orderService).getDailySummary(any(), any(), any(), any());
+
+		mockMvc.perform(get("/orders/summary/daily").param("from", "2025-11-30").param("to", "2025-11-01"))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().string("from must not be after to."));
+	}
+
+	@Test
+	void histogramWithTooManyBucketsReturnsBadRequest() throws Exception {
+		doThrow(new IllegalArgumentException("At most 1000 buckets can be requested."))
+				.when(orderService).getTimelineHistogram(any(), any(), any(), any());
+
+		mockMvc.perform(get("/orders/timeline/histogram").param("type", "CREATED")
+				.param("from", "2000-01-01").param("to", "2025-12-31"))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().string("At most 1000 buckets can be requested."));
+	}
+
+	@Test
+	void textSearchBeyondMaxOffsetReturnsBadRequest() throws Exception {
+		doThrow(new IllegalArgumentException("offset must be between 0 and 1000."))
+				.when(orderService).textSearch("patel", 5000, null, false);
+
+		mockMvc.perform(get("/orders/text-search").param("q", "patel").param("offset", "5000"))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().string("offset must be between 0 and 1000."));
+	}
+
+	@Test
+	void textSearchWithoutSearchableWordReturnsBadRequest() throws Exception {
+		doThrow(new IllegalArgumentException("Search text needs a word of at least two characters."))
+				.when(orderService).textSearch("a", null, null, false);
+
+		mockMvc.perform(get("/orders/text-search").param("q", "a"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void transitionOfMissingOrderReturnsNotFound() throws Exception {
+		doThrow(new EmptyResultDataAccessException("Order 9 not found.", 1))
+				.when(orderService).transitionOrder(9, OrderTransition.CANCEL);
+
+		mockMvc.perform(post("/orders/9/cancel"))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void historyOfMissingOrderReturnsNotFound() throws Exception {
+		doThrow(new EmptyResultDataAccessException("Order 9 not found.", 1)).when(orderService).getStatusHistory(9);
+
+		mockMvc.perform(get("/orders/9/history"))
+				.andExpect(status().isNotFound());
+	}
+}
@@ -2,23 +2,59 @@ package mssu.in.restapi_app;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.DataTruncation;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import mssu.in.restapi_app.dto.BulkOrderResponse;
+import mssu.in.restapi_app.dto.CacheStatsResponse;
+import mssu.in.restapi_app.dto.OrderListResponse;
+import mssu.in.restapi_app.dto.OrderPageResponse;
+import mssu.in.restapi_app.dto.OrderSearchCriteria;
+import mssu.in.restapi_app.dto.OrderTextSearchResponse;
+import mssu.in.restapi_app.dto.TimelineBucketRow;
 import mssu.in.restapi_app.entity.Order;
 import mssu.in.restapi_app.entity.OrderStatus;
+import mssu.in.restapi_app.entity.OrderTimelineType;
+import mssu.in.restapi_app.entity.OrderTransition;
 import mssu.in.restapi_app.entity.PaymentType;
+import mssu.in.restapi_app.entity.TimelineBucket;
 import mssu.in.restapi_app.repository.OrderRepository;
+import mssu.in.restapi_app.service.InvalidOrderTransitionException;
+import mssu.in.restapi_app.service.OrderArchiver;
+import mssu.in.restapi_app.service.OrderCache;
+import mssu.in.restapi_app.service.OrderNgramIndex;
 import mssu.in.restapi_app.service.OrderService;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,32 +63,80 @@ class OrderServiceTest {
 	@Mock
 	private OrderRepository orderRepository;
 
+	@Spy
+	private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@Mock
+	private OrderNgramIndex ngramIndex;
+
+	@Spy
+	private OrderCache orderCache = new OrderCache(100, 600, 100, 5);
+
+	@Mock
+	private OrderArchiver orderArchiver;
+
 	@InjectMocks
 	private OrderService orderService;
 
 	@Test
-	void editOrderShouldMergeNonNullFieldsOnly() {
-		Order existing = buildOrder(5, "Alice", "Initial description", OrderStatus.PENDING, 2, PaymentType.COD);
-		when(orderRepository.getOrderById(5)).thenReturn(existing);
-
+	void editOrderSendsPartialUpdateWithoutReadingTheOrder() {
 		Order updates = new Order();
 		updates.setId(5);
-		updates.setStatus(OrderStatus.DISPATCHED);
+		updates.setDescription("New description");
 		updates.setQuantity(10);
+		when(orderRepository.editOrder(updates)).thenReturn(1);
+
+		orderService.editOrder(updates);
+
+		verify(orderRepository).editOrder(updates);
+		verify(orderRepository, never()).getOrderById(any());
+		verify(orderRepository, never()).getOrderVersion(any());
+		verify(orderRepository, never()).lockOrder(any());
+	}
+
+	@Test
+	void editOrderOfPriceMovesTheDailySummaryContribution() {
+		Order updates = new Order();
+		updates.setId(5);
+		updates.setTotalPrice(new BigDecimal("80.00"));
+		when(orderRepository.editOrder(updates)).thenReturn(1);
 
 		orderService.editOrder(updates);
 
-		ArgumentCaptor<Order> captor = ArgumentCaptor.forClass(Order.class);
-		verify(orderRepository).editOrder(captor.capture());
-		Order merged = captor.getValue();
+		InOrder inOrder = inOrder(orderRepository);
+		inOrder.verify(orderRepository).lockOrder(5);
+		inOrder.verify(orderRepository).addToDailySummary(List.of(5), -1);
+		inOrder.verify(orderRepository).editOrder(updates);
+		inOrder.verify(orderRepository).addToDailySummary(List.of(5), 1);
+	}
+
+	@Test
+	void editOrderWithStaleVersionFailsWithConflict() {
+		Order updates = new Order();
+		updates.setId(5);
+		updates.setVersion(3);
+		updates.setQuantity(2);
+		when(orderRepository.editOrder(updates)).thenReturn(0);
+		when(orderRepository.getOrderVersion(5)).thenReturn(4);
+
+		assertThatThrownBy(() -> orderService.editOrder(updates))
+				.isInstanceOf(OptimisticLockingFailureException.class)
+				.hasMessageContaining("current version is 4");
+	}
+
+	@Test
+	void editOrderOfMissingOrderFailsWithNotFound() {
+		Order updates = new Order();
+		updates.setId(99);
+		updates.setQuantity(2);
+		when(orderRepository.editOrder(updates)).thenReturn(0);
+		when(orderRepository.getOrderVersion(99)).thenReturn(null);
 
-		verify(orderRepository).getOrderById(5);
-		// unchanged fields remain
-		assertThat(merged.getCustomerName()).isEqualTo("Alice");
-		assertThat(merged.getDescription()).isEqualTo("Initial description");
-		// updated fields changed
-		assertThat(merged.getStatus()).isEqualTo(OrderStatus.DISPATCHED);
-		assertThat(merged.getQuantity()).isEqualTo(10);
+		assertThatThrownBy(() -> orderService.editOrder(updates))
+				.isInstanceOf(EmptyResultDataAccessException.class);
 	}
 
 	@Test
@@ -62,6 +146,292 @@ class OrderServiceTest {
 				.hasMessageContaining("Order id is required");
 	}
 
+	@Test
+	void editOrderWithoutFieldsFailsBeforeTouchingCaches() {
+		Order updates = new Order();
+		updates.setId(5);
+		updates.setVersion(1);
+		when(orderRepository.editOrder(updates))
+				.thenThrow(new IllegalArgumentException("At least one field to update is required."));
+
+		assertThatThrownBy(() -> orderService.editOrder(updates))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("At least one field");
+		verify(orderRepository, never()).lockOrder(any());
+		verify(orderRepository, never()).getOrderVersion(any());
+	}
+
+	@Test
+	void editOrderRejectsStatusChanges() {
+		Order updates = new Order();
+		updates.setId(5);
+		updates.setStatus(OrderStatus.PENDING);
+
+		assertThatThrownBy(() -> orderService.editOrder(updates))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("ship, deliver and cancel");
+		verify(orderRepository, never()).editOrder(any());
+	}
+
+	@Test
+	void cancelTriesEachSourceStateAndRecordsTheOneThatMatched() {
+		when(orderRepository.transitionOrder(eq(8), eq(OrderStatus.PENDING), eq(OrderTransition.CANCEL), any()))
+				.thenReturn(false);
+		when(orderRepository.transitionOrder(eq(8), eq(OrderStatus.DISPATCHED), eq(OrderTransition.CANCEL), any()))
+				.thenReturn(true);
+
+		orderService.transitionOrder(8, OrderTransition.CANCEL);
+
+		verify(orderRepository).addStatusHistory(8, OrderStatus.DISPATCHED, OrderStatus.CANCELLED);
+		verify(orderRepository).moveInDailySummary(8, OrderStatus.DISPATCHED);
+	}
+
+	@Test
+	void deliverFromWrongStateFailsWithoutRecordingHistory() {
+		when(orderRepository.transitionOrder(eq(8), eq(OrderStatus.DISPATCHED), eq(OrderTransition.DELIVER), any()))
+				.thenReturn(false);
+		when(orderRepository.getOrderStatus(8)).thenReturn(OrderStatus.PENDING);
+
+		assertThatThrownBy(() -> orderService.transitionOrder(8, OrderTransition.DELIVER))
+				.isInstanceOf(InvalidOrderTransitionException.class)
+				.hasMessage("Cannot deliver order 8 while it is pending.");
+		verify(orderRepository, never()).addStatusHistory(any(), any(), any());
+	}
+
+	@Test
+	void transitionOfMissingOrderFailsWithNotFound() {
+		when(orderRepository.transitionOrder(eq(9), eq(OrderStatus.PENDING), eq(OrderTransition.SHIP), any()))
+				.thenReturn(false);
+		when(orderRepository.getOrderStatus(9)).thenReturn(null);
+
+		assertThatThrownBy(() -> orderService.transitionOrder(9, OrderTransition.SHIP))
+				.isInstanceOf(EmptyResultDataAccessException.class);
+	}
+
+	@Test
+	void statusHistoryOfMissingOrderFailsWithNotFound() {
+		when(orderRepository.getStatusHistory(9)).thenReturn(List.of());
+		when(orderRepository.getOrderStatus(9)).thenReturn(null);
+
+		assertThatThrownBy(() -> orderService.getStatusHistory(9))
+				.isInstanceOf(EmptyResultDataAccessException.class);
+	}
+
+	@Test
+	void getOrderByIdIsServedFromCacheUntilTheOrderIsEdited() {
+		Order order = buildOrder(3, "Alice", "d", OrderStatus.PENDING, 1, PaymentType.COD);
+		when(orderRepository.getOrderById(3)).thenReturn(order);
+		Order updates = new Order();
+		updates.setId(3);
+		updates.setQuantity(4);
+		when(orderRepository.editOrder(updates)).thenReturn(1);
+
+		orderService.getOrderById(3);
+		orderService.getOrderById(3);
+		verify(orderRepository, times(1)).getOrderById(3);
+
+		orderService.editOrder(updates);
+		orderService.getOrderById(3);
+		verify(orderRepository, times(2)).getOrderById(3);
+	}
+
+	@Test
+	void getOrderByIdFallsThroughToTheArchiveOnlyWhenAsked() {
+		Order archived = buildOrder(4, "Bob", "d", OrderStatus.DELIVERED, 1, PaymentType.PAID);
+		when(orderRepository.getOrderById(4)).thenThrow(new EmptyResultDataAccessException(1));
+		when(orderRepository.getArchivedOrderById(4)).thenReturn(archived);
+
+		assertThatThrownBy(() -> orderService.getOrderById(4)).isInstanceOf(EmptyResultDataAccessException.class);
+		verify(orderRepository, never()).getArchivedOrderById(any());
+
+		assertThat(orderService.getOrderById(4, true)).isSameAs(archived);
+	}
+
+	@Test
+	void statusListIsCachedAndReportedInStats() {
+		when(orderRepository.getOrdersByStatus(OrderStatus.PENDING)).thenReturn(List.of(
+				buildOrder(1, "A", "d", OrderStatus.PENDING, 1, PaymentType.COD)));
+
+		orderService.getOrdersByStatus(OrderStatus.PENDING);
+		OrderListResponse cached = orderService.getOrdersByStatus(OrderStatus.PENDING);
+
+		assertThat(cached.getCount()).isEqualTo(1);
+		verify(orderRepository, times(1)).getOrdersByStatus(OrderStatus.PENDING);
+		CacheStatsResponse lists = orderService.getCacheStats().get(1);
+		assertThat(lists.getName()).isEqualTo("lists");
+		assertThat(lists.getHitCount()).isEqualTo(1);
+		assertThat(lists.getMissCount()).isEqualTo(1);
+	}
+
+	@Test
+	void searchOrdersReturnsCursorWhenAnotherPageFollows() {
+		OrderSearchCriteria criteria = new OrderSearchCriteria();
+		criteria.setStatus(OrderStatus.PENDING);
+		criteria.setLimit(2);
+		when(orderRepository.searchOrders(criteria, 3)).thenReturn(List.of(
+				buildOrder(9, "A", "d", OrderStatus.PENDING, 1, PaymentType.COD),
+				buildOrder(7, "B", "d", OrderStatus.PENDING, 1, PaymentType.COD),
+				buildOrder(4, "C", "d", OrderStatus.PENDING, 1, PaymentType.COD)));
+
+		OrderPageResponse page = orderService.searchOrders(criteria);
+
+		assertThat(page.getCount()).isEqualTo(2);
+		assertThat(page.getOrders()).extracting(Order::getId).containsExactly(9, 7);
+		assertThat(page.getNextAfterId()).isEqualTo(7);
+	}
+
+	@Test
+	void searchOrdersCapsLimitAndEndsOnLastPage() {
+		OrderSearchCriteria criteria = new OrderSearchCriteria();
+		criteria.setLimit(10_000);
+		when(orderRepository.searchOrders(criteria, 501)).thenReturn(List.of(
+				buildOrder(3, "A", "d", OrderStatus.DELIVERED, 1, PaymentType.PAID)));
+
+		OrderPageResponse page = orderService.searchOrders(criteria);
+
+		assertThat(page.getCount()).isEqualTo(1);
+		assertThat(page.getNextAfterId()).isNull();
+	}
+
+	@Test
+	void timelineRangeReturnsDateAndIdCursor() {
+		LocalDate from = LocalDate.of(2025, 11, 1);
+		LocalDate to = LocalDate.of(2025, 11, 30);
+		Order first = buildOrder(4, "A", "d", OrderStatus.PENDING, 1, PaymentType.COD);
+		first.setOrderDate(LocalDate.of(2025, 11, 2));
+		Order second = buildOrder(2, "B", "d", OrderStatus.PENDING, 1, PaymentType.COD);
+		second.setOrderDate(LocalDate.of(2025, 11, 3));
+		when(orderRepository.getOrdersByTimelineRange(OrderTimelineType.CREATED, from, to, null, null, 2))
+				.thenReturn(List.of(first, second));
+
+		OrderPageResponse page = orderService.getOrdersByTimelineRange(OrderTimelineType.CREATED, from, to, null,
+				null, 1);
+
+		assertThat(page.getOrders()).extracting(Order::getId).containsExactly(4);
+		assertThat(page.getNextAfterDate()).isEqualTo(LocalDate.of(2025, 11, 2));
+		assertThat(page.getNextAfterId()).isEqualTo(4);
+	}
+
+	@Test
+	void timelineHistogramFillsEmptyWeeks() {
+		LocalDate from = LocalDate.of(2025, 11, 5);
+		LocalDate to = LocalDate.of(2025, 11, 20);
+		when(orderRepository.getTimelineHistogram(OrderTimelineType.SHIPPED, from, to, TimelineBucket.WEEK))
+				.thenReturn(List.of(new TimelineBucketRow(LocalDate.of(2025, 11, 10), 3, new BigDecimal("300.00"))));
+
+		List<TimelineBucketRow> histogram = orderService.getTimelineHistogram(OrderTimelineType.SHIPPED, from, to,
+				TimelineBucket.WEEK);
+
+		assertThat(histogram).extracting(TimelineBucketRow::getBucketStart).containsExactly(
+				LocalDate.of(2025, 11, 3), LocalDate.of(2025, 11, 10), LocalDate.of(2025, 11, 17));
+		assertThat(histogram).extracting(TimelineBucketRow::getOrderCount).containsExactly(0L, 3L, 0L);
+	}
+
+	@Test
+	void textSearchUsesFullTextWhenEveryWordIsLongEnough() {
+		ReflectionTestUtils.setField(orderService, "minFullTextWord", 3);
+		Order order = buildOrder(5, "Ann Smith", "d", OrderStatus.PENDING, 1, PaymentType.COD);
+		when(orderRepository.fullTextSearch("+smith* +road*", 0, 21, true))
+				.thenReturn(List.of(new OrderTextSearchResponse.Hit(order, 2.5)));
+
+		OrderTextSearchResponse response = orderService.textSearch("Smith, Road", null, null, true);
+
+		assertThat(response.getMethod()).isEqualTo("fulltext");
+		assertThat(response.getResults()).extracting(OrderTextSearchResponse.Hit::getRelevance).containsExactly(2.5);
+		assertThat(response.getNextOffset()).isNull();
+	}
+
+	@Test
+	void textSearchFallsBackToNgramIndexAndDropsStaleCandidates() {
+		ReflectionTestUtils.setField(orderService, "minFullTextWord", 3);
+		Order match = buildOrder(9, "Jo Mathew", "d", OrderStatus.PENDING, 1, PaymentType.COD);
+		Order stale = buildOrder(7, "Liam Patel", "d", OrderStatus.PENDING, 1, PaymentType.COD);
+		when(ngramIndex.candidates(List.of("jo", "ma"))).thenReturn(new int[] { 9, 7 });
+		when(orderRepository.getOrdersByIds(List.of(9, 7))).thenReturn(List.of(stale, match));
+
+		OrderTextSearchResponse response = orderService.textSearch("jo ma x", null, null, false);
+
+		assertThat(response.getMethod()).isEqualTo("ngram");
+		assertThat(response.getResults()).extracting(hit -> hit.getOrder().getId()).containsExactly(9);
+		verify(orderRepository, never()).fullTextSearch(any(), anyInt(), anyInt(), anyBoolean());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void exportOrdersWritesOneJsonLinePerOrder() throws Exception {
+		doAnswer(invocation -> {
+			Consumer<Order> consumer = invocation.getArgument(0);
+			consumer.accept(buildOrder(1, "Alice", "first", OrderStatus.PENDING, 1, PaymentType.COD));
+			consumer.accept(buildOrder(2, "Bob", "second", OrderStatus.DELIVERED, 3, PaymentType.PAID));
+			return null;
+		}).when(orderRepository).streamAllOrders(any(Consumer.class));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		orderService.exportOrders(out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertThat(lines).hasSize(2);
+		assertThat(objectMapper.readTree(lines[0]).get("customerName").asText()).isEqualTo("Alice");
+		assertThat(objectMapper.readTree(lines[1]).get("status").asText()).isEqualTo("DELIVERED");
+	}
+
+	@Test
+	void addNewOrdersInsertsValidOrdersInChunksAndReportsInvalidOnes() {
+		ReflectionTestUtils.setField(orderService, "bulkChunkSize", 2);
+		ReflectionTestUtils.setField(orderService, "bulkMaxOrders", 100);
+		Order first = buildOrder(0, "A", "d", OrderStatus.PENDING, 1, PaymentType.COD);
+		Order invalid = buildOrder(0, " ", "d", OrderStatus.PENDING, 1, PaymentType.COD);
+		Order second = buildOrder(0, "B", "d", OrderStatus.PENDING, 1, PaymentType.COD);
+		Order third = buildOrder(0, "C", "d", OrderStatus.PENDING, 1, PaymentType.COD);
+		when(orderRepository.addNewOrders(List.of(first, second))).thenReturn(List.of(11, 12));
+		when(orderRepository.addNewOrders(List.of(third))).thenReturn(List.of(13));
+
+		BulkOrderResponse response = orderService.addNewOrders(List.of(first, invalid, second, third));
+
+		assertThat(response.getInsertedCount()).isEqualTo(3);
+		assertThat(response.getFailedCount()).isEqualTo(1);
+		assertThat(response.getResults()).extracting(BulkOrderResponse.Item::getId).containsExactly(11, null, 12, 13);
+		assertThat(response.getResults().get(1).getError()).contains("customerName");
+		verify(orderRepository).addToDailySummary(List.of(11, 12), 1);
+		verify(orderRepository).addToDailySummary(List.of(13), 1);
+	}
+
+	@Test
+	void addNewOrdersRetriesRejectedChunkRowByRow() {
+		ReflectionTestUtils.setField(orderService, "bulkChunkSize", 10);
+		ReflectionTestUtils.setField(orderService, "bulkMaxOrders", 100);
+		Order good = buildOrder(0, "A", "d", OrderStatus.PENDING, 1, PaymentType.COD);
+		Order bad = buildOrder(0, "B", "d", OrderStatus.PENDING, 1, PaymentType.COD);
+		when(orderRepository.addNewOrders(List.of(good, bad)))
+				.thenThrow(new DataIntegrityViolationException("Data too long"));
+		when(orderRepository.addNewOrders(List.of(good))).thenReturn(List.of(21));
+		when(orderRepository.addNewOrders(List.of(bad))).thenThrow(new DataIntegrityViolationException(
+				"Data truncation: Data too long for column 'customer_name' at row 1",
+				new DataTruncation(1, true, false, 300, 255)));
+
+		BulkOrderResponse response = orderService.addNewOrders(List.of(good, bad));
+
+		assertThat(response.getResults().get(0).getId()).isEqualTo(21);
+		assertThat(response.getResults().get(1).getError()).isEqualTo("A field value is too long or out of range.");
+	}
+
+	@Test
+	void addNewOrdersReportsStableMessagesInsteadOfDriverText() {
+		ReflectionTestUtils.setField(orderService, "bulkChunkSize", 1);
+		ReflectionTestUtils.setField(orderService, "bulkMaxOrders", 100);
+		Order duplicate = buildOrder(0, "A", "d", OrderStatus.PENDING, 1, PaymentType.COD);
+		Order orphan = buildOrder(0, "B", "d", OrderStatus.PENDING, 1, PaymentType.COD);
+		when(orderRepository.addNewOrders(List.of(duplicate)))
+				.thenThrow(new DuplicateKeyException("Duplicate entry '7' for key 'orders.PRIMARY'"));
+		when(orderRepository.addNewOrders(List.of(orphan)))
+				.thenThrow(new DataIntegrityViolationException("Cannot add or update a child row: a foreign key constraint fails"));
+
+		BulkOrderResponse response = orderService.addNewOrders(List.of(duplicate, orphan));
+
+		assertThat(response.getResults()).extracting(BulkOrderResponse.Item::getError)
+				.containsExactly("Order duplicates an existing order.", "Order violates a database constraint.");
+	}
+
 	private static Order buildOrder(int id, String customerName, String description, OrderStatus status, int quantity,
 			PaymentType paymentType) {
 		Order order = new Order();